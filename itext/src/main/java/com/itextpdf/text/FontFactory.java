@@ -360,6 +360,17 @@ public final class FontFactory {
         return fontImp.registerDirectory(dir, scanSubdirectories);
     }
 
+    /**
+     * Sets a file where the names of the fonts found when registering a directory are kept,
+     * the font files that didn't change are registered from it without being read.
+     * @param path the path to the index file, <CODE>null</CODE> to scan all the font files
+     * @see FontFactoryImp#setFontIndex(String)
+     * @since 5.5.6
+     */
+    public static void setFontIndex(final String path) {
+        fontImp.setFontIndex(path);
+    }
+
     /** Register fonts in some probable directories. It usually works in Windows,
      * Linux and Solaris.
      * @return the number of fonts registered
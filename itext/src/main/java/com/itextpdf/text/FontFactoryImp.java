@@ -48,7 +48,12 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Hashtable;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import com.itextpdf.text.Font.FontFamily;
 import com.itextpdf.text.log.Level;
@@ -86,6 +91,12 @@ public class FontFactoryImp implements FontProvider {
 /** This is the default value of the <VAR>embedded</VAR> variable. */
     public boolean defaultEmbedding = BaseFont.NOT_EMBEDDED;
 
+/** The index of the font files, or null if the files are always read. */
+    private volatile FontIndex fontIndex;
+
+/** The executor the font files are read with, or null to read them on the calling thread. */
+    private volatile ExecutorService executor;
+
 /** Creates new FontFactory */
     public FontFactoryImp() {
         trueTypeFonts.put(FontFactory.COURIER.toLowerCase(), FontFactory.COURIER);
@@ -442,62 +453,11 @@ public class FontFactoryImp implements FontProvider {
 
     public void register(final String path, final String alias) {
         try {
-            if (path.toLowerCase().endsWith(".ttf") || path.toLowerCase().endsWith(".otf") || path.toLowerCase().indexOf(".ttc,") > 0) {
-                Object allNames[] = BaseFont.getAllFontNames(path, BaseFont.WINANSI, null);
-                trueTypeFonts.put(((String)allNames[0]).toLowerCase(), path);
-                if (alias != null) {
-                    trueTypeFonts.put(alias.toLowerCase(), path);
-                }
-                // register all the font names with all the locales
-                String[][] names = (String[][])allNames[2]; //full name
-                for (String[] name : names) {
-                    trueTypeFonts.put(name[3].toLowerCase(), path);
-                }
-                String fullName = null;
-                String familyName = null;
-                names = (String[][])allNames[1]; //family name
-                for (int k = 0; k < TTFamilyOrder.length; k += 3) {
-                    for (String[] name : names) {
-                        if (TTFamilyOrder[k].equals(name[0]) && TTFamilyOrder[k + 1].equals(name[1]) && TTFamilyOrder[k + 2].equals(name[2])) {
-                            familyName = name[3].toLowerCase();
-                            k = TTFamilyOrder.length;
-                            break;
-                        }
-                    }
-                }
-                if (familyName != null) {
-                    String lastName = "";
-                    names = (String[][])allNames[2]; //full name
-                    for (String[] name : names) {
-                        for (int k = 0; k < TTFamilyOrder.length; k += 3) {
-                            if (TTFamilyOrder[k].equals(name[0]) && TTFamilyOrder[k + 1].equals(name[1]) && TTFamilyOrder[k + 2].equals(name[2])) {
-                                fullName = name[3];
-                                if (fullName.equals(lastName))
-                                    continue;
-                                lastName = fullName;
-                                registerFamily(familyName, fullName, null);
-                                break;
-                            }
-                        }
-                    }
-                }
-            }
-            else if (path.toLowerCase().endsWith(".ttc")) {
-                if (alias != null)
-                    LOGGER.error("You can't define an alias for a true type collection.");
-                String[] names = BaseFont.enumerateTTCNames(path);
-                for (int i = 0; i < names.length; i++) {
-                    register(path + "," + i);
-                }
-            }
-            else if (path.toLowerCase().endsWith(".afm") || path.toLowerCase().endsWith(".pfm")) {
-                BaseFont bf = BaseFont.createFont(path, BaseFont.CP1252, false);
-                String fullName = bf.getFullFontName()[0][3].toLowerCase();
-                String familyName = bf.getFamilyFontName()[0][3].toLowerCase();
-                String psName = bf.getPostscriptFontName().toLowerCase();
-                registerFamily(familyName, fullName, null);
-                trueTypeFonts.put(psName, path);
-                trueTypeFonts.put(fullName, path);
+            if (alias != null && path.toLowerCase().endsWith(".ttc"))
+                LOGGER.error("You can't define an alias for a true type collection.");
+            registerFontNames(readFontNames(path));
+            if (alias != null && isTrueType(path)) {
+                trueTypeFonts.put(alias.toLowerCase(), path);
             }
             if (LOGGER.isLogging(Level.TRACE)) {
         		LOGGER.trace(String.format("Registered %s", path));
@@ -512,6 +472,113 @@ public class FontFactoryImp implements FontProvider {
         }
     }
 
+    private static boolean isTrueType(final String path) {
+        String lower = path.toLowerCase();
+        return lower.endsWith(".ttf") || lower.endsWith(".otf") || lower.indexOf(".ttc,") > 0;
+    }
+
+    /**
+     * Reads the names a font file is registered with, without registering them.
+     * @param path the path to a font file
+     * @return the names of every font in the file, empty if the file isn't a font
+     */
+    private static List<FontIndex.FontNames> readFontNames(final String path) throws DocumentException, IOException {
+        ArrayList<FontIndex.FontNames> fonts = new ArrayList<FontIndex.FontNames>();
+        if (isTrueType(path)) {
+            Object allNames[] = BaseFont.getAllFontNames(path, BaseFont.WINANSI, null);
+            ArrayList<String> names = new ArrayList<String>();
+            names.add(((String)allNames[0]).toLowerCase());
+            // register all the font names with all the locales
+            String[][] fullNames = (String[][])allNames[2]; //full name
+            for (String[] name : fullNames) {
+                names.add(name[3].toLowerCase());
+            }
+            String familyName = null;
+            String[][] familyNames = (String[][])allNames[1]; //family name
+            for (int k = 0; k < TTFamilyOrder.length; k += 3) {
+                for (String[] name : familyNames) {
+                    if (TTFamilyOrder[k].equals(name[0]) && TTFamilyOrder[k + 1].equals(name[1]) && TTFamilyOrder[k + 2].equals(name[2])) {
+                        familyName = name[3].toLowerCase();
+                        k = TTFamilyOrder.length;
+                        break;
+                    }
+                }
+            }
+            ArrayList<String> familyMembers = new ArrayList<String>();
+            if (familyName != null) {
+                String lastName = "";
+                for (String[] name : fullNames) {
+                    for (int k = 0; k < TTFamilyOrder.length; k += 3) {
+                        if (TTFamilyOrder[k].equals(name[0]) && TTFamilyOrder[k + 1].equals(name[1]) && TTFamilyOrder[k + 2].equals(name[2])) {
+                            String fullName = name[3];
+                            if (fullName.equals(lastName))
+                                continue;
+                            lastName = fullName;
+                            familyMembers.add(fullName);
+                            break;
+                        }
+                    }
+                }
+            }
+            fonts.add(new FontIndex.FontNames(path, names, familyName, familyMembers));
+        }
+        else if (path.toLowerCase().endsWith(".ttc")) {
+            String[] names = BaseFont.enumerateTTCNames(path);
+            for (int i = 0; i < names.length; i++) {
+                fonts.addAll(readFontNames(path + "," + i));
+            }
+        }
+        else if (path.toLowerCase().endsWith(".afm") || path.toLowerCase().endsWith(".pfm")) {
+            BaseFont bf = BaseFont.createFont(path, BaseFont.CP1252, false);
+            String fullName = bf.getFullFontName()[0][3].toLowerCase();
+            String familyName = bf.getFamilyFontName()[0][3].toLowerCase();
+            String psName = bf.getPostscriptFontName().toLowerCase();
+            ArrayList<String> names = new ArrayList<String>();
+            names.add(psName);
+            names.add(fullName);
+            ArrayList<String> familyMembers = new ArrayList<String>();
+            familyMembers.add(fullName);
+            fonts.add(new FontIndex.FontNames(path, names, familyName, familyMembers));
+        }
+        return fonts;
+    }
+
+    private void registerFontNames(final List<FontIndex.FontNames> fonts) {
+        for (FontIndex.FontNames font : fonts) {
+            for (String name : font.names) {
+                trueTypeFonts.put(name, font.path);
+            }
+            if (font.familyName != null) {
+                for (String fullName : font.fullNames) {
+                    registerFamily(font.familyName, fullName, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets a file where the names of the fonts found by {@link #registerDirectory(String, boolean)}
+     * are kept. The font files that didn't change since they were indexed, by size and
+     * modification time, are registered from the index without being read.
+     * The fonts themselves are only read when they are first used.
+     * @param path the path to the index file, it is created if it doesn't exist,
+     * <CODE>null</CODE> to scan all the font files
+     * @since 5.5.6
+     */
+    public void setFontIndex(final String path) {
+        fontIndex = path == null ? null : new FontIndex(new File(path));
+    }
+
+    /**
+     * Sets the executor the font files that aren't indexed are read with
+     * when registering a directory.
+     * @param executor the executor or <CODE>null</CODE> to read the files on the calling thread
+     * @since 5.5.6
+     */
+    public void setExecutor(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
     /** Register all the fonts in a directory.
      * @param dir the directory
      * @return the number of fonts registered
@@ -531,48 +598,131 @@ public class FontFactoryImp implements FontProvider {
     	if (LOGGER.isLogging(Level.DEBUG)) {
     		LOGGER.debug(String.format("Registering directory %s, looking for fonts", dir));
     	}
-        int count = 0;
+        ArrayList<String> paths = new ArrayList<String>();
         try {
-            File file = new File(dir);
-            if (!file.exists() || !file.isDirectory())
-                return 0;
-            String files[] = file.list();
-            if (files == null)
-                return 0;
-            for (int k = 0; k < files.length; ++k) {
+            listFontFiles(dir, scanSubdirectories, paths);
+        }
+        catch (Exception e) {
+            //empty on purpose
+        }
+        FontIndex index = fontIndex;
+        List<List<FontIndex.FontNames>> fonts = new ArrayList<List<FontIndex.FontNames>>();
+        ArrayList<Integer> stale = new ArrayList<Integer>();
+        for (int k = 0; k < paths.size(); ++k) {
+            List<FontIndex.FontNames> names = index == null ? null : index.get(new File(paths.get(k)));
+            if (names == null)
+                stale.add(Integer.valueOf(k));
+            fonts.add(names);
+        }
+        ExecutorService exec = executor;
+        if (exec == null || stale.size() < 2) {
+            for (Integer k : stale)
+                fonts.set(k.intValue(), scanFontFile(paths.get(k.intValue()), index));
+        }
+        else {
+            ArrayList<Future<List<FontIndex.FontNames>>> futures = new ArrayList<Future<List<FontIndex.FontNames>>>();
+            for (Integer k : stale)
+                futures.add(exec.submit(new FontScanner(paths.get(k.intValue()), index)));
+            for (int k = 0; k < futures.size(); ++k) {
                 try {
-                    file = new File(dir, files[k]);
-                    if (file.isDirectory()) {
-                        if (scanSubdirectories) {
-                            count += registerDirectory(file.getAbsolutePath(), true);
-                        }
-                    } else {
-                        String name = file.getPath();
-                        String suffix = name.length() < 4 ? null : name.substring(name.length() - 4).toLowerCase();
-                        if (".afm".equals(suffix) || ".pfm".equals(suffix)) {
-                            /* Only register Type 1 fonts with matching .pfb files */
-                            File pfb = new File(name.substring(0, name.length() - 4) + ".pfb");
-                            if (pfb.exists()) {
-                                register(name, null);
-                                ++count;
-                            }
-                        } else if (".ttf".equals(suffix) || ".otf".equals(suffix) || ".ttc".equals(suffix)) {
-                            register(name, null);
-                            ++count;
-                        }
-                    }
+                    fonts.set(stale.get(k).intValue(), futures.get(k).get());
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ExceptionConverter(e);
                 }
-                catch (Exception e) {
+                catch (ExecutionException e) {
                     //empty on purpose
                 }
             }
         }
-        catch (Exception e) {
-            //empty on purpose
+        // the fonts are registered in the order of the files whichever way their names were found
+        int count = 0;
+        for (int k = 0; k < paths.size(); ++k) {
+            List<FontIndex.FontNames> names = fonts.get(k);
+            if (names == null || names == FontIndex.UNREADABLE)
+                continue;
+            registerFontNames(names);
+            ++count;
+            if (LOGGER.isLogging(Level.TRACE)) {
+        		LOGGER.trace(String.format("Registered %s", paths.get(k)));
+        	}
         }
+        if (index != null)
+            index.save();
         return count;
     }
 
+    /**
+     * Lists the font files of a directory and possibly its subdirectories.
+     * Type 1 fonts are only listed with matching .pfb files.
+     */
+    private static void listFontFiles(final String dir, final boolean scanSubdirectories, final List<String> paths) {
+        File file = new File(dir);
+        if (!file.exists() || !file.isDirectory())
+            return;
+        String files[] = file.list();
+        if (files == null)
+            return;
+        for (int k = 0; k < files.length; ++k) {
+            try {
+                file = new File(dir, files[k]);
+                if (file.isDirectory()) {
+                    if (scanSubdirectories) {
+                        listFontFiles(file.getAbsolutePath(), true, paths);
+                    }
+                } else {
+                    String name = file.getPath();
+                    String suffix = name.length() < 4 ? null : name.substring(name.length() - 4).toLowerCase();
+                    if (".afm".equals(suffix) || ".pfm".equals(suffix)) {
+                        /* Only register Type 1 fonts with matching .pfb files */
+                        File pfb = new File(name.substring(0, name.length() - 4) + ".pfb");
+                        if (pfb.exists()) {
+                            paths.add(name);
+                        }
+                    } else if (".ttf".equals(suffix) || ".otf".equals(suffix) || ".ttc".equals(suffix)) {
+                        paths.add(name);
+                    }
+                }
+            }
+            catch (Exception e) {
+                //empty on purpose
+            }
+        }
+    }
+
+    /**
+     * Reads the names of a font file and adds them to the index.
+     * A file that can't be read is indexed as well, so that it isn't read again.
+     * @return the names or <CODE>null</CODE> if the file can't be read
+     */
+    private static List<FontIndex.FontNames> scanFontFile(final String path, final FontIndex index) {
+        try {
+            List<FontIndex.FontNames> names = readFontNames(path);
+            return index == null ? names : index.put(new File(path), names);
+        }
+        catch (Exception e) {
+            if (index != null)
+                index.put(new File(path), FontIndex.UNREADABLE);
+            return null;
+        }
+    }
+
+    /** Reads the names of a font file on a thread of the executor. */
+    private static class FontScanner implements Callable<List<FontIndex.FontNames>> {
+        private final String path;
+        private final FontIndex index;
+
+        FontScanner(final String path, final FontIndex index) {
+            this.path = path;
+            this.index = index;
+        }
+
+        public List<FontIndex.FontNames> call() {
+            return scanFontFile(path, index);
+        }
+    }
+
     /** Register fonts in some probable directories. It usually works in Windows,
      * Linux and Solaris.
      * @return the number of fonts registered
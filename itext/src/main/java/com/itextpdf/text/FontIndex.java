@@ -0,0 +1,291 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.itextpdf.text.log.Logger;
+import com.itextpdf.text.log.LoggerFactory;
+
+/**
+ * A persistent index of the names of the font files registered by {@link FontFactoryImp}.
+ * The names read from a font file are kept with the size and the modification time of the file,
+ * they are reused as long as the file doesn't change so that the registration doesn't need to
+ * parse the font files again. The files that can't be read as fonts are kept as well.
+ * The fonts are indexed with their absolute paths, so that the index can be used from any
+ * working directory.
+ *
+ * @since 5.5.6
+ */
+class FontIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FontIndex.class);
+
+    /** Identifies the index files, the last byte is the version of the format. */
+    private static final int MAGIC = 0x69544602;
+
+    /** Returned by {@link #get(File)} for a file that couldn't be read as a font when it was indexed. */
+    static final List<FontNames> UNREADABLE = Collections.unmodifiableList(new ArrayList<FontNames>(0));
+
+    /** The names registered for a font, a font collection has one per font. */
+    static class FontNames {
+        /** the path the names are registered with */
+        final String path;
+        /** the lower case names of the font */
+        final List<String> names;
+        /** the lower case family name or <CODE>null</CODE> */
+        final String familyName;
+        /** the full names registered with the family */
+        final List<String> fullNames;
+
+        FontNames(String path, List<String> names, String familyName, List<String> fullNames) {
+            this.path = path;
+            this.names = names;
+            this.familyName = familyName;
+            this.fullNames = fullNames;
+        }
+    }
+
+    /** The names of a font file as of its size and modification time. */
+    private static class Entry {
+        final long length;
+        final long lastModified;
+        final List<FontNames> fonts;
+
+        Entry(long length, long lastModified, List<FontNames> fonts) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.fonts = fonts;
+        }
+    }
+
+    private final File file;
+
+    /** The entries by the absolute path of the font file. */
+    private final HashMap<String, Entry> entries = new HashMap<String, Entry>();
+
+    private boolean modified = false;
+
+    /**
+     * Opens an index, a missing or unreadable index is empty.
+     * @param file the index file
+     */
+    FontIndex(File file) {
+        this.file = file;
+        // the previous index is only left aside if the last save didn't complete
+        File index = file.exists() ? file : getBackup();
+        if (index.exists()) {
+            try {
+                read(index);
+            }
+            catch (IOException e) {
+                LOGGER.warn(String.format("The font index %s can't be read, the fonts are scanned again.", file.getPath()));
+                entries.clear();
+            }
+        }
+    }
+
+    /**
+     * Gets the names of a font file if the file didn't change since they were indexed.
+     * @param fontFile the font file
+     * @return the names, {@link #UNREADABLE} if the file isn't a font or <CODE>null</CODE> if the file must be scanned
+     */
+    synchronized List<FontNames> get(File fontFile) {
+        Entry entry = entries.get(fontFile.getAbsolutePath());
+        if (entry == null || entry.length != fontFile.length() || entry.lastModified != fontFile.lastModified())
+            return null;
+        return entry.fonts;
+    }
+
+    /**
+     * Indexes the names of a font file. The paths of the fonts are made absolute.
+     * @param fontFile the font file
+     * @param fonts the names read from the file or {@link #UNREADABLE}
+     * @return the indexed names
+     */
+    synchronized List<FontNames> put(File fontFile, List<FontNames> fonts) {
+        String path = fontFile.getPath();
+        String absolutePath = fontFile.getAbsolutePath();
+        if (fonts != UNREADABLE && !path.equals(absolutePath)) {
+            ArrayList<FontNames> absoluteFonts = new ArrayList<FontNames>(fonts.size());
+            for (FontNames font : fonts) {
+                // a font of a collection is registered as path,index
+                String fontPath = font.path.startsWith(path) ? absolutePath + font.path.substring(path.length()) : font.path;
+                absoluteFonts.add(new FontNames(fontPath, font.names, font.familyName, font.fullNames));
+            }
+            fonts = absoluteFonts;
+        }
+        entries.put(absolutePath, new Entry(fontFile.length(), fontFile.lastModified(), fonts));
+        modified = true;
+        return fonts;
+    }
+
+    /**
+     * Writes the index if it changed. The entries of the font files that no longer exist are dropped.
+     */
+    synchronized void save() {
+        if (!modified)
+            return;
+        for (Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator(); it.hasNext();) {
+            if (!new File(it.next().getKey()).isFile())
+                it.remove();
+        }
+        // the index is replaced at once so that a concurrent reader never sees half of it
+        File temp = new File(file.getPath() + ".tmp");
+        try {
+            write(temp);
+            if (!temp.renameTo(file)) {
+                // renameTo doesn't replace an existing file on every platform,
+                // the old index is moved aside until the new one is in place
+                File backup = getBackup();
+                backup.delete();
+                if (!file.renameTo(backup))
+                    throw new IOException(file.getPath());
+                if (!temp.renameTo(file)) {
+                    backup.renameTo(file);
+                    throw new IOException(temp.getPath());
+                }
+                backup.delete();
+            }
+            modified = false;
+        }
+        catch (IOException e) {
+            temp.delete();
+            LOGGER.warn(String.format("The font index %s can't be written.", file.getPath()));
+        }
+    }
+
+    private File getBackup() {
+        return new File(file.getPath() + ".bak");
+    }
+
+    private void read(File index) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(index)));
+        try {
+            if (in.readInt() != MAGIC)
+                throw new IOException(index.getPath());
+            int fileCount = in.readInt();
+            for (int k = 0; k < fileCount; ++k) {
+                String path = in.readUTF();
+                long length = in.readLong();
+                long lastModified = in.readLong();
+                int fontCount = in.readInt();
+                if (fontCount < 0) {
+                    entries.put(path, new Entry(length, lastModified, UNREADABLE));
+                    continue;
+                }
+                ArrayList<FontNames> fonts = new ArrayList<FontNames>();
+                for (int f = 0; f < fontCount; ++f) {
+                    String fontPath = in.readUTF();
+                    String familyName = in.readBoolean() ? in.readUTF() : null;
+                    List<String> names = readStrings(in);
+                    List<String> fullNames = readStrings(in);
+                    fonts.add(new FontNames(fontPath, names, familyName, fullNames));
+                }
+                entries.put(path, new Entry(length, lastModified, fonts));
+            }
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    private void write(File out) throws IOException {
+        DataOutputStream os = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(out)));
+        try {
+            os.writeInt(MAGIC);
+            os.writeInt(entries.size());
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                Entry entry = e.getValue();
+                os.writeUTF(e.getKey());
+                os.writeLong(entry.length);
+                os.writeLong(entry.lastModified);
+                if (entry.fonts == UNREADABLE) {
+                    os.writeInt(-1);
+                    continue;
+                }
+                os.writeInt(entry.fonts.size());
+                for (FontNames font : entry.fonts) {
+                    os.writeUTF(font.path);
+                    os.writeBoolean(font.familyName != null);
+                    if (font.familyName != null)
+                        os.writeUTF(font.familyName);
+                    writeStrings(os, font.names);
+                    writeStrings(os, font.fullNames);
+                }
+            }
+        }
+        finally {
+            os.close();
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        ArrayList<String> strings = new ArrayList<String>();
+        for (int k = 0; k < count; ++k)
+            strings.add(in.readUTF());
+        return strings;
+    }
+
+    private static void writeStrings(DataOutputStream os, List<String> strings) throws IOException {
+        os.writeInt(strings.size());
+        for (String s : strings)
+            os.writeUTF(s);
+    }
+}
@@ -78,6 +78,20 @@ public class ByteBuffer extends OutputStream {
      */    
     public static boolean HIGH_PRECISION = false;
     private static final DecimalFormatSymbols dfs = new DecimalFormatSymbols(Locale.US);
+    private static final ThreadLocal<DecimalFormat> highPrecisionFormat = new ThreadLocal<DecimalFormat>() {
+        @Override
+        protected DecimalFormat initialValue() {
+            return new DecimalFormat("0.######", dfs);
+        }
+    };
+    /** The largest precision of {@link #setPrecision(int)}. */
+    private static final int MAX_PRECISION = 9;
+    private static final long[] powersOfTen = new long[] {1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L};
+    /** The room for a number: a sign, the 19 digits of a long, a dot and 3 spare bytes. */
+    private static final int MAX_NUMBER_LENGTH = 24;
+    
+    /** The number of decimal digits of the numbers appended, negative for the default format. */
+    private int precision = -1;
     
     /** Creates new ByteBuffer with capacity 128 */
     public ByteBuffer() {
@@ -272,7 +286,15 @@ public class ByteBuffer extends OutputStream {
      * @return a reference to this <CODE>ByteBuffer</CODE> object
      */
     public ByteBuffer append(long i) {
-        return append(Long.toString(i));
+        if (i == Long.MIN_VALUE)
+            return append(Long.toString(i));
+        ensureCapacity(count + MAX_NUMBER_LENGTH);
+        if (i < 0) {
+            buf[count++] = (byte)'-';
+            i = -i;
+        }
+        appendDigits(i, 1);
+        return this;
     }
     
     public ByteBuffer append(byte b) {
@@ -296,13 +318,40 @@ public class ByteBuffer extends OutputStream {
     
     /**
      * Appends a string representation of a <CODE>double</CODE> according
-     * to the Pdf conventions.
+     * to the Pdf conventions. The digits are written directly into the buffer
+     * with the precision of this buffer, see {@link #setPrecision(int)}.
      * @param d the <CODE>double</CODE> to be appended
      * @return a reference to this <CODE>ByteBuffer</CODE> object
      */
     public ByteBuffer append(double d) {
-        append(formatDouble(d, this));
-        return this;
+        if (precision >= 0)
+            return appendRounded(d, precision);
+        if (HIGH_PRECISION)
+            return append(highPrecisionFormat.get().format(d));
+        return appendDouble(d);
+    }
+    
+    /**
+     * Sets the number of decimal digits of the numbers appended to this buffer.
+     * The numbers are rounded half up and written without trailing zeros.
+     * A negative value, the default, uses the format of {@link #formatDouble(double)}.
+     * Values greater than 9 are treated as 9.
+     *
+     * @param precision the number of decimal digits or a negative value
+     * @since 5.5.6
+     */
+    public void setPrecision(int precision) {
+        if (precision > MAX_PRECISION) precision = MAX_PRECISION;
+        this.precision = precision < 0 ? -1 : precision;
+    }
+    
+    /**
+     * Gets the number of decimal digits of the numbers appended to this buffer.
+     * @return the number of decimal digits, or a negative value for the default format
+     * @since 5.5.6
+     */
+    public int getPrecision() {
+        return precision;
     }
     
     /**
@@ -324,8 +373,7 @@ public class ByteBuffer extends OutputStream {
      */
     public static String formatDouble(double d, ByteBuffer buf) {
         if (HIGH_PRECISION) {
-            DecimalFormat dn = new DecimalFormat("0.######", dfs);
-            String sform = dn.format(d);
+            String sform = highPrecisionFormat.get().format(d);
             if (buf == null)
                 return sform;
             else {
@@ -333,213 +381,139 @@ public class ByteBuffer extends OutputStream {
                 return null;
             }
         }
-        boolean negative = false;
+        if (buf != null) {
+            buf.appendDouble(d);
+            return null;
+        }
+        ByteBuffer res = new ByteBuffer(MAX_NUMBER_LENGTH);
+        res.appendDouble(d);
+        return res.toString();
+    }
+    
+    /**
+     * Writes a <CODE>double</CODE> directly into the buffer: with 5 decimal digits below 1,
+     * with 2 decimal digits up to 32767 and rounded to an integer above.
+     * @param d a double
+     * @return a reference to this <CODE>ByteBuffer</CODE> object
+     */
+    private ByteBuffer appendDouble(double d) {
+        ensureCapacity(count + MAX_NUMBER_LENGTH);
         if (Math.abs(d) < 0.000015) {
-            if (buf != null) {
-                buf.append(ZERO);
-                return null;
-            } else {
-                return "0";
-            }
+            buf[count++] = ZERO;
+            return this;
         }
+        boolean negative = false;
         if (d < 0) {
             negative = true;
             d = -d;
         }
         if (d < 1.0) {
             d += 0.000005;
+            if (negative) buf[count++] = (byte)'-';
             if (d >= 1) {
-                if (negative) {
-                    if (buf != null) {
-                        buf.append((byte)'-');
-                        buf.append((byte)'1');
-                        return null;
-                    } else {
-                        return "-1";
-                    }
-                } else {
-                    if (buf != null) {
-                        buf.append((byte)'1');
-                        return null;
-                    } else {
-                        return "1";
-                    }
-                }
-            }
-            if (buf != null) {
-                int v = (int) (d * 100000);
-                
-                if (negative) buf.append((byte)'-');
-                buf.append((byte)'0');
-                buf.append((byte)'.');
-                
-                buf.append( (byte)(v / 10000 + ZERO) );
-                if (v % 10000 != 0) {
-                    buf.append( (byte)((v / 1000) % 10 + ZERO) );
-                    if (v % 1000 != 0) {
-                        buf.append( (byte)((v / 100) % 10 + ZERO) );
-                        if (v % 100 != 0) {
-                            buf.append((byte)((v / 10) % 10 + ZERO) );
-                            if (v % 10 != 0) {
-                                buf.append((byte)((v) % 10 + ZERO) );
-                            }
-                        }
-                    }
-                }
-                return null;
-            } else {
-                int x = 100000;
-                int v = (int) (d * x);
-                
-                StringBuilder res = new StringBuilder();
-                if (negative) res.append('-');
-                res.append("0.");
-                
-                while( v < x/10 ) {
-                    res.append('0');
-                    x /= 10;
-                }
-                res.append(v);
-                int cut = res.length() - 1;
-                while (res.charAt(cut) == '0') {
-                    --cut;
-                }
-                res.setLength(cut + 1);
-                return res.toString();
+                buf[count++] = (byte)'1';
+                return this;
             }
+            int v = (int) (d * 100000);
+            buf[count++] = ZERO;
+            buf[count++] = (byte)'.';
+            appendFraction(v, 5);
         } else if (d <= 32767) {
             d += 0.005;
             int v = (int) (d * 100);
-            
+            if (negative) buf[count++] = (byte)'-';
             if (v < byteCacheSize && byteCache[v] != null) {
-                if (buf != null) {
-                    if (negative) buf.append((byte)'-');
-                    buf.append(byteCache[v]);
-                    return null;
-                } else {
-                    String tmp = PdfEncodings.convertToString(byteCache[v], null);
-                    if (negative) tmp = "-" + tmp;
-                    return tmp;
-                }
+                byte[] cache = byteCache[v];
+                System.arraycopy(cache, 0, buf, count, cache.length);
+                count += cache.length;
+                return this;
             }
-            if (buf != null) {
-                if (v < byteCacheSize) {
-                    //create the cachebyte[]
-                    byte[] cache;
-                    int size = 0;
-                    if (v >= 1000000) {
-                        //the original number is >=10000, we need 5 more bytes
-                        size += 5;
-                    } else if (v >= 100000) {
-                        //the original number is >=1000, we need 4 more bytes
-                        size += 4;
-                    } else if (v >= 10000) {
-                        //the original number is >=100, we need 3 more bytes
-                        size += 3;
-                    } else if (v >= 1000) {
-                        //the original number is >=10, we need 2 more bytes
-                        size += 2;
-                    } else if (v >= 100) {
-                        //the original number is >=1, we need 1 more bytes
-                        size += 1;
-                    }
-                    
-                    //now we must check if we have a decimal number
-                    if (v % 100 != 0) {
-                        //yes, do not forget the "."
-                        size += 2;
-                    }
-                    if (v % 10 != 0) {
-                        size++;
-                    }
-                    cache = new byte[size];
-                    int add = 0;
-                    if (v >= 1000000) {
-                        cache[add++] = bytes[(v / 1000000)];
-                    }
-                    if (v >= 100000) {
-                        cache[add++] = bytes[(v / 100000) % 10];
-                    }
-                    if (v >= 10000) {
-                        cache[add++] = bytes[(v / 10000) % 10];
-                    }
-                    if (v >= 1000) {
-                        cache[add++] = bytes[(v / 1000) % 10];
-                    }
-                    if (v >= 100) {
-                        cache[add++] = bytes[(v / 100) % 10];
-                    }
-                    
-                    if (v % 100 != 0) {
-                        cache[add++] = (byte)'.';
-                        cache[add++] = bytes[(v / 10) % 10];
-                        if (v % 10 != 0) {
-                            cache[add++] = bytes[v % 10];
-                        }
-                    }
-                    byteCache[v] = cache;
-                }
-                
-                if (negative) buf.append((byte)'-');
-                if (v >= 1000000) {
-                    buf.append( bytes[(v / 1000000)] );
-                }
-                if (v >= 100000) {
-                    buf.append( bytes[(v / 100000) % 10] );
-                }
-                if (v >= 10000) {
-                    buf.append( bytes[(v / 10000) % 10] );
-                }
-                if (v >= 1000) {
-                    buf.append( bytes[(v / 1000) % 10] );
-                }
-                if (v >= 100) {
-                    buf.append( bytes[(v / 100) % 10] );
-                }
-                
-                if (v % 100 != 0) {
-                    buf.append((byte)'.');
-                    buf.append( bytes[(v / 10) % 10] );
-                    if (v % 10 != 0) {
-                        buf.append( bytes[v % 10] );
-                    }
-                }
-                return null;
-            } else {
-                StringBuilder res = new StringBuilder();
-                if (negative) res.append('-');
-                if (v >= 1000000) {
-                    res.append( chars[(v / 1000000)] );
-                }
-                if (v >= 100000) {
-                    res.append( chars[(v / 100000) % 10] );
-                }
-                if (v >= 10000) {
-                    res.append( chars[(v / 10000) % 10] );
-                }
-                if (v >= 1000) {
-                    res.append( chars[(v / 1000) % 10] );
-                }
-                if (v >= 100) {
-                    res.append( chars[(v / 100) % 10] );
-                }
-                
-                if (v % 100 != 0) {
-                    res.append('.');
-                    res.append( chars[(v / 10) % 10] );
-                    if (v % 10 != 0) {
-                        res.append( chars[v % 10] );
-                    }
-                }
-                return res.toString();
+            int start = count;
+            appendDigits(v / 100, 1);
+            if (v % 100 != 0) {
+                buf[count++] = (byte)'.';
+                appendFraction(v % 100, 2);
+            }
+            if (v < byteCacheSize) {
+                byte[] cache = new byte[count - start];
+                System.arraycopy(buf, start, cache, 0, cache.length);
+                byteCache[v] = cache;
             }
         } else {
             d += 0.5;
             long v = (long) d;
-            if (negative) 
-                return "-" + Long.toString(v);
-            else
-                return Long.toString(v);
+            if (negative) buf[count++] = (byte)'-';
+            appendDigits(v, 1);
+        }
+        return this;
+    }
+    
+    /**
+     * Writes a <CODE>double</CODE> rounded to a number of decimal digits directly into the buffer.
+     * @param d a double
+     * @param precision the number of decimal digits, from 0 to 9
+     * @return a reference to this <CODE>ByteBuffer</CODE> object
+     */
+    private ByteBuffer appendRounded(double d, int precision) {
+        boolean negative = false;
+        if (d < 0) {
+            negative = true;
+            d = -d;
+        }
+        long scale = powersOfTen[precision];
+        double scaled = d * scale + 0.5;
+        if (!(scaled < Long.MAX_VALUE))
+            // NaN or beyond the range of a long, the PDF has no use for the decimals anyway
+            return appendDouble(negative ? -d : d);
+        long v = (long) scaled;
+        ensureCapacity(count + MAX_NUMBER_LENGTH);
+        if (v == 0) {
+            buf[count++] = ZERO;
+            return this;
+        }
+        if (negative) buf[count++] = (byte)'-';
+        appendDigits(v / scale, 1);
+        if (v % scale != 0) {
+            buf[count++] = (byte)'.';
+            appendFraction(v % scale, precision);
+        }
+        return this;
+    }
+    
+    /**
+     * Writes the decimal digits of a positive number, left padded with zeros.
+     * The buffer must have room for the digits.
+     */
+    private void appendDigits(long v, int minDigits) {
+        int digits = 1;
+        for (long t = v / 10; t > 0; t /= 10)
+            ++digits;
+        if (digits < minDigits)
+            digits = minDigits;
+        for (int k = count + digits - 1; k >= count; --k) {
+            buf[k] = bytes[(int)(v % 10)];
+            v /= 10;
+        }
+        count += digits;
+    }
+    
+    /**
+     * Writes the digits of a nonzero fraction, given as a number of decimal digits, without the trailing zeros.
+     * The buffer must have room for the digits.
+     */
+    private void appendFraction(long v, int digits) {
+        while (v % 10 == 0) {
+            v /= 10;
+            --digits;
+        }
+        appendDigits(v, digits);
+    }
+    
+    private void ensureCapacity(int newcount) {
+        if (newcount > buf.length) {
+            byte newbuf[] = new byte[Math.max(buf.length << 1, newcount)];
+            System.arraycopy(buf, 0, newbuf, 0, count);
+            buf = newbuf;
         }
     }
     
@@ -55,10 +55,8 @@ import com.itextpdf.text.error_messages.MessageLocalization;
 import com.itextpdf.text.pdf.fonts.cmaps.CMapByteCid;
 import com.itextpdf.text.pdf.fonts.cmaps.CMapCache;
 import com.itextpdf.text.pdf.fonts.cmaps.CMapCidUni;
-import com.itextpdf.text.pdf.fonts.cmaps.CMapParserEx;
 import com.itextpdf.text.pdf.fonts.cmaps.CMapSequence;
 import com.itextpdf.text.pdf.fonts.cmaps.CMapToUnicode;
-import com.itextpdf.text.pdf.fonts.cmaps.CidLocationFromByte;
 import com.itextpdf.text.pdf.fonts.cmaps.IdentityToUnicode;
 
 
@@ -130,9 +128,7 @@ public class CMapAwareDocumentFont extends DocumentFont {
         if (toUni instanceof PRStream){
             try {
                 byte[] touni = PdfReader.getStreamBytes((PRStream)toUni);
-                CidLocationFromByte lb = new CidLocationFromByte(touni);
-                toUnicodeCmap = new CMapToUnicode();
-                CMapParserEx.parseCid("", toUnicodeCmap, lb);
+                toUnicodeCmap = CMapCache.getCachedCMapToUnicode(touni);
                 uni2cid = toUnicodeCmap.createReverseMapping();
             } catch (IOException e) {
                 toUnicodeCmap = null;
@@ -48,9 +48,8 @@ import com.itextpdf.text.DocumentException;
 import com.itextpdf.text.ExceptionConverter;
 import com.itextpdf.text.Utilities;
 import com.itextpdf.text.io.RandomAccessSourceFactory;
-import com.itextpdf.text.pdf.fonts.cmaps.CMapParserEx;
+import com.itextpdf.text.pdf.fonts.cmaps.CMapCache;
 import com.itextpdf.text.pdf.fonts.cmaps.CMapToUnicode;
-import com.itextpdf.text.pdf.fonts.cmaps.CidLocationFromByte;
 
 import java.io.IOException;
 import java.util.HashMap;
@@ -464,9 +463,7 @@ public class DocumentFont extends BaseFont {
         if (toUni instanceof PRStream) {
             try {
                 byte[] touni = PdfReader.getStreamBytes((PRStream)toUni);
-                CidLocationFromByte lb = new CidLocationFromByte(touni);
-                cmapRet = new CMapToUnicode();
-                CMapParserEx.parseCid("", cmapRet, lb);
+                cmapRet = CMapCache.getCachedCMapToUnicode(touni);
             } catch (Exception e) {
                 cmapRet = null;
             }
@@ -46,6 +46,7 @@ package com.itextpdf.text.pdf;
 
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -93,10 +94,18 @@ class FontDetails {
      */
     byte shortTag[];
     /**
-     * The map used with double byte encodings. The key is Integer(glyph) and
-     * the value is int[]{glyph, width, Unicode code}
+     * The glyphs used with double byte encodings, one bit per glyph index.
      */
-    HashMap<Integer, int[]> longTag;
+    BitSet usedGlyphs;
+    /**
+     * The metrics of the glyphs used with double byte encodings in the order of
+     * their first use, <CODE>{glyph, width, Unicode code}</CODE> for every glyph.
+     */
+    int glyphMetrics[];
+    /**
+     * The number of glyphs in <CODE>glyphMetrics</CODE>.
+     */
+    int glyphCount;
     /**
      * IntHashtable with CIDs of CJK glyphs that are used in the text.
      */
@@ -138,7 +147,8 @@ class FontDetails {
                 cjkFont = (CJKFont)baseFont;
                 break;
             case BaseFont.FONT_TYPE_TTUNI:
-                longTag = new HashMap<Integer, int[]>();
+                usedGlyphs = new BitSet();
+                glyphMetrics = new int[3 * 64];
                 ttu = (TrueTypeFontUnicode)baseFont;
                 symbolic = baseFont.isFontSpecific();
                 break;
@@ -182,9 +192,7 @@ class FontDetails {
                 if (vchar != 0) {
                     sb.append(Utilities.convertFromUtf32(vchar));
                 }
-                Integer gl = Integer.valueOf(gid);
-                if (!longTag.containsKey(gl))
-                    longTag.put(gl, new int[]{gid, width, vchar});
+                addGlyph(gid, width, vchar);
             }
             return new Object[]{gids.getBytes(CJKFont.CJK_ENCODING), sb.toString(), Integer.valueOf(totalWidth)};
         }
@@ -253,7 +261,7 @@ class FontDetails {
                             metrics = ttu.getMetricsTT(b[k] & 0xff);
                             if (metrics == null)
                                 continue;
-                            longTag.put(Integer.valueOf(metrics[0]), new int[]{metrics[0], metrics[1], ttu.getUnicodeDifferences(b[k] & 0xff)});
+                            addGlyph(metrics[0], metrics[1], ttu.getUnicodeDifferences(b[k] & 0xff));
                             glyph[i++] = (char)metrics[0];
                         }
                     } else if (canApplyGlyphSubstitution()) {
@@ -272,9 +280,7 @@ class FontDetails {
                     		if (metrics == null)
                     			continue;
                     		int m0 = metrics[0];
-                    		Integer gl = Integer.valueOf(m0);
-                    		if (!longTag.containsKey(gl))
-                    			longTag.put(gl, new int[]{m0, metrics[1], val});
+                    		addGlyph(m0, metrics[1], val);
                     		glyph[i++] = (char)m0;
                     	}
                     }
@@ -345,17 +351,46 @@ class FontDetails {
         for (int i = 0; i < glyphList.size(); i++) {
             Glyph glyph = glyphList.get(i); 
             charEncodedGlyphCodes[i] = (char) glyph.code;
-            Integer glyphCode = Integer.valueOf(glyph.code);
-            
-            if (!longTag.containsKey(glyphCode)) {
-                // FIXME: this is buggy as the 3rd arg. should be a String as a Glyph can represent more than 1 char
-                longTag.put(glyphCode, new int[]{glyph.code,  glyph.width, glyph.chars.charAt(0)}); 
-            }
+            // FIXME: this is buggy as the 3rd arg. should be a String as a Glyph can represent more than 1 char
+            addGlyph(glyph.code, glyph.width, glyph.chars.charAt(0));
         }
         
         return new String(charEncodedGlyphCodes).getBytes(CJKFont.CJK_ENCODING);
     }
     
+    /**
+     * Marks a glyph as used. The metrics of a glyph already used are kept.
+     * @param glyph the glyph index
+     * @param width the glyph width
+     * @param unicode the Unicode code of the glyph
+     */
+    private void addGlyph(int glyph, int width, int unicode) {
+        if (usedGlyphs.get(glyph))
+            return;
+        usedGlyphs.set(glyph);
+        int k = glyphCount * 3;
+        if (k == glyphMetrics.length) {
+            int[] newMetrics = new int[glyphMetrics.length * 2];
+            System.arraycopy(glyphMetrics, 0, newMetrics, 0, k);
+            glyphMetrics = newMetrics;
+        }
+        glyphMetrics[k] = glyph;
+        glyphMetrics[k + 1] = width;
+        glyphMetrics[k + 2] = unicode;
+        ++glyphCount;
+    }
+
+    /**
+     * Gets the glyphs used with double byte encodings as the font writers expect them.
+     * @return a map with the glyph as key and <CODE>int[]{glyph, width, Unicode code}</CODE> as value
+     */
+    HashMap<Integer, int[]> getLongTag() {
+        HashMap<Integer, int[]> longTag = new HashMap<Integer, int[]>(glyphCount * 2);
+        for (int k = 0; k < glyphCount * 3; k += 3)
+            longTag.put(Integer.valueOf(glyphMetrics[k]), new int[]{glyphMetrics[k], glyphMetrics[k + 1], glyphMetrics[k + 2]});
+        return longTag;
+    }
+
     private GlyphRepositioner getGlyphRepositioner() {
     	Language language = ttu.getSupportedLanguage();
     	
@@ -404,7 +439,7 @@ class FontDetails {
                     baseFont.writeFont(writer, indirectReference, new Object[]{cjkTag});
                     break;
                 case BaseFont.FONT_TYPE_TTUNI:
-                    baseFont.writeFont(writer, indirectReference, new Object[]{longTag, Boolean.valueOf(subset)});
+                    baseFont.writeFont(writer, indirectReference, new Object[]{getLongTag(), Boolean.valueOf(subset)});
                     break;
             }
         }
@@ -0,0 +1,303 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf;
+
+import com.itextpdf.text.Document;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A process wide cache of the embedded font programs of the Unicode TrueType and OpenType fonts.
+ * The font program streams are kept already subset and compressed, together with the /W arrays,
+ * so that documents embedding the same font with the same glyphs, even on different threads,
+ * don't subset and compress the font again.
+ * <p>
+ * A font is identified by its name and its table directory, the same font read from a file
+ * or from a byte array shares the cached programs. The least recently used programs are
+ * discarded when the cache grows over its maximum size.
+ * <p>
+ * The cache is only used when the streams are compressed, see {@link Document#compress}.
+ *
+ * @since 5.5.6
+ */
+public final class FontProgramCache {
+
+    /** The default maximum size of the cache in bytes. */
+    public static final long DEFAULT_MAX_SIZE = 8 * 1024 * 1024;
+
+    private static long maxSize = DEFAULT_MAX_SIZE;
+
+    private static long size = 0;
+
+    private static final LinkedHashMap<Key, Object> entries = new LinkedHashMap<Key, Object>(16, 0.75f, true);
+
+    private FontProgramCache() {
+    }
+
+    /**
+     * Sets the maximum size of the cache. The size of a font program is the length of
+     * the compressed stream, the size of a /W array is the length of its string.
+     * The least recently used entries are discarded to fit the new size.
+     * @param maxSize the maximum size in bytes, 0 disables the cache
+     */
+    public static void setMaxSize(long maxSize) {
+        if (maxSize < 0)
+            maxSize = 0;
+        synchronized (entries) {
+            FontProgramCache.maxSize = maxSize;
+            trim();
+        }
+    }
+
+    /**
+     * Gets the maximum size of the cache.
+     * @return the maximum size in bytes
+     */
+    public static long getMaxSize() {
+        synchronized (entries) {
+            return maxSize;
+        }
+    }
+
+    /**
+     * Gets the size of the cached font programs and /W arrays.
+     * @return the size in bytes
+     */
+    public static long getSize() {
+        synchronized (entries) {
+            return size;
+        }
+    }
+
+    /**
+     * Discards all the cached font programs and /W arrays.
+     */
+    public static void clear() {
+        synchronized (entries) {
+            entries.clear();
+            size = 0;
+        }
+    }
+
+    /**
+     * Gets a cached font program.
+     * @param font the font
+     * @param glyphs the glyphs of the subset or <CODE>null</CODE> for the full font program
+     * @return a new stream with the cached program or <CODE>null</CODE> if it isn't cached
+     */
+    static PdfStream getFontProgram(TrueTypeFontUnicode font, Set<Integer> glyphs) {
+        if (!isEnabled(font))
+            return null;
+        Program program = (Program)get(new Key(font, glyphs, font.compressionLevel, false));
+        if (program == null)
+            return null;
+        PdfStream stream = new PdfStream(program.bytes);
+        if (program.length1 < 0)
+            stream.put(PdfName.SUBTYPE, new PdfName("CIDFontType0C"));
+        else
+            stream.put(new PdfName("Length1"), new PdfNumber(program.length1));
+        stream.put(PdfName.FILTER, PdfName.FLATEDECODE);
+        stream.compressionLevel = font.compressionLevel;
+        stream.compressed = true;
+        return stream;
+    }
+
+    /**
+     * Caches a font program.
+     * @param font the font
+     * @param glyphs the glyphs of the subset or <CODE>null</CODE> for the full font program
+     * @param stream the compressed font program stream
+     */
+    static void putFontProgram(TrueTypeFontUnicode font, Set<Integer> glyphs, PdfStream stream) {
+        if (!isEnabled(font) || !stream.compressed || stream.streamBytes == null)
+            return;
+        PdfNumber length1 = stream.getAsNumber(new PdfName("Length1"));
+        put(new Key(font, glyphs, stream.compressionLevel, false),
+                new Program(stream.streamBytes.toByteArray(), length1 == null ? -1 : length1.intValue()));
+    }
+
+    /**
+     * Gets the /W array of the glyphs, from the cache if possible.
+     * @param font the font
+     * @param metrics the glyph metrics sorted by glyph
+     * @return the /W array or <CODE>null</CODE> if all the glyphs have the default width
+     */
+    static String getWidthsArray(TrueTypeFontUnicode font, int metrics[][]) {
+        if (!isEnabled(font))
+            return font.getWidthsArray(metrics);
+        int widths[] = new int[metrics.length];
+        BitSet glyphs = new BitSet();
+        for (int k = 0; k < metrics.length; ++k) {
+            glyphs.set(metrics[k][0]);
+            widths[k] = metrics[k][1];
+        }
+        Key key = new Key(font, glyphs, 0, true);
+        Widths cached = (Widths)get(key);
+        // the widths of a glyph may have been changed with setCharAdvance()
+        if (cached != null && Arrays.equals(cached.widths, widths))
+            return cached.array;
+        String array = font.getWidthsArray(metrics);
+        put(key, new Widths(widths, array));
+        return array;
+    }
+
+    private static boolean isEnabled(TrueTypeFontUnicode font) {
+        return Document.compress && font.programIdentity != null && getMaxSize() > 0;
+    }
+
+    private static Object get(Key key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private static void put(Key key, Object entry) {
+        int entrySize = sizeOf(entry);
+        synchronized (entries) {
+            if (entrySize > maxSize)
+                return;
+            Object old = entries.put(key, entry);
+            if (old != null)
+                size -= sizeOf(old);
+            size += entrySize;
+            trim();
+        }
+    }
+
+    private static void trim() {
+        Iterator<Map.Entry<Key, Object>> it = entries.entrySet().iterator();
+        while (size > maxSize && it.hasNext()) {
+            size -= sizeOf(it.next().getValue());
+            it.remove();
+        }
+    }
+
+    private static int sizeOf(Object entry) {
+        if (entry instanceof Program)
+            return ((Program)entry).bytes.length;
+        Widths widths = (Widths)entry;
+        return widths.widths.length * 4 + (widths.array == null ? 0 : widths.array.length() * 2);
+    }
+
+    /** Identifies a font program or /W array by the font, the glyphs and the compression level. */
+    private static class Key {
+        private final String font;
+        private final boolean cff;
+        private final BitSet glyphs;
+        private final int compressionLevel;
+        private final boolean widths;
+        private final int hash;
+
+        Key(TrueTypeFontUnicode font, Set<Integer> glyphs, int compressionLevel, boolean widths) {
+            this(font, toBitSet(glyphs), compressionLevel, widths);
+        }
+
+        Key(TrueTypeFontUnicode font, BitSet glyphs, int compressionLevel, boolean widths) {
+            this.font = font.programIdentity;
+            this.cff = font.cff;
+            this.glyphs = glyphs;
+            this.compressionLevel = compressionLevel;
+            this.widths = widths;
+            int h = this.font.hashCode();
+            h = h * 31 + (glyphs == null ? 0 : glyphs.hashCode());
+            h = h * 31 + compressionLevel;
+            h = h * 31 + (cff ? 1 : 0) + (widths ? 2 : 0);
+            hash = h;
+        }
+
+        private static BitSet toBitSet(Set<Integer> glyphs) {
+            if (glyphs == null)
+                return null;
+            BitSet set = new BitSet();
+            for (Integer glyph : glyphs)
+                set.set(glyph.intValue());
+            return set;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key))
+                return false;
+            Key other = (Key)obj;
+            return hash == other.hash && cff == other.cff && widths == other.widths
+                    && compressionLevel == other.compressionLevel && font.equals(other.font)
+                    && (glyphs == null ? other.glyphs == null : glyphs.equals(other.glyphs));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /** A compressed font program. */
+    private static class Program {
+        /** the compressed program, shared by all the streams made from it */
+        private final byte bytes[];
+        /** the length of the TrueType program or -1 for a CFF program */
+        private final int length1;
+
+        Program(byte bytes[], int length1) {
+            this.bytes = bytes;
+            this.length1 = length1;
+        }
+    }
+
+    /** A /W array and the widths it was made from. */
+    private static class Widths {
+        private final int widths[];
+        private final String array;
+
+        Widths(int widths[], String array) {
+            this.widths = widths;
+            this.array = array;
+        }
+    }
+}
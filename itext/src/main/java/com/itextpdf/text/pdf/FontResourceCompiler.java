@@ -0,0 +1,140 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf;
+
+import com.itextpdf.text.io.RandomAccessSourceFactory;
+import com.itextpdf.text.io.StreamUtil;
+import com.itextpdf.text.pdf.fonts.cmaps.CMapCompiler;
+import com.itextpdf.text.pdf.fonts.cmaps.CidLocation;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Tool that compiles the glyph list and the CMap resources into the binary forms
+ * loaded by {@link GlyphList} and {@link CMapCompiler}, so that the first use of a CJK font
+ * doesn't have to tokenize the PostScript CMaps. The text resources stay the fallback when the
+ * compiled ones are missing. The compiled resources are kept next to the text ones and
+ * regenerated with the compiled-font-resources profile after changing them.
+ * <p>
+ * Usage: <CODE>FontResourceCompiler &lt;fonts resource directory&gt; [&lt;output directory&gt;]</CODE>,
+ * the resource directory holds glyphlist.txt and the cmaps directory.
+ *
+ * @since 5.5.6
+ */
+public class FontResourceCompiler {
+
+    /**
+     * Compiles the glyph list and every CMap of a resource directory.
+     * @param resourceDir the directory with glyphlist.txt and the cmaps directory
+     * @param outputDir the directory to write the compiled resources to, with the same layout
+     * @return the number of compiled resources
+     * @throws IOException on error
+     */
+    public static int compile(File resourceDir, File outputDir) throws IOException {
+        int count = 0;
+        File glyphList = new File(resourceDir, "glyphlist.txt");
+        if (glyphList.isFile()) {
+            InputStream is = new FileInputStream(glyphList);
+            byte[] text;
+            try {
+                text = StreamUtil.inputStreamToArray(is);
+            }
+            finally {
+                is.close();
+            }
+            outputDir.mkdirs();
+            OutputStream out = new FileOutputStream(new File(outputDir, GlyphList.COMPILED_GLYPH_LIST));
+            try {
+                GlyphList.compile(text, out);
+            }
+            finally {
+                out.close();
+            }
+            ++count;
+        }
+        final File cmapDir = new File(resourceDir, "cmaps");
+        File[] files = cmapDir.listFiles();
+        if (files != null) {
+            File cmapOutputDir = new File(outputDir, "cmaps");
+            cmapOutputDir.mkdirs();
+            CidLocation location = new CidLocation() {
+                public PRTokeniser getLocation(String location) throws IOException {
+                    String path = new File(cmapDir, location).getPath();
+                    return new PRTokeniser(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createBestSource(path)));
+                }
+            };
+            for (File file : files) {
+                // the CMap resources are the files without an extension
+                if (!file.isFile() || file.getName().indexOf('.') >= 0)
+                    continue;
+                OutputStream out = new FileOutputStream(new File(cmapOutputDir, file.getName() + CMapCompiler.COMPILED_SUFFIX));
+                try {
+                    CMapCompiler.compile(file.getName(), location, out);
+                }
+                finally {
+                    out.close();
+                }
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.out.println("Usage:  FontResourceCompiler <fonts resource directory> [<output directory>]");
+            return;
+        }
+        File resourceDir = new File(args[0]);
+        File outputDir = args.length == 2 ? new File(args[1]) : resourceDir;
+        int count = compile(resourceDir, outputDir);
+        System.out.println("Compiled " + count + " font resources to " + outputDir);
+    }
+}
@@ -47,52 +47,46 @@ package com.itextpdf.text.pdf;
 import com.itextpdf.text.io.StreamUtil;
 import com.itextpdf.text.pdf.fonts.FontsResourceAnchor;
 
-import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.TreeMap;
 
 public class GlyphList {
     private static HashMap<Integer, String> unicode2names = new HashMap<Integer, String>();
     private static HashMap<String, int[]> names2unicode = new HashMap<String, int[]>();
 
+    /**
+     * The name of the compiled glyph list, loaded instead of glyphlist.txt when present.
+     * @since 5.5.6
+     */
+    static final String COMPILED_GLYPH_LIST = "glyphlist.bin";
+
+    private static final int MAGIC = 0x69474C01;
+
     static {
         InputStream is = null;
         try {
-            is = StreamUtil.getResourceStream(BaseFont.RESOURCE_PATH + "glyphlist.txt", new FontsResourceAnchor().getClass().getClassLoader());
-            if (is == null) {
-                String msg = "glyphlist.txt not found as resource. (It must exist as resource in the package com.itextpdf.text.pdf.fonts)";
-                throw new Exception(msg);
-            }
-            byte buf[] = new byte[1024];
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            while (true) {
-                int size = is.read(buf);
-                if (size < 0)
-                    break;
-                out.write(buf, 0, size);
+            ClassLoader loader = new FontsResourceAnchor().getClass().getClassLoader();
+            is = StreamUtil.getResourceStream(BaseFont.RESOURCE_PATH + COMPILED_GLYPH_LIST, loader);
+            if (is == null || !readCompiled(ByteBuffer.wrap(StreamUtil.inputStreamToArray(is)), unicode2names, names2unicode)) {
+                if (is != null)
+                    is.close();
+                is = StreamUtil.getResourceStream(BaseFont.RESOURCE_PATH + "glyphlist.txt", loader);
+                if (is == null) {
+                    String msg = "glyphlist.txt not found as resource. (It must exist as resource in the package com.itextpdf.text.pdf.fonts)";
+                    throw new Exception(msg);
+                }
+                parse(StreamUtil.inputStreamToArray(is), unicode2names, names2unicode);
             }
             is.close();
             is = null;
-            String s = PdfEncodings.convertToString(out.toByteArray(), null);
-            StringTokenizer tk = new StringTokenizer(s, "\r\n");
-            while (tk.hasMoreTokens()) {
-                String line = tk.nextToken();
-                if (line.startsWith("#"))
-                    continue;
-                StringTokenizer t2 = new StringTokenizer(line, " ;\r\n\t\f");
-                String name = null;
-                String hex = null;
-                if (!t2.hasMoreTokens())
-                    continue;
-                name = t2.nextToken();
-                if (!t2.hasMoreTokens())
-                    continue;
-                hex = t2.nextToken();
-                Integer num = Integer.valueOf(hex, 16);
-                unicode2names.put(num, name);
-                names2unicode.put(name, new int[]{num.intValue()});
-            }
         }
         catch (Exception e) {
             System.err.println("glyphlist.txt loading error: " + e.getMessage());
@@ -109,6 +103,99 @@ public class GlyphList {
         }
     }
 
+    /**
+     * Parses the text form of the glyph list.
+     * @since 5.5.6
+     */
+    static void parse(byte[] text, Map<Integer, String> unicode2names, Map<String, int[]> names2unicode) {
+        String s = PdfEncodings.convertToString(text, null);
+        StringTokenizer tk = new StringTokenizer(s, "\r\n");
+        while (tk.hasMoreTokens()) {
+            String line = tk.nextToken();
+            if (line.startsWith("#"))
+                continue;
+            StringTokenizer t2 = new StringTokenizer(line, " ;\r\n\t\f");
+            String name = null;
+            String hex = null;
+            if (!t2.hasMoreTokens())
+                continue;
+            name = t2.nextToken();
+            if (!t2.hasMoreTokens())
+                continue;
+            hex = t2.nextToken();
+            Integer num = Integer.valueOf(hex, 16);
+            unicode2names.put(num, name);
+            names2unicode.put(name, new int[]{num.intValue()});
+        }
+    }
+
+    /**
+     * Converts the text form of the glyph list to the compiled form.
+     * @param text the glyph list text
+     * @param out the stream to write the compiled glyph list to, it is not closed
+     * @throws IOException on error
+     * @since 5.5.6
+     */
+    static void compile(byte[] text, OutputStream out) throws IOException {
+        Map<Integer, String> u2n = new TreeMap<Integer, String>();
+        Map<String, int[]> n2u = new TreeMap<String, int[]>();
+        parse(text, u2n, n2u);
+        DataOutputStream dos = new DataOutputStream(out);
+        dos.writeInt(MAGIC);
+        // the names with their code, then the name of every code as an index in the names
+        Map<String, Integer> index = new HashMap<String, Integer>();
+        dos.writeInt(n2u.size());
+        for (Map.Entry<String, int[]> e : n2u.entrySet()) {
+            byte[] name = PdfEncodings.convertToBytes(e.getKey(), null);
+            if (name.length > 255)
+                throw new IOException("Glyph name too long: " + e.getKey());
+            index.put(e.getKey(), Integer.valueOf(index.size()));
+            dos.writeInt(e.getValue()[0]);
+            dos.writeByte(name.length);
+            dos.write(name);
+        }
+        dos.writeInt(u2n.size());
+        for (Map.Entry<Integer, String> e : u2n.entrySet()) {
+            dos.writeInt(e.getKey().intValue());
+            dos.writeInt(index.get(e.getValue()).intValue());
+        }
+        dos.flush();
+    }
+
+    /**
+     * Reads the compiled form of the glyph list.
+     * @return <CODE>false</CODE> if the data isn't a compiled glyph list of this version
+     * @since 5.5.6
+     */
+    static boolean readCompiled(ByteBuffer data, Map<Integer, String> unicode2names, Map<String, int[]> names2unicode) throws IOException {
+        try {
+            if (data.remaining() < 8 || data.getInt() != MAGIC)
+                return false;
+            String[] names = new String[data.getInt()];
+            char[] chars = new char[255];
+            for (int k = 0; k < names.length; ++k) {
+                int num = data.getInt();
+                int length = data.get() & 0xff;
+                for (int j = 0; j < length; ++j)
+                    chars[j] = (char)(data.get() & 0xff);
+                names[k] = new String(chars, 0, length);
+                names2unicode.put(names[k], new int[]{num});
+            }
+            int size = data.getInt();
+            for (int k = 0; k < size; ++k) {
+                Integer num = Integer.valueOf(data.getInt());
+                unicode2names.put(num, names[data.getInt()]);
+            }
+            return true;
+        }
+        catch (BufferUnderflowException e) {
+            throw new IOException("Invalid compiled glyph list.");
+        }
+        catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Invalid compiled glyph list.");
+        }
+    }
+
     public static int[] nameToUnicode(String name) {
         int[] v = names2unicode.get(name);
         if (v == null && name.length() == 7 && name.toLowerCase().startsWith("uni")) {
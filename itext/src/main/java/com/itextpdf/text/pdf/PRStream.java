@@ -62,6 +62,14 @@ public class PRStream extends PdfStream {
     //added by ujihara for decryption
     protected int objNum = 0;
     protected int objGen = 0;
+
+    /** The buffers the raw data of unchanged streams is written through, one per thread. */
+    private static final ThreadLocal<byte[]> COPY_BUFFER = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[8192];
+        }
+    };
     
     public PRStream(PRStream stream, PdfDictionary newDic) {
         reader = stream.reader;
@@ -218,21 +226,31 @@ public class PRStream extends PdfStream {
         this.objGen = objGen;
     }
     
-    int getObjNum() {
+    /**
+     * @return the number of the object in the document it was read from
+     * @since 5.5.6 (was package-private before)
+     */
+    public int getObjNum() {
         return objNum;
     }
     
-    int getObjGen() {
+    /**
+     * @return the generation of the object in the document it was read from
+     * @since 5.5.6 (was package-private before)
+     */
+    public int getObjGen() {
         return objGen;
     }
     
     public void toPdf(PdfWriter writer, OutputStream os) throws IOException {
-        byte[] b = PdfReader.getStreamBytesRaw(this);
         PdfEncryption crypto = null;
         if (writer != null)
             crypto = writer.getEncryption();
+        // the unchanged streams of an unencrypted document are copied to the output without being loaded
+        boolean passThrough = offset >= 0 && reader != null && crypto == null && reader.getDecrypt() == null;
+        byte[] b = passThrough ? null : PdfReader.getStreamBytesRaw(this);
         PdfObject objLen = get(PdfName.LENGTH);
-        int nn = b.length;
+        int nn = passThrough ? length : b.length;
         if (crypto != null)
             nn = crypto.calculateStreamSize(nn);
         put(PdfName.LENGTH, new PdfNumber(nn));
@@ -240,9 +258,14 @@ public class PRStream extends PdfStream {
         put(PdfName.LENGTH, objLen);
         os.write(STARTSTREAM);
         if (length > 0) {
-            if (crypto != null && !crypto.isEmbeddedFilesOnly())
-                b = crypto.encryptByteArray(b);
-            os.write(b);
+            if (passThrough) {
+                PdfReader.writeStreamBytesRaw(this, os, COPY_BUFFER.get());
+            }
+            else {
+                if (crypto != null && !crypto.isEmbeddedFilesOnly())
+                    b = crypto.encryptByteArray(b);
+                os.write(b);
+            }
         }
         os.write(ENDSTREAM);
     }
@@ -111,6 +111,10 @@ public class PRTokeniser {
     protected int reference;
     protected int generation;
     protected boolean hexString;
+    /** The decoded bytes of the last NAME token. */
+    private byte nameBytes[] = new byte[64];
+    /** The number of bytes of the last NAME token. */
+    private int nameLength;
 
     /**
      * Creates a PRTokeniser for the specified {@link RandomAccessFileOrArray}.
@@ -198,8 +202,28 @@ public class PRTokeniser {
     }
     
     public String getStringValue() {
+        if (stringValue == null && type == TokenType.NAME) {
+            char chars[] = new char[nameLength];
+            for (int k = 0; k < nameLength; ++k)
+                chars[k] = (char)(nameBytes[k] & 0xff);
+            stringValue = new String(chars);
+        }
         return stringValue;
     }
+
+    /**
+     * Gets the value of a NAME token as a <CODE>PdfName</CODE>. The names known to
+     * <CODE>PdfName</CODE> are looked up in the decoded bytes of the token and the
+     * shared static instance is returned, the other names are new instances.
+     * @return the name
+     * @since 5.5.6
+     */
+    public PdfName getNameValue() {
+        PdfName name = PdfName.getStaticName(nameBytes, 0, nameLength);
+        if (name != null)
+            return name;
+        return new PdfName(PdfName.encodeName(nameBytes, 0, nameLength));
+    }
     
     public int getReference() {
         return reference;
@@ -351,8 +375,9 @@ public class PRTokeniser {
                 break;
             case '/':
             {
-                outBuf.setLength(0);
+                // the name is decoded into nameBytes, the String is only made if it is asked for
                 type = TokenType.NAME;
+                nameLength = 0;
                 while (true) {
                     ch = file.read();
                     if (delims[ch + 1])
@@ -360,7 +385,12 @@ public class PRTokeniser {
                     if (ch == '#') {
                         ch = (getHex(file.read()) << 4) + getHex(file.read());
                     }
-                    outBuf.append((char)ch);
+                    if (nameLength == nameBytes.length) {
+                        byte grown[] = new byte[nameLength * 2];
+                        System.arraycopy(nameBytes, 0, grown, 0, nameLength);
+                        nameBytes = grown;
+                    }
+                    nameBytes[nameLength++] = (byte)ch;
                 }
                 backOnePosition(ch);
                 break;
@@ -545,7 +575,9 @@ public class PRTokeniser {
                 break;
             }
         }
-        if (outBuf != null)
+        if (type == TokenType.NAME)
+            stringValue = null;
+        else
             stringValue = outBuf.toString();
         return true;
     }
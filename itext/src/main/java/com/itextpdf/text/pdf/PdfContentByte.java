@@ -253,6 +253,7 @@ public class PdfContentByte {
         if (wr != null) {
             writer = wr;
             pdf = writer.getPdfDocument();
+            content.setPrecision(writer.getDecimalPrecision());
         }
     }
     
@@ -127,7 +127,7 @@ public class PdfContentParser {
                     continue;
                 if (tokeniser.getTokenType() != TokenType.NAME)
                     throw new IOException(MessageLocalization.getComposedMessage("dictionary.key.1.is.not.a.name", tokeniser.getStringValue()));
-                PdfName name = new PdfName(tokeniser.getStringValue(), false);
+                PdfName name = tokeniser.getNameValue();
                 PdfObject obj = readPRObject();
                 int type = obj.type();
                 if (-type == TokenType.END_DIC.ordinal())
@@ -178,7 +178,7 @@ public class PdfContentParser {
                 PdfString str = new PdfString(tokeniser.getStringValue(), null).setHexWriting(tokeniser.isHexString());
                 return str;
             case NAME:
-                return new PdfName(tokeniser.getStringValue(), false);
+                return tokeniser.getNameValue();
             case NUMBER:
                 return new PdfNumber(tokeniser.getStringValue());
             case OTHER:
@@ -138,7 +138,13 @@ public class PdfCopy extends PdfWriter {
     private HashSet<Object> mergedRadioButtons = new HashSet<Object>();
     private HashMap<Object, PdfString> mergedTextFields = new HashMap<Object, PdfString>();
 
+    protected boolean streamingMergeFields = false;
+    private PdfReader streamedFieldsReader;
+    private HashMap<RefKey, StreamedWidget> streamedWidgets;
+
     private HashSet<PdfReader> readersWithImportedStructureTreeRootKids = new HashSet<PdfReader>();
+    private HashSet<PdfReader> readersWithImportedPages = new HashSet<PdfReader>();
+    private int importedPagesWithKnownReaders = 0;
 
     protected static class ImportedPage {
         int pageNumber;
@@ -166,6 +172,38 @@ public class PdfCopy extends PdfWriter {
         }
     }
 
+    /**
+     * A widget of the reader being copied in the streaming merge fields mode.
+     */
+    private static class StreamedWidget {
+        String name;
+        AcroFields.Item item;
+        int index;
+
+        StreamedWidget(String name, AcroFields.Item item, int index) {
+            this.name = name;
+            this.item = item;
+            this.index = index;
+        }
+    }
+
+    /**
+     * A terminal field of the merged form in the streaming merge fields mode. Only the field keys
+     * and the references of the widgets already written are kept until the form is written.
+     */
+    private static class StreamedField {
+        PdfIndirectReference reference;
+        PdfDictionary field;
+        PdfArray kids = new PdfArray();
+        boolean textAppearanceKept;
+        boolean radioOn;
+
+        StreamedField(PdfIndirectReference reference, PdfDictionary field) {
+            this.reference = reference;
+            this.field = field;
+        }
+    }
+
     /**
      * Constructor
      * @param document document
@@ -222,6 +260,25 @@ public class PdfCopy extends PdfWriter {
         mergedSet = new HashSet<PdfIndirectObject>();
     }
 
+    /**
+     * Merges the fields of the copied documents like {@link #setMergeFields()}, but writes the widgets
+     * as soon as their page is added instead of keeping every copied object until the document is closed.
+     * Only the name, the field keys and the widget references of every field are kept, the <CODE>/AcroForm</CODE>
+     * and its field tree are written when the document is closed. The pages are added with
+     * {@link #addDocument(PdfReader)} or {@link #addPage(PdfImportedPage)} and {@link #freeReader(PdfReader)}
+     * can be used as in the regular mode.
+     * <p>
+     * Unlike {@link #setMergeFields()} a field is always written apart from its widgets and the widgets keep
+     * the order of the page annotations instead of being sorted by their tab order.
+     * @since 5.5.6
+     */
+    public void setStreamingMergeFields() {
+        this.streamingMergeFields = true;
+        resources = new PdfDictionary();
+        calculationOrder = new ArrayList<String>();
+        fieldTree = new HashMap<String, Object>();
+    }
+
     /**
      * Grabs a page from the input document
      * @param reader the reader of the document
@@ -307,13 +364,10 @@ public class PdfCopy extends PdfWriter {
     private int checkStructureTreeRootKids(ImportedPage newPage) {
         //start of document;
         if (importedPages.size() == 0) return 1;
-        boolean readerExist = false;
-        for (ImportedPage page: importedPages) {
-            if (page.reader.equals(newPage.reader)) {
-                readerExist = true;
-                break;
-            }
-        }
+        // importedPages only grows, only the readers of the pages added since the last call are looked at
+        while (importedPagesWithKnownReaders < importedPages.size())
+            readersWithImportedPages.add(importedPages.get(importedPagesWithKnownReaders++).reader);
+        boolean readerExist = readersWithImportedPages.contains(newPage.reader);
 
         //add new reader;
         if (!readerExist) return 1;
@@ -346,11 +400,15 @@ public class PdfCopy extends PdfWriter {
 
         PdfArray kids = structureTreeRoot.getAsArray(PdfName.K);
         if (kids != null) {
-            for (int i = 0; i < kids.size(); ++i) {
-                PdfIndirectReference iref = (PdfIndirectReference)kids.getPdfObject(i);
+            // compacted in place, removing the kids one by one is quadratic
+            ArrayList<PdfObject> list = kids.arrayList;
+            int size = 0;
+            for (int i = 0; i < list.size(); ++i) {
+                PdfIndirectReference iref = (PdfIndirectReference)list.get(i);
                 RefKey key = new RefKey(iref);
-                if (!activeKeys.contains(key)) kids.remove(i--);
+                if (activeKeys.contains(key)) list.set(size++, iref);
             }
+            list.subList(size, list.size()).clear();
         }
     }
 
@@ -660,7 +718,11 @@ public class PdfCopy extends PdfWriter {
         iRef.setCopied();
         if (tagged)
             structTreeRootReference = (PRIndirectReference)reader.getCatalog().get(PdfName.STRUCTTREEROOT);
-        PdfDictionary newPage = copyDictionary(thePage);
+        PdfDictionary newPage;
+        if (streamingMergeFields && !mergeFields)
+            newPage = copyPageWithStreamedFields(thePage);
+        else
+            newPage = copyDictionary(thePage);
         if (mergeFields) {
             ImportedPage importedPage = importedPages.get(importedPages.size() - 1);
             importedPage.annotsIndirectReference = body.getPdfIndirectReference();
@@ -903,11 +965,16 @@ public class PdfCopy extends PdfWriter {
                     flushIndirectObjects();
             }
         }
+        else if (streamingMergeFields) {
+            createStreamedAcroForm();
+        }
     }
 
 
     protected void fixTaggedStructure() throws IOException {
         HashMap<Integer, PdfIndirectReference> numTree = structureTreeRoot.getNumTree();
+        // looked up for every structure element, the page list would make it quadratic
+        HashSet<PdfIndirectReference> pages = new HashSet<PdfIndirectReference>(pageReferences);
         HashSet<RefKey> activeKeys = new HashSet<RefKey>();
         ArrayList<PdfIndirectReference> actives = new ArrayList<PdfIndirectReference>();
         int pageRefIndex = 0;
@@ -928,11 +995,11 @@ public class PdfCopy extends PdfWriter {
             PdfObject obj = indirectObjects.get(numKey).object;
             if (obj.isDictionary()) {
                 boolean addActiveKeys = false;
-                if (pageReferences.contains(((PdfDictionary)obj).get(PdfName.PG))) {
+                if (pages.contains(((PdfDictionary)obj).get(PdfName.PG))) {
                     addActiveKeys = true;
                 } else {
                     PdfDictionary k = PdfStructTreeController.getKDict((PdfDictionary)obj);
-                    if (k != null && pageReferences.contains(k.get(PdfName.PG))) {
+                    if (k != null && pages.contains(k.get(PdfName.PG))) {
                         addActiveKeys = true;
                     }
                 }
@@ -962,7 +1029,7 @@ public class PdfCopy extends PdfWriter {
                         PdfDictionary dict = (PdfDictionary)iobj.object;
                         PdfIndirectReference pg = (PdfIndirectReference)dict.get(PdfName.PG);
                         //if pg is real page - do nothing, else set correct pg and remove first MCID if exists
-                        if (pg != null && !pageReferences.contains(pg) && !pg.equals(currPage)){
+                        if (pg != null && !pages.contains(pg) && !pg.equals(currPage)){
                             dict.put(PdfName.PG, currPage);
                             PdfArray kids = dict.getAsArray(PdfName.K);
                             if (kids != null) {
@@ -1003,12 +1070,15 @@ public class PdfCopy extends PdfWriter {
     }
 
     private void removeInactiveReferences(PdfArray array, HashSet<RefKey> activeKeys) {
-        for (int i = 0; i < array.size(); ++i) {
-            PdfObject obj = array.getPdfObject(i);
-            if ((obj.type() == 0 && !activeKeys.contains(new RefKey((PdfIndirectReference)obj))) ||
-                    (obj.isDictionary() && containsInactivePg((PdfDictionary)obj, activeKeys)))
-                array.remove(i--);
+        ArrayList<PdfObject> list = array.arrayList;
+        int size = 0;
+        for (int i = 0; i < list.size(); ++i) {
+            PdfObject obj = list.get(i);
+            if (!((obj.type() == 0 && !activeKeys.contains(new RefKey((PdfIndirectReference)obj))) ||
+                    (obj.isDictionary() && containsInactivePg((PdfDictionary)obj, activeKeys))))
+                list.set(size++, obj);
         }
+        list.subList(size, list.size()).clear();
     }
 
     private boolean containsInactivePg(PdfDictionary dict, HashSet<RefKey> activeKeys) {
@@ -1457,6 +1527,14 @@ public class PdfCopy extends PdfWriter {
         form.put(PdfName.FIELDS, branchForm(fieldTree, null, ""));
         if (hasSignature)
             form.put(PdfName.SIGFLAGS, new PdfNumber(3));
+        addCalculationOrder(form);
+        this.acroForm = addToBody(form).getIndirectReference();
+        for (ImportedPage importedPage : importedPages) {
+            addToBody(importedPage.mergedFields, importedPage.annotsIndirectReference);
+        }
+    }
+
+    private void addCalculationOrder(PdfDictionary form) {
         PdfArray co = new PdfArray();
         for (int k = 0; k < calculationOrderRefs.size(); ++k) {
             Object obj = calculationOrderRefs.get(k);
@@ -1465,10 +1543,296 @@ public class PdfCopy extends PdfWriter {
         }
         if (co.size() > 0)
             form.put(PdfName.CO, co);
+    }
+
+    /**
+     * Copies a page in the streaming merge fields mode. The widgets of the page are written with
+     * a reference to their merged field, the other annotations are copied as they are.
+     */
+    private PdfDictionary copyPageWithStreamedFields(PdfDictionary thePage) throws IOException, BadPdfFormatException {
+        if (streamedFieldsReader != reader)
+            indexStreamedWidgets();
+        PdfObject annotsObj = thePage.get(PdfName.ANNOTS);
+        PdfArray annots = thePage.getAsArray(PdfName.ANNOTS);
+        if (annots == null || streamedWidgets.isEmpty())
+            return copyDictionary(thePage);
+        StreamedWidget[] widgets = new StreamedWidget[annots.size()];
+        StreamedField[] widgetFields = new StreamedField[annots.size()];
+        PdfIndirectReference[] widgetRefs = new PdfIndirectReference[annots.size()];
+        for (int k = 0; k < annots.size(); ++k) {
+            PdfObject annot = annots.getPdfObject(k);
+            if (annot == null || !annot.isIndirect())
+                continue;
+            RefKey key = new RefKey((PRIndirectReference)annot);
+            StreamedWidget widget = streamedWidgets.get(key);
+            if (widget == null || indirects.containsKey(key))
+                continue;
+            widgets[k] = widget;
+            widgetFields[k] = getStreamedField(widget);
+            if (widgetFields[k] != null) {
+                // objects of the page referring to the widget get the reference of the merged widget
+                widgetRefs[k] = body.getPdfIndirectReference();
+                IndirectReferences iRef = new IndirectReferences(widgetRefs[k]);
+                iRef.setCopied();
+                indirects.put(key, iRef);
+            }
+        }
+        PdfDictionary newPage;
+        thePage.remove(PdfName.ANNOTS);
+        try {
+            newPage = copyDictionary(thePage);
+        } finally {
+            thePage.put(PdfName.ANNOTS, annotsObj);
+        }
+        PdfArray newAnnots = new PdfArray();
+        for (int k = 0; k < annots.size(); ++k) {
+            if (widgetFields[k] != null) {
+                addStreamedWidget(widgets[k], widgetFields[k], widgetRefs[k]);
+                newAnnots.add(widgetRefs[k]);
+            } else if (widgets[k] == null) {
+                PdfObject res = copyObject(annots.getPdfObject(k));
+                if (res != null && !res.isNull())
+                    newAnnots.add(res);
+            }
+        }
+        if (newAnnots.size() > 0)
+            newPage.put(PdfName.ANNOTS, newAnnots);
+        return newPage;
+    }
+
+    private void indexStreamedWidgets() {
+        streamedFieldsReader = reader;
+        streamedWidgets = new HashMap<RefKey, StreamedWidget>();
+        AcroFields af = reader.getAcroFields();
+        if (af.getFields().isEmpty())
+            return;
+        // when a document with NeedAppearances is encountered, the flag is set
+        // in the resulting document.
+        if (!af.isGenerateAppearances())
+            needAppearances = true;
+        updateCalculationOrder(reader);
+        for (Map.Entry<String, AcroFields.Item> entry: af.getFields().entrySet()) {
+            AcroFields.Item item = entry.getValue();
+            for (int k = 0; k < item.size(); ++k) {
+                PdfIndirectReference ref = item.getWidgetRef(k);
+                if (ref instanceof PRIndirectReference)
+                    streamedWidgets.put(new RefKey((PRIndirectReference)ref), new StreamedWidget(entry.getKey(), item, k));
+            }
+        }
+    }
+
+    /**
+     * Gets the merged field of a widget, the field is created if it's the first widget with its name.
+     * @return the field or <CODE>null</CODE> if the widget can't be merged into the field with its name
+     */
+    @SuppressWarnings("unchecked")
+    private StreamedField getStreamedField(StreamedWidget widget) throws IOException, BadPdfFormatException {
+        HashMap<String, Object> map = fieldTree;
+        StringTokenizer tk = new StringTokenizer(widget.name, ".");
+        if (!tk.hasMoreTokens())
+            return null;
+        while (true) {
+            String s = tk.nextToken();
+            Object obj = map.get(s);
+            if (tk.hasMoreTokens()) {
+                if (obj == null) {
+                    obj = new HashMap<String, Object>();
+                    map.put(s, obj);
+                    map = (HashMap<String, Object>)obj;
+                }
+                else if (obj instanceof HashMap)
+                    map = (HashMap<String, Object>)obj;
+                else
+                    return null;
+            }
+            else {
+                if (obj instanceof HashMap)
+                    return null;
+                PdfDictionary merged = widget.item.getMerged(widget.index);
+                if (obj == null) {
+                    PdfDictionary field = new PdfDictionary();
+                    if (PdfName.SIG.equals(merged.get(PdfName.FT)))
+                        hasSignature = true;
+                    for (PdfName key : merged.getKeys()) {
+                        if (fieldKeys.contains(key))
+                            field.put(key, merged.get(key));
+                    }
+                    StreamedField streamedField = new StreamedField(body.getPdfIndirectReference(), copyDictionary(field));
+                    map.put(s, streamedField);
+                    return streamedField;
+                }
+                StreamedField streamedField = (StreamedField)obj;
+                PdfName type1 = streamedField.field.getAsName(PdfName.FT);
+                PdfName type2 = merged.getAsName(PdfName.FT);
+                if (type1 == null || !type1.equals(type2))
+                    return null;
+                int flag1 = 0;
+                PdfNumber f1 = streamedField.field.getAsNumber(PdfName.FF);
+                if (f1 != null)
+                    flag1 = f1.intValue();
+                int flag2 = 0;
+                PdfNumber f2 = merged.getAsNumber(PdfName.FF);
+                if (f2 != null)
+                    flag2 = f2.intValue();
+                if (type1.equals(PdfName.BTN)) {
+                    if (((flag1 ^ flag2) & PdfFormField.FF_PUSHBUTTON) != 0)
+                        return null;
+                    if ((flag1 & PdfFormField.FF_PUSHBUTTON) == 0 && ((flag1 ^ flag2) & PdfFormField.FF_RADIO) != 0)
+                        return null;
+                }
+                else if (type1.equals(PdfName.CH)) {
+                    if (((flag1 ^ flag2) & PdfFormField.FF_COMBO) != 0)
+                        return null;
+                }
+                return streamedField;
+            }
+        }
+    }
+
+    /**
+     * Writes a widget as a kid of its merged field. The value of the field is applied to the
+     * widget the same way as in the {@link #setMergeFields()} mode.
+     */
+    private void addStreamedWidget(StreamedWidget streamedWidget, StreamedField streamedField, PdfIndirectReference ref) throws IOException, BadPdfFormatException {
+        PdfDictionary merged = streamedWidget.item.getMerged(streamedWidget.index);
+        PdfObject dr = merged.get(PdfName.DR);
+        if (dr != null)
+            mergeStreamedResources((PdfDictionary)PdfReader.getPdfObject(dr));
+        PdfDictionary widget = new PdfDictionary();
+        for (PdfName key : merged.getKeys()) {
+            if (widgetKeys.contains(key) && !annotId.equals(key))
+                widget.put(key, merged.get(key));
+        }
+        PdfDictionary field = streamedField.field;
+        PdfAppearance app = null;
+        if (PdfCopy.isTextField(field)) {
+            PdfString v = field.getAsString(PdfName.V);
+            if (v != null && widget.getDirectObject(PdfName.AP) != null) {
+                if (!streamedField.textAppearanceKept) {
+                    streamedField.textAppearanceKept = true;
+                } else {
+                    try {
+                        TextField tx = new TextField(this, null, null);
+                        streamedFieldsReader.getAcroFields().decodeGenericDictionary(merged, tx);
+                        Rectangle box = PdfReader.getNormalizedRectangle(widget.getAsArray(PdfName.RECT));
+                        if (tx.getRotation() == 90 || tx.getRotation() == 270)
+                            box = box.rotate();
+                        tx.setBox(box);
+                        tx.setText(v.toUnicodeString());
+                        app = tx.getAppearance();
+                    } catch (DocumentException e) {
+                        //do nothing
+                    }
+                }
+            }
+        } else if (PdfCopy.isCheckButton(field)) {
+            PdfName v = field.getAsName(PdfName.V);
+            PdfName as = widget.getAsName(PdfName.AS);
+            if (v != null && as != null)
+                widget.put(PdfName.AS, v);
+        } else if (PdfCopy.isRadioButton(field)) {
+            PdfName v = field.getAsName(PdfName.V);
+            PdfName as = widget.getAsName(PdfName.AS);
+            if (v != null && as != null && !as.equals(getOffStateName(widget))) {
+                if (!streamedField.radioOn) {
+                    streamedField.radioOn = true;
+                    widget.put(PdfName.AS, v);
+                } else {
+                    widget.put(PdfName.AS, getOffStateName(widget));
+                }
+            }
+        }
+        PdfDictionary ap = null;
+        if (app != null) {
+            ap = new PdfDictionary();
+            ap.putAll(widget.getAsDict(PdfName.AP));
+            ap.remove(PdfName.N);
+            widget.remove(PdfName.AP);
+        }
+        PdfDictionary newWidget = copyDictionary(widget);
+        if (app != null) {
+            ap = copyDictionary(ap);
+            addToBody(app.getFormXObject(compressionLevel), app.getIndirectReference());
+            ap.put(PdfName.N, app.getIndirectReference());
+            newWidget.put(PdfName.AP, ap);
+        }
+        newWidget.put(PdfName.PARENT, streamedField.reference);
+        newWidget.put(PdfName.TYPE, PdfName.ANNOT);
+        addToBody(newWidget, ref);
+        streamedField.kids.add(ref);
+    }
+
+    /**
+     * Adds the resources of a form not yet in the merged ones, the new resources are copied at once.
+     */
+    private void mergeStreamedResources(PdfDictionary dr) throws IOException, BadPdfFormatException {
+        if (dr == null)
+            return;
+        for (PdfName type : dr.getKeys()) {
+            PdfDictionary source = dr.getAsDict(type);
+            if (source == null)
+                continue;
+            PdfDictionary result = resources.getAsDict(type);
+            if (result == null) {
+                result = new PdfDictionary();
+                resources.put(type, result);
+            }
+            for (PdfName key : source.getKeys()) {
+                if (!result.contains(key)) {
+                    PdfObject res = copyObject(source.get(key));
+                    if (res != null)
+                        result.put(key, res);
+                }
+            }
+        }
+    }
+
+    private void createStreamedAcroForm() throws IOException {
+        if (fieldTree.isEmpty())
+            return;
+        PdfDictionary form = new PdfDictionary();
+        form.put(PdfName.DR, resources);
+        if (needAppearances) {
+            form.put(PdfName.NEEDAPPEARANCES, PdfBoolean.PDFTRUE);
+        }
+        form.put(PdfName.DA, new PdfString("/Helv 0 Tf 0 g "));
+        calculationOrderRefs = new ArrayList<Object>(calculationOrder);
+        form.put(PdfName.FIELDS, branchStreamedFields(fieldTree, null, ""));
+        if (hasSignature)
+            form.put(PdfName.SIGFLAGS, new PdfNumber(3));
+        addCalculationOrder(form);
         this.acroForm = addToBody(form).getIndirectReference();
-        for (ImportedPage importedPage : importedPages) {
-            addToBody(importedPage.mergedFields, importedPage.annotsIndirectReference);
+    }
+
+    @SuppressWarnings("unchecked")
+    private PdfArray branchStreamedFields(HashMap<String, Object> level, PdfIndirectReference parent, String fname) throws IOException {
+        PdfArray arr = new PdfArray();
+        for (Map.Entry<String, Object> entry: level.entrySet()) {
+            String name = entry.getKey();
+            Object obj = entry.getValue();
+            PdfIndirectReference ind;
+            PdfDictionary dic = new PdfDictionary();
+            if (obj instanceof StreamedField) {
+                StreamedField streamedField = (StreamedField)obj;
+                ind = streamedField.reference;
+                dic.merge(streamedField.field);
+                dic.put(PdfName.KIDS, streamedField.kids);
+            } else {
+                ind = getPdfIndirectReference();
+            }
+            if (parent != null)
+                dic.put(PdfName.PARENT, parent);
+            dic.put(PdfName.T, new PdfString(name, PdfObject.TEXT_UNICODE));
+            String fname2 = fname + "." + name;
+            int coidx = calculationOrder.indexOf(fname2);
+            if (coidx >= 0)
+                calculationOrderRefs.set(coidx, ind);
+            if (obj instanceof HashMap)
+                dic.put(PdfName.KIDS, branchStreamedFields((HashMap<String, Object>) obj, ind, fname2));
+            arr.add(ind);
+            addToBody(dic, ind);
         }
+        return arr;
     }
 
     private void updateReferences(PdfObject obj) {
@@ -1641,7 +2005,7 @@ public class PdfCopy extends PdfWriter {
             buildStructTreeRootForTagged(theCat);
             if (fieldArray != null) {
                 addFieldResources(theCat);
-            } else if (mergeFields && acroForm != null) {
+            } else if ((mergeFields || streamingMergeFields) && acroForm != null) {
                 theCat.put(PdfName.ACROFORM, acroForm);
             }
             return theCat;
@@ -1738,6 +2102,12 @@ public class PdfCopy extends PdfWriter {
     	if (array != null)
     		originalFileID = array.getAsString(0).getBytes();
         indirectMap.remove(reader);
+        if (structTreeController != null)
+            structTreeController.freeReader(reader);
+        if (reader == streamedFieldsReader) {
+            streamedFieldsReader = null;
+            streamedWidgets = null;
+        }
 //  TODO: Removed - the user should be responsible for closing all PdfReaders.  But, this could cause a lot of memory leaks in code out there that hasn't been properly closing things - maybe add a finalizer to PdfReader that calls PdfReader#close() ??
 //        if (currentPdfReaderInstance != null) {
 //            if (currentPdfReaderInstance.getReader() == reader) {
@@ -0,0 +1,232 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.ExceptionConverter;
+
+/**
+ * Merges a sequence of documents into a PdfCopy, opening the next documents in
+ * background threads while the pages of the current one are copied. Every reader is
+ * freed and closed as soon as its pages have been written, so only the readers being
+ * prefetched are kept in memory.
+ * <p>
+ * The inputs are consumed lazily from an iterator, the documents don't have to be
+ * known before the merge starts:
+ * <pre>
+ * PdfMergePipeline pipeline = new PdfMergePipeline(copy, executor, 4);
+ * pipeline.addDocuments(inputs.iterator());
+ * document.close();
+ * </pre>
+ * In merge fields mode the readers can't be freed, they are kept open until
+ * {@link #closeReaders()} is called after the PdfCopy has been closed.
+ *
+ * @since 5.5.6
+ */
+public class PdfMergePipeline {
+
+    /**
+     * Opens one of the documents to merge. It may be called on a thread of the executor.
+     */
+    public interface Input {
+        /**
+         * @return a new reader on the document
+         * @throws IOException on error
+         */
+        PdfReader open() throws IOException;
+    }
+
+    /** The copy the documents are added to. */
+    private final PdfCopy copy;
+    /** The executor the readers are opened with, or null to open them on the calling thread. */
+    private final ExecutorService executor;
+    /** The number of readers opened ahead of the one being copied. */
+    private final int prefetch;
+    /** The readers kept open in merge fields mode. */
+    private final List<PdfReader> openReaders = new ArrayList<PdfReader>();
+
+    /**
+     * Creates a pipeline adding the documents to a PdfCopy.
+     * @param copy the PdfCopy (or PdfSmartCopy) to add the documents to, its document must be open
+     * @param executor the executor to open the readers with, or null to open them on the calling thread
+     * @param prefetch the number of readers opened ahead of the one being copied
+     */
+    public PdfMergePipeline(PdfCopy copy, ExecutorService executor, int prefetch) {
+        this.copy = copy;
+        this.executor = executor;
+        this.prefetch = executor == null ? 0 : Math.max(1, prefetch);
+    }
+
+    /**
+     * Creates an input for a file, opened with PdfReader(String).
+     * @param filename the path of the file
+     * @return the input
+     */
+    public static Input fromFile(final String filename) {
+        return new Input() {
+            public PdfReader open() throws IOException {
+                return new PdfReader(filename);
+            }
+        };
+    }
+
+    /**
+     * Creates an input for a document in memory, opened with PdfReader(byte[]).
+     * @param pdf the bytes of the document
+     * @return the input
+     */
+    public static Input fromBytes(final byte[] pdf) {
+        return new Input() {
+            public PdfReader open() throws IOException {
+                return new PdfReader(pdf);
+            }
+        };
+    }
+
+    /**
+     * Adds all the pages of every document, in the order of the iterator.
+     * @param inputs the documents to add
+     * @throws DocumentException on error
+     * @throws IOException on error
+     */
+    public void addDocuments(Iterator<? extends Input> inputs) throws DocumentException, IOException {
+        if (executor == null) {
+            while (inputs.hasNext()) {
+                addDocument(inputs.next().open());
+            }
+            return;
+        }
+        LinkedList<Future<PdfReader>> pending = new LinkedList<Future<PdfReader>>();
+        try {
+            while (pending.size() < prefetch && inputs.hasNext())
+                pending.add(executor.submit(new Opener(inputs.next())));
+            while (!pending.isEmpty()) {
+                PdfReader reader = getReader(pending.removeFirst());
+                if (inputs.hasNext())
+                    pending.add(executor.submit(new Opener(inputs.next())));
+                addDocument(reader);
+            }
+        }
+        finally {
+            // the readers opened ahead are closed if the merge fails
+            for (Future<PdfReader> future : pending) {
+                try {
+                    future.get().close();
+                }
+                catch (Exception e) {
+                    // empty on purpose
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes the readers kept open in merge fields mode.
+     * It must be called after the PdfCopy has been closed.
+     */
+    public void closeReaders() {
+        for (PdfReader reader : openReaders)
+            reader.close();
+        openReaders.clear();
+    }
+
+    private void addDocument(PdfReader reader) throws DocumentException, IOException {
+        if (copy.mergeFields) {
+            openReaders.add(reader);
+            copy.addDocument(reader);
+            return;
+        }
+        try {
+            copy.addDocument(reader);
+            copy.freeReader(reader);
+        }
+        finally {
+            reader.close();
+        }
+    }
+
+    private static PdfReader getReader(Future<PdfReader> future) throws IOException {
+        try {
+            return future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExceptionConverter(e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new ExceptionConverter((Exception) cause);
+        }
+    }
+
+    /** Opens an input on a thread of the executor. */
+    private static class Opener implements Callable<PdfReader> {
+        private final Input input;
+
+        Opener(Input input) {
+            this.input = input;
+        }
+
+        public PdfReader call() throws IOException {
+            return input.open();
+        }
+    }
+}
@@ -46,8 +46,6 @@ package com.itextpdf.text.pdf;
 
 import com.itextpdf.text.error_messages.MessageLocalization;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -2411,30 +2409,80 @@ public class
     public static Map<String, PdfName> staticNames;
 
     /**
-     * Use reflection to cache all the static public final names so
-     * future <code>PdfName</code> additions don't have to be "added twice".
-     * A bit less efficient (around 50ms spent here on a 2.2ghz machine),
-     *  but Much Less error prone.
+     * The static names by the hash of their decoded bytes, with linear probing.
+     * @since 5.5.6
+     */
+    private static PdfName staticNameTable[];
+
+    /**
+     * The decoded bytes of the names in <CODE>staticNameTable</CODE>.
+     * @since 5.5.6
+     */
+    private static byte staticNameKeys[][];
+
+    /**
+     * Indexes the static public final names listed in {@link PdfNameTable}, the names
+     * used to be found by reflection which took around 50ms.
      * @since 2.1.6
      */
 
     static {
-        Field fields[] = PdfName.class.getDeclaredFields();
-        staticNames = new HashMap<String, PdfName>( fields.length );
-        final int flags = Modifier.STATIC | Modifier.PUBLIC | Modifier.FINAL;
-        try {
-            for (int fldIdx = 0; fldIdx < fields.length; ++fldIdx) {
-                Field curFld = fields[fldIdx];
-                if ((curFld.getModifiers() & flags) == flags &&
-                    curFld.getType().equals( PdfName.class )) {
-                    PdfName name = (PdfName)curFld.get( null );
-                    staticNames.put( decodeName( name.toString() ), name );
-                }
+        PdfName names[] = PdfNameTable.NAMES;
+        staticNames = new HashMap<String, PdfName>(names.length * 2);
+        int size = 1;
+        while (size < names.length * 2)
+            size <<= 1;
+        staticNameTable = new PdfName[size];
+        staticNameKeys = new byte[size][];
+        for (PdfName name : names) {
+            String decoded = decodeName(name.toString());
+            staticNames.put(decoded, name);
+            byte key[] = new byte[decoded.length()];
+            for (int k = 0; k < key.length; ++k)
+                key[k] = (byte)decoded.charAt(k);
+            int slot = findStaticName(key, 0, key.length);
+            staticNameTable[slot] = name;
+            staticNameKeys[slot] = key;
+        }
+    }
+
+    /**
+     * Gets the static name with the given decoded bytes, without creating any object.
+     * @param name the buffer with the decoded name, without the leading '/'
+     * @param offset the start of the name in the buffer
+     * @param length the length of the name
+     * @return the static name or <CODE>null</CODE> if the name isn't one of them
+     * @since 5.5.6
+     */
+    static PdfName getStaticName(byte name[], int offset, int length) {
+        return staticNameTable[findStaticName(name, offset, length)];
+    }
+
+    /**
+     * Finds the slot of a name in the static name table, or the empty slot where it goes.
+     */
+    private static int findStaticName(byte name[], int offset, int length) {
+        int h = 0;
+        for (int k = 0; k < length; ++k)
+            h = 31 * h + (name[offset + k] & 0xff);
+        h ^= h >>> 16;
+        int mask = staticNameKeys.length - 1;
+        int slot = h & mask;
+        while (true) {
+            byte key[] = staticNameKeys[slot];
+            if (key == null)
+                return slot;
+            if (key.length == length) {
+                int k = 0;
+                while (k < length && key[k] == name[offset + k])
+                    ++k;
+                if (k == length)
+                    return slot;
             }
-        } catch (Exception e) {
-            e.printStackTrace();
+            slot = (slot + 1) & mask;
         }
     }
+
     // CLASS VARIABLES
 
     private int hash = 0;
@@ -2551,40 +2599,60 @@ public class
     	int length = name.length();
     	ByteBuffer buf = new ByteBuffer(length + 20);
     	buf.append('/');
-    	char c;
     	char chars[] = name.toCharArray();
     	for (int k = 0; k < length; k++) {
-    		c = (char)(chars[k] & 0xff);
-    		// Escape special characters
-    		switch (c) {
-    			case ' ':
-    			case '%':
-    			case '(':
-    			case ')':
-    			case '<':
-    			case '>':
-    			case '[':
-    			case ']':
-    			case '{':
-    			case '}':
-    			case '/':
-    			case '#':
+    		appendEncoded(buf, chars[k] & 0xff);
+    	}
+    	return buf.toByteArray();
+    }
+
+    /**
+     * Encodes a plain name given as bytes, like {@link #encodeName(String)}.
+     *
+     * @param name the buffer with the name to encode
+     * @param offset the start of the name in the buffer
+     * @param length the length of the name
+     * @return the encoded name
+     * @since 5.5.6
+     */
+    static byte[] encodeName(byte name[], int offset, int length) {
+    	ByteBuffer buf = new ByteBuffer(length + 20);
+    	buf.append('/');
+    	for (int k = 0; k < length; k++) {
+    		appendEncoded(buf, name[offset + k] & 0xff);
+    	}
+    	return buf.toByteArray();
+    }
+
+    private static void appendEncoded(ByteBuffer buf, int c) {
+    	// Escape special characters
+    	switch (c) {
+    		case ' ':
+    		case '%':
+    		case '(':
+    		case ')':
+    		case '<':
+    		case '>':
+    		case '[':
+    		case ']':
+    		case '{':
+    		case '}':
+    		case '/':
+    		case '#':
+    			buf.append('#');
+    			buf.append(Integer.toString(c, 16));
+    			break;
+    		default:
+    			if (c >= 32 && c <= 126)
+    				buf.append((char)c);
+    			else {
     				buf.append('#');
+    				if (c < 16)
+    					buf.append('0');
     				buf.append(Integer.toString(c, 16));
-    				break;
-    			default:
-    				if (c >= 32 && c <= 126)
-    					buf.append(c);
-    				else {
-    					buf.append('#');
-    					if (c < 16)
-    						buf.append('0');
-    					buf.append(Integer.toString(c, 16));
-    				}
-    				break;
     			}
-    		}
-    	return buf.toByteArray();
+    			break;
+    	}
     }
 
     /**
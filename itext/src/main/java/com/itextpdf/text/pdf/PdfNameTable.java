@@ -0,0 +1,195 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf;
+
+/**
+ * The table of the static names of {@link PdfName}, in the order they are declared.
+ * It replaces looking the names up by reflection when <CODE>PdfName</CODE> is loaded.
+ * <P>
+ * The table is maintained by hand. A <CODE>public static final PdfName</CODE> field added
+ * to <CODE>PdfName</CODE> must be added here too, PdfNameTest checks that both are in sync.
+ *
+ * @since 5.5.6
+ */
+final class PdfNameTable {
+
+    private PdfNameTable() {
+    }
+
+    /** All the static names. */
+    static final PdfName NAMES[] = {
+        PdfName._3D, PdfName.A, PdfName.A85, PdfName.AA, PdfName.ABSOLUTECOLORIMETRIC, PdfName.AC, PdfName.ACROFORM,
+        PdfName.ACTION, PdfName.ACTIVATION, PdfName.ADBE, PdfName.ACTUALTEXT, PdfName.ADBE_PKCS7_DETACHED,
+        PdfName.ADBE_PKCS7_S4, PdfName.ADBE_PKCS7_S5, PdfName.ADBE_PKCS7_SHA1, PdfName.ADBE_X509_RSA_SHA1,
+        PdfName.ADOBE_PPKLITE, PdfName.ADOBE_PPKMS, PdfName.AESV2, PdfName.AESV3, PdfName.AF, PdfName.AFRELATIONSHIP,
+        PdfName.AHX, PdfName.AIS, PdfName.ALL, PdfName.ALLPAGES, PdfName.ALT, PdfName.ALTERNATE,
+        PdfName.ALTERNATEPRESENTATION, PdfName.ALTERNATES, PdfName.AND, PdfName.ANIMATION, PdfName.ANNOT,
+        PdfName.ANNOTS, PdfName.ANTIALIAS, PdfName.AP, PdfName.APP, PdfName.APPDEFAULT, PdfName.ART, PdfName.ARTBOX,
+        PdfName.ARTIFACT, PdfName.ASCENT, PdfName.AS, PdfName.ASCII85DECODE, PdfName.ASCIIHEXDECODE, PdfName.ASSET,
+        PdfName.ASSETS, PdfName.ATTACHED, PdfName.AUTHEVENT, PdfName.AUTHOR, PdfName.B, PdfName.BACKGROUND,
+        PdfName.BACKGROUNDCOLOR, PdfName.BASEENCODING, PdfName.BASEFONT, PdfName.BASEVERSION, PdfName.BBOX,
+        PdfName.BC, PdfName.BG, PdfName.BIBENTRY, PdfName.BIGFIVE, PdfName.BINDING, PdfName.BINDINGMATERIALNAME,
+        PdfName.BITSPERCOMPONENT, PdfName.BITSPERSAMPLE, PdfName.BL, PdfName.BLACKIS1, PdfName.BLACKPOINT,
+        PdfName.BLOCKQUOTE, PdfName.BLEEDBOX, PdfName.BLINDS, PdfName.BM, PdfName.BORDER, PdfName.BOTH,
+        PdfName.BOUNDS, PdfName.BOX, PdfName.BS, PdfName.BTN, PdfName.BYTERANGE, PdfName.C, PdfName.C0, PdfName.C1,
+        PdfName.CA, PdfName.ca, PdfName.CALGRAY, PdfName.CALRGB, PdfName.CAPHEIGHT, PdfName.CARET, PdfName.CAPTION,
+        PdfName.CATALOG, PdfName.CATEGORY, PdfName.CB, PdfName.CCITTFAXDECODE, PdfName.CENTER, PdfName.CENTERWINDOW,
+        PdfName.CERT, PdfName.CERTS, PdfName.CF, PdfName.CFM, PdfName.CH, PdfName.CHARPROCS, PdfName.CHECKSUM,
+        PdfName.CI, PdfName.CIDFONTTYPE0, PdfName.CIDFONTTYPE2, PdfName.CIDSET, PdfName.CIDSYSTEMINFO,
+        PdfName.CIDTOGIDMAP, PdfName.CIRCLE, PdfName.CLASSMAP, PdfName.CLOUD, PdfName.CMD, PdfName.CO, PdfName.CODE,
+        PdfName.COLOR, PdfName.COLORANTS, PdfName.COLORS, PdfName.COLORSPACE, PdfName.COLORTRANSFORM,
+        PdfName.COLLECTION, PdfName.COLLECTIONFIELD, PdfName.COLLECTIONITEM, PdfName.COLLECTIONSCHEMA,
+        PdfName.COLLECTIONSORT, PdfName.COLLECTIONSUBITEM, PdfName.COLSPAN, PdfName.COLUMN, PdfName.COLUMNS,
+        PdfName.CONDITION, PdfName.CONFIGS, PdfName.CONFIGURATION, PdfName.CONFIGURATIONS, PdfName.CONTACTINFO,
+        PdfName.CONTENT, PdfName.CONTENTS, PdfName.COORDS, PdfName.COUNT, PdfName.COURIER, PdfName.COURIER_BOLD,
+        PdfName.COURIER_OBLIQUE, PdfName.COURIER_BOLDOBLIQUE, PdfName.CREATIONDATE, PdfName.CREATOR,
+        PdfName.CREATORINFO, PdfName.CRL, PdfName.CRLS, PdfName.CROPBOX, PdfName.CRYPT, PdfName.CS, PdfName.CUEPOINT,
+        PdfName.CUEPOINTS, PdfName.CYX, PdfName.D, PdfName.DA, PdfName.DATA, PdfName.DC, PdfName.DCS,
+        PdfName.DCTDECODE, PdfName.DECIMAL, PdfName.DEACTIVATION, PdfName.DECODE, PdfName.DECODEPARMS,
+        PdfName.DEFAULT, PdfName.DEFAULTCRYPTFILTER, PdfName.DEFAULTCMYK, PdfName.DEFAULTGRAY, PdfName.DEFAULTRGB,
+        PdfName.DESC, PdfName.DESCENDANTFONTS, PdfName.DESCENT, PdfName.DEST, PdfName.DESTOUTPUTPROFILE,
+        PdfName.DESTS, PdfName.DEVICEGRAY, PdfName.DEVICERGB, PdfName.DEVICECMYK, PdfName.DEVICEN, PdfName.DI,
+        PdfName.DIFFERENCES, PdfName.DISSOLVE, PdfName.DIRECTION, PdfName.DISPLAYDOCTITLE, PdfName.DIV, PdfName.DL,
+        PdfName.DM, PdfName.DOCMDP, PdfName.DOCOPEN, PdfName.DOCTIMESTAMP, PdfName.DOCUMENT, PdfName.DOMAIN,
+        PdfName.DOS, PdfName.DP, PdfName.DR, PdfName.DS, PdfName.DSS, PdfName.DUR, PdfName.DUPLEX,
+        PdfName.DUPLEXFLIPSHORTEDGE, PdfName.DUPLEXFLIPLONGEDGE, PdfName.DV, PdfName.DW, PdfName.E,
+        PdfName.EARLYCHANGE, PdfName.EF, PdfName.EFF, PdfName.EFOPEN, PdfName.EMBEDDED, PdfName.EMBEDDEDFILE,
+        PdfName.EMBEDDEDFILES, PdfName.ENCODE, PdfName.ENCODEDBYTEALIGN, PdfName.ENCODING, PdfName.ENCRYPT,
+        PdfName.ENCRYPTMETADATA, PdfName.END, PdfName.ENDINDENT, PdfName.ENDOFBLOCK, PdfName.ENDOFLINE, PdfName.EPSG,
+        PdfName.ESIC, PdfName.ETSI_CADES_DETACHED, PdfName.ETSI_RFC3161, PdfName.EXCLUDE, PdfName.EXTEND,
+        PdfName.EXTENSIONS, PdfName.EXTENSIONLEVEL, PdfName.EXTGSTATE, PdfName.EXPORT, PdfName.EXPORTSTATE,
+        PdfName.EVENT, PdfName.F, PdfName.FAR, PdfName.FB, PdfName.FD, PdfName.FDECODEPARMS, PdfName.FDF, PdfName.FF,
+        PdfName.FFILTER, PdfName.FG, PdfName.FIELDMDP, PdfName.FIELDS, PdfName.FIGURE, PdfName.FILEATTACHMENT,
+        PdfName.FILESPEC, PdfName.FILTER, PdfName.FIRST, PdfName.FIRSTCHAR, PdfName.FIRSTPAGE, PdfName.FIT,
+        PdfName.FITH, PdfName.FITV, PdfName.FITR, PdfName.FITB, PdfName.FITBH, PdfName.FITBV, PdfName.FITWINDOW,
+        PdfName.FL, PdfName.FLAGS, PdfName.FLASH, PdfName.FLASHVARS, PdfName.FLATEDECODE, PdfName.FO, PdfName.FONT,
+        PdfName.FONTBBOX, PdfName.FONTDESCRIPTOR, PdfName.FONTFAMILY, PdfName.FONTFILE, PdfName.FONTFILE2,
+        PdfName.FONTFILE3, PdfName.FONTMATRIX, PdfName.FONTNAME, PdfName.FONTWEIGHT, PdfName.FOREGROUND,
+        PdfName.FORM, PdfName.FORMTYPE, PdfName.FORMULA, PdfName.FREETEXT, PdfName.FRM, PdfName.FS, PdfName.FT,
+        PdfName.FULLSCREEN, PdfName.FUNCTION, PdfName.FUNCTIONS, PdfName.FUNCTIONTYPE, PdfName.GAMMA, PdfName.GBK,
+        PdfName.GCS, PdfName.GEO, PdfName.GEOGCS, PdfName.GLITTER, PdfName.GOTO, PdfName.GOTO3DVIEW, PdfName.GOTOE,
+        PdfName.GOTOR, PdfName.GPTS, PdfName.GROUP, PdfName.GTS_PDFA1, PdfName.GTS_PDFX, PdfName.GTS_PDFXVERSION,
+        PdfName.H, PdfName.H1, PdfName.H2, PdfName.H3, PdfName.H4, PdfName.H5, PdfName.H6, PdfName.HALFTONENAME,
+        PdfName.HALFTONETYPE, PdfName.HALIGN, PdfName.HEADERS, PdfName.HEIGHT, PdfName.HELV, PdfName.HELVETICA,
+        PdfName.HELVETICA_BOLD, PdfName.HELVETICA_OBLIQUE, PdfName.HELVETICA_BOLDOBLIQUE, PdfName.HF, PdfName.HID,
+        PdfName.HIDE, PdfName.HIDEMENUBAR, PdfName.HIDETOOLBAR, PdfName.HIDEWINDOWUI, PdfName.HIGHLIGHT,
+        PdfName.HOFFSET, PdfName.HT, PdfName.HTP, PdfName.I, PdfName.IC, PdfName.ICCBASED, PdfName.ID,
+        PdfName.IDENTITY, PdfName.IDTREE, PdfName.IF, PdfName.IM, PdfName.IMAGE, PdfName.IMAGEB, PdfName.IMAGEC,
+        PdfName.IMAGEI, PdfName.IMAGEMASK, PdfName.INCLUDE, PdfName.IND, PdfName.INDEX, PdfName.INDEXED,
+        PdfName.INFO, PdfName.INK, PdfName.INKLIST, PdfName.INSTANCES, PdfName.IMPORTDATA, PdfName.INTENT,
+        PdfName.INTERPOLATE, PdfName.ISMAP, PdfName.IRT, PdfName.ITALICANGLE, PdfName.ITXT, PdfName.IX,
+        PdfName.JAVASCRIPT, PdfName.JBIG2DECODE, PdfName.JBIG2GLOBALS, PdfName.JPXDECODE, PdfName.JS,
+        PdfName.JUSTIFY, PdfName.K, PdfName.KEYWORDS, PdfName.KIDS, PdfName.L, PdfName.L2R, PdfName.LAB,
+        PdfName.LANG, PdfName.LANGUAGE, PdfName.LAST, PdfName.LASTCHAR, PdfName.LASTPAGE, PdfName.LAUNCH,
+        PdfName.LAYOUT, PdfName.LBL, PdfName.LBODY, PdfName.LENGTH, PdfName.LENGTH1, PdfName.LI, PdfName.LIMITS,
+        PdfName.LINE, PdfName.LINEAR, PdfName.LINEHEIGHT, PdfName.LINK, PdfName.LIST, PdfName.LISTMODE,
+        PdfName.LISTNUMBERING, PdfName.LOCATION, PdfName.LOCK, PdfName.LOCKED, PdfName.LOWERALPHA,
+        PdfName.LOWERROMAN, PdfName.LPTS, PdfName.LZWDECODE, PdfName.M, PdfName.MAC, PdfName.MATERIAL,
+        PdfName.MATRIX, PdfName.MAC_EXPERT_ENCODING, PdfName.MAC_ROMAN_ENCODING, PdfName.MARKED, PdfName.MARKINFO,
+        PdfName.MASK, PdfName.MAX_LOWER_CASE, PdfName.MAX_CAMEL_CASE, PdfName.MAXLEN, PdfName.MEDIABOX, PdfName.MCID,
+        PdfName.MCR, PdfName.MEASURE, PdfName.METADATA, PdfName.MIN_LOWER_CASE, PdfName.MIN_CAMEL_CASE, PdfName.MK,
+        PdfName.MMTYPE1, PdfName.MODDATE, PdfName.MOVIE, PdfName.N, PdfName.N0, PdfName.N1, PdfName.N2, PdfName.N3,
+        PdfName.N4, PdfName.NAME, PdfName.NAMED, PdfName.NAMES, PdfName.NAVIGATION, PdfName.NAVIGATIONPANE,
+        PdfName.NCHANNEL, PdfName.NEAR, PdfName.NEEDAPPEARANCES, PdfName.NEEDRENDERING, PdfName.NEWWINDOW,
+        PdfName.NEXT, PdfName.NEXTPAGE, PdfName.NM, PdfName.NONE, PdfName.NONFULLSCREENPAGEMODE, PdfName.NONSTRUCT,
+        PdfName.NOT, PdfName.NOTE, PdfName.NUMBERFORMAT, PdfName.NUMCOPIES, PdfName.NUMS, PdfName.O, PdfName.OBJ,
+        PdfName.OBJR, PdfName.OBJSTM, PdfName.OC, PdfName.OCG, PdfName.OCGS, PdfName.OCMD, PdfName.OCPROPERTIES,
+        PdfName.OCSP, PdfName.OCSPS, PdfName.OE, PdfName.Off, PdfName.OFF, PdfName.ON, PdfName.ONECOLUMN,
+        PdfName.OPEN, PdfName.OPENACTION, PdfName.OP, PdfName.op, PdfName.OPI, PdfName.OPM, PdfName.OPT, PdfName.OR,
+        PdfName.ORDER, PdfName.ORDERING, PdfName.ORG, PdfName.OSCILLATING, PdfName.OUTLINES, PdfName.OUTPUTCONDITION,
+        PdfName.OUTPUTCONDITIONIDENTIFIER, PdfName.OUTPUTINTENT, PdfName.OUTPUTINTENTS, PdfName.OVERLAYTEXT,
+        PdfName.P, PdfName.PAGE, PdfName.PAGEELEMENT, PdfName.PAGELABELS, PdfName.PAGELAYOUT, PdfName.PAGEMODE,
+        PdfName.PAGES, PdfName.PAINTTYPE, PdfName.PANOSE, PdfName.PARAMS, PdfName.PARENT, PdfName.PARENTTREE,
+        PdfName.PARENTTREENEXTKEY, PdfName.PART, PdfName.PASSCONTEXTCLICK, PdfName.PATTERN, PdfName.PATTERNTYPE,
+        PdfName.PB, PdfName.PC, PdfName.PDF, PdfName.PDFDOCENCODING, PdfName.PDU, PdfName.PERCEPTUAL, PdfName.PERMS,
+        PdfName.PG, PdfName.PI, PdfName.PICKTRAYBYPDFSIZE, PdfName.PIECEINFO, PdfName.PLAYCOUNT, PdfName.PO,
+        PdfName.POLYGON, PdfName.POLYLINE, PdfName.POPUP, PdfName.POSITION, PdfName.PREDICTOR, PdfName.PREFERRED,
+        PdfName.PRESENTATION, PdfName.PRESERVERB, PdfName.PRESSTEPS, PdfName.PREV, PdfName.PREVPAGE, PdfName.PRINT,
+        PdfName.PRINTAREA, PdfName.PRINTCLIP, PdfName.PRINTERMARK, PdfName.PRINTFIELD, PdfName.PRINTPAGERANGE,
+        PdfName.PRINTSCALING, PdfName.PRINTSTATE, PdfName.PRIVATE, PdfName.PROCSET, PdfName.PRODUCER, PdfName.PROJCS,
+        PdfName.PROP_BUILD, PdfName.PROPERTIES, PdfName.PS, PdfName.PTDATA, PdfName.PUBSEC, PdfName.PV, PdfName.Q,
+        PdfName.QUADPOINTS, PdfName.QUOTE, PdfName.R, PdfName.R2L, PdfName.RANGE, PdfName.RB, PdfName.rb,
+        PdfName.RBGROUPS, PdfName.RC, PdfName.RD, PdfName.REASON, PdfName.RECIPIENTS, PdfName.RECT, PdfName.REDACT,
+        PdfName.REFERENCE, PdfName.REGISTRY, PdfName.REGISTRYNAME, PdfName.RELATIVECOLORIMETRIC, PdfName.RENDITION,
+        PdfName.REPEAT, PdfName.RESETFORM, PdfName.RESOURCES, PdfName.REQUIREMENTS, PdfName.RI, PdfName.RICHMEDIA,
+        PdfName.RICHMEDIAACTIVATION, PdfName.RICHMEDIAANIMATION, PdfName.RICHMEDIACOMMAND,
+        PdfName.RICHMEDIACONFIGURATION, PdfName.RICHMEDIACONTENT, PdfName.RICHMEDIADEACTIVATION,
+        PdfName.RICHMEDIAEXECUTE, PdfName.RICHMEDIAINSTANCE, PdfName.RICHMEDIAPARAMS, PdfName.RICHMEDIAPOSITION,
+        PdfName.RICHMEDIAPRESENTATION, PdfName.RICHMEDIASETTINGS, PdfName.RICHMEDIAWINDOW, PdfName.RL, PdfName.ROLE,
+        PdfName.RO, PdfName.ROLEMAP, PdfName.ROOT, PdfName.ROTATE, PdfName.ROW, PdfName.ROWS, PdfName.ROWSPAN,
+        PdfName.RP, PdfName.RT, PdfName.RUBY, PdfName.RUNLENGTHDECODE, PdfName.RV, PdfName.S, PdfName.SATURATION,
+        PdfName.SCHEMA, PdfName.SCOPE, PdfName.SCREEN, PdfName.SCRIPTS, PdfName.SECT, PdfName.SEPARATION,
+        PdfName.SETOCGSTATE, PdfName.SETTINGS, PdfName.SHADING, PdfName.SHADINGTYPE, PdfName.SHIFT_JIS, PdfName.SIG,
+        PdfName.SIGFIELDLOCK, PdfName.SIGFLAGS, PdfName.SIGREF, PdfName.SIMPLEX, PdfName.SINGLEPAGE, PdfName.SIZE,
+        PdfName.SMASK, PdfName.SMASKINDATA, PdfName.SORT, PdfName.SOUND, PdfName.SPACEAFTER, PdfName.SPACEBEFORE,
+        PdfName.SPAN, PdfName.SPEED, PdfName.SPLIT, PdfName.SQUARE, PdfName.SQUIGGLY, PdfName.SS, PdfName.ST,
+        PdfName.STAMP, PdfName.STATUS, PdfName.STANDARD, PdfName.START, PdfName.STARTINDENT, PdfName.STATE,
+        PdfName.STDCF, PdfName.STEMV, PdfName.STMF, PdfName.STRF, PdfName.STRIKEOUT, PdfName.STRUCTELEM,
+        PdfName.STRUCTPARENT, PdfName.STRUCTPARENTS, PdfName.STRUCTTREEROOT, PdfName.STYLE, PdfName.SUBFILTER,
+        PdfName.SUBJECT, PdfName.SUBMITFORM, PdfName.SUBTYPE, PdfName.SUMMARY, PdfName.SUPPLEMENT, PdfName.SV,
+        PdfName.SW, PdfName.SYMBOL, PdfName.T, PdfName.TA, PdfName.TABLE, PdfName.TABS, PdfName.TBODY, PdfName.TD,
+        PdfName.TR, PdfName.TR2, PdfName.TEXT, PdfName.TEXTALIGN, PdfName.TEXTDECORATIONCOLOR,
+        PdfName.TEXTDECORATIONTHICKNESS, PdfName.TEXTDECORATIONTYPE, PdfName.TEXTINDENT, PdfName.TFOOT, PdfName.TH,
+        PdfName.THEAD, PdfName.THUMB, PdfName.THREADS, PdfName.TI, PdfName.TIME, PdfName.TILINGTYPE,
+        PdfName.TIMES_ROMAN, PdfName.TIMES_BOLD, PdfName.TIMES_ITALIC, PdfName.TIMES_BOLDITALIC, PdfName.TITLE,
+        PdfName.TK, PdfName.TM, PdfName.TOC, PdfName.TOCI, PdfName.TOGGLE, PdfName.TOOLBAR, PdfName.TOUNICODE,
+        PdfName.TP, PdfName.TABLEROW, PdfName.TRANS, PdfName.TRANSFORMPARAMS, PdfName.TRANSFORMMETHOD,
+        PdfName.TRANSPARENCY, PdfName.TRANSPARENT, PdfName.TRAPNET, PdfName.TRAPPED, PdfName.TRIMBOX,
+        PdfName.TRUETYPE, PdfName.TS, PdfName.TTL, PdfName.TU, PdfName.TV, PdfName.TWOCOLUMNLEFT,
+        PdfName.TWOCOLUMNRIGHT, PdfName.TWOPAGELEFT, PdfName.TWOPAGERIGHT, PdfName.TX, PdfName.TYPE, PdfName.TYPE0,
+        PdfName.TYPE1, PdfName.TYPE3, PdfName.U, PdfName.UE, PdfName.UF, PdfName.UHC, PdfName.UNDERLINE,
+        PdfName.UNIX, PdfName.UPPERALPHA, PdfName.UPPERROMAN, PdfName.UR, PdfName.UR3, PdfName.URI, PdfName.URL,
+        PdfName.USAGE, PdfName.USEATTACHMENTS, PdfName.USENONE, PdfName.USEOC, PdfName.USEOUTLINES, PdfName.USER,
+        PdfName.USERPROPERTIES, PdfName.USERUNIT, PdfName.USETHUMBS, PdfName.UTF_8, PdfName.V, PdfName.V2,
+        PdfName.VALIGN, PdfName.VE, PdfName.VERISIGN_PPKVS, PdfName.VERSION, PdfName.VERTICES, PdfName.VIDEO,
+        PdfName.VIEW, PdfName.VIEWS, PdfName.VIEWAREA, PdfName.VIEWCLIP, PdfName.VIEWERPREFERENCES, PdfName.VIEWPORT,
+        PdfName.VIEWSTATE, PdfName.VISIBLEPAGES, PdfName.VOFFSET, PdfName.VP, PdfName.VRI, PdfName.W, PdfName.W2,
+        PdfName.WARICHU, PdfName.WATERMARK, PdfName.WC, PdfName.WIDGET, PdfName.WIDTH, PdfName.WIDTHS, PdfName.WIN,
+        PdfName.WIN_ANSI_ENCODING, PdfName.WINDOW, PdfName.WINDOWED, PdfName.WIPE, PdfName.WHITEPOINT, PdfName.WKT,
+        PdfName.WP, PdfName.WS, PdfName.WT, PdfName.X, PdfName.XA, PdfName.XD, PdfName.XFA, PdfName.XML,
+        PdfName.XOBJECT, PdfName.XPTS, PdfName.XREF, PdfName.XREFSTM, PdfName.XSTEP, PdfName.XYZ, PdfName.YSTEP,
+        PdfName.ZADB, PdfName.ZAPFDINGBATS, PdfName.ZOOM
+    };
+}
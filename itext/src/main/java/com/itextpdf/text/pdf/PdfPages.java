@@ -58,18 +58,33 @@ import com.itextpdf.text.error_messages.MessageLocalization;
  * This tree defines the ordering of the pages in the document.<BR>
  * This object is described in the 'Portable Document Format Reference Manual version 1.3'
  * section 6.3 (page 71-73)
+ * <P>
+ * The tree is written while the pages are added: only the node being filled on every
+ * level is kept, a full node is written as soon as a next kid arrives on its level.
  *
  * @see		PdfPage
  */
 
 public class PdfPages {
 
-    private ArrayList<PdfIndirectReference> pages = new ArrayList<PdfIndirectReference>();
-    private ArrayList<PdfIndirectReference> parents = new ArrayList<PdfIndirectReference>();
+    /** The node being filled on every level of the tree, the parents of the pages are on level 0. */
+    private ArrayList<PageTreeNode> levels = new ArrayList<PageTreeNode>();
+    private int pageCount = 0;
     private int leafSize = 10;
+    private boolean linearMode = false;
     private PdfWriter writer;
     private PdfIndirectReference topParent;
 
+    private static class PageTreeNode {
+        PdfIndirectReference reference;
+        ArrayList<PdfIndirectReference> kids = new ArrayList<PdfIndirectReference>();
+        int count = 0;
+
+        PageTreeNode(PdfIndirectReference reference) {
+            this.reference = reference;
+        }
+    }
+
     // constructors
 
 /**
@@ -82,13 +97,11 @@ public class PdfPages {
 
     void addPage(PdfDictionary page) {
         try {
-            if (pages.size() % leafSize == 0)
-                parents.add(writer.getPdfIndirectReference());
-            PdfIndirectReference parent = parents.get(parents.size() - 1);
-            page.put(PdfName.PARENT, parent);
             PdfIndirectReference current = writer.getCurrentPage();
+            PdfIndirectReference parent = addKid(0, current, 1);
+            page.put(PdfName.PARENT, parent);
             writer.addToBody(page, current);
-            pages.add(current);
+            ++pageCount;
         }
         catch (Exception e) {
             throw new ExceptionConverter(e);
@@ -97,90 +110,119 @@ public class PdfPages {
 
     PdfIndirectReference addPageRef(PdfIndirectReference pageRef) {
         try {
-            if (pages.size() % leafSize == 0)
-                parents.add(writer.getPdfIndirectReference());
-            pages.add(pageRef);
-            return parents.get(parents.size() - 1);
+            PdfIndirectReference parent = addKid(0, pageRef, 1);
+            ++pageCount;
+            return parent;
         }
         catch (Exception e) {
             throw new ExceptionConverter(e);
         }
     }
 
+    /**
+     * Adds a kid to the node being filled on a level. A full node is only written when a next kid
+     * arrives, so the root of the tree is never given a parent.
+     * @param level the level of the node, 0 for the parents of the pages
+     * @param kid the page or the node to add
+     * @param count the number of pages of the kid
+     * @return the node the kid was added to
+     * @throws IOException
+     */
+    private PdfIndirectReference addKid(int level, PdfIndirectReference kid, int count) throws IOException {
+        PageTreeNode node;
+        if (level == levels.size()) {
+            node = new PageTreeNode(writer.getPdfIndirectReference());
+            levels.add(node);
+        }
+        else {
+            node = levels.get(level);
+            if (node.kids.size() >= leafSize) {
+                writeNode(node, addKid(level + 1, node.reference, node.count));
+                node = new PageTreeNode(writer.getPdfIndirectReference());
+                levels.set(level, node);
+            }
+        }
+        node.kids.add(kid);
+        node.count += count;
+        return node.reference;
+    }
+
+    private void writeNode(PageTreeNode node, PdfIndirectReference parent) throws IOException {
+        PdfDictionary top = new PdfDictionary(PdfName.PAGES);
+        top.put(PdfName.COUNT, new PdfNumber(node.count));
+        PdfArray kids = new PdfArray();
+        kids.getArrayList().addAll(node.kids);
+        top.put(PdfName.KIDS, kids);
+        if (parent != null)
+            top.put(PdfName.PARENT, parent);
+        writer.addToBody(top, node.reference);
+    }
+
     // returns the top parent to include in the catalog
     PdfIndirectReference writePageTree() throws IOException {
-        if (pages.isEmpty())
+        if (pageCount == 0)
             throw new IOException(MessageLocalization.getComposedMessage("the.document.has.no.pages"));
-        int leaf = 1;
-        ArrayList<PdfIndirectReference> tParents = parents;
-        ArrayList<PdfIndirectReference> tPages = pages;
-        ArrayList<PdfIndirectReference> nextParents = new ArrayList<PdfIndirectReference>();
-        while (true) {
-            leaf *= leafSize;
-            int stdCount = leafSize;
-            int rightCount = tPages.size() % leafSize;
-            if (rightCount == 0)
-                rightCount = leafSize;
-            for (int p = 0; p < tParents.size(); ++p) {
-                int count;
-                int thisLeaf = leaf;
-                if (p == tParents.size() - 1) {
-                    count = rightCount;
-                    thisLeaf = pages.size() % leaf;
-                    if (thisLeaf == 0)
-                        thisLeaf = leaf;
-                }
-                else
-                    count = stdCount;
-                PdfDictionary top = new PdfDictionary(PdfName.PAGES);
-                top.put(PdfName.COUNT, new PdfNumber(thisLeaf));
-                PdfArray kids = new PdfArray();
-                ArrayList<PdfObject> internal = kids.getArrayList();
-                internal.addAll(tPages.subList(p * stdCount, p * stdCount + count));
-                top.put(PdfName.KIDS, kids);
-                if (tParents.size() > 1) {
-                    if (p % leafSize == 0)
-                        nextParents.add(writer.getPdfIndirectReference());
-                    top.put(PdfName.PARENT, nextParents.get(p / leafSize));
-                }
-                writer.addToBody(top, tParents.get(p));
-            }
-            if (tParents.size() == 1) {
-                topParent = tParents.get(0);
-                return topParent;
-            }
-            tPages = tParents;
-            tParents = nextParents;
-            nextParents = new ArrayList<PdfIndirectReference>();
+        // the size grows when a full node gets its parent
+        for (int level = 0; level < levels.size() - 1; ++level) {
+            PageTreeNode node = levels.get(level);
+            writeNode(node, addKid(level + 1, node.reference, node.count));
         }
+        PageTreeNode root = levels.get(levels.size() - 1);
+        writeNode(root, null);
+        topParent = root.reference;
+        return topParent;
     }
 
     PdfIndirectReference getTopParent() {
         return topParent;
     }
 
+    /**
+     * Sets the maximum number of kids of a node of the page tree. It has no effect in linear mode.
+     * @param fanOut the maximum number of kids, at least 2
+     * @since 5.5.6
+     */
+    void setFanOut(int fanOut) {
+        if (fanOut < 2)
+            throw new IllegalArgumentException(MessageLocalization.getComposedMessage("the.page.tree.fan.out.must.be.greater.than.1.found.1", fanOut));
+        if (!linearMode)
+            leafSize = fanOut;
+    }
+
     void setLinearMode(PdfIndirectReference topParent) {
-        if (parents.size() > 1)
+        if (levels.size() > 1)
             throw new RuntimeException(MessageLocalization.getComposedMessage("linear.page.mode.can.only.be.called.with.a.single.parent"));
         if (topParent != null) {
             this.topParent = topParent;
-            parents.clear();
-            parents.add(topParent);
+            if (levels.isEmpty())
+                levels.add(new PageTreeNode(topParent));
+            else
+                levels.get(0).reference = topParent;
         }
         leafSize = 10000000;
+        linearMode = true;
     }
 
     void addPage(PdfIndirectReference page) {
-        pages.add(page);
+        try {
+            addKid(0, page, 1);
+            ++pageCount;
+        }
+        catch (IOException e) {
+            throw new ExceptionConverter(e);
+        }
     }
 
     int reorderPages(int order[]) throws DocumentException {
         if (order == null)
-            return pages.size();
-        if (parents.size() > 1)
+            return pageCount;
+        if (levels.size() > 1)
             throw new DocumentException(MessageLocalization.getComposedMessage("page.reordering.requires.a.single.parent.in.the.page.tree.call.pdfwriter.setlinearmode.after.open"));
-        if (order.length != pages.size())
+        if (order.length != pageCount)
             throw new DocumentException(MessageLocalization.getComposedMessage("page.reordering.requires.an.array.with.the.same.size.as.the.number.of.pages"));
+        if (pageCount == 0)
+            return 0;
+        ArrayList<PdfIndirectReference> pages = levels.get(0).kids;
         int max = pages.size();
         boolean temp[] = new boolean[max];
         for (int k = 0; k < max; ++k) {
@@ -1807,7 +1807,7 @@ public class PdfReader implements PdfViewerPreferences {
                 break;
             if (tokens.getTokenType() != TokenType.NAME)
                 tokens.throwError(MessageLocalization.getComposedMessage("dictionary.key.1.is.not.a.name", tokens.getStringValue()));
-            PdfName name = new PdfName(tokens.getStringValue(), false);
+            PdfName name = tokens.getNameValue();
             PdfObject obj = readPRObject();
             int type = obj.type();
             if (-type == TokenType.END_DIC.ordinal())
@@ -1892,11 +1892,10 @@ public class PdfReader implements PdfViewerPreferences {
 
                 return str;
             case NAME: {
-                PdfName cachedName = PdfName.staticNames.get( tokens.getStringValue() );
-                if (readDepth > 0 && cachedName != null) {
-                    return cachedName;
+                if (readDepth > 0) {
+                    return tokens.getNameValue();
                 } else {
-                    // an indirect name (how odd...), or a non-standard one
+                    // an indirect name (how odd...), it can't be a shared static name
                     return new PdfName(tokens.getStringValue(), false);
                 }
             }
@@ -2529,30 +2528,33 @@ public class PdfReader implements PdfViewerPreferences {
         if (stream.getOffset() < 0)
             b = stream.getBytes();
         else {
-            b = new byte[stream.getLength()];
-            file.seek(stream.getOffset());
-            file.readFully(b);
-            PdfEncryption decrypt = reader.getDecrypt();
-            if (decrypt != null) {
-                PdfObject filter = getPdfObjectRelease(stream.get(PdfName.FILTER));
-                ArrayList<PdfObject> filters = new ArrayList<PdfObject>();
-                if (filter != null) {
-                    if (filter.isName())
-                        filters.add(filter);
-                    else if (filter.isArray())
-                        filters = ((PdfArray)filter).getArrayList();
-                }
-                boolean skip = false;
-                for (int k = 0; k < filters.size(); ++k) {
-                    PdfObject obj = getPdfObjectRelease(filters.get(k));
-                    if (obj != null && obj.toString().equals("/Crypt")) {
-                        skip = true;
-                        break;
+            // the views returned by getSafeFile() share the source and the decryption state
+            synchronized (reader) {
+                b = new byte[stream.getLength()];
+                file.seek(stream.getOffset());
+                file.readFully(b);
+                PdfEncryption decrypt = reader.getDecrypt();
+                if (decrypt != null) {
+                    PdfObject filter = getPdfObjectRelease(stream.get(PdfName.FILTER));
+                    ArrayList<PdfObject> filters = new ArrayList<PdfObject>();
+                    if (filter != null) {
+                        if (filter.isName())
+                            filters.add(filter);
+                        else if (filter.isArray())
+                            filters = ((PdfArray)filter).getArrayList();
+                    }
+                    boolean skip = false;
+                    for (int k = 0; k < filters.size(); ++k) {
+                        PdfObject obj = getPdfObjectRelease(filters.get(k));
+                        if (obj != null && obj.toString().equals("/Crypt")) {
+                            skip = true;
+                            break;
+                        }
+                    }
+                    if (!skip) {
+                        decrypt.setHashKey(stream.getObjNum(), stream.getObjGen());
+                        b = decrypt.decryptByteArray(b);
                     }
-                }
-                if (!skip) {
-                    decrypt.setHashKey(stream.getObjNum(), stream.getObjGen());
-                    b = decrypt.decryptByteArray(b);
                 }
             }
         }
@@ -2575,6 +2577,41 @@ public class PdfReader implements PdfViewerPreferences {
         }
     }
 
+    /**
+     * Writes the content of a stream of an unencrypted document as it is, without applying any filter.
+     * The content is copied from the source of the reader through the buffer instead of being loaded.
+     * @param stream the stream, it must not have been changed
+     * @param os the output stream to write the content to
+     * @param buffer the buffer to copy the content with
+     * @throws IOException on error
+     * @since 5.5.6
+     */
+    static void writeStreamBytesRaw(final PRStream stream, final OutputStream os, final byte[] buffer) throws IOException {
+        PdfReader reader = stream.getReader();
+        RandomAccessFileOrArray rf = reader.getSafeFile();
+        try {
+            rf.reOpen();
+            long position = stream.getOffset();
+            int remaining = stream.getLength();
+            while (remaining > 0) {
+                int n;
+                // the views returned by getSafeFile() share the source
+                synchronized (reader) {
+                    rf.seek(position);
+                    n = rf.read(buffer, 0, Math.min(buffer.length, remaining));
+                }
+                if (n < 0)
+                    throw new EOFException();
+                os.write(buffer, 0, n);
+                position += n;
+                remaining -= n;
+            }
+        }
+        finally {
+            try{rf.close();}catch(Exception e){}
+        }
+    }
+
     /** Eliminates shared streams if they exist. */
     public void eliminateSharedStreams() {
         if (!sharedStreams)
@@ -3516,6 +3553,15 @@ public class PdfReader implements PdfViewerPreferences {
     	return PdfViewerPreferencesImp.getViewerPreferences(catalog).getPageLayoutAndMode();
     }
 
+    /**
+     * Checks if the reader was opened in partial mode, the objects are then read on demand.
+     * @return <CODE>true</CODE> if the reader was opened in partial mode
+     * @since 5.5.6
+     */
+    public boolean isPartial() {
+        return partial;
+    }
+
     /**
      * Getter for property appendable.
      * @return Value of property appendable.
@@ -0,0 +1,149 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf;
+
+/**
+ * A report of the resources a {@link PdfWriter} keeps in memory until the document is closed.
+ * Templates are kept until they are released, the other resources are shared by the pages
+ * and are only written when the document is closed.
+ *
+ * @see PdfWriter#getRetainedResources()
+ * @since 5.5.6
+ */
+public class PdfRetainedResources {
+
+    private final int templates;
+    private final long templateBytes;
+    private final int fonts;
+    private final int importedDocuments;
+    private final int colors;
+    private final int patterns;
+    private final int shadings;
+    private final int extGStates;
+    private final int properties;
+
+    PdfRetainedResources(int templates, long templateBytes, int fonts, int importedDocuments, int colors,
+                         int patterns, int shadings, int extGStates, int properties) {
+        this.templates = templates;
+        this.templateBytes = templateBytes;
+        this.fonts = fonts;
+        this.importedDocuments = importedDocuments;
+        this.colors = colors;
+        this.patterns = patterns;
+        this.shadings = shadings;
+        this.extGStates = extGStates;
+        this.properties = properties;
+    }
+
+    /**
+     * @return the number of templates not yet written
+     */
+    public int getTemplates() {
+        return templates;
+    }
+
+    /**
+     * @return the size of the content of the templates not yet written
+     */
+    public long getTemplateBytes() {
+        return templateBytes;
+    }
+
+    /**
+     * @return the number of fonts, they are written with the glyphs used when the document is closed
+     */
+    public int getFonts() {
+        return fonts;
+    }
+
+    /**
+     * @return the number of documents with imported pages that weren't freed with {@link PdfWriter#freeReader(PdfReader)}
+     */
+    public int getImportedDocuments() {
+        return importedDocuments;
+    }
+
+    /**
+     * @return the number of spot colors
+     */
+    public int getColors() {
+        return colors;
+    }
+
+    /**
+     * @return the number of tiling and shading patterns
+     */
+    public int getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * @return the number of shadings
+     */
+    public int getShadings() {
+        return shadings;
+    }
+
+    /**
+     * @return the number of graphics states
+     */
+    public int getExtGStates() {
+        return extGStates;
+    }
+
+    /**
+     * @return the number of properties, the layers and the marked content properties
+     */
+    public int getProperties() {
+        return properties;
+    }
+
+    @Override
+    public String toString() {
+        return "templates: " + templates + " (" + templateBytes + " bytes), fonts: " + fonts
+                + ", imported documents: " + importedDocuments + ", colors: " + colors + ", patterns: " + patterns
+                + ", shadings: " + shadings + ", graphics states: " + extGStates + ", properties: " + properties;
+    }
+}
@@ -64,6 +64,7 @@ import com.itextpdf.text.xml.xmp.XmpWriter;
 import com.itextpdf.xmp.XMPException;
 import com.itextpdf.xmp.XMPMeta;
 import com.itextpdf.xmp.XMPMetaFactory;
+import com.itextpdf.xmp.options.ParseOptions;
 import com.itextpdf.xmp.options.SerializeOptions;
 
 import java.io.ByteArrayOutputStream;
@@ -338,7 +339,7 @@ class PdfStamperImp extends PdfWriter {
                 XmpBasicProperties.setMetaDataDate(xmpWriter.getXmpMeta(), date.getW3CDate());
                 xmpWriter.serialize(baos);
                 xmpWriter.close();
-                xmp = new PdfStream(baos.toByteArray());
+                xmp = new PdfStream(baos);
             } catch(XMPException exc) {
                 xmpWriter = null;
             }
@@ -347,7 +348,8 @@ class PdfStamperImp extends PdfWriter {
         	try {
                 ByteArrayOutputStream baos = new ByteArrayOutputStream();
                 if (moreInfo == null || xmpMetadata != null) {
-                    XMPMeta xmpMeta = XMPMetaFactory.parseFromBuffer(altMetadata);
+                    XMPMeta xmpMeta = XMPMetaFactory.parseFromBuffer(altMetadata,
+                            new ParseOptions().setStreamingParser(true));
 
                     PdfProperties.setProducer(xmpMeta, producer);
                     XmpBasicProperties.setModDate(xmpMeta, date.getW3CDate());
@@ -360,7 +362,7 @@ class PdfStamperImp extends PdfWriter {
                     XmpWriter xmpw = createXmpWriter(baos, newInfo);
                     xmpw.close();
                 }
-                xmp = new PdfStream(baos.toByteArray());
+                xmp = new PdfStream(baos);
         	} catch(XMPException e) {
         		xmp = new PdfStream(altMetadata);
         	} catch(IOException e) {
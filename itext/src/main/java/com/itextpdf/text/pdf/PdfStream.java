@@ -139,6 +139,22 @@ public class PdfStream extends PdfDictionary {
         put(PdfName.LENGTH, new PdfNumber(bytes.length));
     }
   
+    /**
+     * Constructs a <CODE>PdfStream</CODE>-object with the content written to a
+     * <CODE>ByteArrayOutputStream</CODE>. The stream takes over the buffer, no copy
+     * of the content is made, so it must not be written to anymore.
+     *
+     * @param streamBytes the content of the new <CODE>PdfObject</CODE>
+     * @since 5.5.6
+     */
+    public PdfStream(ByteArrayOutputStream streamBytes) {
+        super();
+        type = STREAM;
+        this.streamBytes = streamBytes;
+        rawLength = streamBytes.size();
+        put(PdfName.LENGTH, new PdfNumber(rawLength));
+    }
+
     /**
      * Creates an efficient stream. No temporary array is ever created. The <CODE>InputStream</CODE>
      * is totally consumed but is not closed. The general usage is:
@@ -47,6 +47,8 @@ package com.itextpdf.text.pdf;
 import com.itextpdf.text.error_messages.MessageLocalization;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
 
 public class PdfStructTreeController {
@@ -60,6 +62,9 @@ public class PdfStructTreeController {
     private PdfDictionary sourceRoleMap = null;
     private PdfDictionary sourceClassMap = null;
     private PdfIndirectReference nullReference = null;
+    private ParentTreeIndex parentTreeIndex = null;
+    private HashMap<PdfReader, ParentTreeIndex> parentTreeIndexes = new HashMap<PdfReader, ParentTreeIndex>();
+    private boolean structTreeRootKidsAttached = false;
 //    private HashSet<Integer> openedDocuments = new HashSet<Integer>();
 
     public static enum returnType {BELOW, FOUND, ABOVE, NOTFOUND};
@@ -87,6 +92,20 @@ public class PdfStructTreeController {
         sourceRoleMap = null;
         sourceClassMap = null;
         nullReference = null;
+        parentTreeIndex = null;
+        structTreeRootKidsAttached = false;
+    }
+
+    /**
+     * Forgets the parent tree index of a reader that won't be copied from anymore.
+     * @since 5.5.6
+     */
+    void freeReader(PdfReader reader) {
+        parentTreeIndexes.remove(reader);
+        if (reader == this.reader) {
+            parentTreeIndex = null;
+            structTreeRootKidsAttached = false;
+        }
     }
 
     static public boolean checkTagged(PdfReader reader) {
@@ -110,108 +129,46 @@ public class PdfStructTreeController {
     }
 
     public void copyStructTreeForPage(PdfNumber sourceArrayNumber, int newArrayNumber) throws BadPdfFormatException, IOException {
-//        int documentHash = getDocumentHash(reader);
-//        if (!openedDocuments.contains(documentHash)) {
-//            openedDocuments.add(documentHash);
-//
-//        }
-        if (copyPageMarks(parentTree, sourceArrayNumber, newArrayNumber) == returnType.NOTFOUND) {
+        if (parentTreeIndex == null) {
+            // the parent tree is read once per reader instead of being searched for every page
+            parentTreeIndex = parentTreeIndexes.get(reader);
+            if (parentTreeIndex == null) {
+                parentTreeIndex = new ParentTreeIndex(parentTree);
+                parentTreeIndexes.put(reader, parentTreeIndex);
+            }
+        }
+        PdfObject marks = parentTreeIndex.get(sourceArrayNumber.intValue());
+        if (marks == null || copyPageMarks(marks, newArrayNumber) == returnType.NOTFOUND) {
             throw new BadPdfFormatException(MessageLocalization.getComposedMessage("invalid.structparent"));
         }
     }
 
-    private returnType copyPageMarks(PdfDictionary parentTree, PdfNumber arrayNumber, int newArrayNumber) throws BadPdfFormatException, IOException {
-        PdfArray pages = (PdfArray) getDirectObject(parentTree.get(PdfName.NUMS));
-        if (pages == null) {
-            PdfArray kids = (PdfArray) getDirectObject(parentTree.get(PdfName.KIDS));
-            if (kids == null)
-                return returnType.NOTFOUND;
-            int cur = kids.size() / 2;
-            int begin = 0;
-            while (true) {
-                PdfDictionary kidTree = (PdfDictionary) getDirectObject(kids.getPdfObject(cur + begin));
-                switch (copyPageMarks(kidTree, arrayNumber, newArrayNumber)) {
-                    case FOUND:
-                        return returnType.FOUND;
-                    case ABOVE:
-                        begin += cur;
-                        cur /= 2;
-                        if (cur == 0)
-                            cur = 1;
-                        if (cur + begin == kids.size())
-                            return returnType.ABOVE;
-                        break;
-                    case BELOW:
-                        if (cur + begin == 0)
-                            return returnType.BELOW;
-                        if (cur == 0)
-                            return returnType.NOTFOUND;
-                        cur /= 2;
-                        break;
-                    default:
-                        return returnType.NOTFOUND;
+    private returnType copyPageMarks(PdfObject obj1, int newArrayNumber) throws BadPdfFormatException, IOException {
+        PdfObject obj = obj1;
+        while (obj.isIndirect()) obj = PdfReader.getPdfObjectRelease(obj);
+        if (obj.isArray()) {
+            PdfObject firstNotNullKid = null;
+            for (PdfObject numObj: (PdfArray)obj){
+                if (numObj.isNull()) {
+                    if (nullReference == null)
+                        nullReference = writer.addToBody(new PdfNull()).getIndirectReference();
+                    structureTreeRoot.setPageMark(newArrayNumber, nullReference);
+                } else {
+                    PdfObject res = writer.copyObject(numObj, true, false);
+                    if (firstNotNullKid == null) firstNotNullKid = res;
+                    structureTreeRoot.setPageMark(newArrayNumber, (PdfIndirectReference) res);
                 }
             }
-        } else {
-            if (pages.size() == 0)
-                return returnType.NOTFOUND;
-            return findAndCopyMarks(pages, arrayNumber.intValue(), newArrayNumber);
-        }
-    }
-
-    private returnType findAndCopyMarks(PdfArray pages, int arrayNumber, int newArrayNumber) throws BadPdfFormatException, IOException {
-        if (pages.getAsNumber(0).intValue() > arrayNumber)
-            return returnType.BELOW;
-        if (pages.getAsNumber(pages.size() - 2).intValue() < arrayNumber)
-            return returnType.ABOVE;
-        int cur = pages.size() / 4;
-        int begin = 0;
-        int curNumber;
-        while (true) {
-            curNumber = pages.getAsNumber((begin + cur) * 2).intValue();
-            if (curNumber == arrayNumber) {
-                PdfObject obj = pages.getPdfObject((begin + cur) * 2 + 1);
-                PdfObject obj1 = obj;
-                while (obj.isIndirect()) obj = PdfReader.getPdfObjectRelease(obj);
-                if (obj.isArray()) {
-                    PdfObject firstNotNullKid = null;
-                    for (PdfObject numObj: (PdfArray)obj){
-                        if (numObj.isNull()) {
-                            if (nullReference == null)
-                                nullReference = writer.addToBody(new PdfNull()).getIndirectReference();
-                            structureTreeRoot.setPageMark(newArrayNumber, nullReference);
-                        } else {
-                            PdfObject res = writer.copyObject(numObj, true, false);
-                            if (firstNotNullKid == null) firstNotNullKid = res;
-                            structureTreeRoot.setPageMark(newArrayNumber, (PdfIndirectReference) res);
-                        }
-                    }
-                    attachStructTreeRootKids(firstNotNullKid);
-                } else if (obj.isDictionary()) {
-                    PdfDictionary k = getKDict((PdfDictionary)obj);
-                    if (k == null)
-                        return returnType.NOTFOUND;
-                    PdfObject res = writer.copyObject(obj1, true, false);
-                    structureTreeRoot.setAnnotationMark(newArrayNumber, (PdfIndirectReference)res);
-                } else
-                    return returnType.NOTFOUND;
-                return returnType.FOUND;
-            }
-            if (curNumber < arrayNumber) {
-                begin += cur;
-                cur /= 2;
-                if (cur == 0)
-                    cur = 1;
-                if (cur + begin == pages.size())
-                    return returnType.NOTFOUND;
-                continue;
-            }
-            if (cur + begin == 0)
-                return returnType.BELOW;
-            if (cur == 0)
+            attachStructTreeRootKids(firstNotNullKid);
+        } else if (obj.isDictionary()) {
+            PdfDictionary k = getKDict((PdfDictionary)obj);
+            if (k == null)
                 return returnType.NOTFOUND;
-            cur /= 2;
-        }
+            PdfObject res = writer.copyObject(obj1, true, false);
+            structureTreeRoot.setAnnotationMark(newArrayNumber, (PdfIndirectReference)res);
+        } else
+            return returnType.NOTFOUND;
+        return returnType.FOUND;
     }
 
     /**
@@ -223,12 +180,16 @@ public class PdfStructTreeController {
             // incorrect syntax of tags
             addKid(structureTreeRoot, firstNotNullKid);
         } else {
+            // the kids were copied with an earlier page of this reader and have nothing to update
+            if (structTreeRootKidsAttached && !writer.updateRootKids)
+                return;
             if (structKids.isIndirect()) {
                 addKid(structKids);
             } else { //structKids.isArray()
                 for (PdfObject kid: (PdfArray)structKids)
                     addKid(kid);
             }
+            structTreeRootKidsAttached = true;
         }
     }
 
@@ -453,6 +414,105 @@ public class PdfStructTreeController {
         parent.put(PdfName.K, kids);
     }
 
+    /**
+     * The entries of a source parent tree sorted by their key.
+     * @since 5.5.6
+     */
+    private static class ParentTreeIndex {
+        private static final int MAX_DEPTH = 64;
+
+        private int[] keys = new int[16];
+        private PdfObject[] values = new PdfObject[16];
+        private int size = 0;
+        private boolean sorted = true;
+
+        ParentTreeIndex(PdfDictionary parentTree) {
+            addNode(parentTree, 0);
+            if (!sorted)
+                sort();
+        }
+
+        /**
+         * @return the entry of the key, an indirect reference or the object itself, or null if there is none
+         */
+        PdfObject get(int key) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] < key)
+                    low = mid + 1;
+                else if (keys[mid] > key)
+                    high = mid - 1;
+                else
+                    return values[mid];
+            }
+            return null;
+        }
+
+        private void addNode(PdfDictionary node, int depth) {
+            if (depth > MAX_DEPTH)
+                return;
+            PdfObject nums = getDirectObject(node.get(PdfName.NUMS));
+            if (nums != null && nums.isArray()) {
+                PdfArray array = (PdfArray) nums;
+                for (int k = 0; k + 1 < array.size(); k += 2) {
+                    PdfObject key = getDirectObject(array.getPdfObject(k));
+                    if (key != null && key.isNumber())
+                        add(((PdfNumber) key).intValue(), array.getPdfObject(k + 1));
+                }
+                return;
+            }
+            PdfObject kids = getDirectObject(node.get(PdfName.KIDS));
+            if (kids != null && kids.isArray()) {
+                for (PdfObject kid : (PdfArray) kids) {
+                    kid = getDirectObject(kid);
+                    if (kid != null && kid.isDictionary())
+                        addNode((PdfDictionary) kid, depth + 1);
+                }
+            }
+        }
+
+        private void add(int key, PdfObject value) {
+            if (value == null)
+                return;
+            if (size == keys.length) {
+                int[] newKeys = new int[size * 2];
+                System.arraycopy(keys, 0, newKeys, 0, size);
+                keys = newKeys;
+                PdfObject[] newValues = new PdfObject[size * 2];
+                System.arraycopy(values, 0, newValues, 0, size);
+                values = newValues;
+            }
+            if (size > 0 && keys[size - 1] >= key)
+                sorted = false;
+            keys[size] = key;
+            values[size] = value;
+            ++size;
+        }
+
+        private void sort() {
+            // the key in the high bits and the position in the low bits keep the first of equal keys first
+            long[] order = new long[size];
+            for (int k = 0; k < size; ++k)
+                order[k] = (long) keys[k] << 32 | k;
+            Arrays.sort(order);
+            int[] newKeys = new int[size];
+            PdfObject[] newValues = new PdfObject[size];
+            int n = 0;
+            for (int k = 0; k < size; ++k) {
+                int key = (int) (order[k] >> 32);
+                if (n > 0 && newKeys[n - 1] == key)
+                    continue;
+                newKeys[n] = key;
+                newValues[n++] = values[(int) order[k]];
+            }
+            keys = newKeys;
+            values = newValues;
+            size = n;
+        }
+    }
+
 //    private int getDocumentHash(final PdfReader reader) {
 //        PdfDictionary trailer = reader.trailer;
 //        int hash = trailer.size();
@@ -1034,6 +1034,17 @@ public class PdfWriter extends DocWriter implements
         root.setLinearMode(null);
     }
 
+    /**
+     * Use this method to set the maximum number of kids of a node in the page tree,
+     * 10 by default. The tree is written while the pages are added, so a larger value
+     * gives a flatter tree at the cost of larger nodes. It has no effect in linear page mode.
+     * @param fanOut the maximum number of kids of a node, at least 2
+     * @since 5.5.6
+     */
+    public void setPageTreeFanOut(final int fanOut) {
+        root.setFanOut(fanOut);
+    }
+
     /**
      * Use this method to reorder the pages in the document.
      * A <CODE>null</CODE> argument value only returns the number of pages to process.
@@ -1163,6 +1174,14 @@ public class PdfWriter extends DocWriter implements
             page.put(PdfName.GROUP, pp);
         }
         root.addPage(page);
+        if (templateIdlePages >= 0) {
+            try {
+                releaseIdleTemplates(page, currentPageNumber);
+            }
+            catch(IOException ioe) {
+                throw new ExceptionConverter(ioe);
+            }
+        }
         currentPageNumber++;
         return null;
     }
@@ -1272,20 +1291,23 @@ public class PdfWriter extends DocWriter implements
                 if (!documentOCG.isEmpty())
                     PdfWriter.checkPdfIsoConformance(this, PdfIsoKeys.PDFISOKEY_LAYER, OCProperties);
                 // [C9] if there is XMP data to add: add it
-                if (xmpMetadata == null && xmpWriter != null) {
+                PdfStream xmp = null;
+                if (xmpMetadata != null) {
+                    xmp = new PdfStream(xmpMetadata);
+                } else if (xmpWriter != null) {
                     try {
+                        // the packet is serialized straight into the stream buffer
                         ByteArrayOutputStream baos = new ByteArrayOutputStream();
                         xmpWriter.serialize(baos);
                     	xmpWriter.close();
-                        xmpMetadata = baos.toByteArray();
+                        xmp = new PdfStream(baos);
                     } catch (IOException exc) {
                         xmpWriter = null;
                     } catch (XMPException exc) {
                         xmpWriter = null;
                     }
                 }
-                if (xmpMetadata != null) {
-                	PdfStream xmp = new PdfStream(xmpMetadata);
+                if (xmp != null) {
                 	xmp.put(PdfName.TYPE, PdfName.METADATA);
                 	xmp.put(PdfName.SUBTYPE, PdfName.XML);
                     if (crypto != null && !crypto.isMetadataEncrypted()) {
@@ -2257,6 +2279,33 @@ public class PdfWriter extends DocWriter implements
             this.compressionLevel = compressionLevel;
     }
 
+    /** The number of decimal digits of the numbers in the content streams, negative for the default format. */
+    private int decimalPrecision = -1;
+
+    /**
+     * Gets the number of decimal digits of the numbers written in the content streams by this writer.
+     * @return the number of decimal digits, or a negative value for the default format
+     * @since 5.5.6
+     */
+    public int getDecimalPrecision() {
+        return decimalPrecision;
+    }
+
+    /**
+     * Sets the number of decimal digits of the numbers written in the content streams by this writer,
+     * from 0 to 9. The numbers are rounded half up and written without trailing zeros.
+     * A negative value, the default, keeps the format of {@link ByteBuffer#formatDouble(double)}.
+     * It should be set before the document is opened, it applies to the content created afterwards
+     * and to the direct content.
+     * @param decimalPrecision the number of decimal digits or a negative value
+     * @since 5.5.6
+     */
+    public void setDecimalPrecision(final int decimalPrecision) {
+        this.decimalPrecision = decimalPrecision;
+        directContent.getInternalBuffer().setPrecision(decimalPrecision);
+        directContentUnder.getInternalBuffer().setPrecision(decimalPrecision);
+    }
+
 //  [F3] adding fonts
 
     /** The fonts of this document */
@@ -2365,6 +2414,112 @@ public class PdfWriter extends DocWriter implements
         }
     }
 
+    /** The number of pages a template is kept after its last use in memory bounded mode, negative if the mode is off. */
+    private int templateIdlePages = -1;
+
+    /** The page of the last use of the templates to release in memory bounded mode. */
+    private HashMap<PdfIndirectReference, Integer> templateLastUse = new HashMap<PdfIndirectReference, Integer>();
+
+    /** The templates never released in memory bounded mode. */
+    private HashSet<PdfIndirectReference> retainedTemplates = new HashSet<PdfIndirectReference>();
+
+    /**
+     * Use this method to keep the memory bounded when writing many pages. In this mode a template
+     * used by the pages is written and released, as with {@link #releaseTemplate(PdfTemplate)}, once it
+     * hasn't been used for a number of pages. Images are always written as soon as they are added.
+     * <p>
+     * A template that is still changed after its last use, for instance to show the total number of pages,
+     * must be excluded with {@link #retainTemplate(PdfTemplate)}. Use {@link #getRetainedResources()} to see
+     * what is kept in memory until the document is closed.
+     * @param idlePages the number of pages without a use after which a template is released, 0 releases
+     * a template at the end of the page using it and a negative value turns the mode off
+     * @since 5.5.6
+     */
+    public void setMemoryBoundedMode(final int idlePages) {
+        templateIdlePages = idlePages;
+        if (idlePages < 0)
+            templateLastUse.clear();
+    }
+
+    /**
+     * Excludes a template from the templates released in memory bounded mode.
+     * The template is written when the document is closed, unless it's released explicitly.
+     * @param tp the template to keep
+     * @since 5.5.6
+     */
+    public void retainTemplate(final PdfTemplate tp) {
+        PdfIndirectReference ref = tp.getIndirectReference();
+        retainedTemplates.add(ref);
+        templateLastUse.remove(ref);
+    }
+
+    /**
+     * Gets the resources that are kept in memory until the document is closed.
+     * @return a report of the retained resources
+     * @since 5.5.6
+     */
+    public PdfRetainedResources getRetainedResources() {
+        int templates = 0;
+        long templateBytes = 0;
+        for (Object objs[] : formXObjects.values()) {
+            PdfTemplate template = (PdfTemplate)objs[1];
+            if (template != null && template.getType() == PdfTemplate.TYPE_TEMPLATE) {
+                ++templates;
+                templateBytes += template.getInternalBuffer().size();
+            }
+        }
+        return new PdfRetainedResources(templates, templateBytes, documentFonts.size(), readerInstances.size(),
+                documentColors.size(), documentPatterns.size() + documentShadingPatterns.size(), documentShadings.size(),
+                documentExtGState.size(), documentProperties.size());
+    }
+
+    /**
+     * Releases the templates that haven't been used for the number of pages of the memory bounded mode.
+     * @param page the page just written
+     * @param pageNumber the number of the page
+     * @throws IOException on error
+     */
+    private void releaseIdleTemplates(final PdfDictionary page, final int pageNumber) throws IOException {
+        markTemplatesUsed(page.getAsDict(PdfName.RESOURCES), pageNumber);
+        ArrayList<PdfTemplate> idle = new ArrayList<PdfTemplate>();
+        do {
+            idle.clear();
+            for (Iterator<Map.Entry<PdfIndirectReference, Integer>> it = templateLastUse.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<PdfIndirectReference, Integer> entry = it.next();
+                if (pageNumber - entry.getValue().intValue() < templateIdlePages)
+                    continue;
+                it.remove();
+                Object[] objs = formXObjects.get(entry.getKey());
+                if (objs != null && objs[1] != null)
+                    idle.add((PdfTemplate)objs[1]);
+            }
+            for (PdfTemplate template : idle) {
+                // the templates used by a released template can't change it anymore, they become idle from now on
+                markTemplatesUsed((PdfDictionary)template.getResources(), pageNumber);
+                releaseTemplate(template);
+            }
+        } while (!idle.isEmpty());
+    }
+
+    private void markTemplatesUsed(final PdfDictionary resources, final int pageNumber) {
+        if (resources == null)
+            return;
+        PdfDictionary xObjects = resources.getAsDict(PdfName.XOBJECT);
+        if (xObjects == null)
+            return;
+        for (PdfName name : xObjects.getKeys()) {
+            PdfObject ref = xObjects.get(name);
+            if (!(ref instanceof PdfIndirectReference) || ref instanceof PRIndirectReference || retainedTemplates.contains(ref))
+                continue;
+            Object[] objs = formXObjects.get(ref);
+            if (objs == null || objs[1] == null || ((PdfTemplate)objs[1]).getType() != PdfTemplate.TYPE_TEMPLATE)
+                continue;
+            Integer lastUse = templateLastUse.get(ref);
+            if (lastUse == null || lastUse.intValue() < pageNumber)
+                templateLastUse.put((PdfIndirectReference)ref, Integer.valueOf(pageNumber));
+        }
+    }
+
 //  [F5] adding pages imported form other PDF documents
 
     /**
@@ -157,6 +157,11 @@ class TrueTypeFont extends BaseFont {
      * TTF file.
      */
     protected String ttcIndex;
+    /** Identifies the font program by its name and table directory, fonts with the
+     * same identity have the same program even if read from different sources.
+     * @since 5.5.6
+     */
+    String programIdentity;
     /** The style modifier */
     protected String style = "";
     /** The content of table 'head'.
@@ -663,16 +668,19 @@ class TrueTypeFont extends BaseFont {
                 throw new DocumentException(MessageLocalization.getComposedMessage("1.is.not.a.valid.ttf.or.otf.file", fileName));
             int num_tables = rf.readUnsignedShort();
             rf.skipBytes(6);
+            StringBuilder directory = new StringBuilder();
             for (int k = 0; k < num_tables; ++k) {
                 String tag = readStandardString(4);
-                rf.skipBytes(4);
+                int checksum = rf.readInt();
                 int table_location[] = new int[2];
                 table_location[0] = rf.readInt();
                 table_location[1] = rf.readInt();
                 tables.put(tag, table_location);
+                directory.append(tag).append(Integer.toHexString(checksum)).append(':').append(table_location[1]).append(' ');
             }
             checkCff();
             fontName = getBaseFont();
+            programIdentity = fontName + ' ' + directory;
             fullName = getNames(4); //full name
             familyName = getNames(1); //family name
             allNameEntries = getAllNames();
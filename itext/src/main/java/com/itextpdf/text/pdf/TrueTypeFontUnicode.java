@@ -52,8 +52,11 @@ import com.itextpdf.text.pdf.fonts.otf.Language;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -70,6 +73,20 @@ class TrueTypeFontUnicode extends TrueTypeFont implements Comparator<int[]>{
 	private Map<String, Glyph> glyphSubstitutionMap;
 	private Language supportedLanguage;
 
+    /** The number of subsets of the font program kept by every font. */
+    private static final int SUBSET_CACHE_SIZE = 8;
+
+    /**
+     * The subsets of the font program already made, the key is the set of glyphs.
+     * Documents with the same glyphs share the subset instead of making it again.
+     */
+    private final LinkedHashMap<BitSet, byte[]> subsetCache = new LinkedHashMap<BitSet, byte[]>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<BitSet, byte[]> eldest) {
+            return size() > SUBSET_CACHE_SIZE;
+        }
+    };
+
     /**
      * Creates a new TrueType font addressed by Unicode characters. The font
      * will always be embedded.
@@ -247,6 +264,17 @@ class TrueTypeFontUnicode extends TrueTypeFont implements Comparator<int[]>{
      * @return a stream
      */
     public PdfDictionary getCIDFontType2(PdfIndirectReference fontDescriptor, String subsetPrefix, Object metrics[]) {
+        return getCIDFontType2(fontDescriptor, subsetPrefix, vertical ? null : getWidthsArray(metrics));
+    }
+
+    /** Generates the CIDFontTyte2 dictionary.
+     * @param fontDescriptor the indirect reference to the font descriptor
+     * @param subsetPrefix the subset prefix
+     * @param widths the /W array made by {@link #getWidthsArray(Object[])}, possibly <CODE>null</CODE>
+     * @return a stream
+     * @since 5.5.6
+     */
+    PdfDictionary getCIDFontType2(PdfIndirectReference fontDescriptor, String subsetPrefix, String widths) {
         PdfDictionary dic = new PdfDictionary(PdfName.FONT);
         // sivan; cff
         if (cff) {
@@ -267,32 +295,43 @@ class TrueTypeFontUnicode extends TrueTypeFont implements Comparator<int[]>{
         dic.put(PdfName.CIDSYSTEMINFO, cdic);
         if (!vertical) {
             dic.put(PdfName.DW, new PdfNumber(1000));
-            StringBuffer buf = new StringBuffer("[");
-            int lastNumber = -10;
-            boolean firstTime = true;
-            for (int k = 0; k < metrics.length; ++k) {
-                int metric[] = (int[])metrics[k];
-                if (metric[1] == 1000)
-                    continue;
-                int m = metric[0];
-                if (m == lastNumber + 1) {
-                    buf.append(' ').append(metric[1]);
-                }
-                else {
-                    if (!firstTime) {
-                        buf.append(']');
-                    }
-                    firstTime = false;
-                    buf.append(m).append('[').append(metric[1]);
-                }
-                lastNumber = m;
+            if (widths != null)
+                dic.put(PdfName.W, new PdfLiteral(widths));
+        }
+        return dic;
+    }
+
+    /** Generates the /W array of the CIDFont.
+     * @param metrics the horizontal width metrics, sorted by glyph
+     * @return the /W array or <CODE>null</CODE> if all the glyphs have the default width
+     * @since 5.5.6
+     */
+    String getWidthsArray(Object metrics[]) {
+        StringBuffer buf = new StringBuffer("[");
+        int lastNumber = -10;
+        boolean firstTime = true;
+        for (int k = 0; k < metrics.length; ++k) {
+            int metric[] = (int[])metrics[k];
+            if (metric[1] == 1000)
+                continue;
+            int m = metric[0];
+            if (m == lastNumber + 1) {
+                buf.append(' ').append(metric[1]);
             }
-            if (buf.length() > 1) {
-                buf.append("]]");
-                dic.put(PdfName.W, new PdfLiteral(buf.toString()));
+            else {
+                if (!firstTime) {
+                    buf.append(']');
+                }
+                firstTime = false;
+                buf.append(m).append('[').append(metric[1]);
             }
+            lastNumber = m;
         }
-        return dic;
+        if (buf.length() > 1) {
+            buf.append("]]");
+            return buf.toString();
+        }
+        return null;
     }
 
     /** Generates the font dictionary.
@@ -368,6 +407,38 @@ class TrueTypeFontUnicode extends TrueTypeFont implements Comparator<int[]>{
         writer.getTtfUnicodeWriter().writeFont(this, ref, params, rotbits);
     }
 
+    /**
+     * Gets the subset of the font program with the glyphs used. The subsets are cached by their
+     * set of glyphs, the returned array is shared and must not be changed.
+     * @param longTag the glyphs used, the keys are the glyph indexes
+     * @return the subset of the TrueType or CFF font program
+     * @throws IOException on error
+     * @throws DocumentException on error
+     * @since 5.5.6
+     */
+    byte[] getSubsetProgram(HashMap<Integer, int[]> longTag) throws IOException, DocumentException {
+        BitSet glyphs = new BitSet();
+        for (Integer glyph : longTag.keySet())
+            glyphs.set(glyph.intValue());
+        synchronized (subsetCache) {
+            byte[] b = subsetCache.get(glyphs);
+            if (b != null)
+                return b;
+        }
+        byte[] b;
+        if (cff) {
+            CFFFontSubset cffSubset = new CFFFontSubset(new RandomAccessFileOrArray(readCffFont()), longTag);
+            b = cffSubset.Process(cffSubset.getNames()[0]);
+        }
+        else {
+            b = getSubSet(new HashSet<Integer>(longTag.keySet()), true);
+        }
+        synchronized (subsetCache) {
+            subsetCache.put(glyphs, b);
+        }
+        return b;
+    }
+
     /**
      * Returns a PdfStream object with the full font program.
      * @return	a PdfStream with the font program
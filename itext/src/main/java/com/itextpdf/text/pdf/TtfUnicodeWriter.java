@@ -49,7 +49,7 @@ import com.itextpdf.text.DocumentException;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Set;
 
 public class TtfUnicodeWriter {
 
@@ -69,24 +69,34 @@ public class TtfUnicodeWriter {
         PdfIndirectObject obj = null;
         // sivan: cff
         if (font.cff) {
-            byte b[] = font.readCffFont();
-            if (font.subset || font.subsetRanges != null) {
-                CFFFontSubset cff = new CFFFontSubset(new RandomAccessFileOrArray(b),longTag);
-                b = cff.Process(cff.getNames()[0]);
+            Set<Integer> glyphs = font.subset || font.subsetRanges != null ? longTag.keySet() : null;
+            pobj = FontProgramCache.getFontProgram(font, glyphs);
+            if (pobj == null) {
+                byte b[];
+                if (glyphs != null)
+                    b = font.getSubsetProgram(longTag);
+                else
+                    b = font.readCffFont();
+                pobj = new BaseFont.StreamFont(b, "CIDFontType0C", font.compressionLevel);
+                FontProgramCache.putFontProgram(font, glyphs, (PdfStream)pobj);
             }
-            pobj = new BaseFont.StreamFont(b, "CIDFontType0C", font.compressionLevel);
             obj = writer.addToBody(pobj);
             ind_font = obj.getIndirectReference();
         } else {
-            byte[] b;
-            if (font.subset || font.directoryOffset != 0) {
-                b = font.getSubSet(new HashSet<Integer>(longTag.keySet()), true);
+            Set<Integer> glyphs = font.subset || font.directoryOffset != 0 ? longTag.keySet() : null;
+            pobj = FontProgramCache.getFontProgram(font, glyphs);
+            if (pobj == null) {
+                byte[] b;
+                if (glyphs != null) {
+                    b = font.getSubsetProgram(longTag);
+                }
+                else {
+                    b = font.getFullFont();
+                }
+                int lengths[] = new int[]{b.length};
+                pobj = new BaseFont.StreamFont(b, lengths, font.compressionLevel);
+                FontProgramCache.putFontProgram(font, glyphs, (PdfStream)pobj);
             }
-            else {
-                b = font.getFullFont();
-            }
-            int lengths[] = new int[]{b.length};
-            pobj = new BaseFont.StreamFont(b, lengths, font.compressionLevel);
             obj = writer.addToBody(pobj);
             ind_font = obj.getIndirectReference();
         }
@@ -97,7 +107,7 @@ public class TtfUnicodeWriter {
         obj = writer.addToBody(dic);
         ind_font = obj.getIndirectReference();
 
-        pobj = font.getCIDFontType2(ind_font, subsetPrefix, metrics);
+        pobj = font.getCIDFontType2(ind_font, subsetPrefix, font.vertical ? null : FontProgramCache.getWidthsArray(font, metrics));
         obj = writer.addToBody(pobj);
         ind_font = obj.getIndirectReference();
 
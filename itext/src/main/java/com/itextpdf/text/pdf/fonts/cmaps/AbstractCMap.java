@@ -100,11 +100,15 @@ public abstract class AbstractCMap {
         byte[] a2 = decodeStringToByte(to);
         if (a1.length != a2.length || a1.length == 0)
             throw new IllegalArgumentException("Invalid map.");
+        int end = a2[a2.length - 1] & 0xff;
+        if (code instanceof PdfNumber) {
+            addRange(a1, end, ((PdfNumber)code).intValue());
+            return;
+        }
         byte[] sout = null;
         if (code instanceof PdfString)
             sout = decodeStringToByte((PdfString)code);
         int start = a1[a1.length - 1] & 0xff;
-        int end = a2[a2.length - 1] & 0xff;
         for (int k = start; k <= end; ++k) {
             a1[a1.length - 1] = (byte)k;
             PdfString s = new PdfString(a1);
@@ -112,10 +116,6 @@ public abstract class AbstractCMap {
             if (code instanceof PdfArray) {
                 addChar(s, ((PdfArray)code).getPdfObject(k - start));
             }
-            else if (code instanceof PdfNumber) {
-                int nn = ((PdfNumber)code).intValue() + k - start;
-                addChar(s, new PdfNumber(nn));
-            }
             else if (code instanceof PdfString) {
                 PdfString s1 = new PdfString(sout);
                 s1.setHexWriting(true);
@@ -125,6 +125,44 @@ public abstract class AbstractCMap {
         }
     }
     
+    /**
+     * Maps a range of codes to consecutive CIDs. The codes go from <CODE>from</CODE> to the code
+     * with the same leading bytes and the last byte <CODE>end</CODE>.
+     * @param from the first code, its last byte is changed
+     * @param end the last byte of the last code
+     * @param cid the CID of the first code
+     * @since 5.5.6
+     */
+    void addRange(byte[] from, int end, int cid) {
+        int start = from[from.length - 1] & 0xff;
+        for (int k = start; k <= end; ++k) {
+            from[from.length - 1] = (byte)k;
+            PdfString s = new PdfString(from);
+            s.setHexWriting(true);
+            addChar(s, new PdfNumber(cid + k - start));
+        }
+    }
+
+    /**
+     * Decodes a code written as UTF-16BE the same way {@link #decodeStringToUnicode(PdfString)}
+     * does for a hex string, without creating the string.
+     * @return the code point or -1 if the code needs the general decoding
+     * @since 5.5.6
+     */
+    static int decodeUtf16Code(byte[] code) {
+        if (code.length == 2 || code.length == 4) {
+            char c1 = (char)((code[0] & 0xff) << 8 | code[1] & 0xff);
+            if (!Character.isHighSurrogate(c1) && !Character.isLowSurrogate(c1))
+                return c1;
+            if (code.length == 4 && Character.isHighSurrogate(c1)) {
+                char c2 = (char)((code[2] & 0xff) << 8 | code[3] & 0xff);
+                if (Character.isLowSurrogate(c2))
+                    return Character.toCodePoint(c1, c2);
+            }
+        }
+        return -1;
+    }
+
     public static byte[] decodeStringToByte(PdfString s) {
         byte[] b = s.getBytes();
         byte[] br = new byte[b.length];
@@ -64,6 +64,15 @@ public class CMapByteCid extends AbstractCMap {
         encodeSequence(decodeStringToByte(mark), (char)((PdfNumber)code).intValue());
     }
     
+    @Override
+    void addRange(byte[] from, int end, int cid) {
+        int start = from[from.length - 1] & 0xff;
+        for (int k = start; k <= end; ++k) {
+            from[from.length - 1] = (byte)k;
+            encodeSequence(from, (char)(cid + k - start));
+        }
+    }
+    
     private void encodeSequence(byte seqs[], char cid) {
         int size = seqs.length - 1;
         int nextPlane = 0;
@@ -44,76 +44,210 @@
  */
 package com.itextpdf.text.pdf.fonts.cmaps;
 
+import com.itextpdf.text.ExceptionConverter;
+
 import java.io.IOException;
-import java.util.HashMap;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 /**
+ * A cache of the parsed CMaps. A CMap missing from the cache is parsed only once even if
+ * several threads ask for it at the same time, the other threads wait for the result.
+ * The embedded ToUnicode CMaps are cached by the MD5 digest of their content, so that the
+ * fonts of different documents with the same ToUnicode stream share the parsed CMap.
  *
  * @author psoares
  */
 public class CMapCache {
-    private static final HashMap<String,CMapUniCid> cacheUniCid = new HashMap<String,CMapUniCid>();
-    private static final HashMap<String,CMapCidUni> cacheCidUni = new HashMap<String,CMapCidUni>();
-    private static final HashMap<String,CMapCidByte> cacheCidByte = new HashMap<String,CMapCidByte>();
-    private static final HashMap<String,CMapByteCid> cacheByteCid = new HashMap<String,CMapByteCid>();
-    
-    public static CMapUniCid getCachedCMapUniCid(String name) throws IOException {
-        CMapUniCid cmap = null;
-        synchronized (cacheUniCid) {
-            cmap = cacheUniCid.get(name);
-        }
-        if (cmap == null) {
-            cmap = new CMapUniCid();
-            CMapParserEx.parseCid(name, cmap, new CidResource());
-            synchronized (cacheUniCid) {
-                cacheUniCid.put(name, cmap);
-            }
+    private static final ConcurrentHashMap<String,Future<AbstractCMap>> cacheUniCid = new ConcurrentHashMap<String,Future<AbstractCMap>>();
+    private static final ConcurrentHashMap<String,Future<AbstractCMap>> cacheCidUni = new ConcurrentHashMap<String,Future<AbstractCMap>>();
+    private static final ConcurrentHashMap<String,Future<AbstractCMap>> cacheCidByte = new ConcurrentHashMap<String,Future<AbstractCMap>>();
+    private static final ConcurrentHashMap<String,Future<AbstractCMap>> cacheByteCid = new ConcurrentHashMap<String,Future<AbstractCMap>>();
+
+    /**
+     * The maximum number of embedded ToUnicode CMaps kept.
+     * @since 5.5.6
+     */
+    public static final int MAX_TO_UNICODE_CMAPS = 256;
+
+    /**
+     * The parsed ToUnicode CMaps by content digest, the least recently used are discarded.
+     * @since 5.5.6
+     */
+    private static final Map<ContentKey,Future<AbstractCMap>> cacheToUnicode = new LinkedHashMap<ContentKey,Future<AbstractCMap>>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ContentKey,Future<AbstractCMap>> eldest) {
+            return size() > MAX_TO_UNICODE_CMAPS;
         }
-        return cmap;
+    };
+
+    public static CMapUniCid getCachedCMapUniCid(String name) throws IOException {
+        return (CMapUniCid)getCached(cacheUniCid, name, CMapUniCid.class);
     }
     
     public static CMapCidUni getCachedCMapCidUni(String name) throws IOException {
-        CMapCidUni cmap = null;
-        synchronized (cacheCidUni) {
-            cmap = cacheCidUni.get(name);
-        }
-        if (cmap == null) {
-            cmap = new CMapCidUni();
-            CMapParserEx.parseCid(name, cmap, new CidResource());
-            synchronized (cacheCidUni) {
-                cacheCidUni.put(name, cmap);
-            }
-        }
-        return cmap;
+        return (CMapCidUni)getCached(cacheCidUni, name, CMapCidUni.class);
     }
     
     public static CMapCidByte getCachedCMapCidByte(String name) throws IOException {
-        CMapCidByte cmap = null;
-        synchronized (cacheCidByte) {
-            cmap = cacheCidByte.get(name);
+        return (CMapCidByte)getCached(cacheCidByte, name, CMapCidByte.class);
+    }
+    
+    public static CMapByteCid getCachedCMapByteCid(String name) throws IOException {
+        return (CMapByteCid)getCached(cacheByteCid, name, CMapByteCid.class);
+    }
+
+    /**
+     * Gets the parsed CMap of an embedded ToUnicode stream. The returned CMap is shared
+     * and must not be modified.
+     * @param toUnicode the decoded content of the ToUnicode stream
+     * @return the parsed CMap
+     * @throws IOException on error parsing the CMap
+     * @since 5.5.6
+     */
+    public static CMapToUnicode getCachedCMapToUnicode(final byte[] toUnicode) throws IOException {
+        ContentKey key = new ContentKey(toUnicode);
+        FutureTask<AbstractCMap> task = null;
+        Future<AbstractCMap> future;
+        synchronized (cacheToUnicode) {
+            future = cacheToUnicode.get(key);
+            if (future == null) {
+                task = new FutureTask<AbstractCMap>(new Callable<AbstractCMap>() {
+                    public AbstractCMap call() throws IOException {
+                        CMapToUnicode cmap = new CMapToUnicode();
+                        CMapParserEx.parseCid("", cmap, new CidLocationFromByte(toUnicode));
+                        return cmap;
+                    }
+                });
+                future = task;
+                cacheToUnicode.put(key, future);
+            }
+        }
+        if (task != null)
+            task.run();
+        try {
+            return (CMapToUnicode)getResult(future);
+        }
+        catch (IOException e) {
+            synchronized (cacheToUnicode) {
+                if (cacheToUnicode.get(key) == future)
+                    cacheToUnicode.remove(key);
+            }
+            throw e;
         }
-        if (cmap == null) {
-            cmap = new CMapCidByte();
-            CMapParserEx.parseCid(name, cmap, new CidResource());
-            synchronized (cacheCidByte) {
-                cacheCidByte.put(name, cmap);
+        catch (RuntimeException e) {
+            synchronized (cacheToUnicode) {
+                if (cacheToUnicode.get(key) == future)
+                    cacheToUnicode.remove(key);
             }
+            throw e;
         }
-        return cmap;
     }
-    
-    public static CMapByteCid getCachedCMapByteCid(String name) throws IOException {
-        CMapByteCid cmap = null;
-        synchronized (cacheByteCid) {
-            cmap = cacheByteCid.get(name);
+
+    /**
+     * Gets a CMap resource, parsing it on the calling thread if no other thread does already.
+     * A CMap that fails to parse isn't kept. The CMap object is only created by the thread
+     * that parses it, a cache hit allocates nothing.
+     */
+    private static AbstractCMap getCached(ConcurrentHashMap<String,Future<AbstractCMap>> cache, final String name, final Class<? extends AbstractCMap> type) throws IOException {
+        Future<AbstractCMap> future = cache.get(name);
+        if (future == null) {
+            FutureTask<AbstractCMap> task = new FutureTask<AbstractCMap>(new Callable<AbstractCMap>() {
+                public AbstractCMap call() throws IOException {
+                    AbstractCMap cmap;
+                    try {
+                        cmap = type.newInstance();
+                    }
+                    catch (InstantiationException e) {
+                        throw new ExceptionConverter(e);
+                    }
+                    catch (IllegalAccessException e) {
+                        throw new ExceptionConverter(e);
+                    }
+                    CMapParserEx.parseCid(name, cmap, new CidResource());
+                    return cmap;
+                }
+            });
+            future = cache.putIfAbsent(name, task);
+            if (future == null) {
+                future = task;
+                task.run();
+            }
+        }
+        try {
+            return getResult(future);
+        }
+        catch (IOException e) {
+            cache.remove(name, future);
+            throw e;
+        }
+        catch (RuntimeException e) {
+            cache.remove(name, future);
+            throw e;
+        }
+    }
+
+    private static AbstractCMap getResult(Future<AbstractCMap> future) throws IOException {
+        try {
+            return future.get();
         }
-        if (cmap == null) {
-            cmap = new CMapByteCid();
-            CMapParserEx.parseCid(name, cmap, new CidResource());
-            synchronized (cacheByteCid) {
-                cacheByteCid.put(name, cmap);
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExceptionConverter(e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException)cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+            if (cause instanceof Error)
+                throw (Error)cause;
+            throw new ExceptionConverter(e);
+        }
+    }
+
+    /**
+     * Identifies the content of a ToUnicode stream by its length and MD5 digest.
+     * @since 5.5.6
+     */
+    private static final class ContentKey {
+        private final int length;
+        private final byte[] digest;
+        private final int hash;
+
+        ContentKey(byte[] content) {
+            try {
+                digest = MessageDigest.getInstance("MD5").digest(content);
             }
+            catch (NoSuchAlgorithmException e) {
+                throw new ExceptionConverter(e);
+            }
+            length = content.length;
+            hash = Arrays.hashCode(digest) * 31 + length;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ContentKey))
+                return false;
+            ContentKey other = (ContentKey)obj;
+            return length == other.length && Arrays.equals(digest, other.digest);
         }
-        return cmap;
     }
 }
@@ -61,6 +61,17 @@ public class CMapCidByte extends AbstractCMap {
         map.put(Integer.valueOf(((PdfNumber)code).intValue()), ser);
     }
     
+    @Override
+    void addRange(byte[] from, int end, int cid) {
+        int start = from[from.length - 1] & 0xff;
+        for (int k = start; k <= end; ++k) {
+            byte[] ser = new byte[from.length];
+            System.arraycopy(from, 0, ser, 0, from.length);
+            ser[ser.length - 1] = (byte)k;
+            map.put(Integer.valueOf(cid + k - start), ser);
+        }
+    }
+    
     public byte[] lookup(int cid) {
         byte[] ser = map.get(Integer.valueOf(cid));
         if (ser == null)
@@ -0,0 +1,398 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf.fonts.cmaps;
+
+import com.itextpdf.text.ExceptionConverter;
+import com.itextpdf.text.io.RandomAccessSourceFactory;
+import com.itextpdf.text.io.StreamUtil;
+import com.itextpdf.text.pdf.BaseFont;
+import com.itextpdf.text.pdf.PRTokeniser;
+import com.itextpdf.text.pdf.PdfArray;
+import com.itextpdf.text.pdf.PdfEncodings;
+import com.itextpdf.text.pdf.PdfNull;
+import com.itextpdf.text.pdf.PdfNumber;
+import com.itextpdf.text.pdf.PdfObject;
+import com.itextpdf.text.pdf.PdfString;
+import com.itextpdf.text.pdf.RandomAccessFileOrArray;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Compiles the CMap resources into a binary form that is loaded without tokenizing the
+ * PostScript syntax. The compiled CMap of the resource <CODE>name</CODE> is the resource
+ * <CODE>name.bin</CODE> next to it; {@link CMapParserEx} uses it when present and parses
+ * the CMap resource otherwise.
+ * <p>
+ * The compiled form records the calls the parser makes to the CMap, a range of CIDs is stored as
+ * its first code, the last byte of its last code and its first CID, and a <CODE>usecmap</CODE> is
+ * kept as a reference to the other CMap, so that loading a compiled CMap gives the same result as
+ * parsing it.
+ *
+ * @since 5.5.6
+ */
+public final class CMapCompiler {
+
+    /** The suffix of the compiled CMap resources. */
+    public static final String COMPILED_SUFFIX = ".bin";
+
+    private static final int MAGIC = 0x69434D01;
+
+    private static final int END = 0;
+    private static final int REGISTRY = 1;
+    private static final int ORDERING = 2;
+    private static final int NAME = 3;
+    private static final int SUPPLEMENT = 4;
+    private static final int CHAR = 5;
+    private static final int RANGE = 6;
+    private static final int USECMAP = 7;
+    private static final int CID_RANGE = 8;
+
+    private static final int VALUE_OTHER = 0;
+    private static final int VALUE_NUMBER = 1;
+    private static final int VALUE_STRING = 2;
+    private static final int VALUE_HEX_STRING = 3;
+    private static final int VALUE_ARRAY = 4;
+
+    private CMapCompiler() {
+    }
+
+    /**
+     * Parses a CMap and writes its compiled form.
+     * @param cmapName the name of the CMap
+     * @param location where to find the CMap
+     * @param out the stream to write the compiled CMap to, it is not closed
+     * @throws IOException on error
+     */
+    public static void compile(String cmapName, CidLocation location, OutputStream out) throws IOException {
+        CMapRecorder recorder = new CMapRecorder();
+        CMapParserEx.parseCid(cmapName, recorder, new UseCMapRecorder(location, recorder));
+        recorder.writeTag(END);
+        DataOutputStream dos = new DataOutputStream(out);
+        dos.writeInt(MAGIC);
+        recorder.data.writeTo(dos);
+        dos.flush();
+    }
+
+    /**
+     * Loads the compiled form of a CMap resource.
+     * @param cmapName the name of the CMap resource
+     * @param cmap the CMap to fill
+     * @param level the <CODE>usecmap</CODE> nesting level
+     * @return <CODE>false</CODE> if there is no compiled form of the resource
+     * @throws IOException on error reading the compiled form
+     */
+    static boolean load(String cmapName, AbstractCMap cmap, int level) throws IOException {
+        InputStream is = StreamUtil.getResourceStream(BaseFont.RESOURCE_PATH + "cmaps/" + cmapName + COMPILED_SUFFIX);
+        if (is == null)
+            return false;
+        byte[] data;
+        try {
+            data = StreamUtil.inputStreamToArray(is);
+        }
+        finally {
+            is.close();
+        }
+        return load(ByteBuffer.wrap(data), cmap, level);
+    }
+
+    /**
+     * Fills a CMap from its compiled form.
+     * @param data the compiled CMap
+     * @param cmap the CMap to fill
+     * @param level the <CODE>usecmap</CODE> nesting level, the CMap name and registry are only set at level 0
+     * @return <CODE>false</CODE> if the data isn't a compiled CMap of this version
+     * @throws IOException on error
+     */
+    static boolean load(ByteBuffer data, AbstractCMap cmap, int level) throws IOException {
+        try {
+            if (data.remaining() < 4 || data.getInt() != MAGIC)
+                return false;
+            while (true) {
+                int tag = data.get();
+                switch (tag) {
+                    case END:
+                        return true;
+                    case REGISTRY:
+                    case ORDERING:
+                    case NAME: {
+                        String value = readName(data);
+                        if (level == 0) {
+                            if (tag == REGISTRY)
+                                cmap.setRegistry(value);
+                            else if (tag == ORDERING)
+                                cmap.setOrdering(value);
+                            else
+                                cmap.setName(value);
+                        }
+                        break;
+                    }
+                    case SUPPLEMENT: {
+                        int value = data.getInt();
+                        if (level == 0)
+                            cmap.setSupplement(value);
+                        break;
+                    }
+                    case CHAR: {
+                        PdfString mark = (PdfString)readValue(data);
+                        cmap.addChar(mark, readValue(data));
+                        break;
+                    }
+                    case RANGE: {
+                        PdfString from = (PdfString)readValue(data);
+                        PdfString to = (PdfString)readValue(data);
+                        cmap.addRange(from, to, readValue(data));
+                        break;
+                    }
+                    case CID_RANGE: {
+                        byte[] from = new byte[data.get() & 0xff];
+                        data.get(from);
+                        int end = data.get() & 0xff;
+                        cmap.addRange(from, end, data.getInt());
+                        break;
+                    }
+                    case USECMAP:
+                        CMapParserEx.parseCid(readName(data), cmap, new CidResource(), level + 1);
+                        break;
+                    default:
+                        throw new IOException("Invalid compiled CMap.");
+                }
+            }
+        }
+        catch (BufferUnderflowException e) {
+            throw new IOException("Invalid compiled CMap.");
+        }
+        catch (ClassCastException e) {
+            throw new IOException("Invalid compiled CMap.");
+        }
+    }
+
+    private static String readName(ByteBuffer data) {
+        byte[] b = new byte[data.getShort() & 0xffff];
+        data.get(b);
+        return PdfEncodings.convertToString(b, null);
+    }
+
+    private static PdfObject readValue(ByteBuffer data) {
+        int type = data.get();
+        switch (type) {
+            case VALUE_NUMBER:
+                return new PdfNumber(data.getInt());
+            case VALUE_STRING:
+            case VALUE_HEX_STRING: {
+                // built the same way as PdfContentParser does
+                String value = readName(data);
+                return new PdfString(value, null).setHexWriting(type == VALUE_HEX_STRING);
+            }
+            case VALUE_ARRAY: {
+                int size = data.getShort() & 0xffff;
+                PdfArray array = new PdfArray();
+                for (int k = 0; k < size; ++k)
+                    array.add(readValue(data));
+                return array;
+            }
+            default:
+                return PdfNull.PDFNULL;
+        }
+    }
+
+    /**
+     * A CMap that writes the calls of the parser in the compiled form.
+     */
+    private static class CMapRecorder extends AbstractCMap {
+        private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(data);
+
+        @Override
+        void setName(String cmapName) {
+            writeName(NAME, cmapName);
+        }
+
+        @Override
+        void setOrdering(String ordering) {
+            writeName(ORDERING, ordering);
+        }
+
+        @Override
+        void setRegistry(String registry) {
+            writeName(REGISTRY, registry);
+        }
+
+        @Override
+        void setSupplement(int supplement) {
+            try {
+                out.writeByte(SUPPLEMENT);
+                out.writeInt(supplement);
+            }
+            catch (IOException e) {
+                throw new ExceptionConverter(e);
+            }
+        }
+
+        @Override
+        void addChar(PdfString mark, PdfObject code) {
+            byte[] b = mark.getBytes();
+            // a hex code mapped to a CID is the same as a range of one code
+            if (mark.isHexWriting() && code instanceof PdfNumber && b.length > 0 && b.length < 256) {
+                writeCidRange(b, b[b.length - 1] & 0xff, ((PdfNumber)code).intValue());
+                return;
+            }
+            try {
+                out.writeByte(CHAR);
+                writeValue(mark);
+                writeValue(code);
+            }
+            catch (IOException e) {
+                throw new ExceptionConverter(e);
+            }
+        }
+
+        @Override
+        void addRange(PdfString from, PdfString to, PdfObject code) {
+            byte[] b1 = from.getBytes();
+            byte[] b2 = to.getBytes();
+            if (code instanceof PdfNumber && b1.length == b2.length && b1.length > 0 && b1.length < 256) {
+                writeCidRange(b1, b2[b2.length - 1] & 0xff, ((PdfNumber)code).intValue());
+                return;
+            }
+            try {
+                out.writeByte(RANGE);
+                writeValue(from);
+                writeValue(to);
+                writeValue(code);
+            }
+            catch (IOException e) {
+                throw new ExceptionConverter(e);
+            }
+        }
+
+        private void writeCidRange(byte[] from, int end, int cid) {
+            try {
+                out.writeByte(CID_RANGE);
+                out.writeByte(from.length);
+                out.write(from);
+                out.writeByte(end);
+                out.writeInt(cid);
+            }
+            catch (IOException e) {
+                throw new ExceptionConverter(e);
+            }
+        }
+
+        void writeTag(int tag) {
+            try {
+                out.writeByte(tag);
+            }
+            catch (IOException e) {
+                throw new ExceptionConverter(e);
+            }
+        }
+
+        void writeName(int tag, String name) {
+            try {
+                out.writeByte(tag);
+                writeBytes(PdfEncodings.convertToBytes(name, null));
+            }
+            catch (IOException e) {
+                throw new ExceptionConverter(e);
+            }
+        }
+
+        private void writeBytes(byte[] b) throws IOException {
+            out.writeShort(b.length);
+            out.write(b);
+        }
+
+        private void writeValue(PdfObject value) throws IOException {
+            if (value instanceof PdfNumber) {
+                out.writeByte(VALUE_NUMBER);
+                out.writeInt(((PdfNumber)value).intValue());
+            }
+            else if (value instanceof PdfString) {
+                PdfString s = (PdfString)value;
+                out.writeByte(s.isHexWriting() ? VALUE_HEX_STRING : VALUE_STRING);
+                writeBytes(s.getBytes());
+            }
+            else if (value instanceof PdfArray) {
+                PdfArray array = (PdfArray)value;
+                out.writeByte(VALUE_ARRAY);
+                out.writeShort(array.size());
+                for (int k = 0; k < array.size(); ++k)
+                    writeValue(array.getPdfObject(k));
+            }
+            else {
+                out.writeByte(VALUE_OTHER);
+            }
+        }
+    }
+
+    /**
+     * Reads the CMap being compiled and records the CMaps it uses instead of reading them.
+     */
+    private static class UseCMapRecorder implements CidLocation {
+        private final CidLocation location;
+        private final CMapRecorder recorder;
+        private boolean first = true;
+
+        UseCMapRecorder(CidLocation location, CMapRecorder recorder) {
+            this.location = location;
+            this.recorder = recorder;
+        }
+
+        public PRTokeniser getLocation(String location) throws IOException {
+            if (first) {
+                first = false;
+                return this.location.getLocation(location);
+            }
+            recorder.writeName(USECMAP, location);
+            return new PRTokeniser(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(new byte[0])));
+        }
+    }
+}
@@ -73,9 +73,11 @@ public class CMapParserEx {
         parseCid(cmapName, cmap, location, 0);
     }
     
-    private static void parseCid(String cmapName, AbstractCMap cmap, CidLocation location, int level) throws IOException {
+    static void parseCid(String cmapName, AbstractCMap cmap, CidLocation location, int level) throws IOException {
         if (level >= MAXLEVEL)
             return;
+        if (location.getClass() == CidResource.class && CMapCompiler.load(cmapName, cmap, level))
+            return;
         PRTokeniser inp = location.getLocation(cmapName);
         try {
             ArrayList<PdfObject> list = new ArrayList<PdfObject>();
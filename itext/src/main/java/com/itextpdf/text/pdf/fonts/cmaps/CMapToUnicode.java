@@ -35,6 +35,7 @@ import com.itextpdf.text.Utilities;
 import com.itextpdf.text.pdf.PdfObject;
 import com.itextpdf.text.pdf.PdfString;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -48,8 +49,8 @@ import com.itextpdf.text.error_messages.MessageLocalization;
  */
 public class CMapToUnicode extends AbstractCMap {
 
-    private Map<Integer, String> singleByteMappings = new HashMap<Integer, String>();
-    private Map<Integer, String> doubleByteMappings = new HashMap<Integer, String>();
+    private final CharMappings singleByteMappings = new CharMappings();
+    private final CharMappings doubleByteMappings = new CharMappings();
 
     /**
      * Creates a new instance of CMap.
@@ -88,41 +89,43 @@ public class CMapToUnicode extends AbstractCMap {
     public String lookup(byte[] code, int offset, int length) {
 
         String result = null;
-        Integer key = null;
         if (length == 1) {
-
-            key = Integer.valueOf(code[offset] & 0xff);
-            result = singleByteMappings.get(key);
+            result = singleByteMappings.get(code[offset] & 0xff);
         } else if (length == 2) {
             int intKey = code[offset] & 0xff;
             intKey <<= 8;
             intKey += code[offset + 1] & 0xff;
-            key = Integer.valueOf(intKey);
 
-            result = doubleByteMappings.get(key);
+            result = doubleByteMappings.get(intKey);
         }
 
         return result;
     }
 
+    /**
+     * Creates the mapping from the Unicode values to the codes. The codes are visited in
+     * increasing order, a Unicode value mapped from several codes gets the last one.
+     * @return the mapping
+     * @throws IOException never thrown
+     */
     public Map<Integer, Integer> createReverseMapping() throws IOException {
         Map<Integer, Integer> result = new HashMap<Integer, Integer>();
-        for (Map.Entry<Integer, String> entry : singleByteMappings.entrySet()) {
-            result.put(convertToInt(entry.getValue()), entry.getKey());
+        for (int code : singleByteMappings.getCodes()) {
+            result.put(convertToInt(singleByteMappings.get(code)), code);
         }
-        for (Map.Entry<Integer, String> entry : doubleByteMappings.entrySet()) {
-            result.put(convertToInt(entry.getValue()), entry.getKey());
+        for (int code : doubleByteMappings.getCodes()) {
+            result.put(convertToInt(doubleByteMappings.get(code)), code);
         }
         return result;
     }
 
     public Map<Integer, Integer> createDirectMapping() throws IOException {
         Map<Integer, Integer> result = new HashMap<Integer, Integer>();
-        for (Map.Entry<Integer, String> entry : singleByteMappings.entrySet()) {
-            result.put(entry.getKey(), convertToInt(entry.getValue()));
+        for (int code : singleByteMappings.getCodes()) {
+            result.put(code, convertToInt(singleByteMappings.get(code)));
         }
-        for (Map.Entry<Integer, String> entry : doubleByteMappings.entrySet()) {
-            result.put(entry.getKey(), convertToInt(entry.getValue()));
+        for (int code : doubleByteMappings.getCodes()) {
+            result.put(code, convertToInt(doubleByteMappings.get(code)));
         }
         return result;
     }
@@ -139,7 +142,7 @@ public class CMapToUnicode extends AbstractCMap {
     }
 
     void addChar(int cid, String uni) {
-        doubleByteMappings.put(Integer.valueOf(cid), uni);
+        doubleByteMappings.put(cid, uni);
     }
     
     @Override
@@ -148,12 +151,12 @@ public class CMapToUnicode extends AbstractCMap {
             byte[] src = mark.getBytes();
             String dest = createStringFromBytes(code.getBytes());
             if (src.length == 1) {
-                singleByteMappings.put(Integer.valueOf(src[0] & 0xff), dest);
+                singleByteMappings.put(src[0] & 0xff, dest);
             } else if (src.length == 2) {
                 int intSrc = src[0] & 0xFF;
                 intSrc <<= 8;
                 intSrc |= src[1] & 0xFF;
-                doubleByteMappings.put(Integer.valueOf(intSrc), dest);
+                doubleByteMappings.put(intSrc, dest);
             } else {
                 throw new IOException(MessageLocalization.getComposedMessage("mapping.code.should.be.1.or.two.bytes.and.not.1", src.length));
             }
@@ -180,4 +183,107 @@ public class CMapToUnicode extends AbstractCMap {
         }
         return uni;
     }
+
+    /**
+     * The Unicode strings of the codes, in an open addressing hash table of primitive codes. The
+     * characters of all the strings are kept in a single array instead of a String per code.
+     * @since 5.5.6
+     */
+    private static final class CharMappings {
+        /** the code plus 1 in each slot, 0 for an empty slot */
+        private int[] keys = new int[16];
+        /** the offset of the string of each slot in {@link #chars} */
+        private int[] offsets = new int[16];
+        /** the length of the string of each slot */
+        private int[] lengths = new int[16];
+        /**
+         * the string of each slot, built on its first lookup. A shared CMap may build a string
+         * on several threads at once, which is harmless as strings are immutable.
+         */
+        private String[] strings = new String[16];
+        private char[] chars = new char[64];
+        private int charCount = 0;
+        private int size = 0;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        String get(int code) {
+            int slot = find(code);
+            if (keys[slot] == 0)
+                return null;
+            String s = strings[slot];
+            if (s == null) {
+                s = new String(chars, offsets[slot], lengths[slot]);
+                strings[slot] = s;
+            }
+            return s;
+        }
+
+        void put(int code, String value) {
+            int slot = find(code);
+            if (keys[slot] == 0) {
+                keys[slot] = code + 1;
+                if (++size * 2 > keys.length)
+                    rehash();
+                slot = find(code);
+            }
+            int length = value.length();
+            if (charCount + length > chars.length) {
+                char[] c = new char[Math.max(chars.length * 2, charCount + length)];
+                System.arraycopy(chars, 0, c, 0, charCount);
+                chars = c;
+            }
+            value.getChars(0, length, chars, charCount);
+            offsets[slot] = charCount;
+            lengths[slot] = length;
+            strings[slot] = null;
+            charCount += length;
+        }
+
+        /**
+         * @return the codes, in increasing order
+         */
+        int[] getCodes() {
+            int[] codes = new int[size];
+            int n = 0;
+            for (int key : keys) {
+                if (key != 0)
+                    codes[n++] = key - 1;
+            }
+            Arrays.sort(codes);
+            return codes;
+        }
+
+        /** Finds the slot of a code or the empty slot where it goes. */
+        private int find(int code) {
+            int mask = keys.length - 1;
+            int h = (code + 1) * 0x9E3779B9;
+            int slot = (h ^ (h >>> 16)) & mask;
+            while (keys[slot] != 0 && keys[slot] != code + 1)
+                slot = (slot + 1) & mask;
+            return slot;
+        }
+
+        private void rehash() {
+            int[] oldKeys = keys;
+            int[] oldOffsets = offsets;
+            int[] oldLengths = lengths;
+            String[] oldStrings = strings;
+            keys = new int[oldKeys.length * 2];
+            offsets = new int[keys.length];
+            lengths = new int[keys.length];
+            strings = new String[keys.length];
+            for (int k = 0; k < oldKeys.length; ++k) {
+                if (oldKeys[k] == 0)
+                    continue;
+                int slot = find(oldKeys[k] - 1);
+                keys[slot] = oldKeys[k];
+                offsets[slot] = oldOffsets[k];
+                lengths[slot] = oldLengths[k];
+                strings[slot] = oldStrings[k];
+            }
+        }
+    }
 }
@@ -70,6 +70,19 @@ public class CMapUniCid extends AbstractCMap {
         map.put(codepoint, ((PdfNumber)code).intValue());
     }
     
+    @Override
+    void addRange(byte[] from, int end, int cid) {
+        int start = from[from.length - 1] & 0xff;
+        for (int k = start; k <= end; ++k) {
+            from[from.length - 1] = (byte)k;
+            int codepoint = decodeUtf16Code(from);
+            if (codepoint < 0)
+                super.addRange(from, k, cid + k - start);
+            else
+                map.put(codepoint, cid + k - start);
+        }
+    }
+    
     public int lookup(int character) {
         return map.get(character);
     }
@@ -0,0 +1,193 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf.parser;
+
+import com.itextpdf.text.pdf.PRIndirectReference;
+import com.itextpdf.text.pdf.PdfIndirectReference;
+import com.itextpdf.text.pdf.PdfLiteral;
+import com.itextpdf.text.pdf.PdfObject;
+import com.itextpdf.text.pdf.PdfReader;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A cache of the parsed content of the form XObjects of a document. A form XObject placed
+ * many times, like a letterhead on every page, is decoded and tokenized the first time it is
+ * processed; the next times the {@link PdfContentStreamProcessor} replays the operators
+ * under the current graphics state. The resources are still looked up when the operators
+ * are replayed, so a form without its own resources uses the ones of the content it is
+ * placed in, as without the cache.
+ * <br>
+ * The forms are identified by their indirect reference in the document of the cache, the
+ * least recently used forms are discarded when the decoded content of the cached forms
+ * grows over the maximum size. A cache can be shared by the processors of several threads.
+ * <br>
+ * The operands of the cached operators are shared by all the replays, content operators
+ * must not modify them.
+ *
+ * @see PdfContentStreamProcessor#setFormXObjectCache(FormXObjectCache)
+ * @see PdfReaderContentParser#setFormXObjectCache(FormXObjectCache)
+ * @since 5.5.6
+ */
+public class FormXObjectCache {
+
+    /** The default maximum size of the cache: the length of the decoded content streams in bytes. */
+    public static final int DEFAULT_MAX_SIZE = 4 * 1024 * 1024;
+
+    /** An operator with its operands, or an inline image. */
+    static final class Operation {
+        final PdfLiteral operator;
+        final ArrayList<PdfObject> operands;
+        final InlineImageInfo inlineImage;
+
+        Operation(PdfLiteral operator, ArrayList<PdfObject> operands, InlineImageInfo inlineImage) {
+            this.operator = operator;
+            this.operands = operands;
+            this.inlineImage = inlineImage;
+        }
+    }
+
+    /** The operations of a form and the length of its content. */
+    private static final class Entry {
+        final List<Operation> operations;
+        final int size;
+
+        Entry(List<Operation> operations, int size) {
+            this.operations = operations;
+            this.size = size;
+        }
+    }
+
+    private final PdfReader reader;
+
+    private final int maxSize;
+
+    private int size = 0;
+
+    /** The forms by object number and generation, in access order. */
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<Long, Entry>(16, 0.75f, true);
+
+    /**
+     * Creates a cache for the forms of a document, with the default maximum size.
+     * @param reader the document
+     */
+    public FormXObjectCache(PdfReader reader) {
+        this(reader, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a cache for the forms of a document.
+     * @param reader the document
+     * @param maxSize the maximum length of the decoded content of the cached forms in bytes
+     */
+    public FormXObjectCache(PdfReader reader, int maxSize) {
+        this.reader = reader;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets the length of the decoded content of the cached forms.
+     * @return the size in bytes
+     */
+    public synchronized int getSize() {
+        return size;
+    }
+
+    /**
+     * Discards all the cached forms.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * Checks if the operations of a form can be cached.
+     * @param ref the reference of the form, may be <CODE>null</CODE>
+     * @return true if the reference is an object of the document of the cache
+     */
+    boolean isCacheable(PdfIndirectReference ref) {
+        return ref instanceof PRIndirectReference && ((PRIndirectReference)ref).getReader() == reader;
+    }
+
+    /**
+     * Gets the cached operations of a form.
+     * @param ref the reference of the form, may be <CODE>null</CODE>
+     * @return the operations or <CODE>null</CODE> if the form isn't in the cache
+     */
+    synchronized List<Operation> get(PdfIndirectReference ref) {
+        if (!isCacheable(ref))
+            return null;
+        Entry entry = entries.get(getKey(ref));
+        return entry == null ? null : entry.operations;
+    }
+
+    /**
+     * Caches the operations of a form, a form larger than the cache isn't kept.
+     * @param ref the reference of the form
+     * @param operations the operations of the content of the form
+     * @param contentLength the length of the decoded content
+     */
+    synchronized void put(PdfIndirectReference ref, List<Operation> operations, int contentLength) {
+        if (!isCacheable(ref) || contentLength > maxSize)
+            return;
+        Entry old = entries.put(getKey(ref), new Entry(operations, contentLength));
+        if (old != null)
+            size -= old.size;
+        size += contentLength;
+        for (Iterator<Map.Entry<Long, Entry>> it = entries.entrySet().iterator(); size > maxSize && it.hasNext();) {
+            size -= it.next().getValue().size;
+            it.remove();
+        }
+    }
+
+    private static Long getKey(PdfIndirectReference ref) {
+        return Long.valueOf(((long)ref.getNumber() << 32) | (ref.getGeneration() & 0xffffffffL));
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf.parser;
+
+import com.itextpdf.text.pdf.BaseFont;
+import com.itextpdf.text.pdf.PdfString;
+
+/**
+ * Walks through the glyphs of a {@link TextRenderInfo} one at a time, giving the same glyphs,
+ * text and positions as {@link TextRenderInfo#getCharacterRenderInfos()} without creating a
+ * <CODE>TextRenderInfo</CODE>, <CODE>Matrix</CODE>, <CODE>LineSegment</CODE> or
+ * <CODE>Vector</CODE> per glyph: the glyph matrix is kept in a float array and the lines
+ * are written to arrays given by the caller. A cursor can be reused for the next render
+ * event with {@link #reset(TextRenderInfo)}.
+ * <br>
+ * Like the graphics state of the render info, a cursor is only valid during the
+ * {@link RenderListener#renderText(TextRenderInfo)} call it was created or reset in.
+ * <pre>
+ * GlyphCursor glyph = renderInfo.getGlyphCursor();
+ * float[] baseline = new float[4];
+ * while (glyph.next()) {
+ *     glyph.getBaseline(baseline);
+ *     ... glyph.getText() is drawn from (baseline[0], baseline[1]) to (baseline[2], baseline[3])
+ * }
+ * </pre>
+ *
+ * @since 5.5.6
+ */
+public class GlyphCursor {
+
+    private TextRenderInfo renderInfo;
+    private GraphicsState gs;
+    /** the text to user space matrix of the render info */
+    private final float[] matrix = new float[9];
+    /** the text to user space matrix of the current glyph */
+    private final float[] glyphMatrix = new float[9];
+
+    /** the bytes of the string, null if it has to be split into strings, see {@link #pieces} */
+    private byte[] bytes;
+    /** the string split by {@link TextRenderInfo#splitString(PdfString)}, for strings with an encoding */
+    private PdfString[] pieces;
+    private int pieceIndex;
+
+    /** the bytes of the current glyph, a range of {@link #bytes} or a piece */
+    private byte[] glyphBytes;
+    private int glyphOffset;
+    private int glyphLength;
+    /** the offset of the next glyph in {@link #bytes} */
+    private int nextOffset;
+
+    private String text;
+    private PdfString pdfString;
+    private float horizontalOffset;
+    private float unscaledWidth;
+    private boolean endsWithSpace;
+    private float unscaledSpaceWidth = Float.NaN;
+
+    /**
+     * Creates a cursor positioned before the first glyph of a render info.
+     * @param renderInfo the text render info to walk through
+     */
+    public GlyphCursor(TextRenderInfo renderInfo) {
+        reset(renderInfo);
+    }
+
+    /**
+     * Positions the cursor before the first glyph of another render info.
+     * @param renderInfo the text render info to walk through
+     */
+    public void reset(TextRenderInfo renderInfo) {
+        this.renderInfo = renderInfo;
+        gs = renderInfo.getGraphicsState();
+        Matrix m = renderInfo.getTextToUserSpaceTransformMatrix();
+        for (int k = 0; k < 9; ++k)
+            matrix[k] = m.get(k);
+        PdfString string = renderInfo.getPdfString();
+        String encoding = string.getEncoding();
+        if (encoding == null || encoding.length() == 0) {
+            bytes = string.getBytes();
+            pieces = null;
+        }
+        else {
+            bytes = null;
+            pieces = renderInfo.splitString(string);
+        }
+        pieceIndex = 0;
+        nextOffset = 0;
+        glyphBytes = null;
+        text = null;
+        pdfString = null;
+        horizontalOffset = 0;
+        unscaledWidth = 0;
+        unscaledSpaceWidth = Float.NaN;
+    }
+
+    /**
+     * Moves to the next glyph.
+     * @return false if there are no more glyphs
+     */
+    public boolean next() {
+        horizontalOffset += unscaledWidth;
+        pdfString = null;
+        if (bytes != null) {
+            if (nextOffset >= bytes.length)
+                return false;
+            glyphBytes = bytes;
+            glyphOffset = nextOffset;
+            glyphLength = 1;
+            text = gs.font.decode(bytes, glyphOffset, 1);
+            if (text.length() == 0 && glyphOffset < bytes.length - 1) {
+                glyphLength = 2;
+                text = gs.font.decode(bytes, glyphOffset, 2);
+            }
+            nextOffset += glyphLength;
+            endsWithSpace = bytes[glyphOffset + glyphLength - 1] == ' ';
+        }
+        else {
+            if (pieceIndex >= pieces.length)
+                return false;
+            pdfString = pieces[pieceIndex++];
+            glyphBytes = pdfString.getBytes();
+            glyphOffset = 0;
+            glyphLength = glyphBytes.length;
+            text = gs.font.decode(glyphBytes, 0, glyphLength);
+            String unicode = pdfString.toUnicodeString();
+            endsWithSpace = unicode.length() > 0 && unicode.charAt(unicode.length() - 1) == ' ';
+        }
+        float width = gs.font.getWidth(getCharCode(text)) / 1000.0f;
+        float wordSpacing = text.equals(" ") ? gs.wordSpacing : 0;
+        unscaledWidth = (width * gs.fontSize + gs.characterSpacing + wordSpacing) * gs.horizontalScaling;
+
+        // the product of the translation by the offset and the text matrix, as in Matrix.multiply()
+        float[] b = matrix;
+        float[] c = glyphMatrix;
+        float h = horizontalOffset;
+        c[Matrix.I11] = 1*b[Matrix.I11] + 0*b[Matrix.I21] + 0*b[Matrix.I31];
+        c[Matrix.I12] = 1*b[Matrix.I12] + 0*b[Matrix.I22] + 0*b[Matrix.I32];
+        c[Matrix.I13] = 1*b[Matrix.I13] + 0*b[Matrix.I23] + 0*b[Matrix.I33];
+        c[Matrix.I21] = 0*b[Matrix.I11] + 1*b[Matrix.I21] + 0*b[Matrix.I31];
+        c[Matrix.I22] = 0*b[Matrix.I12] + 1*b[Matrix.I22] + 0*b[Matrix.I32];
+        c[Matrix.I23] = 0*b[Matrix.I13] + 1*b[Matrix.I23] + 0*b[Matrix.I33];
+        c[Matrix.I31] = h*b[Matrix.I11] + 0*b[Matrix.I21] + 1*b[Matrix.I31];
+        c[Matrix.I32] = h*b[Matrix.I12] + 0*b[Matrix.I22] + 1*b[Matrix.I32];
+        c[Matrix.I33] = h*b[Matrix.I13] + 0*b[Matrix.I23] + 1*b[Matrix.I33];
+        return true;
+    }
+
+    /**
+     * @return the text of the glyph
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Gets the PDF string of the glyph, created on the first call for the glyph.
+     * @return the PDF string of the glyph
+     */
+    public PdfString getPdfString() {
+        if (pdfString == null) {
+            PdfString string = renderInfo.getPdfString();
+            pdfString = new PdfString(string.toString().substring(glyphOffset, glyphOffset + glyphLength), string.getEncoding());
+        }
+        return pdfString;
+    }
+
+    /**
+     * Writes the baseline of the glyph, see {@link TextRenderInfo#getBaseline()}.
+     * @param segment an array receiving the start x, start y, end x and end y in user space
+     * @return the segment array
+     */
+    public float[] getBaseline(float[] segment) {
+        return getLine(0 + gs.rise, segment);
+    }
+
+    /**
+     * Writes the ascent line of the glyph, see {@link TextRenderInfo#getAscentLine()}.
+     * @param segment an array receiving the start x, start y, end x and end y in user space
+     * @return the segment array
+     */
+    public float[] getAscentLine(float[] segment) {
+        return getLine(gs.getFont().getFontDescriptor(BaseFont.ASCENT, gs.getFontSize()) + gs.rise, segment);
+    }
+
+    /**
+     * Writes the descent line of the glyph, see {@link TextRenderInfo#getDescentLine()}.
+     * @param segment an array receiving the start x, start y, end x and end y in user space
+     * @return the segment array
+     */
+    public float[] getDescentLine(float[] segment) {
+        return getLine(gs.getFont().getFontDescriptor(BaseFont.DESCENT, gs.getFontSize()) + gs.rise, segment);
+    }
+
+    /**
+     * @return the width, in user space units, of a single space character in the font of the glyph
+     * @see TextRenderInfo#getSingleSpaceWidth()
+     */
+    public float getSingleSpaceWidth() {
+        if (Float.isNaN(unscaledSpaceWidth))
+            unscaledSpaceWidth = renderInfo.getUnscaledFontSpaceWidth();
+        float[] c = glyphMatrix;
+        float x1 = 0*c[Matrix.I11] + 0*c[Matrix.I21] + 1*c[Matrix.I31];
+        float y1 = 0*c[Matrix.I12] + 0*c[Matrix.I22] + 1*c[Matrix.I32];
+        float z1 = 0*c[Matrix.I13] + 0*c[Matrix.I23] + 1*c[Matrix.I33];
+        float w = unscaledSpaceWidth;
+        float x2 = w*c[Matrix.I11] + 0*c[Matrix.I21] + 1*c[Matrix.I31];
+        float y2 = w*c[Matrix.I12] + 0*c[Matrix.I22] + 1*c[Matrix.I32];
+        float z2 = w*c[Matrix.I13] + 0*c[Matrix.I23] + 1*c[Matrix.I33];
+        float dx = x2 - x1;
+        float dy = y2 - y1;
+        float dz = z2 - z1;
+        return (float)Math.sqrt(dx*dx + dy*dy + dz*dz);
+    }
+
+    /**
+     * Creates the render info of the glyph, the same as the one in
+     * {@link TextRenderInfo#getCharacterRenderInfos()}.
+     * @return a new render info for the glyph
+     */
+    public TextRenderInfo getTextRenderInfo() {
+        return new TextRenderInfo(renderInfo, getPdfString(), horizontalOffset, unscaledWidth);
+    }
+
+    /**
+     * Computes a line of the glyph like TextRenderInfo.getUnscaledBaselineWithOffset() and LineSegment.transformBy().
+     */
+    private float[] getLine(float yOffset, float[] segment) {
+        float correctedUnscaledWidth = unscaledWidth - (gs.characterSpacing +
+                (endsWithSpace ? gs.wordSpacing : 0)) * gs.horizontalScaling;
+        float[] c = glyphMatrix;
+        segment[0] = 0*c[Matrix.I11] + yOffset*c[Matrix.I21] + 1*c[Matrix.I31];
+        segment[1] = 0*c[Matrix.I12] + yOffset*c[Matrix.I22] + 1*c[Matrix.I32];
+        segment[2] = correctedUnscaledWidth*c[Matrix.I11] + yOffset*c[Matrix.I21] + 1*c[Matrix.I31];
+        segment[3] = correctedUnscaledWidth*c[Matrix.I12] + yOffset*c[Matrix.I22] + 1*c[Matrix.I32];
+        return segment;
+    }
+
+    /**
+     * Gets the big endian value of the UTF-16 code units of a string, like TextRenderInfo.getCharCode().
+     */
+    private int getCharCode(String string) {
+        int value = 0;
+        for (int k = 0; k < string.length(); ++k) {
+            char c = string.charAt(k);
+            if (c >= '\uD800' && c <= '\uDFFF')
+                return renderInfo.getCharCode(string);
+            value = (value << 8) + (c >> 8);
+            value = (value << 8) + (c & 0xff);
+        }
+        return value;
+    }
+}
@@ -58,8 +58,9 @@ public class GlyphRenderListener implements RenderListener {
     }
 
     public void renderText(TextRenderInfo renderInfo) {
-        for (TextRenderInfo glyphInfo : renderInfo.getCharacterRenderInfos())
-            delegate.renderText(glyphInfo);
+        GlyphCursor glyph = renderInfo.getGlyphCursor();
+        while (glyph.next())
+            delegate.renderText(glyph.getTextRenderInfo());
     }
 
     public void endTextBlock() {
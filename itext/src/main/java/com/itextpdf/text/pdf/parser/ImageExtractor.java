@@ -0,0 +1,390 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf.parser;
+
+import com.itextpdf.text.ExceptionConverter;
+import com.itextpdf.text.pdf.PRStream;
+import com.itextpdf.text.pdf.PdfDictionary;
+import com.itextpdf.text.pdf.PdfIndirectReference;
+import com.itextpdf.text.pdf.PdfReader;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Extracts the images of the pages of a document to an {@link ImageSink}. The content of the
+ * pages is parsed on the calling thread, which only reads the raw image streams; the images are
+ * decoded on the threads of an executor, if one is set. The images of an encrypted or partially
+ * read document are decoded on the calling thread too, only the sink is called on the executor.
+ * <br>
+ * The images whose data is already in one of the encoded types of the extractor, by default
+ * JPEG, JPEG 2000 and JBIG2, are passed to the sink as they are in the document, without
+ * decoding them to a raster. The other images are decoded to a <CODE>BufferedImage</CODE>.
+ * At most {@link #setMaxPendingImages(int)} images are read or decoded and not yet handed
+ * to the sink at any time, the parsing waits for the sink to catch up.
+ *
+ * @since 5.5.6
+ */
+public class ImageExtractor {
+
+    /** The default maximum number of images read and not yet given to the sink. */
+    public static final int DEFAULT_MAX_PENDING_IMAGES = 4;
+
+    /**
+     * Receives the images. The methods are called on the threads of the executor, possibly
+     * at the same time and not in the order of the pages.
+     */
+    public interface ImageSink {
+        /**
+         * Receives an image in one of the encoded types of the extractor, or an image that
+         * couldn't be decoded to a raster.
+         * @param image the image
+         * @param type the type of the data
+         * @param data the encoded image
+         * @throws IOException on error writing the image
+         */
+        void writeEncoded(ExtractedImage image, PdfImageObject.ImageBytesType type, byte[] data) throws IOException;
+
+        /**
+         * Receives a decoded image.
+         * @param image the image
+         * @param raster the decoded image
+         * @throws IOException on error writing the image
+         */
+        void writeDecoded(ExtractedImage image, BufferedImage raster) throws IOException;
+    }
+
+    /**
+     * An image found in the content of a page.
+     */
+    public static class ExtractedImage {
+        private final int pageNumber;
+        private final ImageRenderInfo renderInfo;
+        private final PdfImageObject imageObject;
+
+        ExtractedImage(int pageNumber, ImageRenderInfo renderInfo, PdfImageObject imageObject) {
+            this.pageNumber = pageNumber;
+            this.renderInfo = renderInfo;
+            this.imageObject = imageObject;
+        }
+
+        /**
+         * @return the page the image was found on
+         */
+        public int getPageNumber() {
+            return pageNumber;
+        }
+
+        /**
+         * @return the reference of the image XObject, null for an inline image
+         */
+        public PdfIndirectReference getRef() {
+            return renderInfo.getRef();
+        }
+
+        /**
+         * @return the coordinate transformation matrix the image is rendered with
+         */
+        public Matrix getImageCTM() {
+            return renderInfo.getImageCTM();
+        }
+
+        /**
+         * @return the image dictionary and data
+         */
+        public PdfImageObject getImageObject() {
+            return imageObject;
+        }
+    }
+
+    private final ImageSink sink;
+
+    private ExecutorService executor;
+
+    private int maxPendingImages = DEFAULT_MAX_PENDING_IMAGES;
+
+    private Set<PdfImageObject.ImageBytesType> encodedTypes =
+            EnumSet.of(PdfImageObject.ImageBytesType.JPG, PdfImageObject.ImageBytesType.JP2, PdfImageObject.ImageBytesType.JBIG2);
+
+    /**
+     * Creates an extractor.
+     * @param sink the sink receiving the images
+     */
+    public ImageExtractor(ImageSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Sets the executor the images are decoded with.
+     * @param executor the executor or <CODE>null</CODE> to decode the images on the calling thread
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Sets the maximum number of images read or decoded and not yet given to the sink.
+     * @param maxPendingImages the maximum number of images, at least 1
+     */
+    public void setMaxPendingImages(int maxPendingImages) {
+        this.maxPendingImages = Math.max(1, maxPendingImages);
+    }
+
+    /**
+     * Sets the types of image data given to the sink without decoding them.
+     * @param types the image types, none to decode all the images
+     */
+    public void setEncodedTypes(PdfImageObject.ImageBytesType... types) {
+        encodedTypes = types.length == 0 ? EnumSet.noneOf(PdfImageObject.ImageBytesType.class)
+                : EnumSet.copyOf(Arrays.asList(types));
+    }
+
+    /**
+     * Extracts the images of all the pages.
+     * @param reader the document
+     * @throws IOException on error reading the document, decoding an image or in the sink
+     */
+    public void extract(PdfReader reader) throws IOException {
+        extract(reader, 1, reader.getNumberOfPages());
+    }
+
+    /**
+     * Extracts the images of a range of pages. The method returns when all the images
+     * were given to the sink.
+     * @param reader the document
+     * @param firstPage the first page
+     * @param lastPage the last page
+     * @throws IOException on error reading the document, decoding an image or in the sink
+     */
+    public void extract(PdfReader reader, int firstPage, int lastPage) throws IOException {
+        ImageCollector collector = new ImageCollector(reader.isEncrypted() || reader.isPartial());
+        PdfReaderContentParser parser = new PdfReaderContentParser(reader);
+        try {
+            for (int page = firstPage; page <= lastPage; ++page) {
+                collector.pageNumber = page;
+                parser.processContent(page, collector);
+                collector.checkFailures();
+            }
+            collector.waitForImages();
+        }
+        finally {
+            collector.cancel();
+        }
+    }
+
+    /**
+     * Reads the images found while parsing and decodes them.
+     */
+    private class ImageCollector implements RenderListener {
+        private final ExecutorService exec = executor;
+        private final Semaphore pending = new Semaphore(maxPendingImages);
+        private final List<Future<Object>> futures = new ArrayList<Future<Object>>();
+        /**
+         * the images of an encrypted or partially read document are decoded on the parsing thread,
+         * decoding them reads the color spaces and the decode parameters from the document
+         */
+        private final boolean decodeStreams;
+        int pageNumber;
+
+        ImageCollector(boolean decodeStreams) {
+            this.decodeStreams = decodeStreams;
+        }
+
+        public void renderImage(ImageRenderInfo renderInfo) {
+            try {
+                pending.acquire();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ExceptionConverter(e);
+            }
+            ImageTask task;
+            try {
+                // the document is only read on this thread, the raw data doesn't need the reader
+                PdfDictionary colorSpaceDic = renderInfo.getColorSpaceDictionary();
+                InlineImageInfo inlineImage = renderInfo.getInlineImageInfo();
+                if (inlineImage != null) {
+                    if (decodeStreams)
+                        task = new ImageTask(pageNumber, renderInfo, null, null,
+                                new PdfImageObject(inlineImage.getImageDictionary(), inlineImage.getSamples(), colorSpaceDic));
+                    else
+                        task = new ImageTask(pageNumber, renderInfo, inlineImage.getImageDictionary(), inlineImage.getSamples(), null);
+                }
+                else {
+                    PRStream stream = (PRStream)PdfReader.getPdfObject(renderInfo.getRef());
+                    if (decodeStreams)
+                        task = new ImageTask(pageNumber, renderInfo, null, null, new PdfImageObject(stream, colorSpaceDic));
+                    else
+                        task = new ImageTask(pageNumber, renderInfo, stream, PdfReader.getStreamBytesRaw(stream), null);
+                }
+            }
+            catch (IOException e) {
+                pending.release();
+                throw new ExceptionConverter(e);
+            }
+            if (exec == null) {
+                try {
+                    task.call();
+                }
+                catch (IOException e) {
+                    throw new ExceptionConverter(e);
+                }
+            }
+            else {
+                try {
+                    futures.add(exec.submit(task));
+                }
+                catch (RejectedExecutionException e) {
+                    pending.release();
+                    throw e;
+                }
+            }
+        }
+
+        public void beginTextBlock() {
+        }
+
+        public void renderText(TextRenderInfo renderInfo) {
+        }
+
+        public void endTextBlock() {
+        }
+
+        /**
+         * Throws the exception of the first image that failed, if any.
+         */
+        void checkFailures() throws IOException {
+            for (int k = 0; k < futures.size(); ++k) {
+                Future<Object> future = futures.get(k);
+                if (!future.isDone())
+                    continue;
+                getResult(future);
+                futures.remove(k--);
+            }
+        }
+
+        void waitForImages() throws IOException {
+            for (Future<Object> future : futures)
+                getResult(future);
+            futures.clear();
+        }
+
+        void cancel() {
+            for (Future<Object> future : futures)
+                future.cancel(false);
+        }
+
+        private void getResult(Future<Object> future) throws IOException {
+            try {
+                future.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ExceptionConverter(e);
+            }
+            catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException)
+                    throw (IOException)cause;
+                if (cause instanceof RuntimeException)
+                    throw (RuntimeException)cause;
+                throw new ExceptionConverter(e);
+            }
+        }
+
+        /**
+         * Decodes an image and gives it to the sink.
+         */
+        private class ImageTask implements Callable<Object> {
+            private final int pageNumber;
+            private final ImageRenderInfo renderInfo;
+            private final PdfDictionary dictionary;
+            private final byte[] samples;
+            private PdfImageObject imageObject;
+
+            ImageTask(int pageNumber, ImageRenderInfo renderInfo, PdfDictionary dictionary, byte[] samples, PdfImageObject imageObject) {
+                this.pageNumber = pageNumber;
+                this.renderInfo = renderInfo;
+                this.dictionary = dictionary;
+                this.samples = samples;
+                this.imageObject = imageObject;
+            }
+
+            public Object call() throws IOException {
+                try {
+                    if (imageObject == null)
+                        imageObject = new PdfImageObject(dictionary, samples, renderInfo.getColorSpaceDictionary());
+                    ExtractedImage image = new ExtractedImage(pageNumber, renderInfo, imageObject);
+                    PdfImageObject.ImageBytesType type = imageObject.getImageBytesType();
+                    if (encodedTypes.contains(type)) {
+                        sink.writeEncoded(image, type, imageObject.getImageAsBytes());
+                    }
+                    else {
+                        BufferedImage raster = imageObject.getBufferedImage();
+                        if (raster != null)
+                            sink.writeDecoded(image, raster);
+                        else
+                            sink.writeEncoded(image, type, imageObject.getImageAsBytes());
+                    }
+                    return null;
+                }
+                finally {
+                    pending.release();
+                }
+            }
+        }
+    }
+}
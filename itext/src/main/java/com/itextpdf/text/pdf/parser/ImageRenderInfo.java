@@ -115,6 +115,22 @@ public class ImageRenderInfo {
         return imageObject;
     }
     
+    /**
+     * @return the inline image, or null for an image XObject
+     * @since 5.5.6
+     */
+    InlineImageInfo getInlineImageInfo() {
+        return inlineImageInfo;
+    }
+
+    /**
+     * @return the color space dictionary of the resources the image is rendered with
+     * @since 5.5.6
+     */
+    PdfDictionary getColorSpaceDictionary() {
+        return colorSpaceDictionary;
+    }
+
     private void prepareImageObject() throws IOException{
         if (imageObject != null)
             return;
@@ -0,0 +1,352 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf.parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+
+/**
+ * A text extraction strategy giving the same text as {@link LocationTextExtractionStrategy}
+ * for pages with many pieces of text. The chunks are put in their line as they arrive, the
+ * lines are found by orientation and perpendicular distance in a hash table with primitive
+ * keys. Only the chunks of a line are sorted, a line is only sorted again if chunks were added
+ * to it, and the result is kept until new text is rendered. The positions of the chunks are
+ * computed with primitive floats instead of <CODE>Vector</CODE> objects.
+ * <br>
+ * Unlike <CODE>LocationTextExtractionStrategy</CODE>, the chunks can't be filtered
+ * when getting the text.
+ *
+ * @since 5.5.6
+ */
+public class LineBucketTextExtractionStrategy implements TextExtractionStrategy {
+
+    /** The lines in the order they were found. */
+    private final ArrayList<Line> lines = new ArrayList<Line>();
+
+    /** The keys of the lines hash table, see {@link #lineKey(int, int)}. */
+    private long keys[] = new long[64];
+    /** The index of the line of every key plus 1, 0 for an empty slot. */
+    private int slots[] = new int[64];
+
+    /** The text as of the last call to getResultantText(), null if text was rendered since. */
+    private String result;
+
+    /**
+     * Creates a new text extraction strategy.
+     */
+    public LineBucketTextExtractionStrategy() {
+    }
+
+    /**
+     * @see com.itextpdf.text.pdf.parser.RenderListener#beginTextBlock()
+     */
+    public void beginTextBlock() {
+    }
+
+    /**
+     * @see com.itextpdf.text.pdf.parser.RenderListener#endTextBlock()
+     */
+    public void endTextBlock() {
+    }
+
+    /**
+     * no-op method - this renderer isn't interested in image events
+     * @see com.itextpdf.text.pdf.parser.RenderListener#renderImage(com.itextpdf.text.pdf.parser.ImageRenderInfo)
+     */
+    public void renderImage(ImageRenderInfo renderInfo) {
+    }
+
+    /**
+     * Adds the text to its line. The computations are the same as the ones of
+     * {@link LocationTextExtractionStrategy.TextChunk}, on floats.
+     * @see com.itextpdf.text.pdf.parser.RenderListener#renderText(com.itextpdf.text.pdf.parser.TextRenderInfo)
+     */
+    public void renderText(TextRenderInfo renderInfo) {
+        LineSegment segment = renderInfo.getBaseline();
+        Vector start = segment.getStartPoint();
+        Vector end = segment.getEndPoint();
+        float startX = start.get(Vector.I1);
+        float startY = start.get(Vector.I2);
+        float endX = end.get(Vector.I1);
+        float endY = end.get(Vector.I2);
+        float rise = renderInfo.getRise();
+        if (rise != 0) {
+            // the text of super/subscripts is considered as part of the baseline it is relative to
+            startY = startY + -rise;
+            endY = endY + -rise;
+        }
+        float dx = endX - startX;
+        float dy = endY - startY;
+        float length = (float)Math.sqrt(dx * dx + dy * dy);
+        if (length == 0) {
+            dx = 1;
+            dy = 0;
+            length = 1;
+        }
+        float orientationX = dx / length;
+        float orientationY = dy / length;
+        int orientationMagnitude = (int)(Math.atan2(orientationY, orientationX) * 1000);
+        int distPerpendicular = (int)(startX * orientationY - startY * orientationX);
+        float distParallelStart = orientationX * startX + orientationY * startY;
+        float distParallelEnd = orientationX * endX + orientationY * endY;
+
+        getLine(orientationMagnitude, distPerpendicular).add(renderInfo.getText(), distParallelStart, distParallelEnd,
+                renderInfo.getSingleSpaceWidth());
+        result = null;
+    }
+
+    /**
+     * Returns the result so far.
+     * @return a String with the resulting text.
+     */
+    public String getResultantText() {
+        if (result != null)
+            return result;
+        ArrayList<Line> sortedLines = new ArrayList<Line>(lines);
+        Collections.sort(sortedLines, LINE_ORDER);
+        StringBuilder sb = new StringBuilder();
+        boolean first = true;
+        for (Line line : sortedLines) {
+            line.sort();
+            for (int k = 0; k < line.count; ++k) {
+                String text = line.text[k];
+                if (first) {
+                    first = false;
+                }
+                else if (k == 0) {
+                    sb.append('\n');
+                }
+                else {
+                    // we only insert a blank space if the trailing character of the previous string wasn't a space, and the leading character of the current string isn't a space
+                    String previous = line.text[k - 1];
+                    if (isChunkAtWordBoundary(line.parallelStart[k] - line.parallelEnd[k - 1], line.charSpaceWidth[k])
+                            && !startsWithSpace(text) && !endsWithSpace(previous))
+                        sb.append(' ');
+                }
+                sb.append(text);
+            }
+        }
+        result = sb.toString();
+        return result;
+    }
+
+    /**
+     * Determines if a space character should be inserted between two chunks of a line,
+     * the same way as {@link LocationTextExtractionStrategy#isChunkAtWordBoundary(LocationTextExtractionStrategy.TextChunk, LocationTextExtractionStrategy.TextChunk)}.
+     * @param distance the distance between the end of the previous chunk and the start of the chunk
+     * @param charSpaceWidth the width of a space in the font of the chunk
+     * @return true if the two chunks represent different words
+     */
+    protected boolean isChunkAtWordBoundary(float distance, float charSpaceWidth) {
+        // a width close to 0 is a space compensated with character spacing
+        if (charSpaceWidth < 0.1f)
+            return false;
+        return distance < -charSpaceWidth || distance > charSpaceWidth / 2.0f;
+    }
+
+    private static boolean startsWithSpace(String str) {
+        return str.length() > 0 && str.charAt(0) == ' ';
+    }
+
+    private static boolean endsWithSpace(String str) {
+        return str.length() > 0 && str.charAt(str.length() - 1) == ' ';
+    }
+
+    private static long lineKey(int orientationMagnitude, int distPerpendicular) {
+        return ((long)orientationMagnitude << 32) | (distPerpendicular & 0xffffffffL);
+    }
+
+    /**
+     * Finds the line of a chunk in the hash table, linear probing, or adds a new line.
+     */
+    private Line getLine(int orientationMagnitude, int distPerpendicular) {
+        long key = lineKey(orientationMagnitude, distPerpendicular);
+        int mask = keys.length - 1;
+        int h = (int)(key ^ (key >>> 32)) * 0x9E3779B9;
+        int slot = (h ^ (h >>> 16)) & mask;
+        while (slots[slot] != 0) {
+            if (keys[slot] == key)
+                return lines.get(slots[slot] - 1);
+            slot = (slot + 1) & mask;
+        }
+        Line line = new Line(orientationMagnitude, distPerpendicular);
+        lines.add(line);
+        keys[slot] = key;
+        slots[slot] = lines.size();
+        if (lines.size() * 2 > keys.length)
+            rehash();
+        return line;
+    }
+
+    private void rehash() {
+        long oldKeys[] = keys;
+        int oldSlots[] = slots;
+        keys = new long[oldKeys.length * 2];
+        slots = new int[oldSlots.length * 2];
+        int mask = keys.length - 1;
+        for (int k = 0; k < oldKeys.length; ++k) {
+            if (oldSlots[k] == 0)
+                continue;
+            long key = oldKeys[k];
+            int h = (int)(key ^ (key >>> 32)) * 0x9E3779B9;
+            int slot = (h ^ (h >>> 16)) & mask;
+            while (slots[slot] != 0)
+                slot = (slot + 1) & mask;
+            keys[slot] = key;
+            slots[slot] = oldSlots[k];
+        }
+    }
+
+    /** Orders the lines by orientation, then perpendicular distance. */
+    private static final Comparator<Line> LINE_ORDER = new Comparator<Line>() {
+        public int compare(Line l1, Line l2) {
+            if (l1.orientationMagnitude != l2.orientationMagnitude)
+                return l1.orientationMagnitude < l2.orientationMagnitude ? -1 : 1;
+            if (l1.distPerpendicular != l2.distPerpendicular)
+                return l1.distPerpendicular < l2.distPerpendicular ? -1 : 1;
+            return 0;
+        }
+    };
+
+    /** The chunks of a line, in parallel arrays. */
+    private static class Line {
+        final int orientationMagnitude;
+        final int distPerpendicular;
+        String text[] = new String[8];
+        float parallelStart[] = new float[8];
+        float parallelEnd[] = new float[8];
+        float charSpaceWidth[] = new float[8];
+        int count = 0;
+        /** the number of chunks at the start of the arrays already in order */
+        int sorted = 0;
+
+        Line(int orientationMagnitude, int distPerpendicular) {
+            this.orientationMagnitude = orientationMagnitude;
+            this.distPerpendicular = distPerpendicular;
+        }
+
+        void add(String chunk, float start, float end, float spaceWidth) {
+            if (count == text.length) {
+                int size = count * 2;
+                String t[] = new String[size];
+                System.arraycopy(text, 0, t, 0, count);
+                text = t;
+                float f[] = new float[size];
+                System.arraycopy(parallelStart, 0, f, 0, count);
+                parallelStart = f;
+                f = new float[size];
+                System.arraycopy(parallelEnd, 0, f, 0, count);
+                parallelEnd = f;
+                f = new float[size];
+                System.arraycopy(charSpaceWidth, 0, f, 0, count);
+                charSpaceWidth = f;
+            }
+            text[count] = chunk;
+            parallelStart[count] = start;
+            parallelEnd[count] = end;
+            charSpaceWidth[count] = spaceWidth;
+            ++count;
+        }
+
+        /**
+         * Sorts the chunks by parallel distance, chunks at the same distance keep the order
+         * they arrived in, like the stable sort of <CODE>LocationTextExtractionStrategy</CODE>.
+         */
+        void sort() {
+            if (sorted == count)
+                return;
+            boolean inOrder = true;
+            for (int k = Math.max(1, sorted); k < count; ++k) {
+                if (Float.compare(parallelStart[k - 1], parallelStart[k]) > 0) {
+                    inOrder = false;
+                    break;
+                }
+            }
+            if (!inOrder) {
+                int order[] = new int[count];
+                for (int k = 0; k < count; ++k)
+                    order[k] = k;
+                mergeSort(order, new int[count], 0, count);
+                String t[] = new String[text.length];
+                float start[] = new float[text.length];
+                float end[] = new float[text.length];
+                float width[] = new float[text.length];
+                for (int k = 0; k < count; ++k) {
+                    int i = order[k];
+                    t[k] = text[i];
+                    start[k] = parallelStart[i];
+                    end[k] = parallelEnd[i];
+                    width[k] = charSpaceWidth[i];
+                }
+                text = t;
+                parallelStart = start;
+                parallelEnd = end;
+                charSpaceWidth = width;
+            }
+            sorted = count;
+        }
+
+        /** A stable merge sort of the chunk indexes by their parallel start. */
+        private void mergeSort(int order[], int temp[], int from, int to) {
+            if (to - from < 2)
+                return;
+            int middle = (from + to) >>> 1;
+            mergeSort(order, temp, from, middle);
+            mergeSort(order, temp, middle, to);
+            if (Float.compare(parallelStart[order[middle - 1]], parallelStart[order[middle]]) <= 0)
+                return;
+            System.arraycopy(order, from, temp, from, to - from);
+            int i = from;
+            int j = middle;
+            for (int k = from; k < to; ++k) {
+                if (j >= to || (i < middle && Float.compare(parallelStart[temp[i]], parallelStart[temp[j]]) <= 0))
+                    order[k] = temp[i++];
+                else
+                    order[k] = temp[j++];
+            }
+        }
+    }
+}
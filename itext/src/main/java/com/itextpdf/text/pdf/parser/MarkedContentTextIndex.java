@@ -0,0 +1,141 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf.parser;
+
+import com.itextpdf.text.pdf.PdfDictionary;
+import com.itextpdf.text.pdf.PdfName;
+import com.itextpdf.text.pdf.PdfReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Set;
+
+/**
+ * The text of a page by marked content id. The page is parsed once and every piece of text
+ * is given to a {@link SimpleTextExtractionStrategy} for each MCID of the marked content
+ * sequences it is in, so the text of an MCID is the same as the one extracted with a
+ * {@link MarkedContentRenderFilter}, without parsing the page again for every MCID.
+ *
+ * @since 5.5.6
+ */
+public class MarkedContentTextIndex implements RenderListener {
+
+    /** The text extracted for every MCID. */
+    private final HashMap<Integer, SimpleTextExtractionStrategy> strategies = new HashMap<Integer, SimpleTextExtractionStrategy>();
+
+    /**
+     * Parses the content of a page and indexes its text by MCID.
+     * @param page the page dictionary
+     * @return the index of the text of the page
+     * @throws IOException on error
+     */
+    public static MarkedContentTextIndex create(PdfDictionary page) throws IOException {
+        MarkedContentTextIndex index = new MarkedContentTextIndex();
+        PdfContentStreamProcessor processor = new PdfContentStreamProcessor(index);
+        processor.processContent(PdfReader.getPageContent(page), page.getAsDict(PdfName.RESOURCES));
+        return index;
+    }
+
+    /**
+     * Gets the text of a marked content id.
+     * @param mcid the marked content id
+     * @return the text, empty if no text is marked with the MCID
+     */
+    public String getText(int mcid) {
+        SimpleTextExtractionStrategy strategy = strategies.get(Integer.valueOf(mcid));
+        return strategy == null ? "" : strategy.getResultantText();
+    }
+
+    /**
+     * @return the marked content ids with text
+     */
+    public Set<Integer> getMcids() {
+        return strategies.keySet();
+    }
+
+    /**
+     * @see com.itextpdf.text.pdf.parser.RenderListener#beginTextBlock()
+     */
+    public void beginTextBlock() {
+    }
+
+    /**
+     * Adds the text to the text of each MCID it is marked with.
+     * @see com.itextpdf.text.pdf.parser.RenderListener#renderText(com.itextpdf.text.pdf.parser.TextRenderInfo)
+     */
+    public void renderText(TextRenderInfo renderInfo) {
+        ArrayList<Integer> mcids = null;
+        for (MarkedContentInfo info : renderInfo.getMarkedContentInfos()) {
+            if (!info.hasMcid())
+                continue;
+            Integer mcid = Integer.valueOf(info.getMcid());
+            // nested sequences with the same MCID get the text once
+            if (mcids == null)
+                mcids = new ArrayList<Integer>();
+            else if (mcids.contains(mcid))
+                continue;
+            mcids.add(mcid);
+            SimpleTextExtractionStrategy strategy = strategies.get(mcid);
+            if (strategy == null) {
+                strategy = new SimpleTextExtractionStrategy();
+                strategies.put(mcid, strategy);
+            }
+            strategy.renderText(renderInfo);
+        }
+    }
+
+    /**
+     * @see com.itextpdf.text.pdf.parser.RenderListener#endTextBlock()
+     */
+    public void endTextBlock() {
+    }
+
+    /**
+     * @see com.itextpdf.text.pdf.parser.RenderListener#renderImage(com.itextpdf.text.pdf.parser.ImageRenderInfo)
+     */
+    public void renderImage(ImageRenderInfo renderInfo) {
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf.parser;
+
+import com.itextpdf.awt.geom.Rectangle2D;
+import com.itextpdf.text.error_messages.MessageLocalization;
+
+import java.util.ArrayList;
+
+/**
+ * Extracts the text of many regions of a page in one pass. The text of a region is the
+ * same as the one extracted through a {@link RegionTextRenderFilter} for that region, but
+ * the regions are kept in a grid so that every piece of text is only tested against the
+ * few regions near its baseline instead of all of them. An image is given to the
+ * strategies of the regions its bounds overlap.
+ *
+ * @since 5.5.6
+ */
+public class MultiRegionTextExtractor implements RenderListener {
+
+    /** the regions to extract text from */
+    private final Rectangle2D regions[];
+    /** the strategy of every region */
+    private final TextExtractionStrategy strategies[];
+
+    /** the bounds of the grid, the union of all the regions */
+    private final double minX;
+    private final double minY;
+    private final double cellWidth;
+    private final double cellHeight;
+    private final int columns;
+    private final int rows;
+    /** the indexes of the regions overlapping every cell, row by row */
+    private final int cells[][];
+
+    /** the last text or image tested against a region, to test every region once per text or image */
+    private final int lastTested[];
+    private int testCount = 0;
+
+    /**
+     * Creates an extractor with a {@link LocationTextExtractionStrategy} for every region.
+     * @param regions the regions to extract text from
+     */
+    public MultiRegionTextExtractor(Rectangle2D... regions) {
+        this(regions, createStrategies(regions.length));
+    }
+
+    /**
+     * Creates an extractor.
+     * @param regions the regions to extract text from
+     * @param strategies the strategy the text of every region is given to
+     */
+    public MultiRegionTextExtractor(Rectangle2D regions[], TextExtractionStrategy strategies[]) {
+        if (regions.length != strategies.length)
+            throw new IllegalArgumentException(MessageLocalization.getComposedMessage("there.must.be.one.strategy.per.region.found.1.regions.and.2.strategies", regions.length, strategies.length));
+        this.regions = regions.clone();
+        this.strategies = strategies.clone();
+        lastTested = new int[regions.length];
+        double x1 = Double.MAX_VALUE;
+        double y1 = Double.MAX_VALUE;
+        double x2 = -Double.MAX_VALUE;
+        double y2 = -Double.MAX_VALUE;
+        for (Rectangle2D region : regions) {
+            x1 = Math.min(x1, region.getMinX());
+            y1 = Math.min(y1, region.getMinY());
+            x2 = Math.max(x2, region.getMaxX());
+            y2 = Math.max(y2, region.getMaxY());
+        }
+        // about two cells per region in each direction
+        int side = regions.length == 0 ? 1 : (int)Math.ceil(Math.sqrt(regions.length)) * 2;
+        minX = x1;
+        minY = y1;
+        columns = side;
+        rows = side;
+        cellWidth = Math.max((x2 - x1) / side, Double.MIN_VALUE);
+        cellHeight = Math.max((y2 - y1) / side, Double.MIN_VALUE);
+        ArrayList<ArrayList<Integer>> lists = new ArrayList<ArrayList<Integer>>();
+        for (int k = 0; k < columns * rows; ++k)
+            lists.add(null);
+        for (int r = 0; r < regions.length; ++r) {
+            Rectangle2D region = regions[r];
+            int c1 = column(region.getMinX());
+            int c2 = column(region.getMaxX());
+            int r1 = row(region.getMinY());
+            int r2 = row(region.getMaxY());
+            for (int row = r1; row <= r2; ++row) {
+                for (int column = c1; column <= c2; ++column) {
+                    ArrayList<Integer> list = lists.get(row * columns + column);
+                    if (list == null) {
+                        list = new ArrayList<Integer>();
+                        lists.set(row * columns + column, list);
+                    }
+                    list.add(Integer.valueOf(r));
+                }
+            }
+        }
+        cells = new int[lists.size()][];
+        for (int k = 0; k < cells.length; ++k) {
+            ArrayList<Integer> list = lists.get(k);
+            cells[k] = new int[list == null ? 0 : list.size()];
+            for (int i = 0; i < cells[k].length; ++i)
+                cells[k][i] = list.get(i).intValue();
+        }
+    }
+
+    private static TextExtractionStrategy[] createStrategies(int count) {
+        TextExtractionStrategy strategies[] = new TextExtractionStrategy[count];
+        for (int k = 0; k < count; ++k)
+            strategies[k] = new LocationTextExtractionStrategy();
+        return strategies;
+    }
+
+    private int column(double x) {
+        return Math.max(0, Math.min(columns - 1, (int)Math.floor((x - minX) / cellWidth)));
+    }
+
+    private int row(double y) {
+        return Math.max(0, Math.min(rows - 1, (int)Math.floor((y - minY) / cellHeight)));
+    }
+
+    /**
+     * Gets the text extracted from a region.
+     * @param region the index of the region
+     * @return the text of the region
+     */
+    public String getResultantText(int region) {
+        return strategies[region].getResultantText();
+    }
+
+    /**
+     * @return the text extracted from every region, in the order of the regions
+     */
+    public String[] getResultantText() {
+        String text[] = new String[strategies.length];
+        for (int k = 0; k < text.length; ++k)
+            text[k] = strategies[k].getResultantText();
+        return text;
+    }
+
+    /**
+     * @see com.itextpdf.text.pdf.parser.RenderListener#beginTextBlock()
+     */
+    public void beginTextBlock() {
+        for (TextExtractionStrategy strategy : strategies)
+            strategy.beginTextBlock();
+    }
+
+    /**
+     * Gives the text to the strategies of the regions its baseline intersects.
+     * @see com.itextpdf.text.pdf.parser.RenderListener#renderText(com.itextpdf.text.pdf.parser.TextRenderInfo)
+     */
+    public void renderText(TextRenderInfo renderInfo) {
+        if (regions.length == 0)
+            return;
+        LineSegment segment = renderInfo.getBaseline();
+        Vector startPoint = segment.getStartPoint();
+        Vector endPoint = segment.getEndPoint();
+        float x1 = startPoint.get(Vector.I1);
+        float y1 = startPoint.get(Vector.I2);
+        float x2 = endPoint.get(Vector.I1);
+        float y2 = endPoint.get(Vector.I2);
+        double left = Math.min(x1, x2);
+        double bottom = Math.min(y1, y2);
+        double right = Math.max(x1, x2);
+        double top = Math.max(y1, y2);
+        if (!startTest(left, bottom, right, top))
+            return;
+        int c1 = column(left);
+        int c2 = column(right);
+        int r1 = row(bottom);
+        int r2 = row(top);
+        for (int row = r1; row <= r2; ++row) {
+            for (int column = c1; column <= c2; ++column) {
+                for (int r : cells[row * columns + column]) {
+                    if (lastTested[r] == testCount)
+                        continue;
+                    lastTested[r] = testCount;
+                    if (regions[r].intersectsLine(x1, y1, x2, y2))
+                        strategies[r].renderText(renderInfo);
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts the test of bounds against the regions.
+     * @return false if the bounds are outside of the grid
+     */
+    private boolean startTest(double left, double bottom, double right, double top) {
+        if (right < minX || top < minY || left > minX + cellWidth * columns || bottom > minY + cellHeight * rows)
+            return false;
+        ++testCount;
+        return true;
+    }
+
+    /**
+     * @see com.itextpdf.text.pdf.parser.RenderListener#endTextBlock()
+     */
+    public void endTextBlock() {
+        for (TextExtractionStrategy strategy : strategies)
+            strategy.endTextBlock();
+    }
+
+    /**
+     * Gives the image to the strategies of the regions its bounds overlap.
+     * @see com.itextpdf.text.pdf.parser.RenderListener#renderImage(com.itextpdf.text.pdf.parser.ImageRenderInfo)
+     */
+    public void renderImage(ImageRenderInfo renderInfo) {
+        if (regions.length == 0)
+            return;
+        // the image is the unit square transformed by the image CTM
+        Matrix ctm = renderInfo.getImageCTM();
+        double left = Double.MAX_VALUE;
+        double bottom = Double.MAX_VALUE;
+        double right = -Double.MAX_VALUE;
+        double top = -Double.MAX_VALUE;
+        for (int corner = 0; corner < 4; ++corner) {
+            Vector point = new Vector(corner & 1, corner >> 1, 1).cross(ctm);
+            left = Math.min(left, point.get(Vector.I1));
+            bottom = Math.min(bottom, point.get(Vector.I2));
+            right = Math.max(right, point.get(Vector.I1));
+            top = Math.max(top, point.get(Vector.I2));
+        }
+        if (!startTest(left, bottom, right, top))
+            return;
+        int c1 = column(left);
+        int c2 = column(right);
+        int r1 = row(bottom);
+        int r2 = row(top);
+        for (int row = r1; row <= r2; ++row) {
+            for (int column = c1; column <= c2; ++column) {
+                for (int r : cells[row * columns + column]) {
+                    if (lastTested[r] == testCount)
+                        continue;
+                    lastTested[r] = testCount;
+                    if (regions[r].intersects(left, bottom, right - left, top - bottom))
+                        strategies[r].renderImage(renderInfo);
+                }
+            }
+        }
+    }
+}
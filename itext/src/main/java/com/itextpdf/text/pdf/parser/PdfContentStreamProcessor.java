@@ -89,6 +89,11 @@ public class PdfContentStreamProcessor {
      * @since 5.0.2
      */
     private final Stack<MarkedContentInfo> markedContentStack = new Stack<MarkedContentInfo>();
+    /**
+     * The cache of the parsed form XObjects, null if the forms are parsed every time.
+     * @since 5.5.6
+     */
+    private FormXObjectCache formXObjectCache;
 
     /**
      * Creates a new PDF Content Stream Processor that will send it's output to the
@@ -217,6 +222,16 @@ public class PdfContentStreamProcessor {
         return operators.put(operatorString, operator);
     }
 
+    /**
+     * Sets a cache for the parsed content of the form XObjects, so that a form placed many times
+     * is only decoded and tokenized once.
+     * @param formXObjectCache the cache, null to parse the forms every time
+     * @since 5.5.6
+     */
+    public void setFormXObjectCache(FormXObjectCache formXObjectCache) {
+        this.formXObjectCache = formXObjectCache;
+    }
+
     /**
      * Resets the graphics state stack, matrices and resources.
      */
@@ -339,6 +354,17 @@ public class PdfContentStreamProcessor {
      * @param resources		the resources that come with the content stream
      */
     public void processContent(byte[] contentBytes, PdfDictionary resources){
+        processContent(contentBytes, resources, null);
+    }
+
+    /**
+     * Processes PDF syntax, recording the operations for the form XObject cache.
+     * @param contentBytes	the bytes of a content stream
+     * @param resources		the resources that come with the content stream
+     * @param operations	receives the operations processed, may be null
+     * @since 5.5.6
+     */
+    private void processContent(byte[] contentBytes, PdfDictionary resources, List<FormXObjectCache.Operation> operations){
         this.resources.push(resources);
         try {
             PRTokeniser tokeniser = new PRTokeniser(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(contentBytes)));
@@ -349,8 +375,13 @@ public class PdfContentStreamProcessor {
                 if ("BI".equals(operator.toString())){
                     // we don't call invokeOperator for embedded images - this is one area of the PDF spec that is particularly nasty and inconsistent
                     PdfDictionary colorSpaceDic = resources != null ? resources.getAsDict(PdfName.COLORSPACE) : null;
-                    handleInlineImage(InlineImageUtils.parseInlineImage(ps, colorSpaceDic), colorSpaceDic);
+                    InlineImageInfo inlineImage = InlineImageUtils.parseInlineImage(ps, colorSpaceDic);
+                    if (operations != null)
+                        operations.add(new FormXObjectCache.Operation(null, null, inlineImage));
+                    handleInlineImage(inlineImage, colorSpaceDic);
                 } else {
+                    if (operations != null)
+                        operations.add(new FormXObjectCache.Operation(operator, new ArrayList<PdfObject>(operands), null));
                     invokeOperator(operator, operands);
                 }
             }
@@ -363,6 +394,34 @@ public class PdfContentStreamProcessor {
 
     }
 
+    /**
+     * Processes the cached operations of a form XObject.
+     * @param operations	the operations of the content stream
+     * @param resources		the resources that come with the content stream
+     * @since 5.5.6
+     */
+    private void processOperations(List<FormXObjectCache.Operation> operations, PdfDictionary resources){
+        this.resources.push(resources);
+        try {
+            // the operators get a copy of the operands, like the list filled by the parser
+            ArrayList<PdfObject> operands = new ArrayList<PdfObject>();
+            for (FormXObjectCache.Operation operation : operations){
+                if (operation.inlineImage != null){
+                    PdfDictionary colorSpaceDic = resources != null ? resources.getAsDict(PdfName.COLORSPACE) : null;
+                    handleInlineImage(operation.inlineImage, colorSpaceDic);
+                } else {
+                    operands.clear();
+                    operands.addAll(operation.operands);
+                    invokeOperator(operation.operator, operands);
+                }
+            }
+        }
+        catch (Exception e) {
+            throw new ExceptionConverter(e);
+        }
+        this.resources.pop();
+    }
+
     /**
      * Callback when an inline image is found.  This requires special handling because inline images don't follow the standard operator syntax
      * @param info the inline image
@@ -923,14 +982,19 @@ public class PdfContentStreamProcessor {
 
             final PdfDictionary resources = stream.getAsDict(PdfName.RESOURCES);
 
+            FormXObjectCache cache = processor.formXObjectCache;
+            List<FormXObjectCache.Operation> operations = cache != null ? cache.get(ref) : null;
+
             // we read the content bytes up here so if it fails we don't leave the graphics state stack corrupted
             // this is probably not necessary (if we fail on this, probably the entire content stream processing
             // operation should be rejected
-            byte[] contentBytes;
-            try {
-                contentBytes = ContentByteUtils.getContentBytesFromContentObject(stream);
-            } catch (IOException e1) {
-                throw new ExceptionConverter(e1);
+            byte[] contentBytes = null;
+            if (operations == null) {
+                try {
+                    contentBytes = ContentByteUtils.getContentBytesFromContentObject(stream);
+                } catch (IOException e1) {
+                    throw new ExceptionConverter(e1);
+                }
             }
             final PdfArray matrix = stream.getAsArray(PdfName.MATRIX);
 
@@ -948,7 +1012,16 @@ public class PdfContentStreamProcessor {
                 processor.gs().ctm = formMatrix.multiply(processor.gs().ctm);
             }
 
-            processor.processContent(contentBytes, resources);
+            if (operations != null) {
+                processor.processOperations(operations, resources);
+            } else if (cache != null && cache.isCacheable(ref)) {
+                operations = new ArrayList<FormXObjectCache.Operation>();
+                processor.processContent(contentBytes, resources, operations);
+                operations = Collections.unmodifiableList(operations);
+                cache.put(ref, operations, contentBytes.length);
+            } else {
+                processor.processContent(contentBytes, resources);
+            }
 
             new PopGraphicsState().invoke(processor, null, null);
 
@@ -58,11 +58,23 @@ import com.itextpdf.text.pdf.PdfReader;
 public class PdfReaderContentParser {
     /** the reader this parser will process */
     private final PdfReader reader;
+    /** the cache of the parsed form XObjects, null if there is none */
+    private FormXObjectCache formXObjectCache;
     
     public PdfReaderContentParser(PdfReader reader) {
         this.reader = reader;
     }
 
+    /**
+     * Sets a cache for the parsed content of the form XObjects of the reader, so that the
+     * forms placed on many pages are only decoded and tokenized once.
+     * @param formXObjectCache the cache, null to parse the forms every time
+     * @since 5.5.6
+     */
+    public void setFormXObjectCache(FormXObjectCache formXObjectCache) {
+        this.formXObjectCache = formXObjectCache;
+    }
+
     /**
      * Processes content from the specified page number using the specified listener
      * @param <E> the type of the renderListener - this makes it easy to chain calls
@@ -77,6 +89,7 @@ public class PdfReaderContentParser {
         PdfDictionary resourcesDic = pageDic.getAsDict(PdfName.RESOURCES);
         
         PdfContentStreamProcessor processor = new PdfContentStreamProcessor(renderListener);
+        processor.setFormXObjectCache(formXObjectCache);
         processor.processContent(ContentByteUtils.getContentBytesForPage(reader, pageNumber), resourcesDic);        
         return renderListener;
 
@@ -46,6 +46,7 @@ package com.itextpdf.text.pdf.parser;
 
 import java.io.IOException;
 
+import com.itextpdf.awt.geom.Rectangle2D;
 import com.itextpdf.text.pdf.PdfReader;
 
 /**
@@ -89,4 +90,20 @@ public final class PdfTextExtractor {
         return getTextFromPage(reader, pageNumber, new LocationTextExtractionStrategy());
     }
 
+    /**
+     * Extract the text of several regions of a page, parsing the page once.
+     * The text of every region is extracted with a {@link LocationTextExtractionStrategy}.
+     * @param reader the reader to extract text from
+     * @param pageNumber the page to extract text from
+     * @param regions the regions to extract text from
+     * @return the text of every region, in the order of the regions
+     * @throws IOException if any operation fails while reading from the provided PdfReader
+     * @see MultiRegionTextExtractor
+     * @since 5.5.6
+     */
+    public static String[] getTextFromPage(PdfReader reader, int pageNumber, Rectangle2D... regions) throws IOException{
+        PdfReaderContentParser parser = new PdfReaderContentParser(reader);
+        return parser.processContent(pageNumber, new MultiRegionTextExtractor(regions)).getResultantText();
+    }
+
 }
@@ -52,6 +52,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.util.HashMap;
 import java.util.Set;
 
 /**
@@ -65,6 +66,11 @@ public class TaggedPdfReaderTool {
 	protected PdfReader reader;
 	/** The writer object to which the XML will be written */
 	protected PrintWriter out;
+	/**
+	 * The text of the pages already parsed, by MCID.
+	 * @since 5.5.6
+	 */
+	private final HashMap<PdfDictionary, MarkedContentTextIndex> parsedPages = new HashMap<PdfDictionary, MarkedContentTextIndex>();
 
 	/**
 	 * Parses a string with structured content.
@@ -88,7 +94,12 @@ public class TaggedPdfReaderTool {
 		if (struct == null)
 			throw new IOException(MessageLocalization.getComposedMessage("no.structtreeroot.found"));
 		// Inspect the child or children of the StructTreeRoot
-		inspectChild(struct.getDirectObject(PdfName.K));
+		try {
+			inspectChild(struct.getDirectObject(PdfName.K));
+		}
+		finally {
+			parsedPages.clear();
+		}
 		out.flush();
 		out.close();
 	}
@@ -262,17 +273,15 @@ public class TaggedPdfReaderTool {
 	public void parseTag(String tag, PdfObject object, PdfDictionary page)
 			throws IOException {
 		// if the identifier is a number, we can extract the content right away
+		// every page is parsed once, the text of all its MCIDs is kept
 		if (object instanceof PdfNumber) {
 			PdfNumber mcid = (PdfNumber) object;
-			RenderFilter filter = new MarkedContentRenderFilter(mcid.intValue());
-			TextExtractionStrategy strategy = new SimpleTextExtractionStrategy();
-			FilteredTextRenderListener listener = new FilteredTextRenderListener(
-					strategy, filter);
-			PdfContentStreamProcessor processor = new PdfContentStreamProcessor(
-					listener);
-			processor.processContent(PdfReader.getPageContent(page), page
-					.getAsDict(PdfName.RESOURCES));
-			out.print(XMLUtil.escapeXML(listener.getResultantText(), true));
+			MarkedContentTextIndex index = parsedPages.get(page);
+			if (index == null) {
+				index = MarkedContentTextIndex.create(page);
+				parsedPages.put(page, index);
+			}
+			out.print(XMLUtil.escapeXML(index.getText(mcid.intValue()), true));
 		}
 		// if the identifier is an array, we call the parseTag method
 		// recursively
@@ -0,0 +1,688 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf.parser;
+
+import com.itextpdf.awt.geom.Rectangle2D;
+import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.log.Logger;
+import com.itextpdf.text.log.LoggerFactory;
+import com.itextpdf.text.pdf.PdfArray;
+import com.itextpdf.text.pdf.PdfName;
+import com.itextpdf.text.pdf.PdfObject;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.PdfString;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An index of the text of a document and of the position of every glyph, built by parsing
+ * all the pages once. Searching the index for a string or a regular expression gives the
+ * pages and the areas of the hits without parsing the content streams again.
+ * <br>
+ * The text of a page is the text of its glyphs in content stream order, with a space or
+ * a newline added between the strings the same way as in {@link SimpleTextExtractionStrategy}.
+ * The bounding box of each glyph, from the descent line to the ascent line, is stored in
+ * 16 bit units relative to the crop box of its page, which is precise to a fraction of a point
+ * for any page size. The index can be stored in a file next to the document and read again
+ * as long as the document has the same ID, see {@link #getInstance(PdfReader, File)}.
+ * <br>
+ * An index is not modified after it is built and can be searched from several threads.
+ *
+ * @since 5.5.6
+ */
+public class TextPositionIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TextPositionIndex.class);
+
+    /** Identifies the index files, the last byte is the version of the format. */
+    private static final int MAGIC = 0x69545801;
+
+    /** The largest value of a quantized coordinate. */
+    private static final int QUANTUM = 0xffff;
+
+    /** Identifies the document: its ID, its file length and its number of pages. */
+    private final byte[] documentKey;
+
+    /** The text of all the pages. */
+    private final String text;
+    /** The offset of the text of each page in {@link #text}, plus the end of the text. */
+    private final int[] pageTextStart;
+    /** The index of the first glyph of each page, plus the number of glyphs. */
+    private final int[] pageGlyphStart;
+    /** The left, bottom, right and top of the crop box of each page. */
+    private final float[] pageBoxes;
+
+    /** The offset of the text of each glyph in {@link #text}. */
+    private final int[] glyphTextStart;
+    /** The offset after the text of each glyph in {@link #text}. */
+    private final int[] glyphTextEnd;
+    /** The left, bottom, right and top of each glyph, quantized relative to the page box. */
+    private final char[] glyphBoxes;
+
+    private TextPositionIndex(byte[] documentKey, String text, int[] pageTextStart, int[] pageGlyphStart, float[] pageBoxes,
+            int[] glyphTextStart, int[] glyphTextEnd, char[] glyphBoxes) {
+        this.documentKey = documentKey;
+        this.text = text;
+        this.pageTextStart = pageTextStart;
+        this.pageGlyphStart = pageGlyphStart;
+        this.pageBoxes = pageBoxes;
+        this.glyphTextStart = glyphTextStart;
+        this.glyphTextEnd = glyphTextEnd;
+        this.glyphBoxes = glyphBoxes;
+    }
+
+    /**
+     * Builds the index of a document, parsing every page.
+     * @param reader the document
+     * @return the index
+     * @throws IOException on error reading the content of the pages
+     */
+    public static TextPositionIndex create(PdfReader reader) throws IOException {
+        int pages = reader.getNumberOfPages();
+        int[] pageTextStart = new int[pages + 1];
+        int[] pageGlyphStart = new int[pages + 1];
+        float[] pageBoxes = new float[pages * 4];
+        IndexBuilder builder = new IndexBuilder();
+        PdfReaderContentParser parser = new PdfReaderContentParser(reader);
+        for (int page = 1; page <= pages; ++page) {
+            Rectangle box = reader.getCropBox(page);
+            int b = (page - 1) * 4;
+            pageBoxes[b] = box.getLeft();
+            pageBoxes[b + 1] = box.getBottom();
+            pageBoxes[b + 2] = box.getRight();
+            pageBoxes[b + 3] = box.getTop();
+            pageTextStart[page - 1] = builder.text.length();
+            pageGlyphStart[page - 1] = builder.glyphs;
+            builder.startPage(pageBoxes, b);
+            parser.processContent(page, builder);
+        }
+        pageTextStart[pages] = builder.text.length();
+        pageGlyphStart[pages] = builder.glyphs;
+        return new TextPositionIndex(getDocumentKey(reader), builder.text.toString(), pageTextStart, pageGlyphStart, pageBoxes,
+                resize(builder.glyphTextStart, builder.glyphs), resize(builder.glyphTextEnd, builder.glyphs),
+                resize(builder.glyphBoxes, builder.glyphs * 4));
+    }
+
+    /**
+     * Reads the index of a document from a file, or builds it and writes it to the file if the
+     * file doesn't exist or is the index of another version of the document. The index is only
+     * used for a document with the same ID, file length and number of pages.
+     * @param reader the document
+     * @param sidecar the index file
+     * @return the index
+     * @throws IOException on error reading the content of the pages
+     */
+    public static TextPositionIndex getInstance(PdfReader reader, File sidecar) throws IOException {
+        File backup = new File(sidecar.getPath() + ".bak");
+        // the previous index is only left aside if the last save didn't complete
+        File previous = sidecar.isFile() ? sidecar : backup;
+        if (previous.isFile()) {
+            InputStream in = new BufferedInputStream(new FileInputStream(previous));
+            try {
+                TextPositionIndex index = read(in, reader, previous.length());
+                if (index != null)
+                    return index;
+            }
+            catch (IOException e) {
+                LOGGER.warn(String.format("The text index %s can't be read, the document is parsed again.", previous.getPath()));
+            }
+            catch (RuntimeException e) {
+                LOGGER.warn(String.format("The text index %s can't be read, the document is parsed again.", previous.getPath()));
+            }
+            finally {
+                in.close();
+            }
+        }
+        TextPositionIndex index = create(reader);
+        // the index is replaced at once so that a concurrent reader never sees half of it
+        File temp = new File(sidecar.getPath() + ".tmp");
+        try {
+            OutputStream out = new BufferedOutputStream(new FileOutputStream(temp));
+            try {
+                index.write(out);
+            }
+            finally {
+                out.close();
+            }
+            if (!temp.renameTo(sidecar)) {
+                // renameTo doesn't replace an existing file on every platform,
+                // the old index is moved aside until the new one is in place
+                backup.delete();
+                if (!sidecar.renameTo(backup))
+                    throw new IOException(sidecar.getPath());
+                if (!temp.renameTo(sidecar)) {
+                    backup.renameTo(sidecar);
+                    throw new IOException(temp.getPath());
+                }
+                backup.delete();
+            }
+        }
+        catch (IOException e) {
+            temp.delete();
+            LOGGER.warn(String.format("The text index %s can't be written.", sidecar.getPath()));
+        }
+        return index;
+    }
+
+    /**
+     * Reads an index written by {@link #write(OutputStream)}.
+     * @param in the stream to read from, it isn't closed
+     * @param reader the document the index must belong to
+     * @return the index or <CODE>null</CODE> if it is the index of another document
+     * @throws IOException if the stream isn't an index or on error reading it
+     */
+    public static TextPositionIndex read(InputStream in, PdfReader reader) throws IOException {
+        return read(in, reader, Long.MAX_VALUE);
+    }
+
+    /**
+     * Reads an index, checking every length read against the length of the stream so that
+     * a truncated or corrupt index fails with an IOException instead of a huge allocation.
+     */
+    private static TextPositionIndex read(InputStream in, PdfReader reader, long length) throws IOException {
+        CountingInputStream counter = new CountingInputStream(in);
+        DataInputStream data = new DataInputStream(counter);
+        if (data.readInt() != MAGIC)
+            throw new IOException("Not a text index.");
+        byte[] documentKey = new byte[readCount(data, counter, length, 1)];
+        data.readFully(documentKey);
+        if (!Arrays.equals(documentKey, getDocumentKey(reader)))
+            return null;
+        // the text and glyph offsets and the box of each page
+        int pages = readCount(data, counter, length, 24);
+        int[] pageTextStart = readInts(data, pages + 1);
+        int[] pageGlyphStart = readInts(data, pages + 1);
+        float[] pageBoxes = new float[pages * 4];
+        for (int k = 0; k < pageBoxes.length; ++k)
+            pageBoxes[k] = data.readFloat();
+        char[] chars = new char[readCount(data, counter, length, 2)];
+        for (int k = 0; k < chars.length; ++k)
+            chars[k] = data.readChar();
+        // the text offsets and the box of each glyph
+        int glyphs = readCount(data, counter, length, 16);
+        int[] glyphTextStart = readInts(data, glyphs);
+        int[] glyphTextEnd = readInts(data, glyphs);
+        char[] glyphBoxes = new char[glyphs * 4];
+        for (int k = 0; k < glyphBoxes.length; ++k)
+            glyphBoxes[k] = data.readChar();
+        checkOffsets(pageTextStart, chars.length);
+        checkOffsets(pageGlyphStart, glyphs);
+        return new TextPositionIndex(documentKey, new String(chars), pageTextStart, pageGlyphStart, pageBoxes,
+                glyphTextStart, glyphTextEnd, glyphBoxes);
+    }
+
+    /**
+     * Reads the number of elements of a table and checks that the rest of the stream can hold them.
+     */
+    private static int readCount(DataInputStream data, CountingInputStream counter, long length, int elementSize) throws IOException {
+        int count = data.readInt();
+        if (count < 0 || count > Integer.MAX_VALUE / elementSize || (long)count * elementSize > length - counter.count)
+            throw new IOException("The text index is truncated.");
+        return count;
+    }
+
+    /**
+     * Checks that the offsets of the pages increase from 0 to the end of their table.
+     */
+    private static void checkOffsets(int[] offsets, int end) throws IOException {
+        int previous = 0;
+        for (int offset : offsets) {
+            if (offset < previous)
+                throw new IOException("The text index is corrupt.");
+            previous = offset;
+        }
+        if (offsets[0] != 0 || previous != end)
+            throw new IOException("The text index is corrupt.");
+    }
+
+    /**
+     * Writes the index.
+     * @param out the stream to write to, it is flushed but not closed
+     * @throws IOException on error writing the stream
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(documentKey.length);
+        data.write(documentKey);
+        data.writeInt(getNumberOfPages());
+        writeInts(data, pageTextStart);
+        writeInts(data, pageGlyphStart);
+        for (float f : pageBoxes)
+            data.writeFloat(f);
+        data.writeInt(text.length());
+        data.writeChars(text);
+        data.writeInt(glyphTextStart.length);
+        writeInts(data, glyphTextStart);
+        writeInts(data, glyphTextEnd);
+        for (char c : glyphBoxes)
+            data.writeChar(c);
+        data.flush();
+    }
+
+    /**
+     * @return the number of pages of the document
+     */
+    public int getNumberOfPages() {
+        return pageTextStart.length - 1;
+    }
+
+    /**
+     * @param page a page number, starting at 1
+     * @return the indexed text of the page
+     */
+    public String getPageText(int page) {
+        return text.substring(pageTextStart[page - 1], pageTextStart[page]);
+    }
+
+    /**
+     * Finds all the occurrences of a string. An occurrence doesn't span several pages.
+     * @param searchText the text to find
+     * @return the hits, in page order
+     */
+    public List<Hit> search(String searchText) {
+        ArrayList<Hit> hits = new ArrayList<Hit>();
+        if (searchText.length() == 0)
+            return hits;
+        int start = text.indexOf(searchText);
+        while (start >= 0) {
+            int end = start + searchText.length();
+            int page = getPageOfOffset(start);
+            if (end <= pageTextStart[page]) {
+                hits.add(createHit(page, start, end));
+                start = text.indexOf(searchText, end);
+            }
+            else {
+                // a match spanning two pages isn't a hit, the search goes on from the start of the next page
+                start = text.indexOf(searchText, pageTextStart[page]);
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Returns the page whose text contains the character at the given offset, skipping empty pages.
+     */
+    private int getPageOfOffset(int offset) {
+        // the last page starting at or before the offset
+        int low = 0;
+        int high = getNumberOfPages() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (pageTextStart[mid] <= offset)
+                low = mid;
+            else
+                high = mid - 1;
+        }
+        return low + 1;
+    }
+
+    /**
+     * Finds all the matches of a regular expression, the empty matches are ignored. The
+     * expression is matched against the text of every page separately.
+     * @param pattern the expression to find
+     * @return the hits, in page order
+     */
+    public List<Hit> search(Pattern pattern) {
+        ArrayList<Hit> hits = new ArrayList<Hit>();
+        Matcher matcher = pattern.matcher(text);
+        for (int page = 1; page <= getNumberOfPages(); ++page) {
+            matcher.region(pageTextStart[page - 1], pageTextStart[page]);
+            while (matcher.find()) {
+                if (matcher.end() > matcher.start())
+                    hits.add(createHit(page, matcher.start(), matcher.end()));
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Creates a hit, the boxes of consecutive glyphs on the same line are joined.
+     */
+    private Hit createHit(int page, int start, int end) {
+        int b = (page - 1) * 4;
+        float left = pageBoxes[b];
+        float bottom = pageBoxes[b + 1];
+        float scaleX = (pageBoxes[b + 2] - left) / QUANTUM;
+        float scaleY = (pageBoxes[b + 3] - bottom) / QUANTUM;
+        ArrayList<Rectangle2D> rectangles = new ArrayList<Rectangle2D>();
+        Rectangle2D current = null;
+        // the first glyph ending after the start of the hit, the glyph ends only increase
+        int low = pageGlyphStart[page - 1];
+        int high = pageGlyphStart[page];
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (glyphTextEnd[middle] > start)
+                high = middle;
+            else
+                low = middle + 1;
+        }
+        for (int g = low; g < pageGlyphStart[page] && glyphTextStart[g] < end; ++g) {
+            int q = g * 4;
+            float x1 = left + glyphBoxes[q] * scaleX;
+            float y1 = bottom + glyphBoxes[q + 1] * scaleY;
+            float x2 = left + glyphBoxes[q + 2] * scaleX;
+            float y2 = bottom + glyphBoxes[q + 3] * scaleY;
+            Rectangle2D box = new Rectangle2D.Float(x1, y1, x2 - x1, y2 - y1);
+            if (current != null && y1 < current.getMaxY() && y2 > current.getMinY() && x1 >= current.getMinX()) {
+                current.add(box);
+            }
+            else {
+                current = box;
+                rectangles.add(current);
+            }
+        }
+        return new Hit(page, text.substring(start, end), rectangles);
+    }
+
+    /**
+     * The document key is the ID of the document, its file length and number of pages.
+     */
+    private static byte[] getDocumentKey(PdfReader reader) throws IOException {
+        ByteArrayOutputStream key = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(key);
+        PdfArray id = reader.getTrailer().getAsArray(PdfName.ID);
+        if (id != null) {
+            for (int k = 0; k < id.size(); ++k) {
+                PdfObject obj = id.getDirectObject(k);
+                if (obj instanceof PdfString) {
+                    byte[] bytes = ((PdfString)obj).getOriginalBytes();
+                    data.writeInt(bytes.length);
+                    data.write(bytes);
+                }
+            }
+        }
+        data.writeLong(reader.getFileLength());
+        data.writeInt(reader.getNumberOfPages());
+        data.close();
+        return key.toByteArray();
+    }
+
+    private static int[] resize(int[] values, int length) {
+        int[] resized = new int[length];
+        System.arraycopy(values, 0, resized, 0, Math.min(values.length, length));
+        return resized;
+    }
+
+    private static char[] resize(char[] values, int length) {
+        char[] resized = new char[length];
+        System.arraycopy(values, 0, resized, 0, Math.min(values.length, length));
+        return resized;
+    }
+
+    private static int[] readInts(DataInputStream data, int count) throws IOException {
+        int[] values = new int[count];
+        for (int k = 0; k < count; ++k)
+            values[k] = data.readInt();
+        return values;
+    }
+
+    private static void writeInts(DataOutputStream data, int[] values) throws IOException {
+        for (int v : values)
+            data.writeInt(v);
+    }
+
+    /**
+     * Counts the bytes read from a stream.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0)
+                ++count;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0)
+                count += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    /**
+     * An occurrence of the searched text.
+     */
+    public static class Hit {
+        private final int page;
+        private final String text;
+        private final List<Rectangle2D> rectangles;
+
+        Hit(int page, String text, List<Rectangle2D> rectangles) {
+            this.page = page;
+            this.text = text;
+            this.rectangles = rectangles;
+        }
+
+        /**
+         * @return the page number, starting at 1
+         */
+        public int getPage() {
+            return page;
+        }
+
+        /**
+         * @return the text found
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * @return the areas of the text in user space, one per line of the text
+         */
+        public List<Rectangle2D> getRectangles() {
+            return rectangles;
+        }
+    }
+
+    /**
+     * Collects the text and the glyph boxes of the pages.
+     */
+    private static class IndexBuilder implements RenderListener {
+        final StringBuilder text = new StringBuilder();
+        int glyphs = 0;
+        int[] glyphTextStart = new int[1024];
+        int[] glyphTextEnd = new int[1024];
+        char[] glyphBoxes = new char[4096];
+
+        private final float[] ascent = new float[4];
+        private final float[] descent = new float[4];
+        private final float[] baseline = new float[4];
+        private GlyphCursor cursor;
+
+        private float boxLeft;
+        private float boxBottom;
+        private float scaleX;
+        private float scaleY;
+
+        /** the baseline of the previous string of the page, null at the start of a page */
+        private float[] lastBaseline;
+
+        void startPage(float[] boxes, int b) {
+            boxLeft = boxes[b];
+            boxBottom = boxes[b + 1];
+            float width = boxes[b + 2] - boxLeft;
+            float height = boxes[b + 3] - boxBottom;
+            scaleX = width > 0 ? QUANTUM / width : 0;
+            scaleY = height > 0 ? QUANTUM / height : 0;
+            lastBaseline = null;
+        }
+
+        public void beginTextBlock() {
+        }
+
+        public void renderText(TextRenderInfo renderInfo) {
+            if (cursor == null)
+                cursor = renderInfo.getGlyphCursor();
+            else
+                cursor.reset(renderInfo);
+            boolean first = true;
+            float startX = 0;
+            float startY = 0;
+            while (cursor.next()) {
+                String glyphText = cursor.getText();
+                cursor.getBaseline(baseline);
+                if (first) {
+                    first = false;
+                    startX = baseline[0];
+                    startY = baseline[1];
+                    addSeparator(glyphText, startX, startY, cursor.getSingleSpaceWidth());
+                }
+                addGlyph(glyphText);
+            }
+            if (!first) {
+                if (lastBaseline == null)
+                    lastBaseline = new float[4];
+                lastBaseline[0] = startX;
+                lastBaseline[1] = startY;
+                lastBaseline[2] = baseline[2];
+                lastBaseline[3] = baseline[3];
+            }
+        }
+
+        /**
+         * Adds a newline if the string isn't on the line of the previous one, or a space if there is a gap
+         * between them, like SimpleTextExtractionStrategy.
+         */
+        private void addSeparator(String glyphText, float x0, float y0, float spaceWidth) {
+            if (lastBaseline == null || text.length() == 0)
+                return;
+            float x1 = lastBaseline[0];
+            float y1 = lastBaseline[1];
+            float x2 = lastBaseline[2];
+            float y2 = lastBaseline[3];
+            // the square of the distance from the start of the string to the line of the previous one
+            float length = (x2 - x1) * (x2 - x1) + (y2 - y1) * (y2 - y1);
+            float dist;
+            if (length == 0) {
+                // the previous string has no width, so its line is taken to be horizontal
+                dist = (y1 - y0) * (y1 - y0);
+            }
+            else {
+                float cross = (x2 - x1) * (y1 - y0) - (y2 - y1) * (x1 - x0);
+                dist = cross * cross / length;
+            }
+            if (dist > 1f) {
+                text.append('\n');
+            }
+            else if (text.charAt(text.length() - 1) != ' ' && glyphText.length() > 0 && glyphText.charAt(0) != ' ') {
+                float spacing = (float)Math.sqrt((x2 - x0) * (x2 - x0) + (y2 - y0) * (y2 - y0));
+                if (spacing > spaceWidth / 2f)
+                    text.append(' ');
+            }
+        }
+
+        private void addGlyph(String glyphText) {
+            if (glyphs == glyphTextStart.length) {
+                glyphTextStart = resize(glyphTextStart, glyphs * 2);
+                glyphTextEnd = resize(glyphTextEnd, glyphs * 2);
+                glyphBoxes = resize(glyphBoxes, glyphs * 8);
+            }
+            cursor.getAscentLine(ascent);
+            cursor.getDescentLine(descent);
+            float minX = Math.min(Math.min(ascent[0], ascent[2]), Math.min(descent[0], descent[2]));
+            float maxX = Math.max(Math.max(ascent[0], ascent[2]), Math.max(descent[0], descent[2]));
+            float minY = Math.min(Math.min(ascent[1], ascent[3]), Math.min(descent[1], descent[3]));
+            float maxY = Math.max(Math.max(ascent[1], ascent[3]), Math.max(descent[1], descent[3]));
+            int q = glyphs * 4;
+            // rounded outwards so that the box always contains the glyph
+            glyphBoxes[q] = quantize((float)Math.floor((minX - boxLeft) * scaleX));
+            glyphBoxes[q + 1] = quantize((float)Math.floor((minY - boxBottom) * scaleY));
+            glyphBoxes[q + 2] = quantize((float)Math.ceil((maxX - boxLeft) * scaleX));
+            glyphBoxes[q + 3] = quantize((float)Math.ceil((maxY - boxBottom) * scaleY));
+            glyphTextStart[glyphs] = text.length();
+            text.append(glyphText);
+            glyphTextEnd[glyphs] = text.length();
+            ++glyphs;
+        }
+
+        private static char quantize(float value) {
+            if (!(value > 0))
+                return 0;
+            if (value >= QUANTUM)
+                return (char)QUANTUM;
+            return (char)value;
+        }
+
+        public void endTextBlock() {
+        }
+
+        public void renderImage(ImageRenderInfo renderInfo) {
+        }
+    }
+}
@@ -104,6 +104,19 @@ public class TextRenderInfo {
     	this.markedContentInfos = parent.markedContentInfos;
     }
 
+    /**
+     * Used for creating the TextRenderInfo of a glyph of a {@link GlyphCursor}
+     * @param parent the parent TextRenderInfo
+     * @param string the content of a TextRenderInfo
+     * @param horizontalOffset the unscaled horizontal offset of the character that this TextRenderInfo represents
+     * @param unscaledWidth the unscaled width of the character
+     * @since 5.5.6
+     */
+    TextRenderInfo(TextRenderInfo parent, PdfString string, float horizontalOffset, float unscaledWidth){
+        this(parent, string, horizontalOffset);
+        this.unscaledWidth = Float.valueOf(unscaledWidth);
+    }
+
     /**
      * @return the text to render
      */
@@ -118,6 +131,30 @@ public class TextRenderInfo {
      */
     public PdfString getPdfString() { return string; }
 
+    /**
+     * @return the graphics state of the text
+     * @since 5.5.6
+     */
+    GraphicsState getGraphicsState() {
+        return gs;
+    }
+
+    /**
+     * @return the matrix transforming the text space to the user space
+     * @since 5.5.6
+     */
+    Matrix getTextToUserSpaceTransformMatrix() {
+        return textToUserSpaceTransformMatrix;
+    }
+
+    /**
+     * @return the marked content sequences the text is in, from the outermost to the innermost
+     * @since 5.5.6
+     */
+    Collection<MarkedContentInfo> getMarkedContentInfos() {
+        return markedContentInfos;
+    }
+
 	/**
 	 * Checks if the text belongs to a marked content sequence
 	 * with a given mcid.
@@ -331,7 +368,7 @@ public class TextRenderInfo {
      * the width of \u00A0 (a non-breaking space in many fonts)
      * @return the width of a single space character in text space units
      */
-    private float getUnscaledFontSpaceWidth(){
+    float getUnscaledFontSpaceWidth(){
         char charToUse = ' ';
         if (gs.font.getWidth(charToUse) == 0)
             charToUse = '\u00A0';
@@ -392,6 +429,16 @@ public class TextRenderInfo {
         return rslt;
     }
 
+    /**
+     * Provides the position of each individual glyph in the text render operation without creating
+     * objects for every glyph, see {@link #getCharacterRenderInfos()}
+     * @return a cursor positioned before the first glyph
+     * @since 5.5.6
+     */
+    public GlyphCursor getGlyphCursor(){
+        return new GlyphCursor(this);
+    }
+
     /**
      * Calculates width and word spacing of a single character PDF string.
      * @param string            a character to calculate width.
@@ -425,7 +472,7 @@ public class TextRenderInfo {
      * @param string single character string to convert to.
      * @return char code.
      */
-    private int getCharCode(String string) {
+    int getCharCode(String string) {
         try {
             byte[] b = string.getBytes("UTF-16BE");
             int value = 0;
@@ -447,7 +494,7 @@ public class TextRenderInfo {
      * @param string    PDF string to be splitted.
      * @return          splitted PDF string.
      */
-    private PdfString[] splitString(PdfString string) {
+    PdfString[] splitString(PdfString string) {
         List<PdfString> strings = new ArrayList<PdfString>();
         String stringValue = string.toString();
         for (int i = 0; i < stringValue.length(); i++) {
@@ -1006,9 +1006,31 @@ public class ParseRDF implements XMPError, XMPConst
 	 */
 	private static XMPNode addChildNode(XMPMetaImpl xmp, XMPNode xmpParent, Node xmlNode,
 			String value, boolean isTopLevel) throws XMPException
+	{
+		return addChildNode(xmp, xmpParent, xmlNode.getNamespaceURI(), xmlNode.getPrefix(),
+			xmlNode.getLocalName(), value, isTopLevel);
+	}
+
+
+	/**
+	 * Adds a child node for an XML element or attribute given by its name parts.
+	 * This is shared by the DOM based parser and the streaming {@link ParseRDFHandler}.
+	 *  
+	 * @param xmp the xmp metadata object that is generated
+	 * @param xmpParent the parent xmp node
+	 * @param namespace the namespace URI of the XML node, can be <code>null</code>
+	 * @param xmlPrefix the prefix of the XML node, can be <code>null</code>
+	 * @param localName the local name of the XML node
+	 * @param value Node value	
+	 * @param isTopLevel Flag if the node is a top-level node
+	 * @return Returns the newly created child node.
+	 * @throws XMPException thown on parsing errors
+	 */
+	static XMPNode addChildNode(XMPMetaImpl xmp, XMPNode xmpParent, String namespace,
+			String xmlPrefix, String localName, String value, boolean isTopLevel)
+			throws XMPException
 	{
 		XMPSchemaRegistry registry = XMPMetaFactory.getSchemaRegistry();
-		String namespace = xmlNode.getNamespaceURI();
 		String childName;
 		if (namespace != null)
 		{
@@ -1021,10 +1043,10 @@ public class ParseRDF implements XMPError, XMPConst
 			String prefix = registry.getNamespacePrefix(namespace);
 			if (prefix == null)
 			{
-				prefix = xmlNode.getPrefix() != null ? xmlNode.getPrefix() : DEFAULT_PREFIX;
+				prefix = xmlPrefix != null ? xmlPrefix : DEFAULT_PREFIX;
 				prefix = registry.registerNamespace(namespace, prefix);
 			}
-			childName = prefix + xmlNode.getLocalName();
+			childName = prefix + localName;
 		}
 		else
 		{
@@ -1109,7 +1131,7 @@ public class ParseRDF implements XMPError, XMPConst
 	 * @return Returns the newly created child node.
 	 * @throws XMPException thown on parsing errors
 	 */
-	private static XMPNode addQualifierNode(XMPNode xmpParent, String name, String value)
+	static XMPNode addQualifierNode(XMPNode xmpParent, String name, String value)
 			throws XMPException
 	{
 		boolean isLang = XML_LANG.equals(name);
@@ -1134,7 +1156,7 @@ public class ParseRDF implements XMPError, XMPConst
 	 * @param xmpParent the parent xmp node
 	 * @throws XMPException thown on parsing errors
 	 */
-	private static void fixupQualifiedNode(XMPNode xmpParent) throws XMPException
+	static void fixupQualifiedNode(XMPNode xmpParent) throws XMPException
 	{
 		assert xmpParent.getOptions().isStruct()  &&  xmpParent.hasChildren();
 
@@ -1225,7 +1247,7 @@ public class ParseRDF implements XMPError, XMPConst
 	 * @param term the term id
 	 * @return Return true if the term is a property element name.
 	 */
-	private static boolean isPropertyElementName(int term)
+	static boolean isPropertyElementName(int term)
 	{
 		if (term == RDFTERM_DESCRIPTION  ||  isOldTerm(term))
 		{
@@ -1274,14 +1296,30 @@ public class ParseRDF implements XMPError, XMPConst
 	 */
 	private static int getRDFTermKind(Node node)
 	{
-		String localName = node.getLocalName();
-		String namespace = node.getNamespaceURI();
-		
+		String ownerNamespace = node instanceof Attr ?
+			((Attr) node).getOwnerElement().getNamespaceURI() : null;
+		return getRDFTermKind(node.getLocalName(), node.getNamespaceURI(),
+			node instanceof Attr, ownerNamespace);
+	}
+
+
+	/**
+	 * Determines the ID for a certain RDF Term given by its name parts.
+	 * 
+	 * @param localName the local name of the XML node
+	 * @param namespace the namespace URI of the XML node, can be <code>null</code> 
+	 * @param isAttribute flag if the XML node is an attribute
+	 * @param ownerNamespace the namespace URI of the element owning the attribute
+	 * @return Returns the term ID.
+	 */
+	static int getRDFTermKind(String localName, String namespace, boolean isAttribute,
+			String ownerNamespace)
+	{
 		if (
 				namespace == null  && 
 				("about".equals(localName) || "ID".equals(localName))  &&
-				(node instanceof Attr)  &&
-				NS_RDF.equals(((Attr) node).getOwnerElement().getNamespaceURI())
+				isAttribute  &&
+				NS_RDF.equals(ownerNamespace)
 		   )
 		{
 			namespace = NS_RDF; 
@@ -0,0 +1,1243 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.xmp.impl;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.ext.LexicalHandler;
+import org.xml.sax.helpers.DefaultHandler;
+
+import com.itextpdf.xmp.XMPConst;
+import com.itextpdf.xmp.XMPError;
+import com.itextpdf.xmp.XMPException;
+
+
+/**
+ * Streaming counterpart of {@link ParseRDF}. The handler receives the SAX events of an
+ * XMP packet and builds the <code>XMPNode</code> tree directly, no DOM is created.
+ * <p>
+ * The RDF productions are the same as in <code>ParseRDF</code> and the resulting tree is
+ * identical. Attributes are visited in the order of their qualified names, as the DOM does,
+ * so that properties created from attributes keep the same order. Property elements whose
+ * kind depends on their content (literal, resource or empty) are resolved when the first child
+ * element or the end tag is seen. Errors are raised as <code>XMPException</code>s wrapped into
+ * a <code>SAXException</code>.
+ * <p>
+ * A handler instance parses exactly one packet.
+ *
+ * @since 5.5.6
+ */
+class ParseRDFHandler extends DefaultHandler implements LexicalHandler, XMPError, XMPConst
+{
+	/** Looking for the root rdf:RDF element. */
+	private static final int SEARCH = 0;
+	/** Content that is not part of the XMP tree. */
+	private static final int IGNORE = 1;
+	/** The rdf:RDF element, contains node elements. */
+	private static final int RDF = 2;
+	/** A node element, contains property elements. */
+	private static final int NODE = 3;
+	/** A property element with rdf:parseType="Resource", contains property elements. */
+	private static final int PARSE_TYPE_RESOURCE = 4;
+	/** A property element that is a literal, a resource or empty depending on its content. */
+	private static final int UNDECIDED = 5;
+	/** A resource property element, contains one node element. */
+	private static final int RESOURCE = 6;
+	/** A literal property element, contains text. */
+	private static final int LITERAL = 7;
+	/** An empty property element, must not have any content. */
+	private static final int EMPTY = 8;
+
+	/** the xmp metadata object that is generated */
+	private final XMPMetaImpl xmp = new XMPMetaImpl();
+	/** flag if the root rdf:RDF must be nested in x:xmpmeta */
+	private final boolean xmpmetaRequired;
+	/** the body text of the last xpacket-instruction before the root */
+	private String packetHeader;
+	/** flag if the root rdf:RDF element has been found */
+	private boolean rootFound = false;
+	/** flag if the root rdf:RDF element is complete, the rest of the document is ignored */
+	private boolean rootDone = false;
+	/** the number of namespace declarations of the next element */
+	private int namespaceDeclarations = 0;
+	/** flag if the parser is inside a CDATA section */
+	private boolean inCDATA = false;
+	/** the innermost open element */
+	private Frame top = null;
+
+
+	/**
+	 * Creates a handler for one packet.
+	 * @param xmpmetaRequired flag if the root rdf:RDF must be nested in an x:xmpmeta element
+	 */
+	ParseRDFHandler(boolean xmpmetaRequired)
+	{
+		this.xmpmetaRequired = xmpmetaRequired;
+	}
+
+
+	/**
+	 * @return Returns the parsed (not normalized) metadata object or <code>null</code> if the
+	 * 		document did not contain an appropriate root node.
+	 */
+	XMPMetaImpl getResult()
+	{
+		if (!rootFound)
+		{
+			return null;
+		}
+		xmp.setPacketHeader(packetHeader);
+		return xmp;
+	}
+
+
+	/**
+	 * @see org.xml.sax.helpers.DefaultHandler#startPrefixMapping(String, String)
+	 */
+	public void startPrefixMapping(String prefix, String uri)
+	{
+		namespaceDeclarations++;
+	}
+
+
+	/**
+	 * @see org.xml.sax.helpers.DefaultHandler#startElement(String, String, String, Attributes)
+	 */
+	public void startElement(String uri, String localName, String qName, Attributes atts)
+		throws SAXException
+	{
+		int nsDecls = namespaceDeclarations;
+		namespaceDeclarations = 0;
+		if (rootDone)
+		{
+			return;
+		}
+
+		try
+		{
+			Frame element = new Frame(uri, localName, qName);
+			Frame parent = top;
+			int kind = parent != null ? parent.kind : SEARCH;
+
+			if (kind == UNDECIDED)
+			{
+				// a child element makes it a resource property element
+				resolveResourcePropertyElement(parent);
+				kind = parent.kind;
+			}
+
+			switch (kind)
+			{
+				case SEARCH:
+					searchRootElement(element, atts.getLength() + nsDecls);
+					break;
+
+				case RDF:
+					nodeElement(element, atts, xmp.getRoot(), true);
+					break;
+
+				case NODE:
+				case PARSE_TYPE_RESOURCE:
+					propertyElement(element, atts, parent.xmpNode, parent.isTopLevel);
+					break;
+
+				case RESOURCE:
+					resourcePropertyElementChild(parent, element, atts);
+					break;
+
+				case LITERAL:
+					throw new XMPException("Invalid child of literal property element", BADRDF);
+
+				case EMPTY:
+					throw new XMPException(
+						"Nested content not allowed with rdf:resource or property attributes",
+						BADRDF);
+
+				default:
+					element.kind = IGNORE;
+					break;
+			}
+
+			element.parent = top;
+			top = element;
+		}
+		catch (XMPException e)
+		{
+			throw new SAXException(e);
+		}
+	}
+
+
+	/**
+	 * @see org.xml.sax.helpers.DefaultHandler#endElement(String, String, String)
+	 */
+	public void endElement(String uri, String localName, String qName) throws SAXException
+	{
+		if (rootDone)
+		{
+			return;
+		}
+
+		Frame element = top;
+		top = element.parent;
+		try
+		{
+			switch (element.kind)
+			{
+				case SEARCH:
+					if (element.isXmpMeta  &&  top != null)
+					{
+						// only the first x:xmpmeta is searched, its siblings are skipped
+						top.closed = true;
+					}
+					break;
+
+				case RDF:
+					rootDone = true;
+					break;
+
+				case NODE:
+					if (top.kind == RESOURCE)
+					{
+						completeResourcePropertyElement(top.xmpNode);
+					}
+					break;
+
+				case PARSE_TYPE_RESOURCE:
+					if (element.xmpNode.getHasValueChild())
+					{
+						ParseRDF.fixupQualifiedNode(element.xmpNode);
+					}
+					break;
+
+				case UNDECIDED:
+					literalPropertyElement(element);
+					break;
+
+				case RESOURCE:
+					if (!element.found)
+					{
+						throw new XMPException("Missing child of resource property element",
+							BADRDF);
+					}
+					break;
+
+				case LITERAL:
+					element.xmpNode.setValue(element.text != null ? element.text.toString() : "");
+					break;
+
+				case EMPTY:
+					emptyPropertyElement(element);
+					break;
+
+				default:
+					break;
+			}
+		}
+		catch (XMPException e)
+		{
+			throw new SAXException(e);
+		}
+	}
+
+
+	/**
+	 * @see org.xml.sax.helpers.DefaultHandler#characters(char[], int, int)
+	 */
+	public void characters(char[] ch, int start, int length) throws SAXException
+	{
+		if (rootDone  ||  top == null  ||  length == 0)
+		{
+			return;
+		}
+
+		try
+		{
+			if (inCDATA)
+			{
+				// a CDATA section is not a text node in the DOM
+				otherChild(top);
+			}
+			else
+			{
+				text(top, ch, start, length);
+			}
+		}
+		catch (XMPException e)
+		{
+			throw new SAXException(e);
+		}
+	}
+
+
+	/**
+	 * @see org.xml.sax.helpers.DefaultHandler#ignorableWhitespace(char[], int, int)
+	 */
+	public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException
+	{
+		characters(ch, start, length);
+	}
+
+
+	/**
+	 * @see org.xml.sax.helpers.DefaultHandler#processingInstruction(String, String)
+	 */
+	public void processingInstruction(String target, String data) throws SAXException
+	{
+		if (rootDone)
+		{
+			return;
+		}
+
+		if (top == null  ||  top.kind == SEARCH)
+		{
+			if ((top == null  ||  !top.closed)  &&  XMP_PI.equals(target))
+			{
+				packetHeader = data;
+			}
+			return;
+		}
+
+		try
+		{
+			otherChild(top);
+		}
+		catch (XMPException e)
+		{
+			throw new SAXException(e);
+		}
+	}
+
+
+	/**
+	 * @see org.xml.sax.ext.LexicalHandler#startCDATA()
+	 */
+	public void startCDATA()
+	{
+		inCDATA = true;
+	}
+
+
+	/**
+	 * @see org.xml.sax.ext.LexicalHandler#endCDATA()
+	 */
+	public void endCDATA()
+	{
+		inCDATA = false;
+	}
+
+
+	/**
+	 * Comments are ignored.
+	 * @see org.xml.sax.ext.LexicalHandler#comment(char[], int, int)
+	 */
+	public void comment(char[] ch, int start, int length)
+	{
+		// EMPTY
+	}
+
+
+	/**
+	 * @see org.xml.sax.ext.LexicalHandler#startDTD(String, String, String)
+	 */
+	public void startDTD(String name, String publicId, String systemId)
+	{
+		// EMPTY
+	}
+
+
+	/**
+	 * @see org.xml.sax.ext.LexicalHandler#endDTD()
+	 */
+	public void endDTD()
+	{
+		// EMPTY
+	}
+
+
+	/**
+	 * @see org.xml.sax.ext.LexicalHandler#startEntity(String)
+	 */
+	public void startEntity(String name)
+	{
+		// EMPTY
+	}
+
+
+	/**
+	 * @see org.xml.sax.ext.LexicalHandler#endEntity(String)
+	 */
+	public void endEntity(String name)
+	{
+		// EMPTY
+	}
+
+
+	/**
+	 * Looks for the root node like <code>XMPMetaParser.findRootNode()</code>:
+	 * the first rdf:RDF element in document order, that is nested in an x:xmpmeta element
+	 * if this is required. Inside of an x:xmpmeta element it is never required.
+	 *
+	 * @param element the started element
+	 * @param attributeCount the number of attributes including the namespace declarations
+	 * @throws XMPException thown if the rdf:RDF element has no attributes
+	 */
+	private void searchRootElement(Frame element, int attributeCount) throws XMPException
+	{
+		boolean required = top != null ? top.required : xmpmetaRequired;
+		if (top != null  &&  top.closed)
+		{
+			element.kind = IGNORE;
+		}
+		else if (NS_X.equals(element.namespace)  &&
+			(TAG_XMPMETA.equals(element.localName)  ||  TAG_XAPMETA.equals(element.localName)))
+		{
+			element.kind = SEARCH;
+			element.isXmpMeta = true;
+			element.required = false;
+		}
+		else if (!required  &&
+			"RDF".equals(element.localName)  &&  NS_RDF.equals(element.namespace))
+		{
+			if (attributeCount == 0)
+			{
+				throw new XMPException("Invalid attributes of rdf:RDF element", BADRDF);
+			}
+			element.kind = RDF;
+			rootFound = true;
+		}
+		else
+		{
+			element.kind = SEARCH;
+			element.required = required;
+		}
+	}
+
+
+	/**
+	 * 7.2.11 nodeElement, see <code>ParseRDF.rdf_NodeElement()</code> and
+	 * <code>ParseRDF.rdf_NodeElementAttrs()</code>.
+	 *
+	 * @param element the started element
+	 * @param atts the SAX attributes of the element
+	 * @param xmpParent the parent xmp node
+	 * @param isTopLevel Flag if the node is a top-level node
+	 * @throws XMPException thown on parsing errors
+	 */
+	private void nodeElement(Frame element, Attributes atts, XMPNode xmpParent,
+			boolean isTopLevel) throws XMPException
+	{
+		int nodeTerm = ParseRDF.getRDFTermKind(element.localName, element.namespace, false, null);
+		if (nodeTerm != ParseRDF.RDFTERM_DESCRIPTION  &&  nodeTerm != ParseRDF.RDFTERM_OTHER)
+		{
+			throw new XMPException("Node element must be rdf:Description or typed node",
+				BADRDF);
+		}
+		else if (isTopLevel  &&  nodeTerm == ParseRDF.RDFTERM_OTHER)
+		{
+			throw new XMPException("Top level typed node not allowed", BADXMP);
+		}
+
+		// Used to detect attributes that are mutually exclusive.
+		int exclusiveAttrs = 0;
+		Attribute[] attributes = getAttributes(atts);
+		for (int i = 0; i < attributes.length; i++)
+		{
+			Attribute attribute = attributes[i];
+			int attrTerm = attribute.getRDFTermKind(element.namespace);
+
+			switch (attrTerm)
+			{
+				case ParseRDF.RDFTERM_ID:
+				case ParseRDF.RDFTERM_NODE_ID:
+				case ParseRDF.RDFTERM_ABOUT:
+					if (exclusiveAttrs > 0)
+					{
+						throw new XMPException("Mutally exclusive about, ID, nodeID attributes",
+								BADRDF);
+					}
+
+					exclusiveAttrs++;
+
+					if (isTopLevel && (attrTerm == ParseRDF.RDFTERM_ABOUT))
+					{
+						// Set the XMP tree name if it doesn't have a name yet.
+						// Make sure this name matches the XMP tree name.
+						if (xmpParent.getName() != null && xmpParent.getName().length() > 0)
+						{
+							if (!xmpParent.getName().equals(attribute.value))
+							{
+								throw new XMPException("Mismatched top level rdf:about values",
+										BADXMP);
+							}
+						}
+						else
+						{
+							xmpParent.setName(attribute.value);
+						}
+					}
+					break;
+
+				case ParseRDF.RDFTERM_OTHER:
+					ParseRDF.addChildNode(xmp, xmpParent, attribute.namespace, attribute.prefix,
+						attribute.localName, attribute.value, isTopLevel);
+					break;
+
+				default:
+					throw new XMPException("Invalid nodeElement attribute", BADRDF);
+			}
+		}
+
+		element.kind = NODE;
+		element.xmpNode = xmpParent;
+		element.isTopLevel = isTopLevel;
+	}
+
+
+	/**
+	 * 7.2.14 propertyElt, see <code>ParseRDF.rdf_PropertyElement()</code>.
+	 * The decision between a resource, a literal and an empty property element
+	 * is postponed if it depends on the element content.
+	 *
+	 * @param element the started element
+	 * @param atts the SAX attributes of the element
+	 * @param xmpParent the parent xmp node
+	 * @param isTopLevel Flag if the node is a top-level node
+	 * @throws XMPException thown on parsing errors
+	 */
+	private void propertyElement(Frame element, Attributes atts, XMPNode xmpParent,
+			boolean isTopLevel) throws XMPException
+	{
+		int nodeTerm = ParseRDF.getRDFTermKind(element.localName, element.namespace, false, null);
+		if (!ParseRDF.isPropertyElementName(nodeTerm))
+		{
+			throw new XMPException("Invalid property element name", BADRDF);
+		}
+
+		element.attributes = getAttributes(atts);
+		element.xmpParent = xmpParent;
+		element.isTopLevel = isTopLevel;
+
+		if (element.attributes.length > 3)
+		{
+			// Only an emptyPropertyElt can have more than 3 attributes.
+			element.kind = EMPTY;
+			return;
+		}
+
+		// Look through the attributes for one that isn't xml:lang,
+		// it will usually tell what we should be dealing with.
+		for (int i = 0; i < element.attributes.length; i++)
+		{
+			Attribute attribute = element.attributes[i];
+			if (!XML_LANG.equals(attribute.qName))
+			{
+				if (attribute.is(NS_RDF, "datatype"))
+				{
+					literalPropertyElementStart(element);
+				}
+				else if (!attribute.is(NS_RDF, "parseType"))
+				{
+					element.kind = EMPTY;
+				}
+				else if ("Literal".equals(attribute.value))
+				{
+					throw new XMPException("ParseTypeLiteral property element not allowed",
+						BADXMP);
+				}
+				else if ("Resource".equals(attribute.value))
+				{
+					parseTypeResourcePropertyElement(element);
+				}
+				else if ("Collection".equals(attribute.value))
+				{
+					throw new XMPException("ParseTypeCollection property element not allowed",
+						BADXMP);
+				}
+				else
+				{
+					throw new XMPException("ParseTypeOther property element not allowed",
+						BADXMP);
+				}
+				return;
+			}
+		}
+
+		// Only xml:lang, could be a resourcePropertyElt, a literalPropertyElt,
+		// or an emptyPropertyElt. The child XML nodes decide which.
+		element.kind = UNDECIDED;
+	}
+
+
+	/**
+	 * 7.2.15 resourcePropertyElt, see <code>ParseRDF.rdf_ResourcePropertyElement()</code>.
+	 * Called when the first child node of an undecided property element requires it
+	 * to be a resource property element.
+	 *
+	 * @param element the property element
+	 * @throws XMPException thown on parsing errors
+	 */
+	private void resolveResourcePropertyElement(Frame element) throws XMPException
+	{
+		if (element.isTopLevel  &&  "iX:changes".equals(element.qName))
+		{
+			// Strip old "punchcard" chaff which has on the prefix "iX:".
+			element.kind = IGNORE;
+			return;
+		}
+
+		XMPNode newCompound = addChildNode(element, "");
+		for (int i = 0; i < element.attributes.length; i++)
+		{
+			Attribute attribute = element.attributes[i];
+			if (XML_LANG.equals(attribute.qName))
+			{
+				ParseRDF.addQualifierNode(newCompound, XML_LANG, attribute.value);
+			}
+			else if (!attribute.is(NS_RDF, "ID"))
+			{
+				throw new XMPException(
+					"Invalid attribute for resource property element", BADRDF);
+			}
+		}
+
+		element.kind = RESOURCE;
+		element.xmpNode = newCompound;
+		if (element.hasText)
+		{
+			throw new XMPException(
+				"Children of resource property element must be XML elements", BADRDF);
+		}
+	}
+
+
+	/**
+	 * The node element nested in a resource property element.
+	 *
+	 * @param parent the resource property element
+	 * @param element the started node element
+	 * @param atts the SAX attributes of the element
+	 * @throws XMPException thown on parsing errors
+	 */
+	private void resourcePropertyElementChild(Frame parent, Frame element, Attributes atts)
+		throws XMPException
+	{
+		if (parent.found)
+		{
+			// found second child element
+			throw new XMPException(
+				"Invalid child of resource property element", BADRDF);
+		}
+		parent.found = true;
+
+		XMPNode newCompound = parent.xmpNode;
+		boolean isRDF = NS_RDF.equals(element.namespace);
+		String childLocal = element.localName;
+
+		if (isRDF  &&  "Bag".equals(childLocal))
+		{
+			newCompound.getOptions().setArray(true);
+		}
+		else if (isRDF  &&  "Seq".equals(childLocal))
+		{
+			newCompound.getOptions().setArray(true).setArrayOrdered(true);
+		}
+		else if (isRDF  &&  "Alt".equals(childLocal))
+		{
+			newCompound.getOptions().setArray(true).setArrayOrdered(true)
+					.setArrayAlternate(true);
+		}
+		else
+		{
+			newCompound.getOptions().setStruct(true);
+			if (!isRDF  &&  !"Description".equals(childLocal))
+			{
+				String typeName = element.namespace;
+				if (typeName == null)
+				{
+					throw new XMPException(
+							"All XML elements must be in a namespace", BADXMP);
+				}
+				typeName += ':' + childLocal;
+				ParseRDF.addQualifierNode (newCompound, "rdf:type", typeName);
+			}
+		}
+
+		nodeElement(element, atts, newCompound, false);
+	}
+
+
+	/**
+	 * Post-processing of a resource property element when its node element is complete.
+	 * @param newCompound the xmp node of the resource property element
+	 * @throws XMPException thown on parsing errors
+	 */
+	private void completeResourcePropertyElement(XMPNode newCompound) throws XMPException
+	{
+		if (newCompound.getHasValueChild())
+		{
+			ParseRDF.fixupQualifiedNode (newCompound);
+		}
+		else if (newCompound.getOptions().isArrayAlternate())
+		{
+			XMPNodeUtils.detectAltText(newCompound);
+		}
+	}
+
+
+	/**
+	 * 7.2.16 literalPropertyElt with an rdf:datatype attribute,
+	 * see <code>ParseRDF.rdf_LiteralPropertyElement()</code>.
+	 * The value is set when the element ends.
+	 *
+	 * @param element the property element
+	 * @throws XMPException thown on parsing errors
+	 */
+	private void literalPropertyElementStart(Frame element) throws XMPException
+	{
+		XMPNode newChild = addChildNode(element, null);
+		for (int i = 0; i < element.attributes.length; i++)
+		{
+			Attribute attribute = element.attributes[i];
+			if (XML_LANG.equals(attribute.qName))
+			{
+				ParseRDF.addQualifierNode(newChild, XML_LANG, attribute.value);
+			}
+			else if (!attribute.is(NS_RDF, "ID")  &&  !attribute.is(NS_RDF, "datatype"))
+			{
+				throw new XMPException(
+					"Invalid attribute for literal property element", BADRDF);
+			}
+		}
+		element.kind = LITERAL;
+		element.xmpNode = newChild;
+	}
+
+
+	/**
+	 * A property element without attributes (other than xml:lang) that ends without
+	 * child elements. It is a literal property element with the collected text or an empty
+	 * property element, both result in the same simple property.
+	 *
+	 * @param element the property element
+	 * @throws XMPException thown on parsing errors
+	 */
+	private void literalPropertyElement(Frame element) throws XMPException
+	{
+		XMPNode newChild = addChildNode(element,
+			element.text != null ? element.text.toString() : "");
+		for (int i = 0; i < element.attributes.length; i++)
+		{
+			// only xml:lang is left
+			Attribute attribute = element.attributes[i];
+			ParseRDF.addQualifierNode(newChild, XML_LANG, attribute.value);
+		}
+	}
+
+
+	/**
+	 * 7.2.18 parseTypeResourcePropertyElt,
+	 * see <code>ParseRDF.rdf_ParseTypeResourcePropertyElement()</code>.
+	 *
+	 * @param element the property element
+	 * @throws XMPException thown on parsing errors
+	 */
+	private void parseTypeResourcePropertyElement(Frame element) throws XMPException
+	{
+		XMPNode newStruct = addChildNode(element, "");
+		newStruct.getOptions().setStruct(true);
+
+		for (int i = 0; i < element.attributes.length; i++)
+		{
+			Attribute attribute = element.attributes[i];
+			if (XML_LANG.equals(attribute.qName))
+			{
+				ParseRDF.addQualifierNode (newStruct, XML_LANG, attribute.value);
+			}
+			else if (!attribute.is(NS_RDF, "ID")  &&  !attribute.is(NS_RDF, "parseType"))
+			{
+				throw new XMPException("Invalid attribute for ParseTypeResource property element",
+						BADRDF);
+			}
+		}
+
+		element.kind = PARSE_TYPE_RESOURCE;
+		element.xmpNode = newStruct;
+		element.isTopLevel = false;
+	}
+
+
+	/**
+	 * 7.2.21 emptyPropertyElt, see <code>ParseRDF.rdf_EmptyPropertyElement()</code>.
+	 * Processed at the end tag, any content has been rejected before.
+	 *
+	 * @param element the property element
+	 * @throws XMPException thown on parsing errors
+	 */
+	private void emptyPropertyElement(Frame element) throws XMPException
+	{
+		boolean hasPropertyAttrs = false;
+		boolean hasResourceAttr = false;
+		boolean hasNodeIDAttr = false;
+		boolean hasValueAttr = false;
+
+		Attribute valueNode = null;	// ! Can come from rdf:value or rdf:resource.
+
+		// First figure out what XMP this maps to and remember the XML node for a simple value.
+		for (int i = 0; i < element.attributes.length; i++)
+		{
+			Attribute attribute = element.attributes[i];
+			int attrTerm = attribute.getRDFTermKind(element.namespace);
+
+			switch (attrTerm)
+			{
+				case ParseRDF.RDFTERM_ID :
+					// Nothing to do.
+					break;
+
+				case ParseRDF.RDFTERM_RESOURCE :
+					if (hasNodeIDAttr)
+					{
+						throw new XMPException(
+							"Empty property element can't have both rdf:resource and rdf:nodeID",
+							BADRDF);
+					}
+					else if (hasValueAttr)
+					{
+						throw new XMPException(
+								"Empty property element can't have both rdf:value and rdf:resource",
+								BADXMP);
+					}
+
+					hasResourceAttr = true;
+					valueNode = attribute;
+					break;
+
+				case ParseRDF.RDFTERM_NODE_ID:
+					if (hasResourceAttr)
+					{
+						throw new XMPException(
+								"Empty property element can't have both rdf:resource and rdf:nodeID",
+								BADRDF);
+					}
+					hasNodeIDAttr = true;
+					break;
+
+				case ParseRDF.RDFTERM_OTHER:
+					if (attribute.is(NS_RDF, "value"))
+					{
+						if (hasResourceAttr)
+						{
+							throw new XMPException(
+									"Empty property element can't have both rdf:value and rdf:resource",
+									BADXMP);
+						}
+						hasValueAttr = true;
+						valueNode = attribute;
+					}
+					else if (!XML_LANG.equals(attribute.qName))
+					{
+						hasPropertyAttrs = true;
+					}
+					break;
+
+				default:
+					throw new XMPException("Unrecognized attribute of empty property element",
+							BADRDF);
+			}
+		}
+
+		// Create the right kind of child node and visit the attributes again
+		// to add the fields or qualifiers.
+		XMPNode childNode = addChildNode(element, "");
+		boolean childIsStruct = false;
+
+		if (hasValueAttr || hasResourceAttr)
+		{
+			childNode.setValue(valueNode != null ? valueNode.value : "");
+			if (!hasValueAttr)
+			{
+				childNode.getOptions().setURI(true);
+			}
+		}
+		else if (hasPropertyAttrs)
+		{
+			childNode.getOptions().setStruct(true);
+			childIsStruct = true;
+		}
+
+		for (int i = 0; i < element.attributes.length; i++)
+		{
+			Attribute attribute = element.attributes[i];
+			if (attribute == valueNode)
+			{
+				continue;	// Skip the rdf:value or rdf:resource attribute holding the value.
+			}
+
+			int attrTerm = attribute.getRDFTermKind(element.namespace);
+
+			switch (attrTerm)
+			{
+				case ParseRDF.RDFTERM_ID :
+				case ParseRDF.RDFTERM_NODE_ID :
+					break;	// Ignore all rdf:ID and rdf:nodeID attributes.
+
+				case ParseRDF.RDFTERM_RESOURCE :
+					ParseRDF.addQualifierNode(childNode, "rdf:resource", attribute.value);
+					break;
+
+				case ParseRDF.RDFTERM_OTHER :
+					if (!childIsStruct)
+					{
+						ParseRDF.addQualifierNode(childNode, attribute.qName, attribute.value);
+					}
+					else if (XML_LANG.equals(attribute.qName))
+					{
+						ParseRDF.addQualifierNode (childNode, XML_LANG, attribute.value);
+					}
+					else
+					{
+						ParseRDF.addChildNode(xmp, childNode, attribute.namespace,
+							attribute.prefix, attribute.localName, attribute.value, false);
+					}
+					break;
+
+				default :
+					throw new XMPException("Unrecognized attribute of empty property element",
+						BADRDF);
+			}
+		}
+	}
+
+
+	/**
+	 * Handles character data inside of an element.
+	 *
+	 * @param element the current element
+	 * @param ch the characters
+	 * @param start the start position in the array
+	 * @param length the number of characters
+	 * @throws XMPException thown on parsing errors
+	 */
+	private void text(Frame element, char[] ch, int start, int length) throws XMPException
+	{
+		switch (element.kind)
+		{
+			case UNDECIDED:
+			case LITERAL:
+				if (element.text == null)
+				{
+					element.text = new StringBuffer(length);
+				}
+				element.text.append(ch, start, length);
+				if (!isWhitespace(ch, start, length))
+				{
+					element.hasText = true;
+				}
+				break;
+
+			case SEARCH:
+			case IGNORE:
+				break;
+
+			case EMPTY:
+				// even whitespace is content
+				otherChild(element);
+				break;
+
+			default:
+				if (!isWhitespace(ch, start, length))
+				{
+					otherChild(element);
+				}
+				break;
+		}
+	}
+
+
+	/**
+	 * Handles a child node that is neither an element nor whitespace,
+	 * like text, CDATA sections and processing instructions.
+	 *
+	 * @param element the current element
+	 * @throws XMPException thown on parsing errors
+	 */
+	private void otherChild(Frame element) throws XMPException
+	{
+		switch (element.kind)
+		{
+			case RDF:
+				// not a node element
+				throw new XMPException("Top level typed node not allowed", BADXMP);
+
+			case NODE:
+			case PARSE_TYPE_RESOURCE:
+				throw new XMPException("Expected property element node not found", BADRDF);
+
+			case UNDECIDED:
+				resolveResourcePropertyElement(element);
+				if (element.kind == IGNORE)
+				{
+					break;
+				}
+				throw new XMPException(
+					"Children of resource property element must be XML elements", BADRDF);
+
+			case RESOURCE:
+				if (element.found)
+				{
+					throw new XMPException(
+						"Invalid child of resource property element", BADRDF);
+				}
+				throw new XMPException(
+					"Children of resource property element must be XML elements", BADRDF);
+
+			case LITERAL:
+				throw new XMPException("Invalid child of literal property element", BADRDF);
+
+			case EMPTY:
+				throw new XMPException(
+					"Nested content not allowed with rdf:resource or property attributes",
+					BADRDF);
+
+			default:
+				break;
+		}
+	}
+
+
+	/**
+	 * Adds the xmp node for a property element.
+	 * @param element the property element
+	 * @param value the node value
+	 * @return Returns the newly created child node.
+	 * @throws XMPException thown on parsing errors
+	 */
+	private XMPNode addChildNode(Frame element, String value) throws XMPException
+	{
+		return ParseRDF.addChildNode(xmp, element.xmpParent, element.namespace, element.prefix,
+			element.localName, value, element.isTopLevel);
+	}
+
+
+	/**
+	 * Collects the attributes of an element without the namespace declarations
+	 * and sorts them by their qualified name like a DOM <code>NamedNodeMap</code>.
+	 *
+	 * @param atts the SAX attributes
+	 * @return Returns the sorted attributes.
+	 */
+	private static Attribute[] getAttributes(Attributes atts)
+	{
+		int n = atts.getLength();
+		Attribute[] attributes = new Attribute[n];
+		int count = 0;
+		for (int i = 0; i < n; i++)
+		{
+			String qName = atts.getQName(i);
+			if ("xmlns".equals(qName)  ||  qName.startsWith("xmlns:"))
+			{
+				continue;
+			}
+			Attribute attribute = new Attribute(atts.getURI(i), atts.getLocalName(i), qName,
+				atts.getValue(i));
+			// insertion sort, there are only a few attributes
+			int j = count++;
+			while (j > 0  &&  attributes[j - 1].qName.compareTo(qName) > 0)
+			{
+				attributes[j] = attributes[j - 1];
+				j--;
+			}
+			attributes[j] = attribute;
+		}
+		if (count < n)
+		{
+			Attribute[] result = new Attribute[count];
+			System.arraycopy(attributes, 0, result, 0, count);
+			return result;
+		}
+		return attributes;
+	}
+
+
+	/**
+	 * @param ch the characters
+	 * @param start the start position in the array
+	 * @param length the number of characters
+	 * @return Returns whether the characters are all whitespaces.
+	 */
+	private static boolean isWhitespace(char[] ch, int start, int length)
+	{
+		for (int i = start, end = start + length; i < end; i++)
+		{
+			if (!Character.isWhitespace(ch[i]))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	/**
+	 * Returns the prefix of a qualified name.
+	 * @param qName a qualified XML name
+	 * @return Returns the prefix or <code>null</code> if there is none.
+	 */
+	private static String getPrefix(String qName)
+	{
+		int colon = qName.indexOf(':');
+		return colon > 0 ? qName.substring(0, colon) : null;
+	}
+
+
+	/**
+	 * The state of an open XML element.
+	 */
+	private static final class Frame
+	{
+		/** the enclosing element */
+		Frame parent;
+		/** the kind of element */
+		int kind;
+		/** the namespace URI, <code>null</code> if there is none */
+		final String namespace;
+		/** the local name */
+		final String localName;
+		/** the qualified name */
+		final String qName;
+		/** the prefix, <code>null</code> if there is none */
+		final String prefix;
+		/** SEARCH: flag if the root must be nested in x:xmpmeta */
+		boolean required;
+		/** SEARCH: flag if this is an x:xmpmeta element */
+		boolean isXmpMeta;
+		/** SEARCH: flag if the children of this element are not searched */
+		boolean closed;
+		/** the xmp node created by the element or the parent of nested properties */
+		XMPNode xmpNode;
+		/** property elements: the parent xmp node */
+		XMPNode xmpParent;
+		/** Flag if the node is a top-level node */
+		boolean isTopLevel;
+		/** property elements: the attributes without namespace declarations */
+		Attribute[] attributes;
+		/** RESOURCE: flag if the node element has been found */
+		boolean found;
+		/** the text content */
+		StringBuffer text;
+		/** flag if the text content contains more than whitespaces */
+		boolean hasText;
+
+
+		/**
+		 * @param uri the namespace URI or an empty string
+		 * @param localName the local name
+		 * @param qName the qualified name
+		 */
+		Frame(String uri, String localName, String qName)
+		{
+			this.namespace = uri != null  &&  uri.length() > 0 ? uri : null;
+			this.localName = localName;
+			this.qName = qName;
+			this.prefix = getPrefix(qName);
+		}
+	}
+
+
+	/**
+	 * An XML attribute.
+	 */
+	private static final class Attribute
+	{
+		/** the namespace URI, <code>null</code> if there is none */
+		final String namespace;
+		/** the local name */
+		final String localName;
+		/** the qualified name */
+		final String qName;
+		/** the prefix, <code>null</code> if there is none */
+		final String prefix;
+		/** the attribute value */
+		final String value;
+
+
+		/**
+		 * @param uri the namespace URI or an empty string
+		 * @param localName the local name
+		 * @param qName the qualified name
+		 * @param value the attribute value
+		 */
+		Attribute(String uri, String localName, String qName, String value)
+		{
+			this.namespace = uri != null  &&  uri.length() > 0 ? uri : null;
+			this.localName = localName;
+			this.qName = qName;
+			this.prefix = getPrefix(qName);
+			this.value = value;
+		}
+
+
+		/**
+		 * @param ns a namespace URI
+		 * @param local a local name
+		 * @return Returns whether the attribute has the given name.
+		 */
+		boolean is(String ns, String local)
+		{
+			return local.equals(localName)  &&  ns.equals(namespace);
+		}
+
+
+		/**
+		 * @param ownerNamespace the namespace of the element owning the attribute
+		 * @return Returns the RDF term ID of the attribute.
+		 */
+		int getRDFTermKind(String ownerNamespace)
+		{
+			return ParseRDF.getRDFTermKind(localName, namespace, true, ownerNamespace);
+		}
+	}
+}
@@ -0,0 +1,225 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.xmp.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+
+/**
+ * An unsynchronized <code>Writer</code> that encodes the characters as UTF-8 directly into an
+ * internal byte buffer, which is written to the decorated stream when it is full or flushed.
+ * The serializer writes many short strings, this avoids the per-call overhead of the
+ * <code>CharsetEncoder</code> behind an <code>OutputStreamWriter</code>.
+ * <p>
+ * Unpaired surrogates are replaced by '?' like the JDK encoder does.
+ *
+ * @since 5.5.6
+ */
+final class UTF8Writer extends Writer
+{
+	/** the decorated output stream */
+	private final OutputStream out;
+	/** the encoded bytes not yet written */
+	private final byte[] buf = new byte[8192];
+	/** the number of valid bytes in the buffer */
+	private int count = 0;
+	/** a high surrogate waiting for its low surrogate, 0 if there is none */
+	private char highSurrogate = 0;
+
+
+	/**
+	 * @param out the output stream to write the encoded bytes to
+	 */
+	UTF8Writer(OutputStream out)
+	{
+		this.out = out;
+	}
+
+
+	/**
+	 * @see java.io.Writer#write(int)
+	 */
+	public void write(int c) throws IOException
+	{
+		if (count + 4 > buf.length)
+		{
+			flushBuffer();
+		}
+		encode((char) c);
+	}
+
+
+	/**
+	 * @see java.io.Writer#write(char[], int, int)
+	 */
+	public void write(char[] cbuf, int off, int len) throws IOException
+	{
+		for (int end = off + len; off < end; off++)
+		{
+			if (count + 4 > buf.length)
+			{
+				flushBuffer();
+			}
+			encode(cbuf[off]);
+		}
+	}
+
+
+	/**
+	 * @see java.io.Writer#write(String, int, int)
+	 */
+	public void write(String str, int off, int len) throws IOException
+	{
+		for (int end = off + len; off < end; off++)
+		{
+			if (count + 4 > buf.length)
+			{
+				flushBuffer();
+			}
+			encode(str.charAt(off));
+		}
+	}
+
+
+	/**
+	 * @see java.io.Writer#write(String)
+	 */
+	public void write(String str) throws IOException
+	{
+		write(str, 0, str.length());
+	}
+
+
+	/**
+	 * Writes the buffered bytes to the stream and flushes it.
+	 * A pending high surrogate is kept until the next character.
+	 * @see java.io.Writer#flush()
+	 */
+	public void flush() throws IOException
+	{
+		flushBuffer();
+		out.flush();
+	}
+
+
+	/**
+	 * @see java.io.Writer#close()
+	 */
+	public void close() throws IOException
+	{
+		if (highSurrogate != 0)
+		{
+			highSurrogate = 0;
+			buf[count++] = '?';
+		}
+		flush();
+		out.close();
+	}
+
+
+	/**
+	 * Encodes one UTF-16 code unit into the buffer, the buffer has room for 4 bytes.
+	 * @param c a char
+	 */
+	private void encode(char c)
+	{
+		if (highSurrogate != 0)
+		{
+			char high = highSurrogate;
+			highSurrogate = 0;
+			if (Character.isLowSurrogate(c))
+			{
+				int cp = Character.toCodePoint(high, c);
+				buf[count++] = (byte) (0xF0 | (cp >> 18));
+				buf[count++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+				buf[count++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+				buf[count++] = (byte) (0x80 | (cp & 0x3F));
+				return;
+			}
+			// the unpaired surrogate and c still fit into the 4 bytes
+			buf[count++] = '?';
+		}
+
+		if (c < 0x80)
+		{
+			buf[count++] = (byte) c;
+		}
+		else if (c < 0x800)
+		{
+			buf[count++] = (byte) (0xC0 | (c >> 6));
+			buf[count++] = (byte) (0x80 | (c & 0x3F));
+		}
+		else if (Character.isHighSurrogate(c))
+		{
+			highSurrogate = c;
+		}
+		else if (Character.isLowSurrogate(c))
+		{
+			buf[count++] = '?';
+		}
+		else
+		{
+			buf[count++] = (byte) (0xE0 | (c >> 12));
+			buf[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+			buf[count++] = (byte) (0x80 | (c & 0x3F));
+		}
+	}
+
+
+	/**
+	 * Writes the buffered bytes to the stream.
+	 * @throws IOException Forwards the stream exceptions
+	 */
+	private void flushBuffer() throws IOException
+	{
+		if (count > 0)
+		{
+			out.write(buf, 0, count);
+			count = 0;
+		}
+	}
+}
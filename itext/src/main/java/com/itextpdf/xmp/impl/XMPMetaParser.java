@@ -41,6 +41,7 @@ import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
@@ -48,6 +49,7 @@ import org.w3c.dom.NodeList;
 import org.w3c.dom.ProcessingInstruction;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
 import com.itextpdf.xmp.XMPConst;
 import com.itextpdf.xmp.XMPError;
@@ -69,6 +71,10 @@ public class XMPMetaParser
 	private static final Object XMP_RDF = new Object();
 	/** the DOM Parser Factory, options are set */
 	private static DocumentBuilderFactory factory = createDocumentBuilderFactory();
+	/** the SAX Parser Factory for the streaming parser, options are set */
+	private static SAXParserFactory saxFactory = createSAXParserFactory();
+	/** the SAX property to register a <code>LexicalHandler</code> */
+	private static final String LEXICAL_HANDLER = "http://xml.org/sax/properties/lexical-handler";
 
 	/**
 	 * Hidden constructor, initialises the SAX parser handler.
@@ -83,6 +89,8 @@ public class XMPMetaParser
 	/**
 	 * Parses the input source into an XMP metadata object, including
 	 * de-aliasing and normalisation.
+	 * If the option <code>STREAMING_PARSER</code> is set, the packet is parsed with SAX
+	 * and the XMP tree is built without an intermediate DOM.
 	 *
 	 * @param input the input can be an <code>InputStream</code>, a <code>String</code> or
 	 * 			a byte buffer containing the XMP packet.
@@ -95,17 +103,28 @@ public class XMPMetaParser
 		ParameterAsserts.assertNotNull(input);
 		options = options != null ? options : new ParseOptions();
 
-		Document document = parseXml(input, options);
+		Object parsed = parseXml(input, options);
 
-		boolean xmpmetaRequired = options.getRequireXMPMeta();
-		Object[] result = new Object[3];
-		result = findRootNode(document, xmpmetaRequired, result);
-
-		if (result != null  &&  result[1] == XMP_RDF)
+		XMPMetaImpl xmp = null;
+		if (parsed instanceof ParseRDFHandler)
 		{
-			XMPMetaImpl xmp = ParseRDF.parse((Node) result[0]);
-			xmp.setPacketHeader((String) result[2]);
+			xmp = ((ParseRDFHandler) parsed).getResult();
+		}
+		else
+		{
+			boolean xmpmetaRequired = options.getRequireXMPMeta();
+			Object[] result = new Object[3];
+			result = findRootNode((Document) parsed, xmpmetaRequired, result);
+
+			if (result != null  &&  result[1] == XMP_RDF)
+			{
+				xmp = ParseRDF.parse((Node) result[0]);
+				xmp.setPacketHeader((String) result[2]);
+			}
+		}
 
+		if (xmp != null)
+		{
 			// Check if the XMP object shall be normalized
 			if (!options.getOmitNormalization())
 			{
@@ -138,10 +157,11 @@ public class XMPMetaParser
 	 * @param input the input can be an <code>InputStream</code>, a <code>String</code> or
 	 * 			a byte buffer containing the XMP packet.
 	 * @param options the parsing options
-	 * @return Returns the parsed XML document or an exception.
+	 * @return Returns the parsed XML document or, when streaming, the completed
+	 * 			<code>ParseRDFHandler</code>.
 	 * @throws XMPException Thrown if the parsing fails for different reasons
 	 */
-	private static Document parseXml(Object input, ParseOptions options)
+	private static Object parseXml(Object input, ParseOptions options)
 			throws XMPException
 	{
 		if (input instanceof InputStream)
@@ -165,15 +185,15 @@ public class XMPMetaParser
 	 *
 	 * @param stream an <code>InputStream</code>
 	 * @param options the parsing options
-	 * @return Returns an XML DOM-Document.
+	 * @return Returns an XML DOM-Document or the completed <code>ParseRDFHandler</code>.
 	 * @throws XMPException Thrown when the parsing fails.
 	 */
-	private static Document parseXmlFromInputStream(InputStream stream, ParseOptions options)
+	private static Object parseXmlFromInputStream(InputStream stream, ParseOptions options)
 			throws XMPException
 	{
 		if (!options.getAcceptLatin1()  &&  !options.getFixControlChars())
 		{
-			return parseInputSource(new InputSource(stream));
+			return parseInputSource(new InputSource(stream), options);
 		}
 		else
 		{
@@ -198,16 +218,16 @@ public class XMPMetaParser
 	 *
 	 * @param buffer a byte buffer containing the XMP packet
 	 * @param options the parsing options
-	 * @return Returns an XML DOM-Document.
+	 * @return Returns an XML DOM-Document or the completed <code>ParseRDFHandler</code>.
 	 * @throws XMPException Thrown when the parsing fails.
 	 */
-	private static Document parseXmlFromBytebuffer(ByteBuffer buffer, ParseOptions options)
+	private static Object parseXmlFromBytebuffer(ByteBuffer buffer, ParseOptions options)
 		throws XMPException
 	{
 		InputSource source = new InputSource(buffer.getByteStream());
 		try
 		{
-			return parseInputSource(source);
+			return parseInputSource(source, options);
 		}
 		catch (XMPException e)
 		{
@@ -227,7 +247,7 @@ public class XMPMetaParser
 						Reader fixReader = new FixASCIIControlsReader(
 							new InputStreamReader(
 								buffer.getByteStream(), encoding));
-						return parseInputSource(new InputSource(fixReader));
+						return parseInputSource(new InputSource(fixReader), options);
 					}
 					catch (UnsupportedEncodingException e1)
 					{
@@ -237,7 +257,7 @@ public class XMPMetaParser
 					}
 				}
 				source = new InputSource(buffer.getByteStream());
-				return parseInputSource(source);
+				return parseInputSource(source, options);
 			}
 			else
 			{
@@ -253,23 +273,23 @@ public class XMPMetaParser
 	 *
 	 * @param input a <code>String</code> containing the XMP packet
 	 * @param options the parsing options
-	 * @return Returns an XML DOM-Document.
+	 * @return Returns an XML DOM-Document or the completed <code>ParseRDFHandler</code>.
 	 * @throws XMPException Thrown when the parsing fails.
 	 */
-	private static Document parseXmlFromString(String input, ParseOptions options)
+	private static Object parseXmlFromString(String input, ParseOptions options)
 			throws XMPException
 	{
 		InputSource source = new InputSource(new StringReader(input));
 		try
 		{
-			return parseInputSource(source);
+			return parseInputSource(source, options);
 		}
 		catch (XMPException e)
 		{
 			if (e.getErrorCode() == XMPError.BADXML  &&  options.getFixControlChars())
 			{
 				source = new InputSource(new FixASCIIControlsReader(new StringReader(input)));
-				return parseInputSource(source);
+				return parseInputSource(source, options);
 			}
 			else
 			{
@@ -279,6 +299,26 @@ public class XMPMetaParser
 	}
 
 
+	/**
+	 * Runs the XML-Parser selected by the options.
+	 * @param source an <code>InputSource</code>
+	 * @param options the parsing options
+	 * @return Returns an XML DOM-Document or the completed <code>ParseRDFHandler</code>.
+	 * @throws XMPException Wraps parsing and I/O-exceptions into an XMPException.
+	 */
+	private static Object parseInputSource(InputSource source, ParseOptions options)
+			throws XMPException
+	{
+		if (options.getStreamingParser())
+		{
+			ParseRDFHandler handler = new ParseRDFHandler(options.getRequireXMPMeta());
+			parseInputSource(source, handler);
+			return handler;
+		}
+		return parseInputSource(source);
+	}
+
+
 	/**
 	 * Runs the XML-Parser.
 	 * @param source an <code>InputSource</code>
@@ -309,6 +349,51 @@ public class XMPMetaParser
 	}
 
 
+	/**
+	 * Runs the SAX-Parser with a handler that builds the XMP tree while parsing.
+	 * @param source an <code>InputSource</code>
+	 * @param handler the handler receiving the SAX events
+	 * @throws XMPException Wraps parsing and I/O-exceptions into an XMPException,
+	 * 			RDF errors reported by the handler are rethrown unchanged.
+	 */
+	private static void parseInputSource(InputSource source, ParseRDFHandler handler)
+			throws XMPException
+	{
+		try
+		{
+			XMLReader reader = saxFactory.newSAXParser().getXMLReader();
+			reader.setContentHandler(handler);
+			reader.setErrorHandler(handler);
+			try
+			{
+				reader.setProperty(LEXICAL_HANDLER, handler);
+			}
+			catch (SAXException e)
+			{
+				// CDATA sections are reported as plain text then
+			}
+			reader.parse(source);
+		}
+		catch (SAXException e)
+		{
+			if (e.getException() instanceof XMPException)
+			{
+				throw (XMPException) e.getException();
+			}
+			throw new XMPException("XML parsing failure", XMPError.BADXML, e);
+		}
+		catch (ParserConfigurationException e)
+		{
+			throw new XMPException("XML Parser not correctly configured",
+					XMPError.UNKNOWN, e);
+		}
+		catch (IOException e)
+		{
+			throw new XMPException("Error reading the XML-file", XMPError.BADSTREAM, e);
+		}
+	}
+
+
 	/**
 	 * Find the XML node that is the root of the XMP data tree. Generally this
 	 * will be an outer node, but it could be anywhere if a general XML document
@@ -440,4 +525,31 @@ public class XMPMetaParser
 		}
 		return factory;
 	}
-}
\ No newline at end of file
+
+
+	/**
+	 * @return Creates, configures and returnes the SAX parser factory for
+	 *         the streaming Metadata Parser.
+	 */
+	private static SAXParserFactory createSAXParserFactory()
+	{
+		SAXParserFactory factory = SAXParserFactory.newInstance();
+		factory.setNamespaceAware(true);
+
+		try
+		{
+			factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+			// same protection against XXE attacks as for the DOM parser
+			factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+			factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+			factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", false);
+			factory.setXIncludeAware(false);
+		}
+		catch (Exception e)
+		{
+			// Ignore IllegalArgumentException and ParserConfigurationException
+			// in case the configured XML-Parser does not implement the feature.
+		}
+		return factory;
+	}
+}
@@ -33,6 +33,7 @@ package com.itextpdf.xmp.impl;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -95,7 +96,7 @@ public class XMPSerializerRDF
 	/** the output stream to serialize to */ 
 	private CountOutputStream outputStream;
 	/** this writer is used to do the actual serialization */
-	private OutputStreamWriter writer;
+	private Writer writer;
 	/** the stored serialization options */
 	private SerializeOptions options;
 	/** the size of one unicode char, for UTF-8 set to 1 
@@ -122,13 +123,20 @@ public class XMPSerializerRDF
 		try
 		{
 			outputStream = new CountOutputStream(out); 
-			writer = new OutputStreamWriter(outputStream, options.getEncoding());
 			
 			this.xmp = (XMPMetaImpl) xmp;
 			this.options = options;
 			this.padding = options.getPadding();
 
-			writer = new OutputStreamWriter(outputStream, options.getEncoding());
+			if (options.getEncodeUTF16BE() | options.getEncodeUTF16LE())
+			{
+				writer = new OutputStreamWriter(outputStream, options.getEncoding());
+			}
+			else
+			{
+				// UTF-8 is encoded directly into the stream
+				writer = new UTF8Writer(outputStream);
+			}
 			
 			checkOptionsConsistence();
 			
@@ -52,6 +52,8 @@ public final class ParseOptions extends Options
 	public static final int ACCEPT_LATIN_1 = 0x0010;
 	/** Do not carry run the XMPNormalizer on a packet, leave it as it is. */
 	public static final int OMIT_NORMALIZATION = 0x0020;
+	/** Parse with a streaming SAX parser that builds the XMP tree directly, without a DOM. */
+	public static final int STREAMING_PARSER = 0x0040;
 
 	
 	/**
@@ -163,6 +165,26 @@ public final class ParseOptions extends Options
 	}
 
 	
+	/**
+	 * @return Returns the option "streaming parser".
+	 */
+	public boolean getStreamingParser()
+	{
+		return getOption(STREAMING_PARSER);
+	}
+
+	
+	/**
+	 * @param value the value to set
+	 * @return Returns the instance to call more set-methods.
+	 */
+	public ParseOptions setStreamingParser(boolean value)
+	{
+		setOption(STREAMING_PARSER, value);
+		return this;
+	}
+
+	
 	/**
 	 * @see Options#defineOptionName(int)
 	 */
@@ -175,6 +197,7 @@ public final class ParseOptions extends Options
 			case FIX_CONTROL_CHARS:		return "FIX_CONTROL_CHARS";
 			case ACCEPT_LATIN_1:		return "ACCEPT_LATIN_1";
 			case OMIT_NORMALIZATION:	return "OMIT_NORMALIZATION";
+			case STREAMING_PARSER:		return "STREAMING_PARSER";
 			default: 					return null;
 		}
 	}
@@ -190,6 +213,7 @@ public final class ParseOptions extends Options
 			STRICT_ALIASING |
 			FIX_CONTROL_CHARS |
 			ACCEPT_LATIN_1 |
-			OMIT_NORMALIZATION;
+			OMIT_NORMALIZATION |
+			STREAMING_PARSER;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.itextpdf.text;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class FontFactoryImpTest {
+
+    private static final String FONT = "./src/test/resources/com/itextpdf/text/pdf/MultithreadedTtfTest/FreeSans.ttf";
+
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = new File("./target/test/com/itextpdf/text/FontFactoryImpTest");
+        dir.mkdirs();
+        for (File file : dir.listFiles())
+            file.delete();
+        copy(new File(FONT), new File(dir, "FreeSans.ttf"));
+        copy(new File(FONT), new File(dir, "FreeSans2.ttf"));
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : dir.listFiles())
+            file.delete();
+    }
+
+    @Test
+    public void fontIndexTest() throws IOException {
+        String index = new File(dir, "fonts.idx").getPath();
+        FontFactoryImp fontImp = new FontFactoryImp();
+        fontImp.setFontIndex(index);
+        Assert.assertEquals(2, fontImp.registerDirectory(dir.getPath()));
+        Assert.assertTrue(fontImp.isRegistered("FreeSans"));
+        Assert.assertTrue(new File(index).exists());
+
+        // the names come from the index as long as the size and the modification time are the same
+        File font = new File(dir, "FreeSans2.ttf");
+        long lastModified = font.lastModified();
+        byte[] garbage = new byte[(int) font.length()];
+        OutputStream os = new FileOutputStream(font);
+        os.write(garbage);
+        os.close();
+        font.setLastModified(lastModified);
+        fontImp = new FontFactoryImp();
+        fontImp.setFontIndex(index);
+        Assert.assertEquals(2, fontImp.registerDirectory(dir.getPath()));
+        Assert.assertTrue(fontImp.getRegisteredFamilies().contains("freesans"));
+
+        // a changed file is read again
+        font.setLastModified(lastModified - 10000);
+        fontImp = new FontFactoryImp();
+        fontImp.setFontIndex(index);
+        Assert.assertEquals(1, fontImp.registerDirectory(dir.getPath()));
+        Assert.assertTrue(fontImp.isRegistered("FreeSans"));
+        Assert.assertNotNull(fontImp.getFont("FreeSans").getBaseFont());
+
+        // the file that isn't a font is in the index too, it isn't read again so the index isn't rewritten
+        Assert.assertSame(FontIndex.UNREADABLE, new FontIndex(new File(index)).get(font));
+        new File(index).setLastModified(lastModified);
+        long indexModified = new File(index).lastModified();
+        fontImp = new FontFactoryImp();
+        fontImp.setFontIndex(index);
+        Assert.assertEquals(1, fontImp.registerDirectory(dir.getPath()));
+        Assert.assertEquals(indexModified, new File(index).lastModified());
+    }
+
+    @Test
+    public void fontIndexPathTest() throws IOException {
+        File index = new File(dir, "fonts.idx");
+        FontFactoryImp fontImp = new FontFactoryImp();
+        fontImp.setFontIndex(index.getPath());
+        Assert.assertEquals(2, fontImp.registerDirectory(dir.getPath()));
+
+        // the fonts are indexed with absolute paths even if the directory was given with a relative one
+        File font = new File(dir, "FreeSans.ttf");
+        Assert.assertEquals(font.getAbsolutePath(), new FontIndex(index).get(font).get(0).path);
+
+        // an index left aside by an interrupted save is still used
+        Assert.assertTrue(index.renameTo(new File(dir, "fonts.idx.bak")));
+        Assert.assertNotNull(new FontIndex(index).get(font));
+    }
+
+    @Test
+    public void parallelScanTest() {
+        FontFactoryImp sequential = new FontFactoryImp();
+        Assert.assertEquals(2, sequential.registerDirectory(dir.getPath()));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            FontFactoryImp parallel = new FontFactoryImp();
+            parallel.setExecutor(executor);
+            Assert.assertEquals(2, parallel.registerDirectory(dir.getPath()));
+            Assert.assertEquals(sequential.getRegisteredFonts(), parallel.getRegisteredFonts());
+            Assert.assertEquals(sequential.getRegisteredFamilies(), parallel.getRegisteredFamilies());
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void copy(File from, File to) throws IOException {
+        InputStream is = new FileInputStream(from);
+        OutputStream os = new FileOutputStream(to);
+        byte[] buf = new byte[8192];
+        int n;
+        while ((n = is.read(buf)) > 0)
+            os.write(buf, 0, n);
+        is.close();
+        os.close();
+    }
+}
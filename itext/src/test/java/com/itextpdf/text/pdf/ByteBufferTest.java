@@ -0,0 +1,122 @@
+package com.itextpdf.text.pdf;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+public class ByteBufferTest {
+
+    @Test
+    public void formatDoubleCompatibilityTest() {
+        Random random = new Random(42);
+        double[] specials = new double[] {0, -0.0, 0.000015, 0.0000149, 0.999995, 0.9999949, 1, 1.005, 32767, 32767.004,
+                32767.005, 32767.5, 1e10, 1e20, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (double d : specials) {
+            checkCompatibility(d);
+            checkCompatibility(-d);
+        }
+        for (int k = 0; k < 200000; ++k) {
+            checkCompatibility(k / 100000.0);
+            checkCompatibility(k / 100.0 - 1000);
+        }
+        for (int k = 0; k < 200000; ++k) {
+            double scale = Math.pow(10, random.nextInt(12) - 5);
+            checkCompatibility((random.nextDouble() - 0.5) * scale);
+            checkCompatibility((random.nextFloat() - 0.5f) * (float)scale);
+        }
+    }
+
+    @Test
+    public void precisionTest() {
+        Assert.assertEquals("3.14", format(3.14159, 2));
+        Assert.assertEquals("1234.568", format(1234.5678, 3));
+        Assert.assertEquals("-2.5", format(-2.5, 4));
+        Assert.assertEquals("10", format(10, 2));
+        Assert.assertEquals("0", format(-0.004, 2));
+        Assert.assertEquals("0.0001", format(0.0001, 4));
+        Assert.assertEquals("4", format(3.5, 0));
+        Assert.assertEquals("0.123456789", format(0.123456789, 12));
+        Assert.assertEquals("100000000000", format(1e11, 1));
+    }
+
+    @Test
+    public void writerPrecisionTest() throws DocumentException {
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, new ByteArrayOutputStream());
+        writer.setDecimalPrecision(1);
+        document.open();
+        PdfContentByte canvas = writer.getDirectContent();
+        canvas.moveTo(1.26f, 20.04f);
+        Assert.assertEquals("1.3 20 m\n", canvas.toString());
+        PdfTemplate template = canvas.createTemplate(10, 10);
+        template.lineTo(0.333f, 1);
+        Assert.assertEquals("0.3 1 l\n", template.toString());
+        document.close();
+    }
+
+    private static String format(double d, int precision) {
+        ByteBuffer buf = new ByteBuffer();
+        buf.setPrecision(precision);
+        return buf.append(d).toString();
+    }
+
+    private static void checkCompatibility(double d) {
+        String expected = legacyFormatDouble(d);
+        Assert.assertEquals(String.valueOf(d), expected, ByteBuffer.formatDouble(d));
+        Assert.assertEquals(String.valueOf(d), expected, new ByteBuffer(1).append(d).toString());
+    }
+
+    /**
+     * The format of ByteBuffer.formatDouble before the digits were written directly into the buffer.
+     */
+    private static String legacyFormatDouble(double d) {
+        boolean negative = false;
+        if (Math.abs(d) < 0.000015)
+            return "0";
+        if (d < 0) {
+            negative = true;
+            d = -d;
+        }
+        if (d < 1.0) {
+            d += 0.000005;
+            if (d >= 1)
+                return negative ? "-1" : "1";
+            int x = 100000;
+            int v = (int) (d * x);
+            StringBuilder res = new StringBuilder();
+            if (negative) res.append('-');
+            res.append("0.");
+            while (v < x / 10) {
+                res.append('0');
+                x /= 10;
+            }
+            res.append(v);
+            int cut = res.length() - 1;
+            while (res.charAt(cut) == '0')
+                --cut;
+            res.setLength(cut + 1);
+            return res.toString();
+        } else if (d <= 32767) {
+            d += 0.005;
+            int v = (int) (d * 100);
+            StringBuilder res = new StringBuilder();
+            if (negative) res.append('-');
+            res.append(v / 100);
+            if (v % 100 != 0) {
+                res.append('.');
+                res.append((v / 10) % 10);
+                if (v % 10 != 0)
+                    res.append(v % 10);
+            }
+            return res.toString();
+        } else {
+            d += 0.5;
+            long v = (long) d;
+            return negative ? "-" + Long.toString(v) : Long.toString(v);
+        }
+    }
+}
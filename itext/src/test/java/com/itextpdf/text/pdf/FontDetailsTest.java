@@ -0,0 +1,41 @@
+package com.itextpdf.text.pdf;
+
+import com.itextpdf.text.DocumentException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+
+public class FontDetailsTest {
+
+    private static final String FONT = "./src/test/resources/com/itextpdf/text/pdf/MultithreadedTtfTest/FreeSans.ttf";
+
+    @Test
+    public void glyphTrackingTest() throws DocumentException, IOException {
+        BaseFont bf = BaseFont.createFont(FONT, BaseFont.IDENTITY_H, BaseFont.EMBEDDED, false);
+        FontDetails details = new FontDetails(new PdfName("F1"), null, bf);
+        details.convertToBytes("abca");
+        details.convertToBytes("cab");
+        Assert.assertEquals(3, details.glyphCount);
+        HashMap<Integer, int[]> longTag = details.getLongTag();
+        Assert.assertEquals(3, longTag.size());
+        int[] metrics = ((TrueTypeFontUnicode) bf).getMetricsTT('b');
+        Assert.assertTrue(details.usedGlyphs.get(metrics[0]));
+        Assert.assertArrayEquals(new int[]{metrics[0], metrics[1], 'b'}, longTag.get(metrics[0]));
+    }
+
+    @Test
+    public void subsetCacheTest() throws DocumentException, IOException {
+        TrueTypeFontUnicode bf = (TrueTypeFontUnicode) BaseFont.createFont(FONT, BaseFont.IDENTITY_H, BaseFont.EMBEDDED, false);
+        FontDetails details1 = new FontDetails(new PdfName("F1"), null, bf);
+        details1.convertToBytes("Hello World");
+        FontDetails details2 = new FontDetails(new PdfName("F1"), null, bf);
+        details2.convertToBytes("World Hello");
+        byte[] subset = bf.getSubsetProgram(details1.getLongTag());
+        Assert.assertSame(subset, bf.getSubsetProgram(details2.getLongTag()));
+        FontDetails details3 = new FontDetails(new PdfName("F1"), null, bf);
+        details3.convertToBytes("Hello");
+        Assert.assertNotSame(subset, bf.getSubsetProgram(details3.getLongTag()));
+    }
+}
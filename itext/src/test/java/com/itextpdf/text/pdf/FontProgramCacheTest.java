@@ -0,0 +1,104 @@
+package com.itextpdf.text.pdf;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.Paragraph;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+public class FontProgramCacheTest {
+
+    private static final String FONT = "./src/test/resources/com/itextpdf/text/pdf/MultithreadedTtfTest/FreeSans.ttf";
+
+    @Before
+    public void setUp() {
+        FontProgramCache.clear();
+    }
+
+    @After
+    public void tearDown() {
+        FontProgramCache.setMaxSize(FontProgramCache.DEFAULT_MAX_SIZE);
+        FontProgramCache.clear();
+    }
+
+    @Test
+    public void sharedProgramTest() throws DocumentException, IOException {
+        BaseFont fromFile = BaseFont.createFont(FONT, BaseFont.IDENTITY_H, BaseFont.EMBEDDED, false);
+        byte[] first = createPdf(fromFile, "Hello World", false);
+        long size = FontProgramCache.getSize();
+        Assert.assertTrue(size > 0);
+
+        // the same font read from a byte array has the same identity
+        BaseFont fromBytes = BaseFont.createFont("FreeSans.ttf", BaseFont.IDENTITY_H, BaseFont.EMBEDDED, false, readFont(), null);
+        byte[] second = createPdf(fromBytes, "World Hello", true);
+        Assert.assertEquals(size, FontProgramCache.getSize());
+        Assert.assertArrayEquals(getFontProgram(first), getFontProgram(second));
+
+        createPdf(fromFile, "Hello", false);
+        Assert.assertTrue(FontProgramCache.getSize() > size);
+    }
+
+    @Test
+    public void maxSizeTest() throws DocumentException, IOException {
+        BaseFont bf = BaseFont.createFont(FONT, BaseFont.IDENTITY_H, BaseFont.EMBEDDED, false);
+        createPdf(bf, "Hello", false);
+        long size = FontProgramCache.getSize();
+        createPdf(bf, "World", false);
+        Assert.assertTrue(FontProgramCache.getSize() > size);
+
+        // the least recently used entries are discarded
+        long total = FontProgramCache.getSize();
+        FontProgramCache.setMaxSize(total - 1);
+        Assert.assertTrue(FontProgramCache.getSize() < total);
+        Assert.assertTrue(FontProgramCache.getSize() > 0);
+
+        FontProgramCache.setMaxSize(0);
+        Assert.assertEquals(0, FontProgramCache.getSize());
+        byte[] pdf = createPdf(bf, "Hello World", false);
+        Assert.assertEquals(0, FontProgramCache.getSize());
+        Assert.assertTrue(getFontProgram(pdf).length > 0);
+    }
+
+    private static byte[] createPdf(BaseFont bf, String text, boolean encrypted) throws DocumentException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, baos);
+        if (encrypted)
+            writer.setEncryption(null, "owner".getBytes(), PdfWriter.ALLOW_PRINTING, PdfWriter.ENCRYPTION_AES_128);
+        document.open();
+        document.add(new Paragraph(text, new Font(bf, 12)));
+        document.close();
+        return baos.toByteArray();
+    }
+
+    private static byte[] getFontProgram(byte[] pdf) throws IOException {
+        PdfReader reader = new PdfReader(pdf, "owner".getBytes());
+        PdfDictionary fonts = reader.getPageResources(1).getAsDict(PdfName.FONT);
+        PdfDictionary font = fonts.getAsDict(fonts.getKeys().iterator().next());
+        PdfDictionary descendant = font.getAsArray(PdfName.DESCENDANTFONTS).getAsDict(0);
+        PRStream program = (PRStream) descendant.getAsDict(PdfName.FONTDESCRIPTOR).getAsStream(PdfName.FONTFILE2);
+        byte[] bytes = PdfReader.getStreamBytes(program);
+        reader.close();
+        return bytes;
+    }
+
+    private static byte[] readFont() throws IOException {
+        InputStream is = new FileInputStream(new File(FONT));
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        byte[] buf = new byte[8192];
+        int n;
+        while ((n = is.read(buf)) > 0)
+            baos.write(buf, 0, n);
+        is.close();
+        return baos.toByteArray();
+    }
+}
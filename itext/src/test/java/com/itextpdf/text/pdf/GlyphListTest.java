@@ -0,0 +1,104 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf;
+
+import com.itextpdf.text.io.StreamUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GlyphListTest {
+
+    @Test
+    public void compiledGlyphListTest() throws IOException {
+        InputStream is = StreamUtil.getResourceStream(BaseFont.RESOURCE_PATH + "glyphlist.txt");
+        byte[] text = StreamUtil.inputStreamToArray(is);
+        is.close();
+        Map<Integer, String> unicode2names = new HashMap<Integer, String>();
+        Map<String, int[]> names2unicode = new HashMap<String, int[]>();
+        GlyphList.parse(text, unicode2names, names2unicode);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GlyphList.compile(text, out);
+        Map<Integer, String> compiledUnicode2names = new HashMap<Integer, String>();
+        Map<String, int[]> compiledNames2unicode = new HashMap<String, int[]>();
+        Assert.assertTrue(GlyphList.readCompiled(ByteBuffer.wrap(out.toByteArray()), compiledUnicode2names, compiledNames2unicode));
+
+        Assert.assertEquals(unicode2names, compiledUnicode2names);
+        Assert.assertEquals(names2unicode.keySet(), compiledNames2unicode.keySet());
+        for (Map.Entry<String, int[]> e : names2unicode.entrySet())
+            Assert.assertArrayEquals(e.getKey(), e.getValue(), compiledNames2unicode.get(e.getKey()));
+        Assert.assertEquals("Aacute", GlyphList.unicodeToName(0xC1));
+        Assert.assertEquals(0xC1, GlyphList.nameToUnicode("Aacute")[0]);
+    }
+
+    @Test
+    public void compiledResourceTest() throws IOException {
+        // the compiled glyph list is shipped and matches glyphlist.txt
+        InputStream is = StreamUtil.getResourceStream(BaseFont.RESOURCE_PATH + "glyphlist.txt");
+        byte[] text = StreamUtil.inputStreamToArray(is);
+        is.close();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GlyphList.compile(text, out);
+        is = StreamUtil.getResourceStream(BaseFont.RESOURCE_PATH + GlyphList.COMPILED_GLYPH_LIST);
+        Assert.assertNotNull(is);
+        byte[] compiled = StreamUtil.inputStreamToArray(is);
+        is.close();
+        Assert.assertArrayEquals(out.toByteArray(), compiled);
+    }
+
+    @Test
+    public void notCompiledTest() throws IOException {
+        Assert.assertFalse(GlyphList.readCompiled(ByteBuffer.wrap("# Name;Code".getBytes()),
+                new HashMap<Integer, String>(), new HashMap<String, int[]>()));
+    }
+}
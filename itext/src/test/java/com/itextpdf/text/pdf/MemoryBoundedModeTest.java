@@ -0,0 +1,81 @@
+package com.itextpdf.text.pdf;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.pdf.parser.PdfTextExtractor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public class MemoryBoundedModeTest {
+
+    @Test
+    public void releaseTemplatesTest() throws DocumentException, IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, baos);
+        writer.setMemoryBoundedMode(0);
+        document.open();
+        BaseFont bf = BaseFont.createFont();
+        PdfContentByte canvas = writer.getDirectContent();
+        PdfTemplate total = canvas.createTemplate(50, 20);
+        writer.retainTemplate(total);
+        for (int k = 1; k <= 5; ++k) {
+            PdfTemplate template = canvas.createTemplate(100, 20);
+            template.beginText();
+            template.setFontAndSize(bf, 12);
+            template.showText("Page " + k);
+            template.endText();
+            canvas.addTemplate(template, 36, 700);
+            canvas.addTemplate(total, 136, 700);
+            document.newPage();
+            // only the template with the total number of pages is kept
+            Assert.assertEquals(1, writer.getRetainedResources().getTemplates());
+        }
+        total.beginText();
+        total.setFontAndSize(bf, 12);
+        total.showText("of 5");
+        total.endText();
+        Assert.assertEquals(1, writer.getRetainedResources().getFonts());
+        document.close();
+
+        PdfReader reader = new PdfReader(baos.toByteArray());
+        Assert.assertEquals(5, reader.getNumberOfPages());
+        for (int k = 1; k <= 5; ++k)
+            Assert.assertEquals("Page " + k + " of 5", PdfTextExtractor.getTextFromPage(reader, k));
+        reader.close();
+    }
+
+    @Test
+    public void idlePagesTest() throws DocumentException, IOException {
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, new ByteArrayOutputStream());
+        writer.setMemoryBoundedMode(2);
+        document.open();
+        PdfContentByte canvas = writer.getDirectContent();
+        PdfTemplate inner = canvas.createTemplate(10, 10);
+        inner.rectangle(0, 0, 10, 10);
+        inner.fill();
+        PdfTemplate outer = canvas.createTemplate(20, 20);
+        outer.addTemplate(inner, 5, 5);
+        canvas.addTemplate(outer, 36, 36);
+        document.newPage();
+        Assert.assertEquals(2, writer.getRetainedResources().getTemplates());
+        for (int k = 0; k < 2; ++k) {
+            canvas.rectangle(0, 0, 10, 10);
+            canvas.fill();
+            document.newPage();
+        }
+        // the outer template is released, the inner one becomes idle from now on
+        Assert.assertEquals(1, writer.getRetainedResources().getTemplates());
+        for (int k = 0; k < 2; ++k) {
+            canvas.rectangle(0, 0, 10, 10);
+            canvas.fill();
+            document.newPage();
+        }
+        Assert.assertEquals(0, writer.getRetainedResources().getTemplates());
+        document.close();
+    }
+}
@@ -351,6 +351,88 @@ public class PdfCopyTest {
         }
     }
 
+    @Test
+    public void testStreamPassThrough() throws Exception {
+        PdfReader sourceR = new PdfReader(createImagePdf());
+        byte[] sourceImage = PdfReader.getStreamBytesRaw(getImage(sourceR));
+
+        for (boolean encrypted : new boolean[] {false, true}) {
+            Document document = new Document();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            PdfCopy copy = new PdfCopy(document, out);
+            if (encrypted)
+                copy.setEncryption(null, null, 0, PdfWriter.STANDARD_ENCRYPTION_128);
+            document.open();
+            copy.addDocument(sourceR);
+            document.close();
+
+            PdfReader targetR = new PdfReader(out.toByteArray());
+            PRStream targetImage = getImage(targetR);
+            Assert.assertEquals(sourceImage.length, targetImage.getAsNumber(PdfName.LENGTH).intValue());
+            Assert.assertTrue(java.util.Arrays.equals(sourceImage, PdfReader.getStreamBytesRaw(targetImage)));
+            targetR.close();
+        }
+        sourceR.close();
+    }
+
+    @Test
+    public void testStreamingMergeFields() throws DocumentException, IOException {
+        String[] files = new String[] {
+                "./src/test/resources/com/itextpdf/text/pdf/PdfCopyTest/appearances1.pdf",
+                "./src/test/resources/com/itextpdf/text/pdf/PdfCopyTest/appearances2.pdf",
+                "./src/test/resources/com/itextpdf/text/pdf/PdfCopyTest/appearances3.pdf",
+                "./src/test/resources/com/itextpdf/text/pdf/PdfCopyTest/appearances4.pdf",
+                "./src/test/resources/com/itextpdf/text/pdf/PdfCopyTest/hello_with_comments.pdf"};
+
+        ByteArrayOutputStream merged = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfCopy copy = new PdfCopy(document, merged);
+        copy.setMergeFields();
+        document.open();
+        for (String f : files)
+            copy.addDocument(new PdfReader(f));
+        document.close();
+
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        document = new Document();
+        copy = new PdfCopy(document, streamed);
+        copy.setStreamingMergeFields();
+        document.open();
+        for (String f : files) {
+            PdfReader reader = new PdfReader(f);
+            copy.addDocument(reader);
+            copy.freeReader(reader);
+            reader.close();
+        }
+        document.close();
+
+        PdfReader mergedReader = new PdfReader(merged.toByteArray());
+        PdfReader streamedReader = new PdfReader(streamed.toByteArray());
+        Assert.assertEquals(mergedReader.getNumberOfPages(), streamedReader.getNumberOfPages());
+        AcroFields mergedFields = mergedReader.getAcroFields();
+        AcroFields streamedFields = streamedReader.getAcroFields();
+        Assert.assertFalse(mergedFields.getFields().isEmpty());
+        Assert.assertEquals(mergedFields.getFields().keySet(), streamedFields.getFields().keySet());
+        for (String name : mergedFields.getFields().keySet()) {
+            Assert.assertEquals(name, mergedFields.getField(name), streamedFields.getField(name));
+            Assert.assertEquals(name, mergedFields.getFieldItem(name).size(), streamedFields.getFieldItem(name).size());
+            for (int k = 0; k < mergedFields.getFieldItem(name).size(); ++k)
+                Assert.assertEquals(name, mergedFields.getFieldItem(name).getPage(k), streamedFields.getFieldItem(name).getPage(k));
+        }
+        for (int page = 1; page <= mergedReader.getNumberOfPages(); ++page) {
+            PdfArray mergedAnnots = mergedReader.getPageN(page).getAsArray(PdfName.ANNOTS);
+            PdfArray streamedAnnots = streamedReader.getPageN(page).getAsArray(PdfName.ANNOTS);
+            Assert.assertEquals(mergedAnnots == null ? 0 : mergedAnnots.size(), streamedAnnots == null ? 0 : streamedAnnots.size());
+        }
+        mergedReader.close();
+        streamedReader.close();
+    }
+
+    private static PRStream getImage(PdfReader reader) {
+        PdfDictionary xObjects = reader.getPageResources(1).getAsDict(PdfName.XOBJECT);
+        return (PRStream) xObjects.getAsStream(xObjects.getKeys().iterator().next());
+    }
+
     private static byte[] createImagePdf() throws Exception {
 
         final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
@@ -0,0 +1,71 @@
+package com.itextpdf.text.pdf;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.pdf.parser.PdfTextExtractor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class PdfMergePipelineTest {
+
+    @Test
+    public void prefetchedMergeTest() throws DocumentException, IOException {
+        List<PdfMergePipeline.Input> inputs = new ArrayList<PdfMergePipeline.Input>();
+        for (int i = 0; i < 20; i++)
+            inputs.add(PdfMergePipeline.fromBytes(createPdf("Document " + i)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            Document document = new Document();
+            PdfCopy copy = new PdfSmartCopy(document, out);
+            document.open();
+            new PdfMergePipeline(copy, executor, 3).addDocuments(inputs.iterator());
+            document.close();
+        } finally {
+            executor.shutdown();
+        }
+
+        PdfReader reader = new PdfReader(out.toByteArray());
+        Assert.assertEquals(20, reader.getNumberOfPages());
+        for (int i = 0; i < 20; i++)
+            Assert.assertEquals("Document " + i, PdfTextExtractor.getTextFromPage(reader, i + 1));
+        reader.close();
+    }
+
+    @Test(expected = IOException.class)
+    public void failingInputTest() throws DocumentException, IOException {
+        List<PdfMergePipeline.Input> inputs = new ArrayList<PdfMergePipeline.Input>();
+        inputs.add(PdfMergePipeline.fromBytes(createPdf("Document")));
+        inputs.add(PdfMergePipeline.fromBytes(new byte[] {'n', 'o', 't', ' ', 'a', ' ', 'P', 'D', 'F'}));
+        inputs.add(PdfMergePipeline.fromBytes(createPdf("Document")));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Document document = new Document();
+            PdfCopy copy = new PdfCopy(document, new ByteArrayOutputStream());
+            document.open();
+            new PdfMergePipeline(copy, executor, 2).addDocuments(inputs.iterator());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static byte[] createPdf(String text) throws DocumentException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter.getInstance(document, baos);
+        document.open();
+        document.add(new Paragraph(text));
+        document.close();
+        return baos.toByteArray();
+    }
+}
@@ -0,0 +1,50 @@
+package com.itextpdf.text.pdf;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashSet;
+import java.util.Set;
+
+public class PdfNameTest {
+
+    @Test
+    public void nameTableTest() throws IllegalAccessException {
+        // every static name must be listed in the table
+        Set<PdfName> declared = new HashSet<PdfName>();
+        int flags = Modifier.STATIC | Modifier.PUBLIC | Modifier.FINAL;
+        for (Field field : PdfName.class.getDeclaredFields()) {
+            if ((field.getModifiers() & flags) == flags && field.getType().equals(PdfName.class))
+                declared.add((PdfName) field.get(null));
+        }
+        Set<PdfName> listed = new HashSet<PdfName>();
+        for (PdfName name : PdfNameTable.NAMES)
+            listed.add(name);
+        Assert.assertEquals(declared, listed);
+        Assert.assertEquals(declared.size(), PdfName.staticNames.size());
+    }
+
+    @Test
+    public void staticNameTest() {
+        byte[] buf = "xxTypeyy".getBytes();
+        Assert.assertSame(PdfName.TYPE, PdfName.getStaticName(buf, 2, 4));
+        Assert.assertNull(PdfName.getStaticName(buf, 2, 5));
+        Assert.assertSame(PdfName.TYPE, PdfName.staticNames.get("Type"));
+        Assert.assertArrayEquals(PdfName.encodeName("A B#"), PdfName.encodeName("xA B#".getBytes(), 1, 4));
+    }
+
+    @Test
+    public void tokeniserTest() throws Exception {
+        PRTokeniser tokens = new PRTokeniser(new RandomAccessFileOrArray("/Type /Unknown#20Name /Font".getBytes()));
+        tokens.nextValidToken();
+        Assert.assertSame(PdfName.TYPE, tokens.getNameValue());
+        Assert.assertEquals("Type", tokens.getStringValue());
+        tokens.nextValidToken();
+        Assert.assertEquals(new PdfName("Unknown Name"), tokens.getNameValue());
+        Assert.assertEquals("Unknown Name", tokens.getStringValue());
+        tokens.nextValidToken();
+        Assert.assertSame(PdfName.FONT, tokens.getNameValue());
+    }
+}
@@ -0,0 +1,80 @@
+package com.itextpdf.text.pdf;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Rectangle;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public class PdfPagesTest {
+
+    @Test
+    public void pageTreeFanOutTest() throws DocumentException, IOException {
+        for (int pages : new int[] {1, 3, 9, 10, 100}) {
+            PdfReader reader = new PdfReader(createPdf(pages, 3));
+            Assert.assertEquals(pages, reader.getNumberOfPages());
+            for (int k = 1; k <= pages; ++k)
+                Assert.assertEquals(100 + k, (int) reader.getPageSize(k).getWidth());
+            PdfDictionary top = reader.getCatalog().getAsDict(PdfName.PAGES);
+            Assert.assertNull(top.get(PdfName.PARENT));
+            Assert.assertEquals(pages, checkNode(top, 3));
+            reader.close();
+        }
+    }
+
+    @Test
+    public void defaultFanOutTest() throws DocumentException, IOException {
+        PdfReader reader = new PdfReader(createPdf(25, 0));
+        PdfDictionary top = reader.getCatalog().getAsDict(PdfName.PAGES);
+        Assert.assertEquals(25, checkNode(top, 10));
+        Assert.assertEquals(3, top.getAsArray(PdfName.KIDS).size());
+        reader.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidFanOutTest() throws DocumentException {
+        PdfWriter writer = PdfWriter.getInstance(new Document(), new ByteArrayOutputStream());
+        writer.setPageTreeFanOut(1);
+    }
+
+    /**
+     * Checks the size, the count and the parents of the kids of a node.
+     * @return the number of pages below the node
+     */
+    private int checkNode(PdfDictionary node, int fanOut) {
+        PdfArray kids = node.getAsArray(PdfName.KIDS);
+        Assert.assertTrue(kids.size() > 0 && kids.size() <= fanOut);
+        int count = 0;
+        for (int k = 0; k < kids.size(); ++k) {
+            PdfDictionary kid = kids.getAsDict(k);
+            Assert.assertSame(node, kid.getAsDict(PdfName.PARENT));
+            if (PdfName.PAGE.equals(kid.getAsName(PdfName.TYPE)))
+                ++count;
+            else
+                count += checkNode(kid, fanOut);
+        }
+        Assert.assertEquals(count, node.getAsNumber(PdfName.COUNT).intValue());
+        return count;
+    }
+
+    private byte[] createPdf(int pages, int fanOut) throws DocumentException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, baos);
+        if (fanOut > 0)
+            writer.setPageTreeFanOut(fanOut);
+        for (int k = 1; k <= pages; ++k) {
+            document.setPageSize(new Rectangle(100 + k, 200));
+            if (k == 1)
+                document.open();
+            else
+                document.newPage();
+            writer.setPageEmpty(false);
+        }
+        document.close();
+        return baos.toByteArray();
+    }
+}
@@ -274,6 +274,35 @@ public class TaggedPdfCopyTest {
         compareResults("3");
     }
 
+    @Test
+    public void copyTaggedPdfInterleaved() throws IOException, DocumentException {
+        initializeDocument("-interleaved");
+        PdfReader reader1 = new PdfReader(SOURCE10);
+        PdfReader reader2 = new PdfReader(SOURCE10);
+        int n = reader1.getNumberOfPages();
+        for (int i = 1; i <= n; ++i) {
+            copy.addPage(copy.getImportedPage(reader1, i, true));
+            copy.addPage(copy.getImportedPage(reader2, i, true));
+        }
+        document.close();
+        reader1.close();
+        reader2.close();
+
+        PdfReader reader = new PdfReader(output);
+        PdfDictionary structTreeRoot = verifyIsDictionary(reader.getCatalog().getDirectObject(PdfName.STRUCTTREEROOT), NO_STRUCT_TREE_ROOT);
+        PdfObject obj = PdfStructTreeController.getDirectObject(structTreeRoot.get(PdfName.PARENTTREE));
+        verifyIsDictionary(obj, NO_PARENT_TREE);
+        PdfArray array = ((PdfDictionary)obj).getAsArray(PdfName.NUMS);
+        verifyArraySize(array, n*4, "Nums");
+        int[] nums = new int[] {16, 87, 128, 74, 74, 74, 26};
+        for (int i = 0; i < 2*n; ++i) {
+            PdfArray marks = (PdfArray)PdfStructTreeController.getDirectObject(array.getPdfObject(i*2+1));
+            verifyArraySize(marks, nums[i/2], "Nums of page "+(i+1));
+        }
+
+        reader.close();
+    }
+
     @Test
     public void copyTaggedPdf4() throws IOException, DocumentException, ParserConfigurationException, SAXException {
         initializeDocument("4");
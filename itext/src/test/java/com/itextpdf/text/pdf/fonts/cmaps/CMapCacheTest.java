@@ -0,0 +1,121 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf.fonts.cmaps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CMapCacheTest {
+
+    private static byte[] toUnicode(String mappings) {
+        String cmap = "/CIDInit /ProcSet findresource begin\n12 dict begin\nbegincmap\n"
+                + "/CMapName /Test def\n1 begincodespacerange\n<00> <FF>\nendcodespacerange\n"
+                + mappings + "endcmap\nCMapName currentdict /CMap defineresource pop\nend\nend\n";
+        return cmap.getBytes();
+    }
+
+    @Test
+    public void sameContentSameInstanceTest() throws Exception {
+        byte[] content = toUnicode("2 beginbfchar\n<41> <0042>\n<42> <00430044>\nendbfchar\n");
+        CMapToUnicode first = CMapCache.getCachedCMapToUnicode(content);
+        CMapToUnicode second = CMapCache.getCachedCMapToUnicode(content.clone());
+        Assert.assertSame(first, second);
+        Assert.assertEquals("B", first.lookup(new byte[] {0x41}, 0, 1));
+        Assert.assertEquals("CD", first.lookup(new byte[] {0x42}, 0, 1));
+
+        CMapToUnicode other = CMapCache.getCachedCMapToUnicode(toUnicode("1 beginbfchar\n<41> <0045>\nendbfchar\n"));
+        Assert.assertNotSame(first, other);
+        Assert.assertEquals("E", other.lookup(new byte[] {0x41}, 0, 1));
+    }
+
+    @Test
+    public void mappingsTest() throws Exception {
+        CMapToUnicode cmap = CMapCache.getCachedCMapToUnicode(toUnicode("1 beginbfrange\n<20> <7E> <0020>\nendbfrange\n"));
+        Assert.assertEquals("~", cmap.lookup(new byte[] {0x7E}, 0, 1));
+        Assert.assertNull(cmap.lookup(new byte[] {0x7F}, 0, 1));
+
+        Map<Integer, Integer> reverse = cmap.createReverseMapping();
+        Assert.assertEquals(0x7E - 0x20 + 1, reverse.size());
+        Assert.assertEquals(Integer.valueOf(0x41), reverse.get(Integer.valueOf('A')));
+        Map<Integer, Integer> direct = cmap.createDirectMapping();
+        Assert.assertEquals(Integer.valueOf('A'), direct.get(Integer.valueOf(0x41)));
+    }
+
+    @Test
+    public void concurrentRequestsTest() throws Exception {
+        final byte[] content = toUnicode("1 beginbfrange\n<00> <FF> <4E00>\nendbfrange\n");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CMapToUnicode>> results = new ArrayList<Future<CMapToUnicode>>();
+            for (int k = 0; k < 32; ++k) {
+                results.add(executor.submit(new Callable<CMapToUnicode>() {
+                    public CMapToUnicode call() throws Exception {
+                        return CMapCache.getCachedCMapToUnicode(content);
+                    }
+                }));
+            }
+            CMapToUnicode cmap = results.get(0).get();
+            for (Future<CMapToUnicode> result : results)
+                Assert.assertSame(cmap, result.get());
+            Assert.assertEquals("仿", cmap.lookup(new byte[] {(byte)0xFF}, 0, 1));
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void resourceTest() throws Exception {
+        Assert.assertSame(CMapCache.getCachedCMapUniCid("UniJIS-UCS2-H"), CMapCache.getCachedCMapUniCid("UniJIS-UCS2-H"));
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf.fonts.cmaps;
+
+import com.itextpdf.text.io.StreamUtil;
+import com.itextpdf.text.pdf.BaseFont;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CMapCompilerTest {
+
+    private static ByteBuffer compile(String name) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CMapCompiler.compile(name, new CidResource(), out);
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    private static void checkHeader(AbstractCMap parsed, AbstractCMap compiled) {
+        Assert.assertEquals(parsed.getName(), compiled.getName());
+        Assert.assertEquals(parsed.getRegistry(), compiled.getRegistry());
+        Assert.assertEquals(parsed.getOrdering(), compiled.getOrdering());
+        Assert.assertEquals(parsed.getSupplement(), compiled.getSupplement());
+    }
+
+    @Test
+    public void uniCidTest() throws IOException {
+        for (String name : new String[] {"UniJIS-UCS2-H", "UniJIS-UTF16-H", "UniGB-UTF32-H"}) {
+            CMapUniCid parsed = new CMapUniCid();
+            CMapParserEx.parseCid(name, parsed, new CidResource());
+            CMapUniCid compiled = new CMapUniCid();
+            Assert.assertTrue(CMapCompiler.load(compile(name), compiled, 0));
+            checkHeader(parsed, compiled);
+            for (int c = 0; c < 0x110000; ++c) {
+                if (parsed.lookup(c) != compiled.lookup(c))
+                    Assert.fail(name + " differs at " + Integer.toHexString(c));
+            }
+        }
+    }
+
+    @Test
+    public void cidUniTest() throws IOException {
+        CMapCidUni parsed = new CMapCidUni();
+        CMapParserEx.parseCid("UniKS-UCS2-H", parsed, new CidResource());
+        CMapCidUni compiled = new CMapCidUni();
+        Assert.assertTrue(CMapCompiler.load(compile("UniKS-UCS2-H"), compiled, 0));
+        checkHeader(parsed, compiled);
+        for (int cid = 0; cid < 0x10000; ++cid)
+            Assert.assertEquals(parsed.lookup(cid), compiled.lookup(cid));
+    }
+
+    @Test
+    public void useCMapTest() throws IOException {
+        // 78-RKSJ-V uses 78-RKSJ-H, which is found through the resources
+        CMapCidByte parsed = new CMapCidByte();
+        CMapParserEx.parseCid("78-RKSJ-V", parsed, new CidResource());
+        CMapCidByte compiled = new CMapCidByte();
+        Assert.assertTrue(CMapCompiler.load(compile("78-RKSJ-V"), compiled, 0));
+        checkHeader(parsed, compiled);
+        for (int cid = 0; cid < 0x10000; ++cid)
+            Assert.assertArrayEquals(parsed.lookup(cid), compiled.lookup(cid));
+
+        CMapByteCid parsedBytes = new CMapByteCid();
+        CMapParserEx.parseCid("78-RKSJ-V", parsedBytes, new CidResource());
+        CMapByteCid compiledBytes = new CMapByteCid();
+        Assert.assertTrue(CMapCompiler.load(compile("78-RKSJ-V"), compiledBytes, 0));
+        for (int code = 0; code < 0x10000; ++code) {
+            byte[] seq = {(byte)(code >> 8), (byte)code};
+            Assert.assertEquals(parsedBytes.decodeSingle(new CMapSequence(seq, 0, 2)),
+                    compiledBytes.decodeSingle(new CMapSequence(seq, 0, 2)));
+        }
+    }
+
+    @Test
+    public void compiledResourcesTest() throws IOException {
+        // every CMap resource has an up to date compiled form, which is what the parser loads
+        File[] files = new File("./src/main/resources/com/itextpdf/text/pdf/fonts/cmaps").listFiles();
+        Assert.assertNotNull(files);
+        int count = 0;
+        for (File file : files) {
+            String name = file.getName();
+            if (!file.isFile() || name.indexOf('.') >= 0)
+                continue;
+            InputStream is = StreamUtil.getResourceStream(BaseFont.RESOURCE_PATH + "cmaps/" + name + CMapCompiler.COMPILED_SUFFIX);
+            Assert.assertNotNull(name + " isn't compiled", is);
+            byte[] resource = StreamUtil.inputStreamToArray(is);
+            is.close();
+            Assert.assertEquals(name + " is out of date", compile(name), ByteBuffer.wrap(resource));
+            ++count;
+        }
+        Assert.assertTrue(count > 100);
+        CMapUniCid cmap = new CMapUniCid();
+        Assert.assertTrue(CMapCompiler.load("UniJIS-UCS2-H", cmap, 0));
+        Assert.assertEquals("/UniJIS-UCS2-H", cmap.getName());
+    }
+
+    @Test
+    public void packagedResourceTest() throws IOException {
+        // the compiled CMaps are packaged with the classes, not only with the test resources
+        URL classes = CMapCompiler.class.getProtectionDomain().getCodeSource().getLocation();
+        URLClassLoader loader = new URLClassLoader(new URL[] {classes}, null);
+        InputStream is = loader.getResourceAsStream(BaseFont.RESOURCE_PATH + "cmaps/UniJIS-UCS2-H" + CMapCompiler.COMPILED_SUFFIX);
+        Assert.assertNotNull(is);
+        byte[] resource = StreamUtil.inputStreamToArray(is);
+        is.close();
+        CMapUniCid cmap = new CMapUniCid();
+        Assert.assertTrue(CMapCompiler.load(ByteBuffer.wrap(resource), cmap, 0));
+        Assert.assertEquals("/UniJIS-UCS2-H", cmap.getName());
+        Assert.assertTrue(cmap.lookup('A') != 0);
+    }
+
+    @Test
+    public void notCompiledTest() throws IOException {
+        Assert.assertFalse(CMapCompiler.load(ByteBuffer.wrap("%!PS-Adobe-3.0 Resource-CMap".getBytes()), new CMapUniCid(), 0));
+        Assert.assertFalse(CMapCompiler.load("Missing-CMap", new CMapUniCid(), 0));
+    }
+}
@@ -71,6 +71,8 @@ public class CMapTest {
 		c.addChar(new PdfString(bytes), new PdfString(uni, "UTF-16BE"));
         String lookupResult = c.lookup(bytes, 0, bytes.length);
         Assert.assertEquals(uni, lookupResult);
+        // the string is built once and reused by the later lookups
+        Assert.assertSame(lookupResult, c.lookup(bytes, 0, bytes.length));
 
     }
 
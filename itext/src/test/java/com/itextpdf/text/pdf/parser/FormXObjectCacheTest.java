@@ -0,0 +1,161 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf.parser;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.Image;
+import com.itextpdf.text.pdf.BaseFont;
+import com.itextpdf.text.pdf.PdfContentByte;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.PdfTemplate;
+import com.itextpdf.text.pdf.PdfWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+public class FormXObjectCacheTest {
+
+    @Test
+    public void sameEventsWithCacheTest() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, baos);
+        document.open();
+        PdfContentByte cb = writer.getDirectContent();
+        BaseFont font = BaseFont.createFont();
+        PdfTemplate letterhead = cb.createTemplate(300, 100);
+        letterhead.beginText();
+        letterhead.setFontAndSize(font, 14);
+        letterhead.setTextMatrix(10, 70);
+        letterhead.showText("ACME Corporation");
+        letterhead.setTextMatrix(10, 50);
+        letterhead.showText("1 Main Street");
+        letterhead.endText();
+        Image image = Image.getInstance(2, 2, 1, 8, new byte[] {0, (byte)255, (byte)255, 0});
+        letterhead.addImage(image, 20, 0, 0, 20, 200, 20, true);
+        for (int page = 1; page <= 3; ++page) {
+            cb.addTemplate(letterhead, 36, 700);
+            cb.addTemplate(letterhead, 0.5f, 0, 0, 0.5f, 300, 100);
+            cb.beginText();
+            cb.setFontAndSize(font, 12);
+            cb.setTextMatrix(36, 600);
+            cb.showText("Page " + page);
+            cb.endText();
+            document.newPage();
+        }
+        document.close();
+
+        PdfReader reader = new PdfReader(baos.toByteArray());
+        FormXObjectCache cache = new FormXObjectCache(reader);
+        PdfReaderContentParser parser = new PdfReaderContentParser(reader);
+        PdfReaderContentParser cachingParser = new PdfReaderContentParser(reader);
+        cachingParser.setFormXObjectCache(cache);
+        int cachedSize = 0;
+        for (int page = 1; page <= reader.getNumberOfPages(); ++page) {
+            List<String> expected = parser.processContent(page, new EventRecorder()).events;
+            List<String> actual = cachingParser.processContent(page, new EventRecorder()).events;
+            Assert.assertEquals(expected, actual);
+            Assert.assertTrue(actual.contains("text ACME Corporation at 46.0, 770.0"));
+            // the form is only parsed once
+            if (page == 1)
+                cachedSize = cache.getSize();
+            Assert.assertEquals(cachedSize, cache.getSize());
+        }
+        Assert.assertTrue(cachedSize > 0);
+
+        cache.clear();
+        Assert.assertEquals(0, cache.getSize());
+        reader.close();
+    }
+
+    @Test
+    public void formLargerThanCacheTest() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, baos);
+        document.open();
+        PdfContentByte cb = writer.getDirectContent();
+        PdfTemplate template = cb.createTemplate(100, 100);
+        template.beginText();
+        template.setFontAndSize(BaseFont.createFont(), 10);
+        template.setTextMatrix(0, 0);
+        template.showText("Too large to be cached");
+        template.endText();
+        cb.addTemplate(template, 100, 100);
+        document.close();
+
+        PdfReader reader = new PdfReader(baos.toByteArray());
+        FormXObjectCache cache = new FormXObjectCache(reader, 10);
+        PdfReaderContentParser parser = new PdfReaderContentParser(reader);
+        parser.setFormXObjectCache(cache);
+        Assert.assertEquals("Too large to be cached", parser.processContent(1, new SimpleTextExtractionStrategy()).getResultantText());
+        Assert.assertEquals(0, cache.getSize());
+        reader.close();
+    }
+
+    private static class EventRecorder implements RenderListener {
+        final List<String> events = new ArrayList<String>();
+
+        public void beginTextBlock() {
+            events.add("begin");
+        }
+
+        public void renderText(TextRenderInfo renderInfo) {
+            Vector start = renderInfo.getBaseline().getStartPoint();
+            events.add("text " + renderInfo.getText() + " at " + start.get(Vector.I1) + ", " + start.get(Vector.I2));
+        }
+
+        public void endTextBlock() {
+            events.add("end");
+        }
+
+        public void renderImage(ImageRenderInfo renderInfo) {
+            events.add("image " + renderInfo.getImageCTM() + " " + renderInfo.getRef());
+        }
+    }
+}
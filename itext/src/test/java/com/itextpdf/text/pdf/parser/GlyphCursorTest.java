@@ -0,0 +1,145 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf.parser;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.pdf.BaseFont;
+import com.itextpdf.text.pdf.PdfContentByte;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.PdfWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+public class GlyphCursorTest {
+
+    @Test
+    public void sameGlyphsAsCharacterRenderInfosTest() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, baos);
+        document.open();
+        PdfContentByte cb = writer.getDirectContent();
+        cb.beginText();
+        cb.setFontAndSize(BaseFont.createFont(), 12);
+        cb.setTextMatrix(0.8f, 0.3f, -0.3f, 0.8f, 100, 700);
+        cb.setWordSpacing(3);
+        cb.setCharacterSpacing(0.5f);
+        cb.setHorizontalScaling(80);
+        cb.setTextRise(2);
+        cb.showText("Some words, spaced ");
+        cb.setTextMatrix(100, 600);
+        cb.setFontAndSize(BaseFont.createFont(BaseFont.COURIER, BaseFont.CP1252, false), 10);
+        cb.showText("café € 10");
+        cb.endText();
+        document.close();
+
+        assertSameGlyphs(new PdfReader(baos.toByteArray()));
+    }
+
+    @Test
+    public void sameGlyphsInExistingDocumentsTest() throws Exception {
+        assertSameGlyphs(new PdfReader(getClass().getResourceAsStream("HighlightItemsTest/page229.pdf")));
+        assertSameGlyphs(new PdfReader(getClass().getResourceAsStream("TextRenderInfoTest/japanese_text.pdf")));
+        assertSameGlyphs(new PdfReader(getClass().getResourceAsStream("PdfTextExtractorUnicodeIdentityTest/user10.pdf")));
+    }
+
+    private void assertSameGlyphs(PdfReader reader) throws Exception {
+        PdfReaderContentParser parser = new PdfReaderContentParser(reader);
+        GlyphComparisonListener listener = new GlyphComparisonListener();
+        for (int page = 1; page <= reader.getNumberOfPages(); ++page)
+            parser.processContent(page, listener);
+        Assert.assertTrue(listener.glyphs > 0);
+        reader.close();
+    }
+
+    private static class GlyphComparisonListener implements RenderListener {
+        int glyphs = 0;
+        GlyphCursor cursor;
+        final float[] line = new float[4];
+
+        public void beginTextBlock() {
+        }
+
+        public void renderText(TextRenderInfo renderInfo) {
+            List<TextRenderInfo> characters = renderInfo.getCharacterRenderInfos();
+            if (cursor == null)
+                cursor = renderInfo.getGlyphCursor();
+            else
+                cursor.reset(renderInfo);
+            for (TextRenderInfo character : characters) {
+                Assert.assertTrue(cursor.next());
+                Assert.assertEquals(character.getText(), cursor.getText());
+                Assert.assertTrue(Arrays.equals(character.getPdfString().getBytes(), cursor.getPdfString().getBytes()));
+                assertSameLine(character.getBaseline(), cursor.getBaseline(line));
+                assertSameLine(character.getAscentLine(), cursor.getAscentLine(line));
+                assertSameLine(character.getDescentLine(), cursor.getDescentLine(line));
+                Assert.assertEquals(character.getSingleSpaceWidth(), cursor.getSingleSpaceWidth(), 0);
+                TextRenderInfo glyphInfo = cursor.getTextRenderInfo();
+                Assert.assertEquals(character.getText(), glyphInfo.getText());
+                Assert.assertEquals(character.getBaseline().getStartPoint(), glyphInfo.getBaseline().getStartPoint());
+                Assert.assertEquals(character.getBaseline().getEndPoint(), glyphInfo.getBaseline().getEndPoint());
+                ++glyphs;
+            }
+            Assert.assertFalse(cursor.next());
+        }
+
+        private static void assertSameLine(LineSegment expected, float[] actual) {
+            Assert.assertEquals(expected.getStartPoint().get(Vector.I1), actual[0], 0);
+            Assert.assertEquals(expected.getStartPoint().get(Vector.I2), actual[1], 0);
+            Assert.assertEquals(expected.getEndPoint().get(Vector.I1), actual[2], 0);
+            Assert.assertEquals(expected.getEndPoint().get(Vector.I2), actual[3], 0);
+        }
+
+        public void endTextBlock() {
+        }
+
+        public void renderImage(ImageRenderInfo renderInfo) {
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf.parser;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.ExceptionConverter;
+import com.itextpdf.text.Image;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.PdfWriter;
+import com.itextpdf.text.pdf.RandomAccessFileOrArray;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+public class ImageExtractorTest {
+
+    @Test
+    public void extractTest() throws Exception {
+        byte[] jpeg = createImage("jpg", 60, 40);
+        byte[] pdf = createPdf(jpeg, createImage("png", 30, 20));
+
+        RecordingSink sink = new RecordingSink();
+        new ImageExtractor(sink).extract(new PdfReader(pdf));
+        Assert.assertEquals(5, sink.encoded.size());
+        Assert.assertEquals(5, sink.decoded.size());
+        for (byte[] data : sink.encoded)
+            Assert.assertTrue(Arrays.equals(jpeg, data));
+        for (BufferedImage raster : sink.decoded) {
+            Assert.assertEquals(30, raster.getWidth());
+            Assert.assertEquals(20, raster.getHeight());
+        }
+        Assert.assertEquals(Arrays.asList(1, 1, 2, 2, 3, 3, 4, 4, 5, 5), sink.pages);
+    }
+
+    @Test
+    public void parallelExtractTest() throws Exception {
+        byte[] pdf = createPdf(createImage("jpg", 60, 40), createImage("png", 30, 20));
+
+        RecordingSink sink = new RecordingSink();
+        ImageExtractor extractor = new ImageExtractor(sink);
+        // the jpeg images are decoded too
+        extractor.setEncodedTypes();
+        extractor.setMaxPendingImages(2);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            extractor.setExecutor(executor);
+            extractor.extract(new PdfReader(pdf));
+        }
+        finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(0, sink.encoded.size());
+        Assert.assertEquals(10, sink.decoded.size());
+        Collections.sort(sink.pages);
+        Assert.assertEquals(Arrays.asList(1, 1, 2, 2, 3, 3, 4, 4, 5, 5), sink.pages);
+        Assert.assertTrue(sink.maxConcurrent <= 2);
+    }
+
+    @Test
+    public void partialReaderTest() throws Exception {
+        // the images of a partially read document are decoded on the parsing thread, only the sink runs on the executor
+        byte[] pdf = createPdf(createImage("jpg", 60, 40), createImage("png", 30, 20));
+        RecordingSink sink = new RecordingSink();
+        ImageExtractor extractor = new ImageExtractor(sink);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        PdfReader reader = new PdfReader(new RandomAccessFileOrArray(pdf), null);
+        Assert.assertTrue(reader.isPartial());
+        try {
+            extractor.setExecutor(executor);
+            extractor.extract(reader);
+        }
+        finally {
+            executor.shutdown();
+            reader.close();
+        }
+        Assert.assertEquals(5, sink.encoded.size());
+        Assert.assertEquals(5, sink.decoded.size());
+        Collections.sort(sink.pages);
+        Assert.assertEquals(Arrays.asList(1, 1, 2, 2, 3, 3, 4, 4, 5, 5), sink.pages);
+    }
+
+    @Test
+    public void rejectedImageTest() throws Exception {
+        byte[] pdf = createPdf(createImage("jpg", 60, 40), createImage("png", 30, 20));
+        ExecutorService executor = Executors.newFixedThreadPool(1);
+        executor.shutdown();
+        ImageExtractor extractor = new ImageExtractor(new RecordingSink());
+        extractor.setExecutor(executor);
+        try {
+            extractor.extract(new PdfReader(pdf));
+            Assert.fail("The executor is expected to reject the image");
+        }
+        catch (ExceptionConverter e) {
+            // the parser wraps the exceptions of the listener
+            Assert.assertTrue(e.getException() instanceof RejectedExecutionException);
+        }
+    }
+
+    @Test
+    public void sinkExceptionTest() throws Exception {
+        byte[] pdf = createPdf(createImage("jpg", 60, 40), createImage("png", 30, 20));
+        ImageExtractor extractor = new ImageExtractor(new RecordingSink() {
+            public void writeDecoded(ImageExtractor.ExtractedImage image, BufferedImage raster) throws IOException {
+                throw new IOException("disk full");
+            }
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            extractor.setExecutor(executor);
+            extractor.extract(new PdfReader(pdf));
+            Assert.fail("The exception of the sink is expected");
+        }
+        catch (IOException e) {
+            Assert.assertEquals("disk full", e.getMessage());
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    private static byte[] createImage(String format, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(0, 0, width, height);
+        graphics.setColor(Color.YELLOW);
+        graphics.fillOval(0, 0, width, height);
+        graphics.dispose();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(image, format, baos);
+        return baos.toByteArray();
+    }
+
+    private static byte[] createPdf(byte[] jpeg, byte[] png) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter.getInstance(document, baos);
+        document.open();
+        for (int page = 1; page <= 5; ++page) {
+            document.add(Image.getInstance(jpeg));
+            document.add(Image.getInstance(png));
+            document.newPage();
+        }
+        document.close();
+        return baos.toByteArray();
+    }
+
+    private static class RecordingSink implements ImageExtractor.ImageSink {
+        final List<byte[]> encoded = new ArrayList<byte[]>();
+        final List<BufferedImage> decoded = new ArrayList<BufferedImage>();
+        final List<Integer> pages = new ArrayList<Integer>();
+        int concurrent = 0;
+        int maxConcurrent = 0;
+
+        public synchronized void writeEncoded(ImageExtractor.ExtractedImage image, PdfImageObject.ImageBytesType type, byte[] data) {
+            Assert.assertEquals(PdfImageObject.ImageBytesType.JPG, type);
+            encoded.add(data);
+            pages.add(image.getPageNumber());
+        }
+
+        public void writeDecoded(ImageExtractor.ExtractedImage image, BufferedImage raster) throws IOException {
+            synchronized (this) {
+                maxConcurrent = Math.max(maxConcurrent, ++concurrent);
+            }
+            try {
+                Thread.sleep(10);
+            }
+            catch (InterruptedException e) {
+                throw new IOException();
+            }
+            synchronized (this) {
+                --concurrent;
+                decoded.add(raster);
+                pages.add(image.getPageNumber());
+            }
+        }
+    }
+}
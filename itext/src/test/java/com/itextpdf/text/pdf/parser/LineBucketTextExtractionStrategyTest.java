@@ -0,0 +1,128 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf.parser;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.pdf.BaseFont;
+import com.itextpdf.text.pdf.PdfContentByte;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.PdfWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+public class LineBucketTextExtractionStrategyTest {
+
+    @Test
+    public void sameTextAsLocationStrategyTest() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, baos);
+        document.open();
+        PdfContentByte cb = writer.getDirectContent();
+        BaseFont font = BaseFont.createFont();
+        Random random = new Random(42);
+        cb.beginText();
+        cb.setFontAndSize(font, 8);
+        // a table written column by column, in random order, with some super and subscripts
+        for (int k = 0; k < 600; ++k) {
+            int row = random.nextInt(60);
+            int column = random.nextInt(10);
+            cb.setTextMatrix(30 + column * 55, 780 - row * 12);
+            cb.setTextRise(k % 7 == 0 ? 3 : k % 11 == 0 ? -2 : 0);
+            cb.showText("c" + row + "." + column + (k % 5 == 0 ? " " : ""));
+        }
+        cb.setTextRise(0);
+        // rotated text and glyphs touching each other
+        for (int k = 0; k < 20; ++k) {
+            cb.setTextMatrix(0, 1, -1, 0, 580, 50 + k * 30);
+            cb.showText("up" + k);
+            cb.setTextMatrix(1, 0, 0, 1, 300 + (k % 4) * 4, 20);
+            cb.showText(String.valueOf(k % 10));
+        }
+        cb.endText();
+        document.close();
+
+        PdfReader reader = new PdfReader(baos.toByteArray());
+        String expected = PdfTextExtractor.getTextFromPage(reader, 1, new LocationTextExtractionStrategy());
+        LineBucketTextExtractionStrategy strategy = new LineBucketTextExtractionStrategy();
+        String text = PdfTextExtractor.getTextFromPage(reader, 1, strategy);
+        Assert.assertEquals(expected, text);
+        Assert.assertSame(text, strategy.getResultantText());
+        reader.close();
+    }
+
+    @Test
+    public void resultUpdatedAfterNewTextTest() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, baos);
+        document.open();
+        PdfContentByte cb = writer.getDirectContent();
+        cb.beginText();
+        cb.setFontAndSize(BaseFont.createFont(), 12);
+        cb.setTextMatrix(200, 700);
+        cb.showText("world");
+        cb.setTextMatrix(100, 700);
+        cb.showText("Hello");
+        cb.endText();
+        document.close();
+
+        PdfReader reader = new PdfReader(baos.toByteArray());
+        LineBucketTextExtractionStrategy strategy = new LineBucketTextExtractionStrategy();
+        PdfReaderContentParser parser = new PdfReaderContentParser(reader);
+        parser.processContent(1, strategy);
+        Assert.assertEquals("Hello world", strategy.getResultantText());
+        // the page parsed twice gives the same words twice on the line
+        parser.processContent(1, strategy);
+        LocationTextExtractionStrategy location = new LocationTextExtractionStrategy();
+        parser.processContent(1, location);
+        parser.processContent(1, location);
+        Assert.assertEquals(location.getResultantText(), strategy.getResultantText());
+        reader.close();
+    }
+}
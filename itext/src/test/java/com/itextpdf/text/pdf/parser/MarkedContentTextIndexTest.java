@@ -0,0 +1,85 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf.parser;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.pdf.PdfDictionary;
+import com.itextpdf.text.pdf.PdfName;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.PdfWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+
+public class MarkedContentTextIndexTest {
+
+    @Test
+    public void sameTextAsFilterTest() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, baos);
+        writer.setTagged();
+        document.open();
+        for (int k = 0; k < 10; ++k)
+            document.add(new Paragraph("Paragraph " + k + " with some text that is long enough to wrap on the next line of the page."));
+        document.close();
+
+        PdfReader reader = new PdfReader(baos.toByteArray());
+        PdfDictionary page = reader.getPageN(1);
+        MarkedContentTextIndex index = MarkedContentTextIndex.create(page);
+        Assert.assertTrue(index.getMcids().size() >= 10);
+        for (Integer mcid : index.getMcids()) {
+            FilteredTextRenderListener listener = new FilteredTextRenderListener(
+                    new SimpleTextExtractionStrategy(), new MarkedContentRenderFilter(mcid.intValue()));
+            new PdfContentStreamProcessor(listener).processContent(PdfReader.getPageContent(page), page.getAsDict(PdfName.RESOURCES));
+            Assert.assertEquals(listener.getResultantText(), index.getText(mcid.intValue()));
+        }
+        Assert.assertTrue(index.getText(index.getMcids().iterator().next()).startsWith("Paragraph"));
+        Assert.assertEquals("", index.getText(1000));
+        reader.close();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf.parser;
+
+import com.itextpdf.awt.geom.Rectangle;
+import com.itextpdf.awt.geom.Rectangle2D;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.Image;
+import com.itextpdf.text.pdf.BaseFont;
+import com.itextpdf.text.pdf.PdfContentByte;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.PdfWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+
+public class MultiRegionTextExtractorTest {
+
+    @Test
+    public void sameTextAsRegionFilterTest() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, baos);
+        document.open();
+        PdfContentByte cb = writer.getDirectContent();
+        cb.beginText();
+        cb.setFontAndSize(BaseFont.createFont(), 10);
+        for (int row = 0; row < 20; ++row) {
+            for (int column = 0; column < 5; ++column) {
+                cb.setTextMatrix(50 + column * 100, 750 - row * 30);
+                cb.showText("Field " + row + "-" + column);
+            }
+        }
+        cb.endText();
+        document.close();
+
+        Rectangle2D[] regions = new Rectangle2D[60];
+        for (int k = 0; k < regions.length; ++k) {
+            // some regions span several fields, some none
+            regions[k] = new Rectangle(40 + (k % 6) * 90, 740 - (k / 6) * 60, 80 + (k % 3) * 50, 25 + (k % 4) * 20);
+        }
+        PdfReader reader = new PdfReader(baos.toByteArray());
+        String[] text = PdfTextExtractor.getTextFromPage(reader, 1, regions);
+        Assert.assertEquals(regions.length, text.length);
+        boolean found = false;
+        for (int k = 0; k < regions.length; ++k) {
+            String expected = PdfTextExtractor.getTextFromPage(reader, 1, new FilteredTextRenderListener(
+                    new LocationTextExtractionStrategy(), new RegionTextRenderFilter(regions[k])));
+            Assert.assertEquals("region " + k, expected, text[k]);
+            found |= expected.length() > 0;
+        }
+        Assert.assertTrue(found);
+        Assert.assertEquals("Field 0-0", PdfTextExtractor.getTextFromPage(reader, 1, new Rectangle(45, 745, 50, 10))[0]);
+        reader.close();
+    }
+
+    @Test
+    public void imageRegionTest() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, baos);
+        document.open();
+        Image image = Image.getInstance(2, 2, 1, 8, new byte[4]);
+        // rotated, the bounds of the image are (100, 500) to (200, 600)
+        writer.getDirectContent().addImage(image, 0, 100, -100, 0, 200, 500);
+        document.close();
+
+        Rectangle2D[] regions = {new Rectangle(150, 550, 10, 10), new Rectangle(300, 550, 10, 10), new Rectangle(190, 400, 50, 150)};
+        final int[] images = new int[regions.length];
+        TextExtractionStrategy[] strategies = new TextExtractionStrategy[regions.length];
+        for (int k = 0; k < regions.length; ++k) {
+            final int region = k;
+            strategies[k] = new LocationTextExtractionStrategy() {
+                @Override
+                public void renderImage(ImageRenderInfo renderInfo) {
+                    ++images[region];
+                }
+            };
+        }
+        PdfReader reader = new PdfReader(baos.toByteArray());
+        new PdfReaderContentParser(reader).processContent(1, new MultiRegionTextExtractor(regions, strategies));
+        reader.close();
+        Assert.assertArrayEquals(new int[] {1, 0, 1}, images);
+    }
+}
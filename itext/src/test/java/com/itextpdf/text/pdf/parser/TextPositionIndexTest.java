@@ -0,0 +1,248 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf.parser;
+
+import com.itextpdf.awt.geom.Rectangle2D;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.pdf.BaseFont;
+import com.itextpdf.text.pdf.PdfContentByte;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.PdfWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.regex.Pattern;
+
+public class TextPositionIndexTest {
+
+    @Test
+    public void searchTest() throws Exception {
+        PdfReader reader = new PdfReader(createPdf("Invoice"));
+        TextPositionIndex index = TextPositionIndex.create(reader);
+        Assert.assertEquals(2, index.getNumberOfPages());
+        Assert.assertEquals("Invoice 1 total 250 EUR\nsecond line", index.getPageText(1));
+
+        List<TextPositionIndex.Hit> hits = index.search("total");
+        Assert.assertEquals(2, hits.size());
+        Assert.assertEquals(1, hits.get(0).getPage());
+        Assert.assertEquals(2, hits.get(1).getPage());
+        List<Rectangle2D> rectangles = hits.get(0).getRectangles();
+        Assert.assertEquals(1, rectangles.size());
+        // "total" is drawn at x = 100 + width of "Invoice 1 ", on the baseline y = 700
+        BaseFont font = BaseFont.createFont();
+        float x = 100 + font.getWidthPoint("Invoice 1 ", 12);
+        Rectangle2D box = rectangles.get(0);
+        Assert.assertEquals(x, box.getMinX(), 0.1);
+        Assert.assertEquals(x + font.getWidthPoint("total", 12), box.getMaxX(), 0.1);
+        Assert.assertTrue(box.getMinY() < 700 && box.getMaxY() > 700 + 6);
+
+        hits = index.search(Pattern.compile("\\d+ EUR"));
+        Assert.assertEquals(2, hits.size());
+        Assert.assertEquals("250 EUR", hits.get(0).getText());
+        Assert.assertEquals("500 EUR", hits.get(1).getText());
+
+        // a hit over two lines has a rectangle per line
+        hits = index.search("EUR\nsecond");
+        Assert.assertEquals(2, hits.size());
+        Assert.assertEquals(2, hits.get(0).getRectangles().size());
+
+        // the text of the pages follows one another, but a match spanning two pages isn't a hit
+        Assert.assertTrue(index.search("lineInvoice").isEmpty());
+        hits = index.search("line");
+        Assert.assertEquals(2, hits.size());
+        Assert.assertEquals(1, hits.get(0).getPage());
+        Assert.assertEquals(2, hits.get(1).getPage());
+
+        Assert.assertTrue(index.search("missing").isEmpty());
+        reader.close();
+    }
+
+    @Test
+    public void sidecarTest() throws Exception {
+        byte[] pdf = createPdf("Invoice");
+        PdfReader reader = new PdfReader(pdf);
+        TextPositionIndex index = TextPositionIndex.create(reader);
+        ByteArrayOutputStream sidecar = new ByteArrayOutputStream();
+        index.write(sidecar);
+
+        TextPositionIndex read = TextPositionIndex.read(new ByteArrayInputStream(sidecar.toByteArray()), reader);
+        Assert.assertNotNull(read);
+        Assert.assertEquals(index.getPageText(1), read.getPageText(1));
+        Assert.assertEquals(index.getPageText(2), read.getPageText(2));
+        List<TextPositionIndex.Hit> expected = index.search("EUR");
+        List<TextPositionIndex.Hit> actual = read.search("EUR");
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int k = 0; k < expected.size(); ++k) {
+            Assert.assertEquals(expected.get(k).getPage(), actual.get(k).getPage());
+            Assert.assertEquals(expected.get(k).getRectangles(), actual.get(k).getRectangles());
+        }
+
+        // the index of another document isn't used
+        PdfReader other = new PdfReader(createPdf("Receipt"));
+        Assert.assertNull(TextPositionIndex.read(new ByteArrayInputStream(sidecar.toByteArray()), other));
+        other.close();
+        reader.close();
+    }
+
+    @Test
+    public void getInstanceTest() throws Exception {
+        File sidecar = File.createTempFile("index", ".idx");
+        sidecar.delete();
+        try {
+            PdfReader reader = new PdfReader(createPdf("Invoice"));
+            TextPositionIndex index = TextPositionIndex.getInstance(reader, sidecar);
+            Assert.assertTrue(sidecar.isFile());
+            Assert.assertEquals(2, index.search("EUR").size());
+            long length = sidecar.length();
+            index = TextPositionIndex.getInstance(reader, sidecar);
+            Assert.assertEquals(2, index.search("EUR").size());
+            Assert.assertEquals(length, sidecar.length());
+            reader.close();
+
+            // the sidecar of another document is replaced
+            reader = new PdfReader(createPdf("Receipt"));
+            index = TextPositionIndex.getInstance(reader, sidecar);
+            Assert.assertEquals(2, index.search("Receipt").size());
+            InputStream in = new FileInputStream(sidecar);
+            Assert.assertNotNull(TextPositionIndex.read(in, reader));
+            in.close();
+            reader.close();
+        }
+        finally {
+            sidecar.delete();
+        }
+    }
+
+    @Test
+    public void corruptSidecarTest() throws Exception {
+        File sidecar = File.createTempFile("index", ".idx");
+        File backup = new File(sidecar.getPath() + ".bak");
+        try {
+            byte[] pdf = createPdf("Invoice");
+            PdfReader reader = new PdfReader(pdf);
+            ByteArrayOutputStream valid = new ByteArrayOutputStream();
+            TextPositionIndex.create(reader).write(valid);
+            byte[] bytes = valid.toByteArray();
+            // the magic number and the document key, then a page count larger than the file
+            int keyLength = ((bytes[4] & 0xff) << 24) | ((bytes[5] & 0xff) << 16) | ((bytes[6] & 0xff) << 8) | (bytes[7] & 0xff);
+            ByteArrayOutputStream corrupt = new ByteArrayOutputStream();
+            corrupt.write(bytes, 0, 8 + keyLength);
+            new DataOutputStream(corrupt).writeInt(Integer.MAX_VALUE);
+            try {
+                TextPositionIndex.read(new ByteArrayInputStream(corrupt.toByteArray()), reader);
+                Assert.fail("A corrupt index is expected to be rejected");
+            }
+            catch (IOException e) {
+                // expected
+            }
+
+            // a corrupt or truncated sidecar is replaced
+            byte[] truncated = new byte[bytes.length / 2];
+            System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+            byte[][] sidecars = {corrupt.toByteArray(), truncated};
+            for (byte[] content : sidecars) {
+                write(sidecar, content);
+                TextPositionIndex index = TextPositionIndex.getInstance(reader, sidecar);
+                Assert.assertEquals(2, index.search("EUR").size());
+                InputStream in = new FileInputStream(sidecar);
+                Assert.assertNotNull(TextPositionIndex.read(in, reader));
+                in.close();
+            }
+
+            // the index left aside by an incomplete save is used
+            Assert.assertTrue(sidecar.renameTo(backup));
+            Assert.assertEquals(2, TextPositionIndex.getInstance(reader, sidecar).search("EUR").size());
+            Assert.assertFalse(sidecar.exists());
+            reader.close();
+        }
+        finally {
+            sidecar.delete();
+            backup.delete();
+        }
+    }
+
+    private static void write(File file, byte[] content) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content);
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    private static byte[] createPdf(String title) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, baos);
+        document.open();
+        BaseFont font = BaseFont.createFont();
+        for (int page = 1; page <= 2; ++page) {
+            PdfContentByte cb = writer.getDirectContent();
+            cb.beginText();
+            cb.setFontAndSize(font, 12);
+            cb.setTextMatrix(100, 700);
+            cb.showText(title + " " + page + " ");
+            cb.showText("total");
+            cb.showText(" " + (page * 250) + " EUR");
+            cb.setTextMatrix(100, 680);
+            cb.showText("second line");
+            cb.endText();
+            document.newPage();
+        }
+        document.close();
+        return baos.toByteArray();
+    }
+}
@@ -0,0 +1,139 @@
+package com.itextpdf.xmp.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.itextpdf.xmp.XMPConst;
+import com.itextpdf.xmp.XMPError;
+import com.itextpdf.xmp.XMPException;
+import com.itextpdf.xmp.XMPMeta;
+import com.itextpdf.xmp.XMPMetaFactory;
+import com.itextpdf.xmp.options.ParseOptions;
+import com.itextpdf.xmp.options.SerializeOptions;
+
+public class XMPMetaParserTest {
+
+    private static final String PACKET =
+            "<?xpacket begin=\"﻿\" id=\"W5M0MpCehiHzreSzNTczkc9d\"?>\n" +
+            "<x:xmpmeta xmlns:x=\"adobe:ns:meta/\">\n" +
+            "  <rdf:RDF xmlns:rdf=\"http://www.w3.org/1999/02/22-rdf-syntax-ns#\">\n" +
+            "    <rdf:Description rdf:about=\"\" xmlns:xmp=\"http://ns.adobe.com/xap/1.0/\"\n" +
+            "        xmp:ModifyDate=\"2014-01-01T00:00:00Z\" xmp:CreatorTool=\"iText &amp; friends\"\n" +
+            "        xmp:CreateDate=\"2013-01-01T00:00:00Z\">\n" +
+            "      <xmp:Label xml:lang=\"en\">label</xmp:Label>\n" +
+            "      <xmp:Nickname/>\n" +
+            "      <xmp:BaseURL rdf:resource=\"http://itextpdf.com/\"/>\n" +
+            "    </rdf:Description>\n" +
+            "    <rdf:Description rdf:about=\"\" xmlns:dc=\"http://purl.org/dc/elements/1.1/\">\n" +
+            "      <dc:title><rdf:Alt><rdf:li xml:lang=\"x-default\">Title é€𝄞</rdf:li>" +
+            "<rdf:li xml:lang=\"de\">Titel</rdf:li></rdf:Alt></dc:title>\n" +
+            "      <dc:subject><rdf:Bag><rdf:li>one</rdf:li><rdf:li>  two  </rdf:li></rdf:Bag></dc:subject>\n" +
+            "      <dc:creator><rdf:Seq><rdf:li>Bruno</rdf:li></rdf:Seq></dc:creator>\n" +
+            "      <dc:source rdf:parseType=\"Resource\"><rdf:value>src</rdf:value><dc:type>qual</dc:type></dc:source>\n" +
+            "      <dc:rights xml:lang=\"fr\"><rdf:Description><rdf:value>droits</rdf:value></rdf:Description></dc:rights>\n" +
+            "      <iX:changes xmlns:iX=\"http://ns.adobe.com/iX/1.0/\">garbage<rdf:Bag/></iX:changes>\n" +
+            "    </rdf:Description>\n" +
+            "    <rdf:Description rdf:about=\"\" xmlns:xmpMM=\"http://ns.adobe.com/xap/1.0/mm/\"\n" +
+            "        xmlns:stRef=\"http://ns.adobe.com/xap/1.0/sType/ResourceRef#\">\n" +
+            "      <xmpMM:DerivedFrom stRef:instanceID=\"uuid:1\" stRef:documentID=\"uuid:2\"/>\n" +
+            "      <xmpMM:Ingredients><rdf:Bag><rdf:li><stRef:ResourceRef stRef:filePath=\"a.pdf\"/></rdf:li></rdf:Bag>" +
+            "</xmpMM:Ingredients>\n" +
+            "    </rdf:Description>\n" +
+            "  </rdf:RDF>\n" +
+            "</x:xmpmeta>\n" +
+            "<?xpacket end=\"w\"?>";
+
+    @Test
+    public void streamingParserBuildsSameTreeTest() throws XMPException {
+        XMPMeta dom = XMPMetaFactory.parseFromString(PACKET);
+        XMPMeta sax = XMPMetaFactory.parseFromString(PACKET, new ParseOptions().setStreamingParser(true));
+        Assert.assertEquals(dom.dumpObject(), sax.dumpObject());
+        Assert.assertEquals(serialize(dom), serialize(sax));
+        Assert.assertEquals(((XMPMetaImpl) dom).getPacketHeader(), ((XMPMetaImpl) sax).getPacketHeader());
+        Assert.assertEquals("Title é€𝄞",
+                sax.getLocalizedText(XMPConst.NS_DC, "title", "", XMPConst.X_DEFAULT).getValue());
+    }
+
+    @Test
+    public void streamingParserFromBufferTest() throws Exception {
+        byte[] packet = PACKET.getBytes("UTF-8");
+        XMPMeta dom = XMPMetaFactory.parseFromBuffer(packet);
+        XMPMeta sax = XMPMetaFactory.parseFromBuffer(packet, new ParseOptions().setStreamingParser(true));
+        Assert.assertEquals(dom.dumpObject(), sax.dumpObject());
+    }
+
+    @Test
+    public void streamingParserWithoutRootTest() throws XMPException {
+        String xml = "<root><x:xmpmeta xmlns:x=\"adobe:ns:meta/\"/>" +
+                "<rdf:RDF xmlns:rdf=\"http://www.w3.org/1999/02/22-rdf-syntax-ns#\"/></root>";
+        XMPMeta dom = XMPMetaFactory.parseFromString(xml);
+        XMPMeta sax = XMPMetaFactory.parseFromString(xml, new ParseOptions().setStreamingParser(true));
+        Assert.assertEquals(dom.dumpObject(), sax.dumpObject());
+        Assert.assertFalse(sax.iterator().hasNext());
+    }
+
+    @Test
+    public void streamingParserErrorsTest() {
+        String rdf = "<rdf:RDF xmlns:rdf=\"http://www.w3.org/1999/02/22-rdf-syntax-ns#\" " +
+                "xmlns:dc=\"http://purl.org/dc/elements/1.1/\"><rdf:Description>";
+        assertSameError(rdf + "<dc:format rdf:resource=\"a\"> </dc:format></rdf:Description></rdf:RDF>");
+        assertSameError(rdf + "<dc:format>text<rdf:Bag/></dc:format></rdf:Description></rdf:RDF>");
+        assertSameError(rdf + "<dc:format><rdf:Bag/><rdf:Bag/></dc:format></rdf:Description></rdf:RDF>");
+        assertSameError(rdf + "<dc:format rdf:parseType=\"Literal\"/></rdf:Description></rdf:RDF>");
+        assertSameError(rdf + "text</rdf:Description></rdf:RDF>");
+        assertSameError(rdf + "<dc:format rdf:value=\"a\" rdf:resource=\"b\"/></rdf:Description></rdf:RDF>");
+        assertSameError(rdf + "<rdf:li>a</rdf:li></rdf:Description></rdf:RDF>");
+        assertSameError(rdf + "<dc:format></rdf:Description></rdf:RDF>");
+    }
+
+    @Test
+    public void utf8SerializationTest() throws Exception {
+        XMPMeta xmp = XMPMetaFactory.parseFromString(PACKET, new ParseOptions().setStreamingParser(true));
+        byte[] utf8 = XMPMetaFactory.serializeToBuffer(xmp, new SerializeOptions().setPadding(1000));
+        // the padding of UTF-16 is given in bytes
+        String utf16 = XMPMetaFactory.serializeToString(xmp, new SerializeOptions().setPadding(2000));
+        Assert.assertArrayEquals(utf16.getBytes("UTF-8"), utf8);
+    }
+
+    @Test
+    public void utf8WriterTest() throws Exception {
+        String text = "ascii \u00e9\u20ac \uD834\uDD1E \uD834 broken \uDD1E surrogates \uD834";
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        OutputStreamWriter jdk = new OutputStreamWriter(expected, "UTF-8");
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        UTF8Writer writer = new UTF8Writer(actual);
+        for (int i = 0; i < text.length(); i++) {
+            jdk.write(text.charAt(i));
+            writer.write(text.charAt(i));
+        }
+        jdk.write(text);
+        writer.write(text);
+        jdk.close();
+        writer.close();
+        Assert.assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+    }
+
+    private static String serialize(XMPMeta xmp) throws XMPException {
+        return XMPMetaFactory.serializeToString(xmp, new SerializeOptions(SerializeOptions.OMIT_PACKET_WRAPPER));
+    }
+
+    private static void assertSameError(String xml) {
+        int domError = parseError(xml, false);
+        Assert.assertTrue(domError != -1);
+        Assert.assertEquals(xml, domError, parseError(xml, true));
+    }
+
+    private static int parseError(String xml, boolean streaming) {
+        try {
+            XMPMetaFactory.parseFromString(xml, new ParseOptions().setStreamingParser(streaming));
+            return -1;
+        } catch (XMPException e) {
+            Assert.assertTrue(e.getErrorCode() == XMPError.BADRDF || e.getErrorCode() == XMPError.BADXMP
+                    || e.getErrorCode() == XMPError.BADXML);
+            return e.getErrorCode();
+        }
+    }
+}
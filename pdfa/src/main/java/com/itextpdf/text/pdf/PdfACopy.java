@@ -53,17 +53,20 @@ import com.itextpdf.text.pdf.interfaces.PdfAConformance;
 import com.itextpdf.text.pdf.interfaces.PdfIsoConformance;
 import com.itextpdf.text.pdf.internal.PdfAChecker;
 import com.itextpdf.text.pdf.internal.PdfAConformanceImp;
+import com.itextpdf.text.pdf.internal.PdfAVerdictCache;
 import com.itextpdf.text.xml.xmp.PdfAXmpWriter;
 import com.itextpdf.text.xml.xmp.XmpWriter;
 import com.itextpdf.xmp.XMPConst;
 import com.itextpdf.xmp.XMPMeta;
 import com.itextpdf.xmp.impl.XMPMetaParser;
+import com.itextpdf.xmp.options.ParseOptions;
 import com.itextpdf.xmp.properties.XMPProperty;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Extension of PdfCopy that will attempt to keep a file
@@ -99,10 +102,41 @@ public class PdfACopy extends PdfCopy {
         getPdfAChecker().cacheObject(iobj.getIndirectReference(), iobj.object);
     }
 
+    /**
+     * Copies a stream and runs the checks of the image dictionary on copied images.
+     */
+    @Override
+    protected PdfStream copyStream(PRStream in) throws IOException, BadPdfFormatException {
+        PdfStream out = super.copyStream(in);
+        if (PdfName.IMAGE.equals(in.getAsName(PdfName.SUBTYPE)))
+            getPdfAChecker().checkCopiedImage(this, in);
+        return out;
+    }
+
     private PdfAChecker getPdfAChecker() {
         return ((PdfAConformanceImp)pdfIsoConformance).getPdfAChecker();
     }
 
+    /**
+     * Sets a cache for the verdicts of the stateless PDF/A checks, it can be
+     * shared by all the documents of a batch.
+     * @param verdictCache the cache, or <code>null</code> to check every object
+     * @since 5.5.6
+     */
+    public void setVerdictCache(PdfAVerdictCache verdictCache) {
+        getPdfAChecker().setVerdictCache(verdictCache);
+    }
+
+    /**
+     * Sets an executor that runs the stateless PDF/A checks, e.g. the image checks,
+     * off the writer thread. A violation is thrown at the latest by <code>close()</code>.
+     * @param validationExecutor the executor, or <code>null</code> to check on the writer thread
+     * @since 5.5.6
+     */
+    public void setValidationExecutor(ExecutorService validationExecutor) {
+        getPdfAChecker().setValidationExecutor(validationExecutor);
+    }
+
     @Override
     public void addDocument(PdfReader reader) throws DocumentException, IOException {
         checkPdfAInfo(reader);
@@ -166,7 +200,7 @@ public class PdfACopy extends PdfCopy {
         XMPProperty pdfaidPart;
         try {
             metadata = reader.getMetadata();
-            xmpMeta = XMPMetaParser.parse(metadata, null);
+            xmpMeta = XMPMetaParser.parse(metadata, new ParseOptions().setStreamingParser(true));
             pdfaidConformance = xmpMeta.getProperty(XMPConst.NS_PDFA_ID, "pdfaid:conformance");
             pdfaidPart = xmpMeta.getProperty(XMPConst.NS_PDFA_ID, "pdfaid:part");
         } catch (Throwable e) {
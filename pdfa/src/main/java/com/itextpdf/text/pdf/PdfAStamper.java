@@ -45,11 +45,13 @@
 package com.itextpdf.text.pdf;
 
 import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.pdf.internal.PdfAVerdictCache;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Extension of PdfStamper that will attempt to keep a file
@@ -243,4 +245,24 @@ public class PdfAStamper extends PdfStamper {
     {
         return createSignature(reader, os, pdfVersion, tempFile, false, conformanceLevel);
     }
+
+    /**
+     * Sets a cache for the verdicts of the stateless PDF/A checks, it can be
+     * shared by all the documents of a batch.
+     * @param verdictCache the cache, or <code>null</code> to check every object
+     * @since 5.5.6
+     */
+    public void setVerdictCache(PdfAVerdictCache verdictCache) {
+        ((PdfAStamperImp)stamper).getPdfAChecker().setVerdictCache(verdictCache);
+    }
+
+    /**
+     * Sets an executor that runs the stateless PDF/A checks, e.g. the image checks,
+     * off the writer thread. A violation is thrown at the latest by <code>close()</code>.
+     * @param validationExecutor the executor, or <code>null</code> to check on the writer thread
+     * @since 5.5.6
+     */
+    public void setValidationExecutor(ExecutorService validationExecutor) {
+        ((PdfAStamperImp)stamper).getPdfAChecker().setValidationExecutor(validationExecutor);
+    }
 }
@@ -59,6 +59,7 @@ import com.itextpdf.text.xml.xmp.XmpWriter;
 import com.itextpdf.xmp.XMPConst;
 import com.itextpdf.xmp.XMPMeta;
 import com.itextpdf.xmp.impl.XMPMetaParser;
+import com.itextpdf.xmp.options.ParseOptions;
 import com.itextpdf.xmp.properties.XMPProperty;
 
 import java.io.ByteArrayOutputStream;
@@ -180,7 +181,7 @@ public class PdfAStamperImp extends PdfStamperImp {
         XMPProperty pdfaidPart = null;
         try {
             metadata = reader.getMetadata();
-            xmpMeta = XMPMetaParser.parse(metadata, null);
+            xmpMeta = XMPMetaParser.parse(metadata, new ParseOptions().setStreamingParser(true));
             pdfaidConformance = xmpMeta.getProperty(XMPConst.NS_PDFA_ID, "pdfaid:conformance");
             pdfaidPart = xmpMeta.getProperty(XMPConst.NS_PDFA_ID, "pdfaid:part");
         } catch (Throwable e) {
@@ -218,7 +219,7 @@ public class PdfAStamperImp extends PdfStamperImp {
         getPdfAChecker().cacheObject(iobj.getIndirectReference(), iobj.object);
     }
 
-    private PdfAChecker getPdfAChecker() {
+    PdfAChecker getPdfAChecker() {
         return ((PdfAConformanceImp)pdfIsoConformance).getPdfAChecker();
     }
 
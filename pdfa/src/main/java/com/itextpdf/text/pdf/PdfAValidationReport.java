@@ -0,0 +1,164 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of the validation of an existing PDF by {@link PdfAValidator}.
+ *
+ * @since 5.5.6
+ */
+public class PdfAValidationReport {
+
+    /**
+     * A single PDF/A violation found in the document.
+     */
+    public static class Violation {
+        private final int objectNumber;
+        private final int pageNumber;
+        private final String message;
+
+        /**
+         * @param objectNumber the number of the offending indirect object, 0 if unknown
+         * @param pageNumber the page the violation was found on, 0 if it isn't bound to a page
+         * @param message the message of the PdfAConformanceException
+         */
+        public Violation(int objectNumber, int pageNumber, String message) {
+            this.objectNumber = objectNumber;
+            this.pageNumber = pageNumber;
+            this.message = message;
+        }
+
+        /**
+         * @return the number of the offending indirect object, 0 if unknown
+         */
+        public int getObjectNumber() {
+            return objectNumber;
+        }
+
+        /**
+         * @return the page the violation was found on, 0 if it isn't bound to a page
+         */
+        public int getPageNumber() {
+            return pageNumber;
+        }
+
+        /**
+         * @return the message of the PdfAConformanceException
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Violation))
+                return false;
+            Violation v = (Violation) obj;
+            return objectNumber == v.objectNumber && pageNumber == v.pageNumber
+                    && (message == null ? v.message == null : message.equals(v.message));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * objectNumber + pageNumber) + (message == null ? 0 : message.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder buf = new StringBuilder();
+            if (pageNumber > 0)
+                buf.append("page ").append(pageNumber).append(": ");
+            if (objectNumber > 0)
+                buf.append("object ").append(objectNumber).append(": ");
+            return buf.append(message).toString();
+        }
+    }
+
+    private final PdfAConformanceLevel conformanceLevel;
+    private final List<Violation> violations;
+
+    /**
+     * @param conformanceLevel the conformance level the document was validated against
+     * @param violations the violations in the order they were found
+     */
+    public PdfAValidationReport(PdfAConformanceLevel conformanceLevel, List<Violation> violations) {
+        this.conformanceLevel = conformanceLevel;
+        this.violations = Collections.unmodifiableList(new ArrayList<Violation>(violations));
+    }
+
+    /**
+     * @return the conformance level the document was validated against
+     */
+    public PdfAConformanceLevel getConformanceLevel() {
+        return conformanceLevel;
+    }
+
+    /**
+     * @return <code>true</code> if no violation was found
+     */
+    public boolean isConformant() {
+        return violations.isEmpty();
+    }
+
+    /**
+     * @return the violations in the order they were found
+     */
+    public List<Violation> getViolations() {
+        return violations;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buf = new StringBuilder(String.valueOf(conformanceLevel));
+        buf.append(isConformant() ? ": conformant" : ": " + violations.size() + " violation(s)");
+        for (Violation violation : violations)
+            buf.append('\n').append(violation);
+        return buf.toString();
+    }
+}
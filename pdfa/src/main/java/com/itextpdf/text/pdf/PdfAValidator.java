@@ -0,0 +1,621 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf;
+
+import com.itextpdf.text.ExceptionConverter;
+import com.itextpdf.text.error_messages.MessageLocalization;
+import com.itextpdf.text.io.RandomAccessSourceFactory;
+import com.itextpdf.text.pdf.internal.PdfAConformanceImp;
+import com.itextpdf.text.pdf.internal.PdfIsoKeys;
+import com.itextpdf.text.pdf.internal.PdfAVerdictCache;
+import com.itextpdf.text.pdf.parser.InlineImageUtils;
+import com.itextpdf.xmp.XMPConst;
+import com.itextpdf.xmp.XMPMeta;
+import com.itextpdf.xmp.impl.XMPMetaParser;
+import com.itextpdf.xmp.options.ParseOptions;
+import com.itextpdf.xmp.properties.XMPProperty;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Validates an existing PDF against the PDF/A rules without rewriting it.
+ * The rules are the ones of the checkers used by PdfAWriter, PdfACopy and
+ * PdfAStamper, but every violation is collected in a report instead of
+ * aborting at the first one.
+ * <p>
+ * The objects of the document are read once, on the calling thread. The
+ * content streams of the pages and of the form XObjects are decoded and
+ * scanned for the graphics state nesting and the device colour spaces by
+ * the executor, if one is set. An instance can be shared by several threads.
+ * <p>
+ * Rules that are only known to the writer, e.g. for structure elements or
+ * file specifications created by iText, aren't checked.
+ *
+ * @since 5.5.6
+ */
+public class PdfAValidator {
+
+    /** The maximum depth of nested direct objects that is walked. */
+    private static final int MAX_DEPTH = 100;
+
+    private final PdfAConformanceLevel conformanceLevel;
+    private ExecutorService executor;
+    private PdfAVerdictCache verdictCache;
+
+    /**
+     * Creates a validator for the conformance level declared in the XMP
+     * metadata of each validated document.
+     */
+    public PdfAValidator() {
+        this(null);
+    }
+
+    /**
+     * Creates a validator for a fixed conformance level.
+     * @param conformanceLevel the PDF/A conformance level, ZUGFeRD levels are validated as PDF/A-3B
+     */
+    public PdfAValidator(PdfAConformanceLevel conformanceLevel) {
+        this.conformanceLevel = conformanceLevel;
+    }
+
+    /**
+     * Sets the executor that checks the content streams. The tasks never wait
+     * for each other, but the thread calling {@link #validate(PdfReader)} waits
+     * for them: don't call it from a thread of a bounded executor it uses.
+     * @param executor the executor, or <code>null</code> to check everything on the calling thread
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Sets a cache for the verdicts of the stateless checks, shared by all the
+     * validated documents.
+     * @param verdictCache the cache, or <code>null</code>
+     */
+    public void setVerdictCache(PdfAVerdictCache verdictCache) {
+        this.verdictCache = verdictCache;
+    }
+
+    /**
+     * Validates a document.
+     * @param reader the document, it may be opened in partial mode
+     * @return the report with all the violations found
+     * @throws IOException if the document can't be read
+     * @throws PdfAConformanceException if no conformance level was given and the document doesn't declare one
+     */
+    public PdfAValidationReport validate(PdfReader reader) throws IOException {
+        PdfAConformanceLevel level = conformanceLevel == null ? getConformanceLevel(reader) : conformanceLevel;
+        if (level == null)
+            throw new PdfAConformanceException(MessageLocalization.getComposedMessage("only.pdfa.documents.can.be.validated.in.PdfAValidator"));
+        switch (level) {
+            case ZUGFeRD:
+            case ZUGFeRDBasic:
+            case ZUGFeRDComfort:
+            case ZUGFeRDExtended:
+                // the ZUGFeRD attachment is checked with the XMP metadata of the writer
+                level = PdfAConformanceLevel.PDF_A_3B;
+                break;
+            default:
+                break;
+        }
+        return new Validation(reader, level).run();
+    }
+
+    /**
+     * Reads the conformance level from the pdfaid properties of the XMP metadata.
+     * @param reader the document
+     * @return the declared conformance level or <code>null</code> if there is none
+     */
+    public static PdfAConformanceLevel getConformanceLevel(PdfReader reader) {
+        try {
+            byte[] metadata = reader.getMetadata();
+            if (metadata == null)
+                return null;
+            XMPMeta xmpMeta = XMPMetaParser.parse(metadata, new ParseOptions().setStreamingParser(true));
+            XMPProperty part = xmpMeta.getProperty(XMPConst.NS_PDFA_ID, "pdfaid:part");
+            XMPProperty conformance = xmpMeta.getProperty(XMPConst.NS_PDFA_ID, "pdfaid:conformance");
+            if (part == null || conformance == null)
+                return null;
+            return PdfAConformanceLevel.valueOf("PDF_A_" + part.getValue() + conformance.getValue().toUpperCase());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * The state of the validation of one document.
+     */
+    private class Validation {
+        private final PdfReader reader;
+        private final PdfAConformanceLevel level;
+        private final PdfAWriter writer;
+        private final PdfAConformanceImp conformance;
+        private final LinkedHashSet<PdfAValidationReport.Violation> violations = new LinkedHashSet<PdfAValidationReport.Violation>();
+        private final HashSet<String> reportedObjects = new HashSet<String>();
+        private final HashSet<Integer> pageObjects = new HashSet<Integer>();
+        // the images and graphics states checked as page resources, they aren't checked again in the xref pass
+        private final HashSet<Integer> pageResources = new HashSet<Integer>();
+        private final ArrayList<Future<ContentResult>> contentResults = new ArrayList<Future<ContentResult>>();
+
+        Validation(PdfReader reader, PdfAConformanceLevel level) {
+            this.reader = reader;
+            this.level = level;
+            // the checkers ask the writer for the output intent profile and the default colour spaces
+            writer = new PdfAWriter(new PdfDocument(), new NullOutputStream(), level);
+            conformance = (PdfAConformanceImp) writer.pdfIsoConformance;
+            conformance.getPdfAChecker().setVerdictCache(verdictCache);
+        }
+
+        PdfAValidationReport run() throws IOException {
+            writer.colorProfile = readColorProfile();
+            PdfWriter.PdfTrailer trailer = new PdfWriter.PdfTrailer(0, 0, null, null, null, null, 0);
+            PdfObject encrypt = reader.getTrailer().get(PdfName.ENCRYPT);
+            if (encrypt != null)
+                trailer.put(PdfName.ENCRYPT, encrypt);
+            check(PdfIsoKeys.PDFISOKEY_TRAILER, trailer, 0, 0);
+            checkCatalog(reader.getCatalog());
+            for (int page = 1; page <= reader.getNumberOfPages(); page++) {
+                checkPage(page);
+            }
+            for (int number = 1; number < reader.getXrefSize(); number++) {
+                if (pageObjects.contains(Integer.valueOf(number)))
+                    continue;
+                checkIndirectObject(reader.getPdfObjectRelease(number), number);
+            }
+            for (Future<ContentResult> future : contentResults) {
+                ContentResult result;
+                try {
+                    result = future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ExceptionConverter(e);
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException)
+                        throw (RuntimeException) cause;
+                    if (cause instanceof Error)
+                        throw (Error) cause;
+                    throw new ExceptionConverter((Exception) cause);
+                }
+                if (result.message != null)
+                    addViolation(result.objectNumber, result.pageNumber, result.message);
+                // the colour spaces are checked on this thread, in the order of the document
+                if (result.rgbUsed)
+                    check(PdfIsoKeys.PDFISOKEY_RGB, null, result.objectNumber, result.pageNumber);
+                if (result.cmykUsed)
+                    check(PdfIsoKeys.PDFISOKEY_CMYK, null, result.objectNumber, result.pageNumber);
+                if (result.grayUsed)
+                    check(PdfIsoKeys.PDFISOKEY_GRAY, null, result.objectNumber, result.pageNumber);
+            }
+            try {
+                conformance.getPdfAChecker().close(writer);
+            } catch (RuntimeException e) {
+                addViolation(0, 0, e);
+            }
+            return new PdfAValidationReport(level, new ArrayList<PdfAValidationReport.Violation>(violations));
+        }
+
+        private void checkCatalog(PdfDictionary catalog) {
+            PdfDictionary acroForm = catalog.getAsDict(PdfName.ACROFORM);
+            if (acroForm != null) {
+                PdfAcroForm form = new PdfAcroForm(writer);
+                form.putAll(acroForm);
+                check(PdfIsoKeys.PDFISOKEY_FORM, form, getNumber(catalog.get(PdfName.ACROFORM)), 0);
+            }
+            checkAction(catalog.get(PdfName.OPENACTION), 0);
+        }
+
+        private void checkPage(int page) throws IOException {
+            PdfDictionary pageDictionary = reader.getPageN(page);
+            PdfDictionary resources = pageDictionary.getAsDict(PdfName.RESOURCES);
+            PdfDictionary colorSpaces = null;
+            if (resources != null) {
+                colorSpaces = resources.getAsDict(PdfName.COLORSPACE);
+                if (colorSpaces != null) {
+                    PdfName[] defaults = {PdfName.DEFAULTGRAY, PdfName.DEFAULTRGB, PdfName.DEFAULTCMYK};
+                    for (PdfName name : defaults) {
+                        if (colorSpaces.contains(name))
+                            writer.setDefaultColorspace(name, colorSpaces.get(name));
+                    }
+                }
+                PdfDictionary gStates = resources.getAsDict(PdfName.EXTGSTATE);
+                if (gStates != null) {
+                    for (PdfName name : gStates.getKeys()) {
+                        PdfDictionary gs = gStates.getAsDict(name);
+                        if (gs != null)
+                            checkPageResource(PdfIsoKeys.PDFISOKEY_GSTATE, gs, getNumber(gStates.get(name)), page);
+                    }
+                }
+                PdfDictionary xObjects = resources.getAsDict(PdfName.XOBJECT);
+                if (xObjects != null) {
+                    for (PdfName name : xObjects.getKeys()) {
+                        PdfObject xObject = PdfReader.getPdfObject(xObjects.get(name));
+                        if (xObject == null || !xObject.isStream())
+                            continue;
+                        PdfName subtype = ((PdfStream) xObject).getAsName(PdfName.SUBTYPE);
+                        if (PdfName.IMAGE.equals(subtype))
+                            checkPageResource(PdfIsoKeys.PDFISOKEY_IMAGE, xObject, getNumber(xObjects.get(name)), page);
+                        else if (PdfName.FORM.equals(subtype))
+                            check(PdfIsoKeys.PDFISOKEY_FORM_XOBJ, xObject, getNumber(xObjects.get(name)), page);
+                    }
+                }
+            }
+            PdfArray annots = pageDictionary.getAsArray(PdfName.ANNOTS);
+            if (annots != null) {
+                for (int i = 0; i < annots.size(); i++) {
+                    PdfDictionary annot = annots.getAsDict(i);
+                    if (annot == null)
+                        continue;
+                    int number = getNumber(annots.getPdfObject(i));
+                    PdfAnnotation annotation = new PdfAnnotation(writer, null);
+                    annotation.putAll(annot);
+                    check(PdfIsoKeys.PDFISOKEY_ANNOTATION, annotation, number, page);
+                    checkAction(annot.get(PdfName.A), page);
+                }
+            }
+
+            PRIndirectReference pageRef = reader.getPageOrigRef(page);
+            int pageNumber = pageRef == null ? 0 : pageRef.getNumber();
+            if (pageNumber > 0)
+                pageObjects.add(Integer.valueOf(pageNumber));
+            // after the resources, as a writer would do, the page check depends on the transparency found in them
+            checkObject(pageDictionary, pageNumber, page, 0);
+
+            PdfObject contents = PdfReader.getPdfObject(pageDictionary.get(PdfName.CONTENTS));
+            ArrayList<PRStream> streams = new ArrayList<PRStream>();
+            if (contents instanceof PRStream) {
+                streams.add((PRStream) contents);
+            } else if (contents != null && contents.isArray()) {
+                for (PdfObject item : (PdfArray) contents) {
+                    PdfObject stream = PdfReader.getPdfObject(item);
+                    if (stream instanceof PRStream)
+                        streams.add((PRStream) stream);
+                }
+            }
+            checkContent(streams, colorSpaces, pageNumber, page);
+        }
+
+        private void checkIndirectObject(PdfObject obj, int number) throws IOException {
+            if (obj == null)
+                return;
+            checkObject(obj, number, 0, 0);
+            if (obj.isStream()) {
+                PdfStream stream = (PdfStream) obj;
+                PdfName subtype = stream.getAsName(PdfName.SUBTYPE);
+                if (PdfName.IMAGE.equals(subtype)) {
+                    if (!pageResources.contains(Integer.valueOf(number)))
+                        check(PdfIsoKeys.PDFISOKEY_IMAGE, stream, number, 0);
+                } else if (PdfName.FORM.equals(subtype) && stream instanceof PRStream) {
+                    PdfDictionary resources = stream.getAsDict(PdfName.RESOURCES);
+                    ArrayList<PRStream> streams = new ArrayList<PRStream>();
+                    streams.add((PRStream) stream);
+                    checkContent(streams, resources == null ? null : resources.getAsDict(PdfName.COLORSPACE), number, 0);
+                }
+            } else if (obj.isDictionary()) {
+                PdfDictionary dictionary = (PdfDictionary) obj;
+                PdfName type = dictionary.getAsName(PdfName.TYPE);
+                if (PdfName.FONT.equals(type))
+                    check(PdfIsoKeys.PDFISOKEY_FONT, dictionary, number, 0);
+                else if (PdfName.EXTGSTATE.equals(type) && !pageResources.contains(Integer.valueOf(number)))
+                    check(PdfIsoKeys.PDFISOKEY_GSTATE, dictionary, number, 0);
+                else if (PdfName.ACTION.equals(type))
+                    checkAction(dictionary, 0);
+            }
+        }
+
+        /**
+         * Checks an object and its direct children, like they are checked when they are written.
+         */
+        private void checkObject(PdfObject obj, int number, int page, int depth) {
+            if (obj == null || obj.isIndirect() || depth > MAX_DEPTH)
+                return;
+            switch (obj.type()) {
+                case PdfObject.STREAM:
+                    check(PdfIsoKeys.PDFISOKEY_STREAM, obj, number, page);
+                    // fall through
+                case PdfObject.DICTIONARY:
+                    check(PdfIsoKeys.PDFISOKEY_OBJECT, obj, number, page);
+                    PdfDictionary dictionary = (PdfDictionary) obj;
+                    for (PdfName key : dictionary.getKeys())
+                        checkObject(dictionary.get(key), number, page, depth + 1);
+                    break;
+                case PdfObject.ARRAY:
+                    check(PdfIsoKeys.PDFISOKEY_OBJECT, obj, number, page);
+                    for (PdfObject item : (PdfArray) obj)
+                        checkObject(item, number, page, depth + 1);
+                    break;
+                case PdfObject.STRING:
+                case PdfObject.NUMBER:
+                    check(PdfIsoKeys.PDFISOKEY_OBJECT, obj, number, page);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void checkAction(PdfObject obj, int page) {
+            PdfObject action = PdfReader.getPdfObject(obj);
+            if (action == null || !action.isDictionary())
+                return;
+            PdfAction pdfAction = new PdfAction();
+            pdfAction.putAll((PdfDictionary) action);
+            check(PdfIsoKeys.PDFISOKEY_ACTION, pdfAction, getNumber(obj), page);
+        }
+
+        /**
+         * Reads the content streams on this thread and checks them on the executor.
+         */
+        private void checkContent(List<PRStream> streams, PdfDictionary colorSpaces, int number, int page) throws IOException {
+            if (streams.isEmpty())
+                return;
+            ArrayList<byte[]> raw = new ArrayList<byte[]>();
+            ArrayList<PdfDictionary> filters = new ArrayList<PdfDictionary>();
+            for (PRStream stream : streams) {
+                raw.add(PdfReader.getStreamBytesRaw(stream));
+                filters.add(detachFilters(stream));
+            }
+            ContentCheck task = new ContentCheck(writer, level, raw, filters, detachColorSpaces(colorSpaces), number, page);
+            if (executor == null) {
+                FutureTask<ContentResult> future = new FutureTask<ContentResult>(task);
+                future.run();
+                contentResults.add(future);
+            } else {
+                contentResults.add(executor.submit(task));
+            }
+        }
+
+        /**
+         * Copies the filter entries of a stream, resolved, so that the stream can be decoded without the reader.
+         */
+        private PdfDictionary detachFilters(PdfDictionary stream) {
+            PdfDictionary filters = new PdfDictionary();
+            PdfName[] keys = {PdfName.FILTER, PdfName.DECODEPARMS, PdfName.DP};
+            for (PdfName key : keys) {
+                PdfObject value = PdfReader.getPdfObject(stream.get(key));
+                if (value == null)
+                    continue;
+                if (value.isArray()) {
+                    PdfArray array = new PdfArray();
+                    for (PdfObject item : (PdfArray) value)
+                        array.add(detachDictionary(PdfReader.getPdfObject(item)));
+                    value = array;
+                } else {
+                    value = detachDictionary(value);
+                }
+                filters.put(key, value);
+            }
+            return filters;
+        }
+
+        private PdfObject detachDictionary(PdfObject obj) {
+            if (obj == null || !obj.isDictionary())
+                return obj == null ? PdfNull.PDFNULL : obj;
+            PdfDictionary dictionary = new PdfDictionary();
+            for (PdfName key : ((PdfDictionary) obj).getKeys())
+                dictionary.put(key, PdfReader.getPdfObject(((PdfDictionary) obj).get(key)));
+            return dictionary;
+        }
+
+        /**
+         * Copies the colour space names and families, they're needed to skip the inline images.
+         */
+        private PdfDictionary detachColorSpaces(PdfDictionary colorSpaces) {
+            if (colorSpaces == null)
+                return null;
+            PdfDictionary detached = new PdfDictionary();
+            for (PdfName key : colorSpaces.getKeys()) {
+                PdfObject value = PdfReader.getPdfObject(colorSpaces.get(key));
+                if (value != null && value.isArray() && ((PdfArray) value).size() > 0) {
+                    PdfArray family = new PdfArray();
+                    family.add(PdfReader.getPdfObject(((PdfArray) value).getPdfObject(0)));
+                    detached.put(key, family);
+                } else if (value != null && value.isName()) {
+                    detached.put(key, value);
+                }
+            }
+            return detached;
+        }
+
+        private ICC_Profile readColorProfile() {
+            PdfArray outputIntents = reader.getCatalog().getAsArray(PdfName.OUTPUTINTENTS);
+            if (outputIntents == null)
+                return null;
+            PdfStream iccProfileStream = null;
+            for (int i = 0; i < outputIntents.size(); i++) {
+                PdfDictionary outputIntentDictionary = outputIntents.getAsDict(i);
+                if (outputIntentDictionary != null) {
+                    PdfName gts = outputIntentDictionary.getAsName(PdfName.S);
+                    if (iccProfileStream == null || PdfName.GTS_PDFA1.equals(gts)) {
+                        iccProfileStream = outputIntentDictionary.getAsStream(PdfName.DESTOUTPUTPROFILE);
+                        if (iccProfileStream != null && PdfName.GTS_PDFA1.equals(gts))
+                            break;
+                    }
+                }
+            }
+            if (iccProfileStream instanceof PRStream) {
+                try {
+                    return ICC_Profile.getInstance(PdfReader.getStreamBytes((PRStream) iccProfileStream));
+                } catch (Exception e) {
+                    addViolation(getNumber(iccProfileStream.getIndRef()), 0, e);
+                }
+            }
+            return null;
+        }
+
+        private void check(int key, Object obj, int number, int page) {
+            try {
+                conformance.checkPdfIsoConformance(key, obj);
+            } catch (RuntimeException e) {
+                // a malformed object the checkers can't handle is reported as well
+                addViolation(number, page, e);
+            }
+        }
+
+        /**
+         * Checks a resource of a page. It is checked for every page using it, as
+         * the checks track the transparency of the page, but not in the xref pass.
+         */
+        private void checkPageResource(int key, PdfObject obj, int number, int page) {
+            if (number > 0)
+                pageResources.add(Integer.valueOf(number));
+            check(key, obj, number, page);
+        }
+
+        private void addViolation(int number, int page, Exception e) {
+            addViolation(number, page, e instanceof PdfAConformanceException ? e.getMessage() : e.toString());
+        }
+
+        private void addViolation(int number, int page, String message) {
+            // an object shared by several pages is reported once, for the first page
+            if (number > 0 && !reportedObjects.add(number + ":" + message))
+                return;
+            violations.add(new PdfAValidationReport.Violation(number, page, message));
+        }
+    }
+
+    private static int getNumber(PdfObject obj) {
+        return obj instanceof PdfIndirectReference ? ((PdfIndirectReference) obj).getNumber() : 0;
+    }
+
+    /**
+     * The outcome of the check of the content streams of a page or of a form XObject.
+     */
+    private static class ContentResult {
+        int objectNumber;
+        int pageNumber;
+        String message;
+        boolean rgbUsed;
+        boolean cmykUsed;
+        boolean grayUsed;
+    }
+
+    /**
+     * Decodes and scans content streams, without accessing the reader.
+     */
+    private static class ContentCheck implements Callable<ContentResult> {
+        private final PdfAWriter writer;
+        private final PdfAConformanceLevel level;
+        private final List<byte[]> raw;
+        private final List<PdfDictionary> filters;
+        private final PdfDictionary colorSpaces;
+        private final ContentResult result = new ContentResult();
+
+        ContentCheck(PdfAWriter writer, PdfAConformanceLevel level, List<byte[]> raw, List<PdfDictionary> filters,
+                     PdfDictionary colorSpaces, int objectNumber, int pageNumber) {
+            this.writer = writer;
+            this.level = level;
+            this.raw = raw;
+            this.filters = filters;
+            this.colorSpaces = colorSpaces;
+            result.objectNumber = objectNumber;
+            result.pageNumber = pageNumber;
+        }
+
+        public ContentResult call() {
+            // a checker of its own: the graphics state depth is counted per content stream
+            PdfAConformanceImp conformance = new PdfAConformanceImp(writer);
+            conformance.setConformanceLevel(level);
+            try {
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                for (int i = 0; i < raw.size(); i++) {
+                    content.write(PdfReader.decodeBytes(raw.get(i), filters.get(i)));
+                    content.write('\n');
+                }
+                PRTokeniser tokeniser = new PRTokeniser(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(content.toByteArray())));
+                PdfContentParser parser = new PdfContentParser(tokeniser);
+                ArrayList<PdfObject> operands = new ArrayList<PdfObject>();
+                while (parser.parse(operands).size() > 0) {
+                    String operator = operands.get(operands.size() - 1).toString();
+                    if ("q".equals(operator) || "Q".equals(operator)) {
+                        conformance.checkPdfIsoConformance(PdfIsoKeys.PDFISOKEY_CANVAS, operator);
+                    } else if ("rg".equals(operator) || "RG".equals(operator)) {
+                        result.rgbUsed = true;
+                    } else if ("k".equals(operator) || "K".equals(operator)) {
+                        result.cmykUsed = true;
+                    } else if ("g".equals(operator) || "G".equals(operator)) {
+                        result.grayUsed = true;
+                    } else if (("cs".equals(operator) || "CS".equals(operator)) && operands.size() > 1) {
+                        PdfObject colorSpace = operands.get(0);
+                        if (PdfName.DEVICERGB.equals(colorSpace))
+                            result.rgbUsed = true;
+                        else if (PdfName.DEVICECMYK.equals(colorSpace))
+                            result.cmykUsed = true;
+                        else if (PdfName.DEVICEGRAY.equals(colorSpace))
+                            result.grayUsed = true;
+                    } else if ("BI".equals(operator)) {
+                        InlineImageUtils.parseInlineImage(parser, colorSpaces);
+                    }
+                }
+            } catch (PdfAConformanceException e) {
+                result.message = e.getMessage();
+            } catch (Exception e) {
+                result.message = e.toString();
+            }
+            return result;
+        }
+    }
+
+    private static class NullOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
@@ -55,6 +55,7 @@ import com.itextpdf.text.pdf.interfaces.PdfAConformance;
 import com.itextpdf.text.pdf.interfaces.PdfIsoConformance;
 import com.itextpdf.text.pdf.internal.PdfAChecker;
 import com.itextpdf.text.pdf.internal.PdfAConformanceImp;
+import com.itextpdf.text.pdf.internal.PdfAVerdictCache;
 import com.itextpdf.text.xml.xmp.PdfAXmpWriter;
 import com.itextpdf.text.xml.xmp.XmpWriter;
 
@@ -62,6 +63,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Extension of PdfWriter that will attempt to create a PDF/A file
@@ -222,6 +224,26 @@ public class PdfAWriter extends PdfWriter {
         return ((PdfAConformanceImp)pdfIsoConformance).getPdfAChecker();
     }
 
+    /**
+     * Sets a cache for the verdicts of the stateless PDF/A checks, it can be
+     * shared by all the documents of a batch.
+     * @param verdictCache the cache, or <code>null</code> to check every object
+     * @since 5.5.6
+     */
+    public void setVerdictCache(PdfAVerdictCache verdictCache) {
+        getPdfAChecker().setVerdictCache(verdictCache);
+    }
+
+    /**
+     * Sets an executor that runs the stateless PDF/A checks, e.g. the image checks,
+     * off the writer thread. A violation is thrown at the latest by <code>close()</code>.
+     * @param validationExecutor the executor, or <code>null</code> to check on the writer thread
+     * @since 5.5.6
+     */
+    public void setValidationExecutor(ExecutorService validationExecutor) {
+        getPdfAChecker().setValidationExecutor(validationExecutor);
+    }
+
     /**
      * Use this method to add a file attachment at the document level.
      * @param description the file description
@@ -101,24 +101,26 @@ public class PdfA1Checker extends PdfAChecker {
     }
 
     @Override
-    protected void checkFont(PdfWriter writer, int key, Object obj1) {
+    protected void checkFont(PdfWriter writer, int key, final Object obj1) {
+        if (obj1 instanceof PdfDictionary) {
+            final PdfDictionary fontDictionary = (PdfDictionary) obj1;
+            checkFontStateless(fontDictionary, key, new Runnable() {
+                public void run() {
+                    checkFontDictionary(fontDictionary);
+                }
+            });
+            return;
+        }
         BaseFont bf = (BaseFont) obj1;
         if (bf.getFontType() == BaseFont.FONT_TYPE_DOCUMENT) {
-            PdfStream prs = null;
-            PdfDictionary fontDictionary = ((DocumentFont) bf).getFontDictionary();
-            PdfDictionary fontDescriptor = getDirectDictionary(fontDictionary.get(PdfName.FONTDESCRIPTOR));
-            if (fontDescriptor != null) {
-                prs = getDirectStream(fontDescriptor.get(PdfName.FONTFILE));
-                if (prs == null) {
-                    prs = getDirectStream(fontDescriptor.get(PdfName.FONTFILE2));
-                }
-                if (prs == null) {
-                    prs = getDirectStream(fontDescriptor.get(PdfName.FONTFILE3));
+            final PdfDictionary fontDictionary = ((DocumentFont) bf).getFontDictionary();
+            checkFontStateless(fontDictionary, key, new Runnable() {
+                public void run() {
+                    if (getFontFile(fontDictionary) == null) {
+                        throw new PdfAConformanceException(obj1, MessageLocalization.getComposedMessage("all.the.fonts.must.be.embedded.this.one.isn.t.1", ((BaseFont) obj1).getPostscriptFontName()));
+                    }
                 }
-            }
-            if (prs == null) {
-                throw new PdfAConformanceException(obj1, MessageLocalization.getComposedMessage("all.the.fonts.must.be.embedded.this.one.isn.t.1", ((BaseFont) obj1).getPostscriptFontName()));
-            }
+            });
         } else {
             if (!bf.isEmbedded())
                 throw new PdfAConformanceException(obj1, MessageLocalization.getComposedMessage("all.the.fonts.must.be.embedded.this.one.isn.t.1", ((BaseFont) obj1).getPostscriptFontName()));
@@ -127,22 +129,26 @@ public class PdfA1Checker extends PdfAChecker {
 
     @Override
     protected void checkImage(PdfWriter writer, int key, Object obj1) {
-        PdfImage image = (PdfImage) obj1;
+        checkImageStateless((PdfStream) obj1, key);
+    }
+
+    @Override
+    protected void checkImageDictionary(PdfStream image) {
         if (image.get(PdfName.SMASK) != null && !PdfName.NONE.equals(image.getAsName(PdfName.SMASK)))
-            throw new PdfAConformanceException(obj1, MessageLocalization.getComposedMessage("the.smask.key.is.not.allowed.in.images"));
+            throw new PdfAConformanceException(image, MessageLocalization.getComposedMessage("the.smask.key.is.not.allowed.in.images"));
         if (image.contains(PdfName.ALTERNATES)) {
-            throw new PdfAConformanceException(obj1, MessageLocalization.getComposedMessage("an.image.dictionary.shall.not.contain.alternates.key"));
+            throw new PdfAConformanceException(image, MessageLocalization.getComposedMessage("an.image.dictionary.shall.not.contain.alternates.key"));
         }
         if (image.contains(PdfName.OPI)) {
-            throw new PdfAConformanceException(obj1, MessageLocalization.getComposedMessage("an.image.dictionary.shall.not.contain.opi.key"));
+            throw new PdfAConformanceException(image, MessageLocalization.getComposedMessage("an.image.dictionary.shall.not.contain.opi.key"));
         }
         PdfBoolean interpolate = image.getAsBoolean(PdfName.INTERPOLATE);
         if (interpolate != null && interpolate.booleanValue()) {
-            throw new PdfAConformanceException(obj1, MessageLocalization.getComposedMessage("the.value.of.interpolate.key.shall.not.be.true"));
+            throw new PdfAConformanceException(image, MessageLocalization.getComposedMessage("the.value.of.interpolate.key.shall.not.be.true"));
         }
         PdfName intent = image.getAsName(PdfName.INTENT);
         if (intent != null && !(PdfName.RELATIVECOLORIMETRIC.equals(intent) || PdfName.ABSOLUTECOLORIMETRIC.equals(intent) || PdfName.PERCEPTUAL.equals(intent) || PdfName.SATURATION.equals(intent))) {
-            throw new PdfAConformanceException(obj1, MessageLocalization.getComposedMessage("1.value.of.intent.key.is.not.allowed", intent.toString()));
+            throw new PdfAConformanceException(image, MessageLocalization.getComposedMessage("1.value.of.intent.key.is.not.allowed", intent.toString()));
         }
     }
 
@@ -520,6 +526,7 @@ public class PdfA1Checker extends PdfAChecker {
 
     @Override
     public void close(PdfWriter writer) {
+        waitForValidations();
         if ((rgbUsed || cmykUsed || grayUsed) && pdfaOutputIntentColorSpace == null) {
             throw new PdfAConformanceException(null, MessageLocalization.getComposedMessage("if.device.rgb.cmyk.gray.used.in.file.that.file.shall.contain.pdfa.outputintent"));
         }
@@ -106,24 +106,26 @@ public class PdfA2Checker extends PdfAChecker {
     }
 
     @Override
-    protected void checkFont(PdfWriter writer, int key, Object obj1) {
+    protected void checkFont(PdfWriter writer, int key, final Object obj1) {
+        if (obj1 instanceof PdfDictionary) {
+            final PdfDictionary fontDictionary = (PdfDictionary) obj1;
+            checkFontStateless(fontDictionary, key, new Runnable() {
+                public void run() {
+                    checkFontDictionary(fontDictionary);
+                }
+            });
+            return;
+        }
         BaseFont bf = (BaseFont) obj1;
         if (bf.getFontType() == BaseFont.FONT_TYPE_DOCUMENT) {
-            PdfStream prs = null;
-            PdfDictionary fontDictionary = ((DocumentFont) bf).getFontDictionary();
-            PdfDictionary fontDescriptor = getDirectDictionary(fontDictionary.get(PdfName.FONTDESCRIPTOR));
-            if (fontDescriptor != null) {
-                prs = getDirectStream(fontDescriptor.get(PdfName.FONTFILE));
-                if (prs == null) {
-                    prs = getDirectStream(fontDescriptor.get(PdfName.FONTFILE2));
-                }
-                if (prs == null) {
-                    prs = getDirectStream(fontDescriptor.get(PdfName.FONTFILE3));
+            final PdfDictionary fontDictionary = ((DocumentFont) bf).getFontDictionary();
+            checkFontStateless(fontDictionary, key, new Runnable() {
+                public void run() {
+                    if (getFontFile(fontDictionary) == null) {
+                        throw new PdfAConformanceException(obj1, MessageLocalization.getComposedMessage("all.the.fonts.must.be.embedded.this.one.isn.t.1", ((BaseFont) obj1).getPostscriptFontName()));
+                    }
                 }
-            }
-            if (prs == null) {
-                throw new PdfAConformanceException(obj1, MessageLocalization.getComposedMessage("all.the.fonts.must.be.embedded.this.one.isn.t.1", ((BaseFont) obj1).getPostscriptFontName()));
-            }
+            });
         } else {
             if (!bf.isEmbedded())
                 throw new PdfAConformanceException(obj1, MessageLocalization.getComposedMessage("all.the.fonts.must.be.embedded.this.one.isn.t.1", ((BaseFont) obj1).getPostscriptFontName()));
@@ -188,7 +190,7 @@ public class PdfA2Checker extends PdfAChecker {
 
     @Override
     protected void checkImage(PdfWriter writer, int key, Object obj1) {
-        PdfImage pdfImage = (PdfImage) obj1;
+        PdfStream pdfImage = (PdfStream) obj1;
         if (getDirectStream(pdfImage.get(PdfName.SMASK)) != null) {
             transparencyDetectedOnThePage = true;
         }
@@ -196,15 +198,21 @@ public class PdfA2Checker extends PdfAChecker {
         if (smaskInData != null && smaskInData.floatValue() > 0) {
             transparencyDetectedOnThePage = true;
         }
+        // the checks of the dictionary don't depend on the page, they can be cached and run off the writer thread
+        checkImageStateless(pdfImage, key);
+    }
+
+    @Override
+    protected void checkImageDictionary(PdfStream pdfImage) {
         if (pdfImage.contains(PdfName.OPI)) {
-            throw new PdfAConformanceException(obj1, MessageLocalization.getComposedMessage("an.image.dictionary.shall.not.contain.opi.key"));
+            throw new PdfAConformanceException(pdfImage, MessageLocalization.getComposedMessage("an.image.dictionary.shall.not.contain.opi.key"));
         }
         PdfBoolean interpolate = pdfImage.getAsBoolean(PdfName.INTERPOLATE);
         if (interpolate != null && interpolate.booleanValue()) {
-            throw new PdfAConformanceException(obj1, MessageLocalization.getComposedMessage("the.value.of.interpolate.key.shall.not.be.true"));
+            throw new PdfAConformanceException(pdfImage, MessageLocalization.getComposedMessage("the.value.of.interpolate.key.shall.not.be.true"));
         }
-        if (pdfImage != null && (pdfImage.getImage() instanceof Jpeg2000)) {
-            Jpeg2000 jpeg2000 = (Jpeg2000) pdfImage.getImage();
+        if (pdfImage instanceof PdfImage && ((PdfImage) pdfImage).getImage() instanceof Jpeg2000) {
+            Jpeg2000 jpeg2000 = (Jpeg2000) ((PdfImage) pdfImage).getImage();
             if (!jpeg2000.isJp2()) {
                 throw new PdfAConformanceException(MessageLocalization.getComposedMessage("only.jpx.baseline.set.of.features.shall.be.used"));
             }
@@ -252,6 +260,10 @@ public class PdfA2Checker extends PdfAChecker {
             if (((PdfTemplate)obj1).getGroup() != null) {
                 transparencyDetectedOnThePage = true;
             }
+        } else if (obj1 instanceof PdfStream) {
+            if (((PdfStream)obj1).contains(PdfName.GROUP)) {
+                transparencyDetectedOnThePage = true;
+            }
         }
     }
 
@@ -807,6 +819,7 @@ public class PdfA2Checker extends PdfAChecker {
 
     @Override
     public void close(PdfWriter writer) {
+        waitForValidations();
         if (pdfaOutputIntentColorSpace != null) {
             if ("RGB ".equals(pdfaOutputIntentColorSpace)) {
                 if (cmykUsed && writer.getDefaultColorspace().get(PdfName.DEFAULTCMYK) == null)
@@ -44,10 +44,20 @@
  */
 package com.itextpdf.text.pdf.internal;
 
+import com.itextpdf.text.ExceptionConverter;
+import com.itextpdf.text.Jpeg2000;
+import com.itextpdf.text.error_messages.MessageLocalization;
 import com.itextpdf.text.pdf.*;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 abstract public class PdfAChecker {
 
@@ -55,6 +65,11 @@ abstract public class PdfAChecker {
     protected HashMap<RefKey, PdfObject> cachedObjects = new HashMap<RefKey, PdfObject>();
     private HashSet<PdfName> keysForCheck = initKeysForCheck();
     private static byte[] emptyByteArray = new byte[]{};
+    protected PdfAVerdictCache verdictCache;
+    protected ExecutorService validationExecutor;
+    private ArrayList<Future<?>> pendingValidations = new ArrayList<Future<?>>();
+    /** The structure of the objects read by a PdfReader, by reader and object number. */
+    private HashMap<String, String> readStructures = new HashMap<String, String>();
 
 
     PdfAChecker(PdfAConformanceLevel conformanceLevel) {
@@ -75,6 +90,307 @@ abstract public class PdfAChecker {
 
     abstract public void close(PdfWriter writer);
 
+    /**
+     * Sets a cache for the verdicts of the stateless checks. The same cache can
+     * be set on the checkers of all the documents of a batch, so that an object
+     * that occurs in several documents is only checked once.
+     * @param verdictCache the cache, or <code>null</code> to check every object
+     * @since 5.5.6
+     */
+    public void setVerdictCache(PdfAVerdictCache verdictCache) {
+        this.verdictCache = verdictCache;
+    }
+
+    /**
+     * @return the cache for the verdicts of the stateless checks, or <code>null</code>
+     * @since 5.5.6
+     */
+    public PdfAVerdictCache getVerdictCache() {
+        return verdictCache;
+    }
+
+    /**
+     * Sets an executor that runs the stateless checks off the writer thread.
+     * A violation found by such a check is thrown at the latest when the
+     * document is closed. The executor is not shut down by the checker.
+     * @param validationExecutor the executor, or <code>null</code> to check on the writer thread
+     * @since 5.5.6
+     */
+    public void setValidationExecutor(ExecutorService validationExecutor) {
+        this.validationExecutor = validationExecutor;
+    }
+
+    /**
+     * @return the executor for the stateless checks, or <code>null</code>
+     * @since 5.5.6
+     */
+    public ExecutorService getValidationExecutor() {
+        return validationExecutor;
+    }
+
+    /**
+     * Runs a check that only depends on the given stream and its dictionary, and
+     * not on the state of the checker or of the writer. The check is skipped if
+     * the verdict cache knows that the same stream passed it. It is run by the
+     * validation executor if there is one, unless the stream was read by a
+     * PdfReader: the reader isn't thread safe.
+     * @param stream the stream that is checked
+     * @param key the PdfIsoKeys key of the check
+     * @param check the check, throwing a PdfAConformanceException on a violation
+     * @since 5.5.6
+     */
+    protected void checkStateless(PdfStream stream, int key, Runnable check) {
+        throwPendingViolations(false);
+        runStateless(verdictCache == null ? null : getVerdictKey(stream, key), check, !(stream instanceof PRStream));
+    }
+
+    /**
+     * Runs a check that only depends on a font dictionary read by a PdfReader and
+     * on its font descriptor. The check is skipped if the verdict cache knows that
+     * the same font descriptor passed it. It is always run on the calling thread.
+     * @param fontDictionary the font dictionary that is checked
+     * @param key the PdfIsoKeys key of the check
+     * @param check the check, throwing a PdfAConformanceException on a violation
+     * @since 5.5.6
+     */
+    protected void checkFontStateless(PdfDictionary fontDictionary, int key, Runnable check) {
+        throwPendingViolations(false);
+        runStateless(verdictCache == null ? null : getFontVerdictKey(fontDictionary, key), check, false);
+    }
+
+    /**
+     * Runs the image checks of {@link #checkImageDictionary(PdfStream)} through
+     * {@link #checkStateless(PdfStream, int, Runnable)}.
+     * @param image the image XObject
+     * @param key the PdfIsoKeys key of the check
+     * @since 5.5.6
+     */
+    protected void checkImageStateless(final PdfStream image, int key) {
+        checkStateless(image, key, new Runnable() {
+            public void run() {
+                checkImageDictionary(image);
+            }
+        });
+    }
+
+    /**
+     * Checks an image XObject copied from another document, e.g. by PdfACopy.
+     * Only the checks of the image dictionary are done, the copied image
+     * doesn't take part in the detection of transparency on the page.
+     * @param writer the writer of the copy
+     * @param image the copied image, as read by the PdfReader
+     * @since 5.5.6
+     */
+    public void checkCopiedImage(PdfWriter writer, PRStream image) {
+        if (writer != null && writer.isPdfIso())
+            checkImageStateless(image, PdfIsoKeys.PDFISOKEY_IMAGE);
+    }
+
+    private void runStateless(final String verdictKey, final Runnable check, boolean async) {
+        if (verdictKey != null && verdictCache.isVerified(verdictKey))
+            return;
+        Runnable task = check;
+        if (verdictKey != null) {
+            final PdfAVerdictCache cache = verdictCache;
+            task = new Runnable() {
+                public void run() {
+                    check.run();
+                    cache.setVerified(verdictKey);
+                }
+            };
+        }
+        if (validationExecutor == null || !async)
+            task.run();
+        else
+            pendingValidations.add(validationExecutor.submit(task));
+    }
+
+    /**
+     * Waits for the checks submitted to the validation executor and throws the
+     * first violation they found. Called when the document is closed.
+     * @since 5.5.6
+     */
+    protected void waitForValidations() {
+        throwPendingViolations(true);
+    }
+
+    private void throwPendingViolations(boolean wait) {
+        while (!pendingValidations.isEmpty()) {
+            Future<?> future = pendingValidations.get(0);
+            if (!wait && !future.isDone())
+                return;
+            pendingValidations.remove(0);
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ExceptionConverter(e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException)
+                    throw (RuntimeException) cause;
+                if (cause instanceof Error)
+                    throw (Error) cause;
+                throw new ExceptionConverter((Exception) cause);
+            }
+        }
+    }
+
+    /**
+     * Builds the key of a stream for the verdict cache out of the class of the
+     * checker and the check, and the entries of the stream dictionary; the
+     * stream bytes aren't read. In a stream read by a PdfReader, also when it
+     * is copied, the indirect objects are followed and an ICC profile is also
+     * identified by the digest of its bytes, so the same image in another
+     * document gets the same key. The key of such a stream is only built once
+     * per document. A JPEG 2000 image created by the writer is also identified
+     * by its Image instance, as its checks look into the image data.
+     * @param stream the stream
+     * @param key the PdfIsoKeys key of the check
+     * @return the key
+     */
+    protected String getVerdictKey(PdfStream stream, int key) {
+        StringBuilder verdictKey = new StringBuilder(getClass().getName()).append(':').append(key).append(':');
+        if (stream instanceof PRStream && ((PRStream) stream).getReader() != null) {
+            PRStream prs = (PRStream) stream;
+            if (prs.getObjNum() > 0)
+                return verdictKey.append(getReadStructure(prs.getReader(), prs.getObjNum(), prs.getObjGen(), stream, 0)).toString();
+            appendReadStructure(verdictKey, stream, 0);
+            return verdictKey.toString();
+        }
+        appendStructure(verdictKey, stream, 0);
+        if (stream instanceof PdfImage && ((PdfImage) stream).getImage() instanceof Jpeg2000)
+            verdictKey.append('#').append(((PdfImage) stream).getImage().getMySerialId());
+        return verdictKey.toString();
+    }
+
+    /**
+     * Builds the key of a font dictionary for the verdict cache out of the class
+     * of the checker, the check, the font type and the reference to the font
+     * descriptor.
+     * @param fontDictionary the font dictionary
+     * @param key the PdfIsoKeys key of the check
+     * @return the key, or <code>null</code> if the font descriptor wasn't read by a PdfReader
+     */
+    protected String getFontVerdictKey(PdfDictionary fontDictionary, int key) {
+        PdfObject fontDescriptor = fontDictionary.get(PdfName.FONTDESCRIPTOR);
+        if (!(fontDescriptor instanceof PRIndirectReference))
+            return null;
+        PRIndirectReference ref = (PRIndirectReference) fontDescriptor;
+        StringBuilder verdictKey = new StringBuilder(getClass().getName()).append(':').append(key).append(':');
+        verdictKey.append(fontDictionary.getAsName(PdfName.SUBTYPE)).append(':');
+        return appendReference(verdictKey, ref.getReader(), ref.getNumber(), ref.getGeneration());
+    }
+
+    private String appendReference(StringBuilder verdictKey, PdfReader reader, int number, int generation) {
+        return verdictKey.append(verdictCache.getReaderId(reader)).append(' ')
+                .append(number).append(' ').append(generation).append(" R").toString();
+    }
+
+    /**
+     * Gets the structure of an object read by a PdfReader, it is only built
+     * the first time the object is met in the document.
+     */
+    private String getReadStructure(PdfReader reader, int number, int generation, PdfObject obj, int depth) {
+        String ref = new StringBuilder().append(verdictCache.getReaderId(reader)).append(' ')
+                .append(number).append(' ').append(generation).toString();
+        String structure = readStructures.get(ref);
+        if (structure == null) {
+            StringBuilder buf = new StringBuilder();
+            appendReadStructure(buf, obj, depth);
+            structure = buf.toString();
+            readStructures.put(ref, structure);
+        }
+        return structure;
+    }
+
+    /**
+     * Appends the structure of an object read by a PdfReader, following the
+     * indirect objects. The ICC profiles are identified by the MD5 digest of
+     * their bytes, the bytes of the other streams aren't read.
+     */
+    private void appendReadStructure(StringBuilder buf, PdfObject obj, int depth) {
+        if (obj instanceof PRIndirectReference) {
+            PRIndirectReference ref = (PRIndirectReference) obj;
+            if (depth > 10) {
+                buf.append('R');
+            } else {
+                buf.append(getReadStructure(ref.getReader(), ref.getNumber(), ref.getGeneration(), PdfReader.getPdfObject(ref), depth + 1));
+            }
+        } else if (obj != null && (obj.isDictionary() || obj.isStream())) {
+            PdfDictionary dict = (PdfDictionary) obj;
+            PdfName[] names = dict.getKeys().toArray(new PdfName[dict.size()]);
+            Arrays.sort(names);
+            buf.append("<<");
+            for (PdfName name : names) {
+                buf.append(name.toString()).append(' ');
+                appendReadStructure(buf, dict.get(name), depth + 1);
+                buf.append(' ');
+            }
+            buf.append(">>");
+        } else if (obj != null && obj.isArray()) {
+            PdfArray array = (PdfArray) obj;
+            buf.append('[');
+            for (PdfObject item : array) {
+                appendReadStructure(buf, item, depth + 1);
+                buf.append(' ');
+            }
+            buf.append(']');
+            if (array.size() == 2 && PdfName.ICCBASED.equals(array.getPdfObject(0))) {
+                PdfObject profile = array.getDirectObject(1);
+                if (profile instanceof PRStream)
+                    buf.append('#').append(getDigest((PRStream) profile));
+            }
+        } else {
+            appendStructure(buf, obj, depth);
+        }
+    }
+
+    private static String getDigest(PRStream stream) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(PdfReader.getStreamBytesRaw(stream));
+            StringBuilder buf = new StringBuilder();
+            for (byte b : digest)
+                buf.append(Integer.toHexString((b & 0xff) | 0x100).substring(1));
+            return buf.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new ExceptionConverter(e);
+        } catch (java.io.IOException e) {
+            throw new ExceptionConverter(e);
+        }
+    }
+
+    private static void appendStructure(StringBuilder buf, PdfObject obj, int depth) {
+        if (obj == null) {
+            buf.append("null");
+        } else if (obj.isIndirect() || depth > 10) {
+            // references differ between documents, the stateless checks don't follow them
+            buf.append('R');
+        } else if (obj.isDictionary() || obj.isStream()) {
+            PdfDictionary dict = (PdfDictionary) obj;
+            PdfName[] names = dict.getKeys().toArray(new PdfName[dict.size()]);
+            Arrays.sort(names);
+            buf.append("<<");
+            for (PdfName name : names) {
+                buf.append(name.toString()).append(' ');
+                appendStructure(buf, dict.get(name), depth + 1);
+                buf.append(' ');
+            }
+            buf.append(">>");
+        } else if (obj.isArray()) {
+            buf.append('[');
+            for (PdfObject item : (PdfArray) obj) {
+                appendStructure(buf, item, depth + 1);
+                buf.append(' ');
+            }
+            buf.append(']');
+        } else if (obj.isString()) {
+            buf.append('(').append(PdfEncodings.convertToString(obj.getBytes(), null)).append(')');
+        } else {
+            buf.append(obj.toString());
+        }
+    }
+
     private PdfObject cleverPdfArrayClone(PdfArray array) {
         PdfArray newArray = new PdfArray();
         for (int i = 0; i < array.size(); i++) {
@@ -147,8 +463,54 @@ abstract public class PdfAChecker {
 
     abstract protected void checkFont(PdfWriter writer, int key, Object obj1);
 
+    /**
+     * Checks that the font program of a font dictionary read from a PDF is embedded.
+     * Type0 fonts are checked through their descendant fonts and Type3 fonts
+     * are defined by their content streams, both are skipped.
+     * @param fontDictionary the font dictionary
+     * @since 5.5.6
+     */
+    protected void checkFontDictionary(PdfDictionary fontDictionary) {
+        PdfName subtype = fontDictionary.getAsName(PdfName.SUBTYPE);
+        if (PdfName.TYPE0.equals(subtype) || PdfName.TYPE3.equals(subtype))
+            return;
+        if (getFontFile(fontDictionary) == null) {
+            PdfName baseFont = fontDictionary.getAsName(PdfName.BASEFONT);
+            throw new PdfAConformanceException(fontDictionary, MessageLocalization.getComposedMessage("all.the.fonts.must.be.embedded.this.one.isn.t.1", baseFont == null ? "" : PdfName.decodeName(baseFont.toString())));
+        }
+    }
+
+    /**
+     * Gets the embedded font program of a font dictionary.
+     * @param fontDictionary the font dictionary
+     * @return the FontFile, FontFile2 or FontFile3 stream or <code>null</code> if the font isn't embedded
+     * @since 5.5.6
+     */
+    protected PdfStream getFontFile(PdfDictionary fontDictionary) {
+        PdfStream prs = null;
+        PdfDictionary fontDescriptor = getDirectDictionary(fontDictionary.get(PdfName.FONTDESCRIPTOR));
+        if (fontDescriptor != null) {
+            prs = getDirectStream(fontDescriptor.get(PdfName.FONTFILE));
+            if (prs == null) {
+                prs = getDirectStream(fontDescriptor.get(PdfName.FONTFILE2));
+            }
+            if (prs == null) {
+                prs = getDirectStream(fontDescriptor.get(PdfName.FONTFILE3));
+            }
+        }
+        return prs;
+    }
+
     abstract protected void checkImage(PdfWriter writer, int key, Object obj1);
 
+    /**
+     * Checks the entries of an image dictionary, these checks don't depend on
+     * the page or on the state of the checker.
+     * @param image the image XObject
+     * @since 5.5.6
+     */
+    abstract protected void checkImageDictionary(PdfStream image);
+
     abstract protected void checkInlineImage(PdfWriter writer, int key, Object obj1);
 
     abstract protected void checkFormXObj(PdfWriter writer, int key, Object obj1);
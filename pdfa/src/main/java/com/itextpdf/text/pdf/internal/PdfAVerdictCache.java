@@ -0,0 +1,146 @@
+/*
+ * $Id$
+ *
+ * This file is part of the iText (R) project.
+ * Copyright (c) 1998-2014 iText Group NV
+ * Authors: Bruno Lowagie, Paulo Soares, et al.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License version 3
+ * as published by the Free Software Foundation with the addition of the
+ * following permission added to Section 15 as permitted in Section 7(a):
+ * FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+ * ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+ * OF THIRD PARTY RIGHTS
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+ * Boston, MA, 02110-1301 USA, or download the license from the following URL:
+ * http://itextpdf.com/terms-of-use/
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License,
+ * a covered work must retain the producer line in every PDF that is created
+ * or manipulated using iText.
+ *
+ * You can be released from the requirements of the license by purchasing
+ * a commercial license. Buying such a license is mandatory as soon as you
+ * develop commercial activities involving the iText software without
+ * disclosing the source code of your own applications.
+ * These activities include: offering paid services to customers as an ASP,
+ * serving PDFs on the fly in a web application, shipping iText with a closed
+ * source product.
+ *
+ * For more information, please contact iText Software Corp. at this
+ * address: sales@itextpdf.com
+ */
+package com.itextpdf.text.pdf.internal;
+
+import com.itextpdf.text.pdf.PdfReader;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Remembers which objects already passed the stateless PDF/A checks. The
+ * verdicts are keyed on the conformance part and on the dictionary of an
+ * image; in an image read from a PDF the indirect objects are followed and
+ * the ICC profiles are identified by the digest of their bytes, so the
+ * verdict is reused across documents. Fonts read from a PDF are keyed on the
+ * source reader and object number. One instance can be shared by all the writers,
+ * copies and stampers of a batch, also from several threads. Only positive
+ * verdicts are cached: an object that fails is checked again, so the exception
+ * is always thrown for the right object.
+ *
+ * @see PdfAChecker#setVerdictCache(PdfAVerdictCache)
+ * @since 5.5.6
+ */
+public class PdfAVerdictCache {
+
+    /** The default maximum number of verdicts kept in the cache. */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final LinkedHashMap<String, Boolean> verdicts;
+
+    private final WeakHashMap<PdfReader, Long> readerIds = new WeakHashMap<PdfReader, Long>();
+
+    private long nextReaderId = 0;
+
+    /**
+     * Creates a cache keeping at most {@link #DEFAULT_CAPACITY} verdicts.
+     */
+    public PdfAVerdictCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a cache keeping at most <code>capacity</code> verdicts, the least
+     * recently used verdicts are dropped first.
+     * @param capacity the maximum number of verdicts
+     */
+    public PdfAVerdictCache(final int capacity) {
+        verdicts = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Checks if an object with this key already passed the checks.
+     * @param key the key built by the checker
+     * @return <code>true</code> if the checks can be skipped
+     */
+    public synchronized boolean isVerified(String key) {
+        return verdicts.get(key) != null;
+    }
+
+    /**
+     * Records that an object with this key passed the checks.
+     * @param key the key built by the checker
+     */
+    public synchronized void setVerified(String key) {
+        verdicts.put(key, Boolean.TRUE);
+    }
+
+    /**
+     * Gets the number standing for a reader in the keys. The cache doesn't keep
+     * the reader alive and the number isn't given to another reader later.
+     * @param reader the reader
+     * @return the number of the reader
+     */
+    public synchronized long getReaderId(PdfReader reader) {
+        Long id = readerIds.get(reader);
+        if (id == null) {
+            id = Long.valueOf(nextReaderId++);
+            readerIds.put(reader, id);
+        }
+        return id.longValue();
+    }
+
+    /**
+     * @return the number of cached verdicts
+     */
+    public synchronized int size() {
+        return verdicts.size();
+    }
+
+    /**
+     * Removes all the cached verdicts.
+     */
+    public synchronized void clear() {
+        verdicts.clear();
+    }
+}
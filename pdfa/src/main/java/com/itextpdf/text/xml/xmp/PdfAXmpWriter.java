@@ -48,6 +48,7 @@ import com.itextpdf.text.pdf.PdfAConformanceLevel;
 import com.itextpdf.text.pdf.PdfDictionary;
 import com.itextpdf.text.pdf.PdfWriter;
 import com.itextpdf.xmp.*;
+import com.itextpdf.xmp.options.ParseOptions;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -257,14 +258,16 @@ public class PdfAXmpWriter extends XmpWriter {
             case ZUGFeRDExtended:
                 xmpMeta.setProperty(XMPConst.NS_PDFA_ID, PdfAProperties.PART, "3");
 	            xmpMeta.setProperty(XMPConst.NS_PDFA_ID, PdfAProperties.CONFORMANCE, "B");
-	            XMPMeta taggedExtensionMetaComfort = XMPMetaFactory.parseFromString(getZugferdExtension(conformanceLevel));
+	            XMPMeta taggedExtensionMetaComfort = XMPMetaFactory.parseFromString(getZugferdExtension(conformanceLevel),
+                    new ParseOptions().setStreamingParser(true));
 	            XMPUtils.appendProperties(taggedExtensionMetaComfort, xmpMeta, true, false);
 	            break;
             default:
                 break;
         }
         if (writer.isTagged()) {
-            XMPMeta taggedExtensionMeta = XMPMetaFactory.parseFromString(pdfUaExtension);
+            XMPMeta taggedExtensionMeta = XMPMetaFactory.parseFromString(pdfUaExtension,
+                    new ParseOptions().setStreamingParser(true));
             XMPUtils.appendProperties(taggedExtensionMeta, xmpMeta, true, false);
         }
     }
@@ -1,11 +1,14 @@
 package com.itextpdf.text.pdf;
 
 import com.itextpdf.text.*;
+import com.itextpdf.text.pdf.internal.PdfAVerdictCache;
 import junit.framework.Assert;
 import org.junit.Test;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class PdfA2CheckerTest {
 
@@ -399,6 +402,145 @@ public class PdfA2CheckerTest {
         document.close();
     }
 
+    /**
+     * Counts the checks that were run and passed, the cache only records a
+     * verdict after running the check.
+     */
+    private static class CountingVerdictCache extends PdfAVerdictCache {
+        int checksPassed = 0;
+
+        @Override
+        public synchronized void setVerified(String key) {
+            checksPassed++;
+            super.setVerified(key);
+        }
+    }
+
+    @Test
+    public void imageVerdictCacheTest() throws IOException, DocumentException {
+        CountingVerdictCache verdictCache = new CountingVerdictCache();
+        Image[] images = new Image[4];
+        for (int i = 1; i <= 4; i++)
+            images[i - 1] = Image.getInstance(String.format("./src/test/resources/com/itextpdf/text/pdf/jpeg2000/file%s.jp2", Integer.toString(i)));
+        Image invalidImage = Image.getInstance("./src/test/resources/com/itextpdf/text/pdf/jpeg2000/file5.jp2");
+
+        for (int n = 1; n <= 2; n++) {
+            FileOutputStream fos = new FileOutputStream(outputDir + "imageVerdictCacheTest" + n + ".pdf");
+            Document document = new Document();
+            PdfAWriter writer = PdfAWriter.getInstance(document, fos, PdfAConformanceLevel.PDF_A_2B);
+            writer.setVerdictCache(verdictCache);
+            writer.createXmpMetadata();
+            document.open();
+
+            for (Image img : images) {
+                document.add(img);
+                document.newPage();
+            }
+            // the images of the second document were verified with the first one, their checks were skipped
+            Assert.assertEquals(4, verdictCache.checksPassed);
+            Assert.assertEquals(4, verdictCache.size());
+
+            // the non conformant image is reported in every document
+            String pdfaError = null;
+            try {
+                document.add(invalidImage);
+            } catch (Exception e) {
+                pdfaError = e.getLocalizedMessage();
+            }
+            Assert.assertEquals(true, pdfaError != null && pdfaError.contains("0x01"));
+            Assert.assertEquals(4, verdictCache.checksPassed);
+
+            document.close();
+        }
+    }
+
+    @Test
+    public void copiedImageVerdictCacheTest() throws IOException, DocumentException {
+        ICC_Profile icc = ICC_Profile.getInstance(new FileInputStream("./src/test/resources/com/itextpdf/text/pdf/sRGB Color Space Profile.icm"));
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfAWriter writer = PdfAWriter.getInstance(document, baos, PdfAConformanceLevel.PDF_A_2B);
+        writer.createXmpMetadata();
+        document.open();
+        document.add(Image.getInstance("./src/test/resources/com/itextpdf/text/pdf/jpeg2000/file1.jp2"));
+        writer.setOutputIntents("Custom", "", "http://www.color.org", "sRGB IEC61966-2.1", icc);
+        document.close();
+
+        CountingVerdictCache verdictCache = new CountingVerdictCache();
+        for (int n = 1; n <= 2; n++) {
+            PdfReader reader = new PdfReader(baos.toByteArray());
+            document = new Document();
+            PdfACopy copy = new PdfACopy(document, new FileOutputStream(outputDir + "copiedImageVerdictCacheTest" + n + ".pdf"), PdfAConformanceLevel.PDF_A_2B);
+            copy.setVerdictCache(verdictCache);
+            copy.createXmpMetadata();
+            document.open();
+            copy.addDocument(reader);
+            copy.setOutputIntents("Custom", "", "http://www.color.org", "sRGB IEC61966-2.1", icc);
+            document.close();
+            reader.close();
+            // the copied image is identified by its dictionary, also in another document
+            Assert.assertEquals(1, verdictCache.checksPassed);
+        }
+    }
+
+    @Test
+    public void copiedNonConformantImageTest() throws IOException, DocumentException {
+        ICC_Profile icc = ICC_Profile.getInstance(new FileInputStream("./src/test/resources/com/itextpdf/text/pdf/sRGB Color Space Profile.icm"));
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter.getInstance(document, baos);
+        document.open();
+        Image img = Image.getInstance("./src/test/resources/com/itextpdf/text/pdf/img/bruno_ingeborg.jpg");
+        img.setInterpolation(true);
+        document.add(img);
+        document.close();
+
+        PdfReader reader = new PdfReader(baos.toByteArray());
+        document = new Document();
+        PdfACopy copy = new PdfACopy(document, new FileOutputStream(outputDir + "copiedNonConformantImageTest.pdf"), PdfAConformanceLevel.PDF_A_2B);
+        copy.createXmpMetadata();
+        document.open();
+        copy.setOutputIntents("Custom", "", "http://www.color.org", "sRGB IEC61966-2.1", icc);
+        boolean exceptionThrown = false;
+        try {
+            copy.addDocument(reader);
+        } catch (PdfAConformanceException e) {
+            exceptionThrown = true;
+        }
+        reader.close();
+        Assert.assertTrue(exceptionThrown);
+    }
+
+    @Test
+    public void parallelImageCheckTest() throws IOException, DocumentException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            FileOutputStream fos = new FileOutputStream(outputDir + "parallelImageCheckTest.pdf");
+            Document document = new Document();
+            PdfAWriter writer = PdfAWriter.getInstance(document, fos, PdfAConformanceLevel.PDF_A_2B);
+            writer.setValidationExecutor(executor);
+            writer.createXmpMetadata();
+            document.open();
+
+            String pdfaError = null;
+            try {
+                for (int i = 1; i <= 5; i++) {
+                    Image img = Image.getInstance(String.format("./src/test/resources/com/itextpdf/text/pdf/jpeg2000/file%s.jp2", Integer.toString(i)));
+                    document.add(img);
+                    document.newPage();
+                }
+                ICC_Profile icc = ICC_Profile.getInstance(new FileInputStream("./src/test/resources/com/itextpdf/text/pdf/sRGB Color Space Profile.icm"));
+                writer.setOutputIntents("Custom", "", "http://www.color.org", "sRGB IEC61966-2.1", icc);
+                document.close();
+            } catch (Exception e) {
+                pdfaError = e.getLocalizedMessage();
+            }
+            Assert.assertEquals(true, pdfaError != null && pdfaError.contains("0x01"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void layerCheckTest1() throws IOException, DocumentException {
         FileOutputStream fos = new FileOutputStream(outputDir + "layerCheckTest1.pdf");
@@ -0,0 +1,149 @@
+package com.itextpdf.text.pdf;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.FontFactory;
+import com.itextpdf.text.Image;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.error_messages.MessageLocalization;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class PdfAValidatorTest {
+
+    static {
+        try {
+            MessageLocalization.setLanguage("en", "US");
+        } catch (IOException e) {
+        }
+    }
+
+    private byte[] createPdfA(PdfAConformanceLevel conformanceLevel) throws DocumentException, IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfAWriter writer = PdfAWriter.getInstance(document, baos, conformanceLevel);
+        writer.createXmpMetadata();
+        document.open();
+        Font font = FontFactory.getFont("./src/test/resources/com/itextpdf/text/pdf/FreeMonoBold.ttf", BaseFont.WINANSI, BaseFont.EMBEDDED, 12);
+        for (int i = 0; i < 3; i++) {
+            document.add(new Paragraph("Hello World", font));
+            document.newPage();
+        }
+        ICC_Profile icc = ICC_Profile.getInstance(new FileInputStream("./src/test/resources/com/itextpdf/text/pdf/sRGB Color Space Profile.icm"));
+        writer.setOutputIntents("Custom", "", "http://www.color.org", "sRGB IEC61966-2.1", icc);
+        document.close();
+        return baos.toByteArray();
+    }
+
+    private byte[] createPlainPdf(int nesting) throws DocumentException, IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, baos);
+        document.open();
+        document.add(new Paragraph("Hello World", new Font(BaseFont.createFont())));
+        PdfContentByte canvas = writer.getDirectContent();
+        for (int i = 0; i < nesting; i++)
+            canvas.saveState();
+        canvas.setCMYKColorFill(0, 0, 0, 255);
+        canvas.rectangle(100, 100, 100, 100);
+        canvas.fill();
+        for (int i = 0; i < nesting; i++)
+            canvas.restoreState();
+        document.close();
+        return baos.toByteArray();
+    }
+
+    @Test
+    public void validPdfATest() throws DocumentException, IOException {
+        PdfAValidator validator = new PdfAValidator();
+        PdfAValidationReport report = validator.validate(new PdfReader(createPdfA(PdfAConformanceLevel.PDF_A_2B)));
+        Assert.assertEquals(PdfAConformanceLevel.PDF_A_2B, report.getConformanceLevel());
+        Assert.assertTrue(report.toString(), report.isConformant());
+
+        report = validator.validate(new PdfReader(createPdfA(PdfAConformanceLevel.PDF_A_1B)));
+        Assert.assertEquals(PdfAConformanceLevel.PDF_A_1B, report.getConformanceLevel());
+        Assert.assertTrue(report.toString(), report.isConformant());
+    }
+
+    @Test
+    public void invalidPdfTest() throws DocumentException, IOException {
+        PdfAValidator validator = new PdfAValidator(PdfAConformanceLevel.PDF_A_1B);
+        PdfAValidationReport report = validator.validate(new PdfReader(createPlainPdf(30)));
+        Assert.assertFalse(report.isConformant());
+        boolean metadata = false, font = false, nesting = false;
+        for (PdfAValidationReport.Violation violation : report.getViolations()) {
+            if (violation.getMessage().equals(MessageLocalization.getComposedMessage("the.document.catalog.dictionary.shall.contain.metadata")))
+                metadata = true;
+            if (violation.getMessage().equals(MessageLocalization.getComposedMessage("all.the.fonts.must.be.embedded.this.one.isn.t.1", "Helvetica")))
+                font = true;
+            if (violation.getMessage().equals(MessageLocalization.getComposedMessage("graphics.state.stack.depth.is.greater.than.28"))) {
+                Assert.assertEquals(1, violation.getPageNumber());
+                nesting = true;
+            }
+        }
+        Assert.assertTrue(report.toString(), metadata && font && nesting);
+
+        report = validator.validate(new PdfReader(createPlainPdf(3)));
+        for (PdfAValidationReport.Violation violation : report.getViolations()) {
+            Assert.assertFalse(violation.getMessage().equals(MessageLocalization.getComposedMessage("graphics.state.stack.depth.is.greater.than.28")));
+        }
+    }
+
+    @Test
+    public void parallelValidationTest() throws DocumentException, IOException {
+        byte[] invalid = createPlainPdf(30);
+        PdfAValidationReport expected = new PdfAValidator(PdfAConformanceLevel.PDF_A_2B).validate(new PdfReader(invalid));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            PdfAValidator validator = new PdfAValidator(PdfAConformanceLevel.PDF_A_2B);
+            validator.setExecutor(executor);
+            for (int i = 0; i < 5; i++) {
+                PdfAValidationReport report = validator.validate(new PdfReader(invalid));
+                Assert.assertEquals(expected.getViolations(), report.getViolations());
+                report = validator.validate(new PdfReader(createPdfA(PdfAConformanceLevel.PDF_A_2B)));
+                Assert.assertTrue(report.toString(), report.isConformant());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void sharedImageTest() throws DocumentException, IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter.getInstance(document, baos);
+        document.open();
+        Image image = Image.getInstance(2, 2, 1, 8, new byte[4]);
+        image.setInterpolation(true);
+        for (int i = 0; i < 2; i++) {
+            document.add(image);
+            document.newPage();
+        }
+        document.close();
+
+        PdfAValidationReport report = new PdfAValidator(PdfAConformanceLevel.PDF_A_1B).validate(new PdfReader(baos.toByteArray()));
+        String interpolate = MessageLocalization.getComposedMessage("the.value.of.interpolate.key.shall.not.be.true");
+        int count = 0;
+        for (PdfAValidationReport.Violation violation : report.getViolations()) {
+            if (violation.getMessage().equals(interpolate)) {
+                Assert.assertEquals(1, violation.getPageNumber());
+                count++;
+            }
+        }
+        // the image is checked with the resources of the pages, not again with the other objects
+        Assert.assertEquals(report.toString(), 1, count);
+    }
+
+    @Test(expected = PdfAConformanceException.class)
+    public void unknownConformanceLevelTest() throws DocumentException, IOException {
+        new PdfAValidator().validate(new PdfReader(createPlainPdf(0)));
+    }
+}
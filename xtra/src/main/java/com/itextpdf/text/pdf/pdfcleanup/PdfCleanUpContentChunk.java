@@ -14,6 +14,7 @@ class PdfCleanUpContentChunk {
 
     private boolean image;
     private byte[] newImageData;
+    private boolean newImageSamples; // true if newImageData holds the Flate compressed samples instead of an image file
 
     public PdfCleanUpContentChunk(PdfString text, Vector startLocation, Vector endLocation, boolean visible, int numOfStrChunkBelongsTo) {
         this.text = text;
@@ -29,6 +30,11 @@ class PdfCleanUpContentChunk {
         this.newImageData = newImageData;
     }
 
+    public PdfCleanUpContentChunk(boolean visible, byte[] newImageData, boolean newImageSamples) {
+        this(visible, newImageData);
+        this.newImageSamples = newImageSamples;
+    }
+
     public PdfString getText() {
         return text;
     }
@@ -53,6 +59,10 @@ class PdfCleanUpContentChunk {
         return newImageData;
     }
 
+    public boolean isNewImageSamples() {
+        return newImageSamples;
+    }
+
     public int getNumOfStrChunkBelongsTo() {
         return numOfStrChunkBelongsTo;
     }
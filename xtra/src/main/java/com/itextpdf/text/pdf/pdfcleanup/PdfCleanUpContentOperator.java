@@ -1,8 +1,6 @@
 package com.itextpdf.text.pdf.pdfcleanup;
 
-import com.itextpdf.text.BadElementException;
 import com.itextpdf.text.DocWriter;
-import com.itextpdf.text.Image;
 import com.itextpdf.text.pdf.*;
 import com.itextpdf.text.pdf.parser.ContentOperator;
 import com.itextpdf.text.pdf.parser.PdfContentStreamProcessor;
@@ -77,7 +75,9 @@ class PdfCleanUpContentOperator implements ContentOperator {
         boolean disableOutput = false;
 
         if (xFormStream != null) {
-            xFormStream.setData(cleanUpStrategy.getContext().getCanvas().toPdf(cleanUpStrategy.getContext().getCanvas().getPdfWriter()));
+            PdfCleanUpContext formContext = cleanUpStrategy.getContext();
+            cleanUpStrategy.updateFormXObject(xFormStream, formContext.getCanvas().toPdf(formContext.getCanvas().getPdfWriter()),
+                    formContext.isContentChanged());
             cleanUpStrategy.popContext();
             canvas = cleanUpStrategy.getContext().getCanvas();
         }
@@ -89,7 +89,12 @@ class PdfCleanUpContentOperator implements ContentOperator {
                 if (chunk.isVisible()) {
                     PdfDictionary xObjResources = cleanUpStrategy.getContext().getResources().getAsDict(PdfName.XOBJECT);
                     PRStream imageStream = (PRStream) xObjResources.getAsStream((PdfName) operands.get(0));
-                    updateImage(imageStream, chunk.getNewImageData());
+
+                    if (chunk.isNewImageSamples()) {
+                        cleanUpStrategy.updateImageSamples(imageStream, chunk.getNewImageData());
+                    } else {
+                        cleanUpStrategy.updateImage(imageStream, chunk.getNewImageData());
+                    }
                 } else {
                     disableOutput = true;
                 }
@@ -128,7 +133,9 @@ class PdfCleanUpContentOperator implements ContentOperator {
             cleanUpStrategy.getContext().setCharacterSpacing(((PdfNumber) operands.get(1)).floatValue());
         }
 
-        if (!disableOutput) {
+        if (disableOutput) {
+            cleanUpStrategy.getContext().markContentChanged();
+        } else {
             int index = 0;
 
             for (PdfObject o : operands) {
@@ -284,24 +291,4 @@ class PdfCleanUpContentOperator implements ContentOperator {
     private boolean isSpace(PdfCleanUpContentChunk chunk) {
         return chunk.getText().toUnicodeString().equals(" ");
     }
-
-    private void updateImage(PRStream imageStream, byte[] newData) throws BadElementException, IOException, BadPdfFormatException {
-        PdfImage image = new PdfImage(Image.getInstance(newData), "", null);
-
-        if (imageStream.contains(PdfName.SMASK)) {
-            image.put(PdfName.SMASK, imageStream.get(PdfName.SMASK));
-        }
-
-        if (imageStream.contains(PdfName.MASK)) {
-            image.put(PdfName.MASK, imageStream.get(PdfName.MASK));
-        }
-
-        if (imageStream.contains(PdfName.SMASKINDATA)) {
-            image.put(PdfName.SMASKINDATA, imageStream.get(PdfName.SMASKINDATA));
-        }
-
-        imageStream.clear();
-        imageStream.putAll(image);
-        imageStream.setDataRaw(image.getBytes());
-    }
 }
@@ -9,6 +9,7 @@ class PdfCleanUpContext {
 
     private PdfDictionary resources;
     private PdfContentByte canvas;
+    private boolean contentChanged; // true if some content of the stream was removed or replaced
 
     private Stack<PdfCleanUpGraphicsState> graphicsStateStack = new Stack<PdfCleanUpGraphicsState>();
 
@@ -74,4 +75,12 @@ class PdfCleanUpContext {
     public void restoreGraphicsState() {
         graphicsStateStack.pop();
     }
+
+    public boolean isContentChanged() {
+        return contentChanged;
+    }
+
+    public void markContentChanged() {
+        contentChanged = true;
+    }
 }
\ No newline at end of file
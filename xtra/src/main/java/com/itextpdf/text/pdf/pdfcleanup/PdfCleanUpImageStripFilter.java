@@ -0,0 +1,291 @@
+package com.itextpdf.text.pdf.pdfcleanup;
+
+import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.pdf.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Clears image areas directly in the samples of an uncompressed or Flate compressed image. The image is
+ * decoded one row at a time and every row is compressed again as soon as the cleaned areas crossing it
+ * are filled, so neither the decoded image nor a raster of it is ever held in memory.
+ * Images which can't be processed this way (other filters, colour spaces or a Decode array) go through
+ * the raster path of {@link PdfCleanUpRenderListener}.
+ */
+class PdfCleanUpImageStripFilter {
+
+    private PRStream imageStream;
+    private boolean flate;
+    private boolean pngPredictor;
+
+    private int width;
+    private int height;
+    private int bitsPerComponent;
+    private int bytesPerPixel;
+    private int bytesPerRow;
+    private byte clearedSample; // the sample byte of the white color (or of an unpainted mask pixel)
+
+    private PdfCleanUpImageStripFilter(PRStream imageStream, boolean flate, boolean pngPredictor, int width, int height,
+                                       int components, int bitsPerComponent, byte clearedSample) {
+        this.imageStream = imageStream;
+        this.flate = flate;
+        this.pngPredictor = pngPredictor;
+        this.width = width;
+        this.height = height;
+        this.bitsPerComponent = bitsPerComponent;
+        this.bytesPerPixel = Math.max(1, components * bitsPerComponent / 8);
+        this.bytesPerRow = (components * width * bitsPerComponent + 7) / 8;
+        this.clearedSample = clearedSample;
+    }
+
+    /**
+     * @return the filter for the image, or null if its samples can't be cleaned row by row.
+     */
+    public static PdfCleanUpImageStripFilter create(PRStream imageStream) {
+        PdfNumber width = imageStream.getAsNumber(PdfName.WIDTH);
+        PdfNumber height = imageStream.getAsNumber(PdfName.HEIGHT);
+
+        if (width == null || height == null || width.intValue() <= 0 || height.intValue() <= 0 ||
+                imageStream.get(PdfName.DECODE) != null) {
+            return null;
+        }
+
+        PdfObject filter = PdfReader.getPdfObject(imageStream.get(PdfName.FILTER));
+
+        if (filter != null && filter.isArray()) {
+            filter = ((PdfArray) filter).size() == 1 ? ((PdfArray) filter).getDirectObject(0) : null;
+
+            if (filter == null) {
+                return null;
+            }
+        }
+
+        boolean flate = PdfName.FLATEDECODE.equals(filter) || PdfName.FL.equals(filter);
+
+        if (filter != null && !flate) {
+            return null;
+        }
+
+        int components;
+        int bitsPerComponent;
+        byte clearedSample;
+        PdfBoolean imageMask = imageStream.getAsBoolean(PdfName.IMAGEMASK);
+
+        if (imageMask != null && imageMask.booleanValue()) {
+            components = 1;
+            bitsPerComponent = 1;
+            clearedSample = (byte) 0xFF; // 1 leaves the page unpainted
+        } else {
+            PdfNumber bpc = imageStream.getAsNumber(PdfName.BITSPERCOMPONENT);
+            PdfObject colorSpace = PdfReader.getPdfObject(imageStream.get(PdfName.COLORSPACE));
+            bitsPerComponent = bpc == null ? 0 : bpc.intValue();
+
+            if (PdfName.DEVICEGRAY.equals(colorSpace) && (bitsPerComponent == 1 || bitsPerComponent == 8)) {
+                components = 1;
+                clearedSample = (byte) 0xFF;
+            } else if (PdfName.DEVICERGB.equals(colorSpace) && bitsPerComponent == 8) {
+                components = 3;
+                clearedSample = (byte) 0xFF;
+            } else if (PdfName.DEVICECMYK.equals(colorSpace) && bitsPerComponent == 8) {
+                components = 4;
+                clearedSample = 0;
+            } else {
+                return null;
+            }
+        }
+
+        boolean pngPredictor = false;
+        PdfObject decodeParms = PdfReader.getPdfObject(imageStream.get(PdfName.DECODEPARMS));
+
+        if (decodeParms != null && decodeParms.isArray()) {
+            decodeParms = ((PdfArray) decodeParms).size() == 1 ? ((PdfArray) decodeParms).getDirectObject(0) : null;
+        }
+
+        if (decodeParms != null && decodeParms.isDictionary() && flate) {
+            PdfDictionary parms = (PdfDictionary) decodeParms;
+            int predictor = getInt(parms, PdfName.PREDICTOR, 1);
+
+            if (predictor >= 10) {
+                if (getInt(parms, PdfName.COLORS, 1) != components ||
+                        getInt(parms, PdfName.BITSPERCOMPONENT, 8) != bitsPerComponent ||
+                        getInt(parms, PdfName.COLUMNS, 1) != width.intValue()) {
+                    return null;
+                }
+
+                pngPredictor = true;
+            } else if (predictor != 1) {
+                return null;
+            }
+        } else if (decodeParms != null && !decodeParms.isNull()) {
+            return null;
+        }
+
+        return new PdfCleanUpImageStripFilter(imageStream, flate, pngPredictor, width.intValue(), height.intValue(),
+                components, bitsPerComponent, clearedSample);
+    }
+
+    /**
+     * Clears the areas of the image and compresses the samples again.
+     *
+     * @param areasToBeCleaned the areas in the [0, 1]x[0, 1] image space, y varies from bottom to top
+     * @param compressionLevel the compression level of the new image data
+     * @return the Flate compressed samples, without a predictor, or null if the image data is shorter than its size
+     */
+    public byte[] cleanImage(List<Rectangle> areasToBeCleaned, int compressionLevel) throws IOException {
+        // x, y, width and height of every area in pixels, computed the same way as the raster path does
+        int[][] areas = new int[areasToBeCleaned.size()][];
+
+        for (int i = 0; i < areas.length; ++i) {
+            Rectangle rect = areasToBeCleaned.get(i);
+            int scaledBottomY = (int) Math.ceil(rect.getBottom() * height);
+            int scaledTopY = (int) Math.floor(rect.getTop() * height);
+            int x = (int) Math.ceil(rect.getLeft() * width);
+            areas[i] = new int[] {x, height - scaledTopY, (int) Math.floor(rect.getRight() * width) - x, scaledTopY - scaledBottomY};
+        }
+
+        byte[] rawData = PdfReader.getStreamBytesRaw(imageStream);
+        InputStream samples = new ByteArrayInputStream(rawData);
+
+        if (flate) {
+            samples = new InflaterInputStream(samples);
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream(rawData.length);
+        Deflater deflater = new Deflater(compressionLevel);
+        DeflaterOutputStream zip = new DeflaterOutputStream(output, deflater);
+        byte[] row = new byte[bytesPerRow];
+        byte[] prior = pngPredictor ? new byte[bytesPerRow] : null;
+        byte[] cleared = pngPredictor ? new byte[bytesPerRow] : row;
+
+        try {
+            for (int y = 0; y < height; ++y) {
+                if (pngPredictor) {
+                    int filterType = samples.read();
+
+                    if (filterType < 0 || !readFully(samples, row)) {
+                        return null;
+                    }
+
+                    unfilterRow(filterType, row, prior);
+
+                    // the next row is predicted from the original samples, so a copy of the row is cleared
+                    System.arraycopy(row, 0, cleared, 0, bytesPerRow);
+                    byte[] temp = prior;
+                    prior = row;
+                    row = temp;
+                } else if (!readFully(samples, row)) {
+                    return null;
+                }
+
+                clearRow(y, areas, cleared);
+                zip.write(cleared);
+            }
+
+            zip.finish();
+        } finally {
+            deflater.end();
+        }
+
+        return output.toByteArray();
+    }
+
+    private void clearRow(int y, int[][] areas, byte[] row) {
+        for (int[] area : areas) {
+            if (y < area[1] || y >= area[1] + area[3]) {
+                continue;
+            }
+
+            int start = Math.max(0, area[0]);
+            int end = Math.min(width, area[0] + area[2]);
+
+            if (bitsPerComponent == 1) {
+                for (int x = start; x < end; ++x) {
+                    if (clearedSample == 0) {
+                        row[x >> 3] &= ~(0x80 >> (x & 7));
+                    } else {
+                        row[x >> 3] |= 0x80 >> (x & 7);
+                    }
+                }
+            } else {
+                for (int i = start * bytesPerPixel; i < end * bytesPerPixel; ++i) {
+                    row[i] = clearedSample;
+                }
+            }
+        }
+    }
+
+    private void unfilterRow(int filterType, byte[] curr, byte[] prior) throws IOException {
+        switch (filterType) {
+            case 0: // None
+                break;
+            case 1: // Sub
+                for (int i = bytesPerPixel; i < bytesPerRow; ++i) {
+                    curr[i] += curr[i - bytesPerPixel];
+                }
+                break;
+            case 2: // Up
+                for (int i = 0; i < bytesPerRow; ++i) {
+                    curr[i] += prior[i];
+                }
+                break;
+            case 3: // Average
+                for (int i = 0; i < bytesPerPixel; ++i) {
+                    curr[i] += (prior[i] & 0xff) / 2;
+                }
+
+                for (int i = bytesPerPixel; i < bytesPerRow; ++i) {
+                    curr[i] += ((curr[i - bytesPerPixel] & 0xff) + (prior[i] & 0xff)) / 2;
+                }
+                break;
+            case 4: // Paeth
+                for (int i = 0; i < bytesPerPixel; ++i) {
+                    curr[i] += prior[i];
+                }
+
+                for (int i = bytesPerPixel; i < bytesPerRow; ++i) {
+                    int a = curr[i - bytesPerPixel] & 0xff;
+                    int b = prior[i] & 0xff;
+                    int c = prior[i - bytesPerPixel] & 0xff;
+
+                    int p = a + b - c;
+                    int pa = Math.abs(p - a);
+                    int pb = Math.abs(p - b);
+                    int pc = Math.abs(p - c);
+
+                    int predicted = pa <= pb && pa <= pc ? a : pb <= pc ? b : c;
+                    curr[i] += (byte) predicted;
+                }
+                break;
+            default:
+                throw new IOException("Unknown PNG filter type " + filterType);
+        }
+    }
+
+    private static boolean readFully(InputStream in, byte[] buffer) throws IOException {
+        int offset = 0;
+
+        while (offset < buffer.length) {
+            int read = in.read(buffer, offset, buffer.length - offset);
+
+            if (read < 0) {
+                return false;
+            }
+
+            offset += read;
+        }
+
+        return true;
+    }
+
+    private static int getInt(PdfDictionary dict, PdfName key, int defaultValue) {
+        PdfNumber number = dict.getAsNumber(key);
+        return number == null ? defaultValue : number.intValue();
+    }
+}
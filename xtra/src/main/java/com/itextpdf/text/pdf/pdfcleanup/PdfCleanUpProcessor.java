@@ -9,6 +9,10 @@ import com.itextpdf.text.pdf.parser.PdfContentStreamProcessor;
 import java.io.IOException;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 public class PdfCleanUpProcessor {
 
@@ -25,6 +29,9 @@ public class PdfCleanUpProcessor {
     private Map<Integer, Set<String>> redactAnnotIndirRefs; // key - number of page containing redact annotations
     private Map<Integer, List<Rectangle>> clippingRects; // stores list of rectangles for annotation identified by it's index in Annots array
 
+    private ExecutorService executor;
+    int reprocessedPageCount; // pages processed again after a conflicting stream update, checked by the tests
+
     /**
      * Create clean up processor.
      *
@@ -48,9 +55,27 @@ public class PdfCleanUpProcessor {
         extractLocationsFromRedactAnnots();
     }
 
+    /**
+     * Sets the executor used to clean up the pages concurrently. The content of the pages having clean up
+     * locations is filtered and their images are cleared in parallel, then the results are applied to
+     * the stamper in page order. A page changing a form XObject or an image which has already been changed
+     * by a previous page is processed again after that page, so the result is the same as the sequential one.
+     * The pages are processed one by one if no executor is set or if the reader was opened in partial mode.
+     *
+     * @param executor the executor the pages are processed with, or null to process them sequentially
+     * @since 5.5.6
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
     public void cleanUp() throws IOException, DocumentException {
-        for (Map.Entry<Integer, List<PdfCleanUpLocation>> entry : pdfCleanUpLocations.entrySet()) {
-            cleanUpPage(entry.getKey(), entry.getValue());
+        if (executor != null && !pdfStamper.getReader().isPartial()) {
+            cleanUpPagesConcurrently();
+        } else {
+            for (Map.Entry<Integer, List<PdfCleanUpLocation>> entry : pdfCleanUpLocations.entrySet()) {
+                cleanUpPage(entry.getKey(), entry.getValue());
+            }
         }
 
         pdfStamper.getReader().removeUnusedObjects();
@@ -61,29 +86,75 @@ public class PdfCleanUpProcessor {
             return;
         }
 
-        PdfReader pdfReader = pdfStamper.getReader();
-        PdfDictionary page = pdfReader.getPageN(pageNum);
-        PdfContentByte canvas = pdfStamper.getUnderContent(pageNum);
-        byte[] pageContentInput = ContentByteUtils.getContentBytesForPage(pdfReader, pageNum);
-        page.remove(PdfName.CONTENTS);
+        PageCleanUp pageCleanUp = new PageCleanUp(pageNum, cleanUpLocations, null, false);
+        pageCleanUp.process();
+        finishPage(pageCleanUp);
+    }
 
-        canvas.saveState();
+    private void cleanUpPagesConcurrently() throws IOException, DocumentException {
+        List<PageCleanUp> pages = new ArrayList<PageCleanUp>();
+        List<Future<Object>> futures = new ArrayList<Future<Object>>();
 
-        List<PdfCleanUpRegionFilter> filters = createFilters(cleanUpLocations);
-        PdfCleanUpRenderListener pdfCleanUpRenderListener = new PdfCleanUpRenderListener(pdfStamper, filters);
-        pdfCleanUpRenderListener.registerNewContext(pdfReader.getPageResources(page), canvas);
+        // the stamper canvases are created on this thread, each task only writes to the canvas of its page
+        for (Map.Entry<Integer, List<PdfCleanUpLocation>> entry : new TreeMap<Integer, List<PdfCleanUpLocation>>(pdfCleanUpLocations).entrySet()) {
+            if (entry.getValue().size() != 0) {
+                pages.add(new PageCleanUp(entry.getKey(), entry.getValue(), null, true));
+            }
+        }
 
-        PdfContentStreamProcessor contentProcessor = new PdfContentStreamProcessor(pdfCleanUpRenderListener);
-        PdfCleanUpContentOperator.populateOperators(contentProcessor, pdfCleanUpRenderListener);
-        contentProcessor.processContent(pageContentInput, page.getAsDict(PdfName.RESOURCES));
-        pdfCleanUpRenderListener.popContext();
+        for (PageCleanUp page : pages) {
+            futures.add(executor.submit(page));
+        }
 
-        canvas.restoreState();
+        try {
+            for (Future<Object> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            cancel(futures);
+            Thread.currentThread().interrupt();
+            throw new ExceptionConverter(e);
+        } catch (ExecutionException e) {
+            cancel(futures);
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new ExceptionConverter((Exception) cause);
+        }
 
-        colorCleanedLocations(canvas, cleanUpLocations);
+        Set<PRStream> updatedStreams = new HashSet<PRStream>();
+
+        for (PageCleanUp page : pages) {
+            if (page.listener.hasConflictingStreamUpdates(updatedStreams)) {
+                ++reprocessedPageCount;
+                page.canvas.getInternalBuffer().setSize(page.contentMark);
+                page = new PageCleanUp(page.pageNum, page.cleanUpLocations, page.pageContentInput, false);
+                page.process();
+            } else {
+                page.listener.applyStreamUpdates();
+            }
+
+            updatedStreams.addAll(page.listener.getUpdatedStreams());
+            finishPage(page);
+        }
+    }
+
+    private void cancel(List<Future<Object>> futures) {
+        for (Future<Object> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    private void finishPage(PageCleanUp pageCleanUp) throws IOException, DocumentException {
+        pageCleanUp.page.remove(PdfName.CONTENTS);
+        colorCleanedLocations(pageCleanUp.canvas, pageCleanUp.cleanUpLocations);
 
         if (redactAnnotIndirRefs != null) { // if it isn't null, then we are in "extract locations from redact annots" mode
-            deleteRedactAnnots(pageNum);
+            deleteRedactAnnots(pageCleanUp.pageNum);
         }
     }
 
@@ -469,4 +540,53 @@ public class PdfCleanUpProcessor {
 
         }
     }
+
+    /**
+     * Filters the content of a page into its under content. The stamper objects are retrieved on
+     * the constructing thread, {@link #process()} may be called on any thread if the stream updates are deferred.
+     */
+    private class PageCleanUp implements Callable<Object> {
+
+        final int pageNum;
+        final List<PdfCleanUpLocation> cleanUpLocations;
+        final PdfDictionary page;
+        final PdfDictionary resources;
+        final PdfContentByte canvas;
+        final int contentMark; // size of the canvas before the page content is written
+        final PdfCleanUpRenderListener listener;
+        byte[] pageContentInput;
+
+        PageCleanUp(int pageNum, List<PdfCleanUpLocation> cleanUpLocations, byte[] pageContentInput, boolean deferStreamUpdates) {
+            PdfReader pdfReader = pdfStamper.getReader();
+            this.pageNum = pageNum;
+            this.cleanUpLocations = cleanUpLocations;
+            this.page = pdfReader.getPageN(pageNum);
+            this.resources = pdfReader.getPageResources(page);
+            this.canvas = pdfStamper.getUnderContent(pageNum);
+            this.contentMark = canvas.getInternalBuffer().size();
+            this.listener = new PdfCleanUpRenderListener(pdfStamper, createFilters(cleanUpLocations), deferStreamUpdates);
+            this.pageContentInput = pageContentInput;
+        }
+
+        void process() throws IOException {
+            if (pageContentInput == null) {
+                pageContentInput = ContentByteUtils.getContentBytesForPage(pdfStamper.getReader(), pageNum);
+            }
+
+            canvas.saveState();
+            listener.registerNewContext(resources, canvas);
+
+            PdfContentStreamProcessor contentProcessor = new PdfContentStreamProcessor(listener);
+            PdfCleanUpContentOperator.populateOperators(contentProcessor, listener);
+            contentProcessor.processContent(pageContentInput, page.getAsDict(PdfName.RESOURCES));
+            listener.popContext();
+
+            canvas.restoreState();
+        }
+
+        public Object call() throws IOException {
+            process();
+            return null;
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.itextpdf.text.pdf.pdfcleanup;
 
+import com.itextpdf.text.BadElementException;
 import com.itextpdf.text.Image;
 import com.itextpdf.text.Rectangle;
 import com.itextpdf.text.pdf.*;
@@ -33,9 +34,25 @@ class PdfCleanUpRenderListener implements RenderListener {
     private Stack<PdfCleanUpContext> contextStack = new Stack<PdfCleanUpContext>();
     private int strNumber = 1; // Represents number of string under processing. Needed for processing TJ operator.
 
+    // Streams shared by the pages (form XObjects and images) are not changed while the pages are processed
+    // concurrently, the new data is kept here until the results are applied in page order.
+    private boolean deferStreamUpdates;
+    private Map<PRStream, byte[]> pendingFormUpdates = new LinkedHashMap<PRStream, byte[]>();
+    // the form XObjects whose content was only written again, they only conflict with the pages changing them
+    private Map<PRStream, byte[]> pendingFormRewrites = new LinkedHashMap<PRStream, byte[]>();
+    private Map<PRStream, byte[]> pendingImageUpdates = new LinkedHashMap<PRStream, byte[]>();
+    private Map<PRStream, byte[]> pendingSampleUpdates = new LinkedHashMap<PRStream, byte[]>();
+    private Set<PRStream> updatedStreams = new HashSet<PRStream>();
+    private boolean streamUpdatedTwice;
+
     public PdfCleanUpRenderListener(PdfStamper pdfStamper, List<PdfCleanUpRegionFilter> filters) {
+        this(pdfStamper, filters, false);
+    }
+
+    public PdfCleanUpRenderListener(PdfStamper pdfStamper, List<PdfCleanUpRegionFilter> filters, boolean deferStreamUpdates) {
         this.pdfStamper = pdfStamper;
         this.filters = filters;
+        this.deferStreamUpdates = deferStreamUpdates;
     }
 
     public void renderText(TextRenderInfo renderInfo) {
@@ -56,9 +73,13 @@ class PdfCleanUpRenderListener implements RenderListener {
     public void renderImage(ImageRenderInfo renderInfo) {
         List<Rectangle> areasToBeCleaned = getImageAreasToBeCleaned(renderInfo);
 
+        if (renderInfo.getRef() == null && (areasToBeCleaned == null || !areasToBeCleaned.isEmpty())) {
+            getContext().markContentChanged(); // the inline image is removed or replaced
+        }
+
         if (areasToBeCleaned == null) {
             chunks.add(new PdfCleanUpContentChunk(false, null));
-        } else {
+        } else if (!cleanImageSamples(renderInfo, areasToBeCleaned)) {
             try {
                 PdfImageObject pdfImage = renderInfo.getImage();
                 byte[] imageBytes = processImage(pdfImage.getImageAsBytes(), areasToBeCleaned);
@@ -77,7 +98,10 @@ class PdfCleanUpRenderListener implements RenderListener {
                     }
 
                     PdfContentByte canvas = getContext().getCanvas();
-                    canvas.addImage(image, 1, 0, 0, 1, 0, 0, true);
+
+                    synchronized (pdfStamper.getWriter()) { // may add the color space to the body
+                        canvas.addImage(image, 1, 0, 0, 1, 0, 0, true);
+                    }
                 } else if (pdfImage != null && imageBytes != pdfImage.getImageAsBytes()) {
                     chunks.add(new PdfCleanUpContentChunk(true, imageBytes));
                 }
@@ -87,6 +111,47 @@ class PdfCleanUpRenderListener implements RenderListener {
         }
     }
 
+    /**
+     * Clears the areas of an image XObject row by row in its samples if it has a suitable format.
+     * An image XObject without areas to be cleaned isn't decoded at all.
+     *
+     * @return true if the image has been processed, false if the raster path should be used
+     */
+    private boolean cleanImageSamples(ImageRenderInfo renderInfo, List<Rectangle> areasToBeCleaned) {
+        if (renderInfo.getRef() == null) {
+            return false;
+        }
+
+        if (areasToBeCleaned.isEmpty()) {
+            return true;
+        }
+
+        PdfObject imageObject = PdfReader.getPdfObject(renderInfo.getRef());
+
+        if (!(imageObject instanceof PRStream)) {
+            return false;
+        }
+
+        PdfCleanUpImageStripFilter stripFilter = PdfCleanUpImageStripFilter.create((PRStream) imageObject);
+
+        if (stripFilter == null) {
+            return false;
+        }
+
+        try {
+            byte[] flateSamples = stripFilter.cleanImage(areasToBeCleaned, pdfStamper.getWriter().getCompressionLevel());
+
+            if (flateSamples == null) {
+                return false;
+            }
+
+            chunks.add(new PdfCleanUpContentChunk(true, flateSamples, true));
+            return true;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public void beginTextBlock() {
     }
 
@@ -115,6 +180,120 @@ class PdfCleanUpRenderListener implements RenderListener {
         strNumber = 1;
     }
 
+    public void updateFormXObject(PRStream formStream, byte[] content) {
+        updateFormXObject(formStream, content, true);
+    }
+
+    /**
+     * @param contentChanged false if the content of the form XObject is only written again,
+     * without anything removed. Such a form doesn't count as updated when the pages are processed concurrently,
+     * a form drawn on many pages and cleaned on none of them doesn't make the pages conflict.
+     */
+    public void updateFormXObject(PRStream formStream, byte[] content, boolean contentChanged) {
+        if (!contentChanged) {
+            if (!deferStreamUpdates) {
+                formStream.setData(content);
+            } else if (updatedStreams.contains(formStream)) {
+                streamUpdatedTwice = true; // written again from the changed content when processed sequentially
+            } else {
+                pendingFormRewrites.put(formStream, content);
+            }
+
+            return;
+        }
+
+        if (deferStreamUpdates) {
+            streamUpdatedTwice |= updatedStreams.contains(formStream);
+            pendingFormUpdates.put(formStream, content);
+            pendingFormRewrites.remove(formStream);
+        } else {
+            formStream.setData(content);
+        }
+
+        updatedStreams.add(formStream);
+    }
+
+    public void updateImage(PRStream imageStream, byte[] newData) throws BadElementException, IOException, BadPdfFormatException {
+        if (deferStreamUpdates) {
+            streamUpdatedTwice |= updatedStreams.contains(imageStream);
+            pendingImageUpdates.put(imageStream, newData);
+        } else {
+            replaceImage(imageStream, newData);
+        }
+
+        updatedStreams.add(imageStream);
+    }
+
+    /**
+     * @param flateSamples the cleaned samples of the image, Flate compressed without a predictor
+     */
+    public void updateImageSamples(PRStream imageStream, byte[] flateSamples) {
+        if (deferStreamUpdates) {
+            streamUpdatedTwice |= updatedStreams.contains(imageStream);
+            pendingSampleUpdates.put(imageStream, flateSamples);
+        } else {
+            replaceImageSamples(imageStream, flateSamples);
+        }
+
+        updatedStreams.add(imageStream);
+    }
+
+    /**
+     * @return the form XObjects and images changed while processing the page, either in place
+     * or pending if the stream updates are deferred.
+     */
+    public Set<PRStream> getUpdatedStreams() {
+        return updatedStreams;
+    }
+
+    /**
+     * @param streamsUpdatedBefore the streams changed by the pages applied before this one
+     * @return true if the deferred updates can't be applied, because the page would have seen a changed stream
+     * while being processed sequentially. The page must be processed again then.
+     */
+    public boolean hasConflictingStreamUpdates(Set<PRStream> streamsUpdatedBefore) {
+        if (streamUpdatedTwice) {
+            return true;
+        }
+
+        for (PRStream stream : updatedStreams) {
+            if (streamsUpdatedBefore.contains(stream)) {
+                return true;
+            }
+        }
+
+        for (PRStream stream : pendingFormRewrites.keySet()) {
+            if (streamsUpdatedBefore.contains(stream)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public void applyStreamUpdates() throws BadElementException, IOException, BadPdfFormatException {
+        for (Map.Entry<PRStream, byte[]> entry : pendingFormRewrites.entrySet()) {
+            entry.getKey().setData(entry.getValue());
+        }
+
+        for (Map.Entry<PRStream, byte[]> entry : pendingFormUpdates.entrySet()) {
+            entry.getKey().setData(entry.getValue());
+        }
+
+        for (Map.Entry<PRStream, byte[]> entry : pendingImageUpdates.entrySet()) {
+            replaceImage(entry.getKey(), entry.getValue());
+        }
+
+        for (Map.Entry<PRStream, byte[]> entry : pendingSampleUpdates.entrySet()) {
+            replaceImageSamples(entry.getKey(), entry.getValue());
+        }
+
+        pendingFormRewrites.clear();
+        pendingFormUpdates.clear();
+        pendingImageUpdates.clear();
+        pendingSampleUpdates.clear();
+    }
+
     private boolean textIsInsideRegion(TextRenderInfo renderInfo) {
         for (PdfCleanUpRegionFilter filter : filters) {
             if (filter.allowText(renderInfo)) {
@@ -219,6 +398,32 @@ class PdfCleanUpRenderListener implements RenderListener {
         }
     }
 
+    private void replaceImage(PRStream imageStream, byte[] newData) throws BadElementException, IOException, BadPdfFormatException {
+        PdfImage image = new PdfImage(Image.getInstance(newData), "", null);
+
+        if (imageStream.contains(PdfName.SMASK)) {
+            image.put(PdfName.SMASK, imageStream.get(PdfName.SMASK));
+        }
+
+        if (imageStream.contains(PdfName.MASK)) {
+            image.put(PdfName.MASK, imageStream.get(PdfName.MASK));
+        }
+
+        if (imageStream.contains(PdfName.SMASKINDATA)) {
+            image.put(PdfName.SMASKINDATA, imageStream.get(PdfName.SMASKINDATA));
+        }
+
+        imageStream.clear();
+        imageStream.putAll(image);
+        imageStream.setDataRaw(image.getBytes());
+    }
+
+    private void replaceImageSamples(PRStream imageStream, byte[] flateSamples) {
+        imageStream.setDataRaw(flateSamples);
+        imageStream.put(PdfName.FILTER, PdfName.FLATEDECODE);
+        imageStream.remove(PdfName.DECODEPARMS);
+    }
+
     private void closeOutputStream(OutputStream os) {
         if (os != null) {
             try {
@@ -0,0 +1,73 @@
+package com.itextpdf.text.pdf.pdfcleanup;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Image;
+import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.pdf.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+public class PdfCleanUpImageStripFilterTest {
+
+    @Test
+    public void pngPredictorImageTest() throws IOException, DocumentException {
+        BufferedImage awtImage = new BufferedImage(40, 20, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = awtImage.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, 40, 20);
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(10, 5, 20, 10);
+        graphics.dispose();
+
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(awtImage, "png", png);
+        PRStream imageStream = addImage(Image.getInstance(png.toByteArray()));
+
+        Assert.assertNotNull(imageStream.get(PdfName.DECODEPARMS));
+        PdfCleanUpImageStripFilter stripFilter = PdfCleanUpImageStripFilter.create(imageStream);
+        Assert.assertNotNull(stripFilter);
+
+        // the right half of the image
+        byte[] flateSamples = stripFilter.cleanImage(Arrays.asList(new Rectangle(0.5f, 0, 1, 1)), PdfStream.DEFAULT_COMPRESSION);
+        byte[] samples = PdfReader.FlateDecode(flateSamples);
+        Assert.assertEquals(40 * 20 * 3, samples.length);
+
+        for (int y = 0; y < 20; ++y) {
+            for (int x = 0; x < 40; ++x) {
+                int rgb = awtImage.getRGB(x, y) & 0xFFFFFF;
+                int expected = x >= 20 ? 0xFFFFFF : rgb;
+                int i = (y * 40 + x) * 3;
+                int actual = ((samples[i] & 0xFF) << 16) | ((samples[i + 1] & 0xFF) << 8) | (samples[i + 2] & 0xFF);
+                Assert.assertEquals("pixel " + x + ", " + y, expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void unsupportedImageTest() throws IOException, DocumentException {
+        // 4 bits per component
+        Image image = Image.getInstance(8, 8, 1, 4, new byte[8 * 8 / 2]);
+        Assert.assertNull(PdfCleanUpImageStripFilter.create(addImage(image)));
+    }
+
+    private PRStream addImage(Image image) throws IOException, DocumentException {
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter.getInstance(document, pdf);
+        document.open();
+        document.add(image);
+        document.close();
+
+        PdfReader reader = new PdfReader(pdf.toByteArray());
+        PdfDictionary xObjects = reader.getPageResources(1).getAsDict(PdfName.XOBJECT);
+        return (PRStream) xObjects.getAsStream(xObjects.getKeys().iterator().next());
+    }
+}
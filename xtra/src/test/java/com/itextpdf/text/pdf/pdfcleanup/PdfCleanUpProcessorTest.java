@@ -17,6 +17,8 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @RunWith(Parameterized.class)
 public class PdfCleanUpProcessorTest {
@@ -71,7 +73,25 @@ public class PdfCleanUpProcessorTest {
 
     }
 
+    @Test
+    public void cleanUpConcurrently() throws IOException, DocumentException, InterruptedException {
+        String concurrentOutput = OUTPUT_PATH + "concurrent_" + new File(output).getName();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            cleanUp(input, concurrentOutput, cleanUpLocations, executor);
+        } finally {
+            executor.shutdown();
+        }
+
+        compareByContent(cmp, concurrentOutput, OUTPUT_PATH, "diff_concurrent");
+    }
+
     private void cleanUp(String input, String output, List<PdfCleanUpLocation> cleanUpLocations) throws IOException, DocumentException {
+        cleanUp(input, output, cleanUpLocations, null);
+    }
+
+    private void cleanUp(String input, String output, List<PdfCleanUpLocation> cleanUpLocations, ExecutorService executor) throws IOException, DocumentException {
         File outDir = new File(OUTPUT_PATH);
 
         if (!outDir.exists()) {
@@ -83,6 +103,7 @@ public class PdfCleanUpProcessorTest {
         PdfStamper stamper = new PdfStamper(reader, fos);
 
         PdfCleanUpProcessor cleaner = (cleanUpLocations == null)? new PdfCleanUpProcessor(stamper) : new PdfCleanUpProcessor(cleanUpLocations, stamper);
+        cleaner.setExecutor(executor);
         cleaner.cleanUp();
 
         stamper.close();
@@ -0,0 +1,113 @@
+package com.itextpdf.text.pdf.pdfcleanup;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.pdf.BaseFont;
+import com.itextpdf.text.pdf.PdfContentByte;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.PdfStamper;
+import com.itextpdf.text.pdf.PdfTemplate;
+import com.itextpdf.text.pdf.PdfWriter;
+import com.itextpdf.text.pdf.parser.PdfTextExtractor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class PdfCleanUpSharedFormTest {
+
+    private static final int PAGES = 3;
+
+    @Test
+    public void unchangedSharedFormTest() throws IOException, DocumentException {
+        // the letterhead form is drawn on every page but nothing in it is cleaned
+        List<PdfCleanUpLocation> locations = new ArrayList<PdfCleanUpLocation>();
+
+        for (int page = 1; page <= PAGES; ++page) {
+            locations.add(new PdfCleanUpLocation(page, new Rectangle(30, 690, 150, 715)));
+        }
+
+        PdfReader reader = cleanUp(locations, 0);
+
+        for (int page = 1; page <= PAGES; ++page) {
+            String text = PdfTextExtractor.getTextFromPage(reader, page);
+            Assert.assertTrue(text.contains("Letterhead"));
+            Assert.assertFalse(text.contains("Secret"));
+        }
+
+        reader.close();
+    }
+
+    @Test
+    public void changedSharedFormTest() throws IOException, DocumentException {
+        // the letterhead is cleaned on the first two pages, the next pages have to see the form cleaned by the first
+        List<PdfCleanUpLocation> locations = new ArrayList<PdfCleanUpLocation>();
+        locations.add(new PdfCleanUpLocation(1, new Rectangle(30, 795, 200, 815)));
+        locations.add(new PdfCleanUpLocation(2, new Rectangle(30, 795, 200, 815)));
+        locations.add(new PdfCleanUpLocation(3, new Rectangle(30, 690, 150, 715)));
+
+        PdfReader reader = cleanUp(locations, 2);
+
+        for (int page = 1; page <= PAGES; ++page) {
+            String text = PdfTextExtractor.getTextFromPage(reader, page);
+            Assert.assertFalse(text.contains("Letterhead"));
+            Assert.assertEquals(page != 3, text.contains("Secret"));
+        }
+
+        reader.close();
+    }
+
+    private PdfReader cleanUp(List<PdfCleanUpLocation> locations, int expectedReprocessedPages) throws IOException, DocumentException {
+        PdfReader reader = new PdfReader(createPdf());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PdfStamper stamper = new PdfStamper(reader, output);
+        PdfCleanUpProcessor cleaner = new PdfCleanUpProcessor(locations, stamper);
+        ExecutorService executor = Executors.newFixedThreadPool(PAGES);
+
+        try {
+            cleaner.setExecutor(executor);
+            cleaner.cleanUp();
+        } finally {
+            executor.shutdown();
+        }
+
+        stamper.close();
+        reader.close();
+        Assert.assertEquals(expectedReprocessedPages, cleaner.reprocessedPageCount);
+        return new PdfReader(output.toByteArray());
+    }
+
+    private static byte[] createPdf() throws IOException, DocumentException {
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, pdf);
+        document.open();
+        BaseFont font = BaseFont.createFont();
+        PdfContentByte canvas = writer.getDirectContent();
+        PdfTemplate letterhead = canvas.createTemplate(200, 30);
+        letterhead.beginText();
+        letterhead.setFontAndSize(font, 12);
+        letterhead.setTextMatrix(0, 10);
+        letterhead.showText("Letterhead");
+        letterhead.endText();
+
+        for (int page = 1; page <= PAGES; ++page) {
+            canvas.addTemplate(letterhead, 36, 790);
+            canvas.beginText();
+            canvas.setFontAndSize(font, 12);
+            canvas.setTextMatrix(36, 700);
+            canvas.showText("Secret " + page);
+            canvas.endText();
+            document.newPage();
+        }
+
+        document.close();
+        return pdf.toByteArray();
+    }
+}